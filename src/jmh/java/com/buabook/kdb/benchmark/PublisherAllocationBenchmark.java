@@ -0,0 +1,70 @@
+package com.buabook.kdb.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.buabook.kdb.publisher.KdbPublisher;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+/**
+ * <h3>Publisher Allocation Benchmark</h3>
+ * <p>Publishes the same table repeatedly with {@link KdbPublisher#publish(String, Flip)} to a loopback kdb process that
+ * discards each message. Run with the GC profiler (<code>-prof gc</code>) to report the bytes allocated per publish
+ * (<code>gc.alloc.rate.norm</code>), which should be zero once warmed up.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublisherAllocationBenchmark {
+	
+	private FakeKdbProcess server;
+	
+	private KdbPublisher publisher;
+	
+	private Flip table;
+	
+	
+	@Setup
+	public void setUp() throws Exception {
+		server = new FakeKdbProcess((connection, message) -> {});
+		publisher = new KdbPublisher(server.getProcess());
+		
+		String[] keys = { "sym", "price", "size" };
+		Object[] cols = { new String[] { "VOD.L", "BARC.L" }, new double[] { 1.0, 1.1 }, new long[] { 100, 200 } };
+		
+		table = new Flip(new Dict(keys, cols));
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		publisher.disconnect();
+		server.close();
+	}
+	
+	@Benchmark
+	public boolean publish() {
+		return publisher.publish("trade", table);
+	}
+}
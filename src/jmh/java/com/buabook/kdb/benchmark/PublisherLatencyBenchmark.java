@@ -0,0 +1,105 @@
+package com.buabook.kdb.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.interfaces.IKdbPublishWaitStrategy;
+import com.buabook.kdb.publisher.KdbPublisherThread;
+import com.buabook.kdb.publisher.wait.BlockingWaitStrategy;
+import com.buabook.kdb.publisher.wait.BusySpinWaitStrategy;
+import com.buabook.kdb.publisher.wait.SleepingWaitStrategy;
+import com.buabook.kdb.publisher.wait.YieldingWaitStrategy;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+/**
+ * <h3>Publisher Thread Enqueue-to-Wire Latency Benchmark</h3>
+ * <p>Measures the time from queueing a single table on an idle {@link KdbPublisherThread} until the <code>.u.upd</code>
+ * message has been received by a loopback kdb process, for each {@link IKdbPublishWaitStrategy}. Sampled, so the
+ * percentiles are reported as well as the mean.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublisherLatencyBenchmark {
+	
+	public enum EWaitStrategy {
+		SLEEPING,
+		BLOCKING,
+		YIELDING,
+		BUSY_SPIN;
+		
+		public IKdbPublishWaitStrategy create() {
+			switch(this) {
+				case SLEEPING:
+					return new SleepingWaitStrategy(1);
+				case BLOCKING:
+					return new BlockingWaitStrategy();
+				case YIELDING:
+					return new YieldingWaitStrategy();
+				default:
+					return new BusySpinWaitStrategy();
+			}
+		}
+	}
+	
+	
+	@Param
+	public EWaitStrategy waitStrategy;
+	
+	private FakeKdbProcess server;
+	
+	/** Signalled by the fake kdb process as each message is received */
+	private BlockingQueue<Boolean> received;
+	
+	private KdbPublisherThread publisher;
+	
+	private KdbTable table;
+	
+	
+	@Setup
+	public void setUp() throws Exception {
+		received = new ArrayBlockingQueue<>(1);
+		server = new FakeKdbProcess((connection, message) -> received.put(true));
+		
+		publisher = new KdbPublisherThread(server.getProcess(), waitStrategy.create());
+		table = new KdbTable("trade", new Flip(new Dict(new String[] { "sym", "price" }, new Object[] { new String[] { "VOD.L" }, new double[] { 1.0 } })));
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		publisher.disconnect();
+		server.close();
+	}
+	
+	@Benchmark
+	public Boolean enqueueToWire() throws InterruptedException {
+		publisher.publish(table);
+		return received.take();
+	}
+}
@@ -0,0 +1,82 @@
+package com.buabook.kdb.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kx.c;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+/**
+ * <h3>Message Serialisation Benchmark</h3>
+ * <p>Measures the time to encode a <code>.u.upd</code> message for a trade table with {@link c#serialize(int, Object, boolean)},
+ * which writes the message in a single pass into the reused send buffer, against sizing the same message with
+ * {@link c#nx(Object)} (the pass that was previously made before every write).</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializeBenchmark {
+	
+	private static final String[] SYMBOLS = { "VOD.L", "BARC.L", "HSBA.L", "LLOY.L" };
+	
+	
+	@Param({ "1", "100", "10000" })
+	public int rows;
+	
+	private c encoder;
+	
+	private Object[] update;
+	
+	
+	@Setup
+	public void setUp() {
+		encoder = c.codec();
+		update = new Object[] { ".u.upd".toCharArray(), "trade", getTable(rows) };
+	}
+	
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return encoder.serialize(0, update, false);
+	}
+	
+	@Benchmark
+	public int sizeMessage() throws IOException {
+		return encoder.nx(update);
+	}
+	
+	
+	private static Flip getTable(int rows) {
+		String[] sym = new String[rows];
+		double[] price = new double[rows];
+		long[] size = new long[rows];
+		
+		for(int i = 0; i < rows; i++) {
+			sym[i] = SYMBOLS[i % SYMBOLS.length];
+			price[i] = 100 + i * 0.01;
+			size[i] = 100 * (i + 1);
+		}
+		
+		return new Flip(new Dict(new String[] { "sym", "price", "size" }, new Object[] { sym, price, size }));
+	}
+}
@@ -1,35 +1,39 @@
 package com.buabook.kdb;
 
+import java.lang.reflect.Array;
+
 import com.buabook.kdb.data.KdbTable;
 import com.kx.c.Flip;
+import com.kx.c.LazyFlip;
 
 /**
  * <h3>{@link Flip} and {@link KdbTable} Helpers</h3>
- * (c) 2014 - 2015 Sport Trades Ltd
+ * (c) 2014 - 2026 Sport Trades Ltd
  *
  * @author Jas Rajasansir
- * @version 1.0.2
+ * @version 1.0.4
  * @since 15 Apr 2014
  */
 public final class Flips {
 	
 	/**
-	 * Returns the row count of the specified table
+	 * Returns the row count of the specified table. The row count of a {@link LazyFlip} is read without decoding any column
 	 * @param table The table to count the number of rows
 	 * @return The row count
-	 * @see Flips#getColumn(Flip, Integer)
 	 */
 	public static int getRowCount(Flip table) {
-		Object[] firstCol = getColumn(table, 0);
-		
-		if(firstCol == null)
+		if(table == null || table.y == null || table.y.length == 0)
 			return 0;
 		
-		return firstCol.length;
+		if(table instanceof LazyFlip)
+			return ((LazyFlip) table).n(0);
+		
+		return Array.getLength(table.y[0]);
 	}
 	
 	/**
-	 * Returns the specified column from the data. This column value is indexed from 0
+	 * Returns the specified column from the data. This column value is indexed from 0. Typed primitive columns (e.g. <code>long[]</code>)
+	 * are converted to object arrays
 	 * @param table The table to get the column from
 	 * @param column The index of the column to return
 	 * @return The column
@@ -41,7 +45,7 @@ public final class Flips {
 		if(table.y == null)
 			return null;
 		
-		return (Object[]) table.y[column];
+		return Converters.arrayToObjectArray(table.y[column]);
 	}
 	
 	/** @return <code>true</code> if the specified table is <code>null</code> or has no data in it; <code>false</code> otherwise */
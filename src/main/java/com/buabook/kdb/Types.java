@@ -16,10 +16,10 @@ import com.kx.c.Timespan;
 
 /**
  * <h3>Java &lt;-&gt; kdb Type Conversions</h3>
- * (c) 2017 Sport Trades Ltd
+ * (c) 2017 - 2026 Sport Trades Ltd
  * 
  * @author Jas Rajasansir
- * @version 1.0.0
+ * @version 1.1.0
  * @since 21 Feb 2017
  */
 public final class Types {
@@ -59,6 +59,28 @@ public final class Types {
 																								.put(char[].class,			new char[0])		// kdb String's are character arrays
 																								.build();
 	
+	/** Java class to kdb typed vector element type mapping. Boxed types map to the primitive vector type */
+	private static final Map<Class<?>, Class<?>> KDB_VECTOR_TYPES = ImmutableMap.<Class<?>, Class<?>>builder()
+																								.put(Boolean.class,			boolean.class)
+																								.put(Byte.class,			byte.class)
+																								.put(Short.class,			short.class)
+																								.put(Integer.class,			int.class)
+																								.put(Long.class,			long.class)
+																								.put(Float.class,			float.class)
+																								.put(Double.class,			double.class)
+																								.put(Character.class,		char.class)
+																								.put(UUID.class,			UUID.class)
+																								.put(String.class,			String.class)
+																								.put(Timestamp.class,		Timestamp.class)
+																								.put(Month.class,			Month.class)
+																								.put(java.sql.Date.class,	java.sql.Date.class)
+																								.put(java.util.Date.class,	java.util.Date.class)
+																								.put(Timespan.class,		Timespan.class)
+																								.put(Minute.class,			Minute.class)
+																								.put(Second.class,			Second.class)
+																								.put(Time.class,			Time.class)
+																								.build();
+	
 	
 	
 	/** @return The primitive array types as a list */
@@ -74,4 +96,12 @@ public final class Types {
 	public static Object getKdbNullFor(Class<?> javaType) {
 		return KDB_NULL_TYPES.get(javaType);
 	}
+	
+	/**
+	 * @return The array element type that {@link c} serialises as a typed kdb vector for elements of the specified Java type 
+	 * (e.g. <code>long.class</code> for {@link Long}), or <code>null</code> if the type can only be sent in a general list
+	 */
+	public static Class<?> getKdbVectorTypeFor(Class<?> javaType) {
+		return KDB_VECTOR_TYPES.get(javaType);
+	}
 }
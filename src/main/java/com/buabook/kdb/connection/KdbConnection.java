@@ -2,11 +2,16 @@ package com.buabook.kdb.connection;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.net.SocketException;
+
+import org.joda.time.Duration;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.buabook.kdb.connection.KdbProcess.ETransport;
 import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.kx.NioC;
 import com.kx.c;
 import com.kx.c.KException;
 
@@ -16,10 +21,10 @@ import com.kx.c.KException;
  * of the default {@link c} class.</p>
  * <p>NOTE: By default this class exposes no send / receive functionality. This
  * is left up to extension classes to provide these features.</p>
- * (c) 2014 - 2015 Sport Trades Ltd
+ * (c) 2014 - 2026 Sport Trades Ltd
  *
  * @author Jas Rajasansir
- * @version 1.0.1
+ * @version 1.3.0
  * @since 27 Apr 2014
  */
 public class KdbConnection implements AutoCloseable {
@@ -38,6 +43,15 @@ public class KdbConnection implements AutoCloseable {
 	
 	/** The current active connection to the kdb process */
 	private c connection;
+	
+	/** @see #setLazyFlipDecoding(boolean) */
+	private boolean lazyFlipDecoding;
+	
+	/** @see #setSymbolCache(KdbSymbolCache) */
+	private KdbSymbolCache symbolCache;
+	
+	/** @see #setReadTimeout(Duration) */
+	private Duration readTimeout;
 
 	
 	/**
@@ -63,7 +77,7 @@ public class KdbConnection implements AutoCloseable {
 	}
 	
 	/**
-	 * Performs the connection to the KDB process
+	 * Performs the connection to the KDB process, using the transport configured in the {@link KdbProcess}
 	 * @throws KdbTargetProcessUnavailableException If the target KDB process is unavailable
 	 * @see #reconnect()
 	 */
@@ -77,13 +91,20 @@ public class KdbConnection implements AutoCloseable {
 		log.info("Attempting to connect to: {}", process.toString());
 		
 		try {
-			connection = new c(process.getHostname(), process.getPort(), process.getUserAndPassword());
+			if(process.getTransport() == ETransport.NIO_CHANNEL)
+				connection = new NioC(process.getHostname(), process.getPort(), process.getUserAndPassword());
+			else
+				connection = new c(process.getHostname(), process.getPort(), process.getUserAndPassword());
 		} catch (KException | IOException e) {
 			connection = null;
 			log.error("Failed to connect to '{}'. Error - {}", process, e.getMessage());
 			throw new KdbTargetProcessUnavailableException("Target: " + process, e);
 		}
 		
+		connection.lazy(lazyFlipDecoding);
+		connection.symbolCache(symbolCache);
+		applyReadTimeout();
+		
 		log.info("Successfully connected to: {}", process.toString());
 	}
 	
@@ -115,6 +136,73 @@ public class KdbConnection implements AutoCloseable {
 		return true;
 	}
 	
+	/**
+	 * <p>Configures whether tables received on this connection are decoded lazily. When enabled, each table is returned as a
+	 * {@link c.LazyFlip} which records where each column starts in the received message and only decodes a column the first time
+	 * it is accessed. A {@link com.buabook.kdb.data.KdbTable} built from a {@link c.LazyFlip} preserves this behaviour.</p>
+	 * <p><b>NOTE</b>: The columns of a {@link c.LazyFlip} are <code>null</code> in {@link c.Flip#y} until decoded, so any 
+	 * code accessing the raw {@link c.Flip} must use {@link c.LazyFlip#col(int)} or {@link c.LazyFlip#decode()}.</p>
+	 * <p>The setting applies to the current connection and is retained across reconnects.</p>
+	 */
+	public void setLazyFlipDecoding(boolean lazyFlipDecoding) {
+		this.lazyFlipDecoding = lazyFlipDecoding;
+		
+		if(connection != null)
+			connection.lazy(lazyFlipDecoding);
+	}
+	
+	public boolean isLazyFlipDecoding() {
+		return lazyFlipDecoding;
+	}
+	
+	/**
+	 * <p>Configures a symbol cache to use when decoding symbols received on this connection. Symbols already in the cache are
+	 * returned without being decoded again, removing the {@link String} allocation per symbol for feeds that repeat the same
+	 * symbols. The same cache can be shared across multiple connections.</p>
+	 * <p>The setting applies to the current connection and is retained across reconnects.</p>
+	 * @param symbolCache The cache to use, or <code>null</code> to decode every symbol (the default)
+	 */
+	public void setSymbolCache(KdbSymbolCache symbolCache) {
+		this.symbolCache = symbolCache;
+		
+		if(connection != null)
+			connection.symbolCache(symbolCache);
+	}
+	
+	public KdbSymbolCache getSymbolCache() {
+		return symbolCache;
+	}
+	
+	/**
+	 * <p>Configures the maximum time to wait for data from the kdb process (the socket read timeout). Once exceeded, the read
+	 * fails with a {@link java.net.SocketTimeoutException}, and as the rest of the message may still arrive, the connection
+	 * should be disconnected. This bounds the time a query waits for its response to start, and then for each subsequent
+	 * part of the response.</p>
+	 * <p><b>NOTE</b>: Connections that wait for messages indefinitely (e.g. subscriptions) should not have a read timeout.</p>
+	 * <p>The setting applies to the current connection and is retained across reconnects.</p>
+	 * @param readTimeout The maximum time to wait, or <code>null</code> to wait indefinitely (the default)
+	 * @see com.buabook.kdb.exceptions.QueryTimeoutException
+	 */
+	public void setReadTimeout(Duration readTimeout) {
+		this.readTimeout = readTimeout;
+		applyReadTimeout();
+	}
+	
+	public Duration getReadTimeout() {
+		return readTimeout;
+	}
+	
+	private void applyReadTimeout() {
+		if(! isConnected())
+			return;
+		
+		try {
+			connection.s.setSoTimeout((readTimeout == null) ? 0 : (int) Math.max(1, Math.min(Integer.MAX_VALUE, readTimeout.getMillis())));
+		} catch (SocketException e) {
+			log.warn("Failed to set read timeout on connection [ Process: {} ]. Error - {}", process, e.getMessage());
+		}
+	}
+	
 	/** @return The current connection to the kdb process */
 	public c getConnection() {
 		return connection;
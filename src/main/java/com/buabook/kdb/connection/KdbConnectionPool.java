@@ -0,0 +1,278 @@
+package com.buabook.kdb.connection;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.exceptions.KdbConnectionLeaseTimeoutException;
+import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.kx.c.KException;
+
+/**
+ * <h3>KDB Connection Pool</h3>
+ * <p>Pools connections to kdb processes so that multiple threads can query the same process concurrently, each on its own
+ * connection, rather than being serialised on a single socket. A separate pool is kept for each {@link KdbProcess}, sized by
+ * the {@link KdbConnectionPoolSettings}.</p>
+ * <p>Connections are leased with {@link #lease(KdbProcess)} and must be returned with {@link #release(KdbConnection)}. Threads
+ * waiting for a connection are served in the order they started waiting. Idle connections are reused most recently released
+ * first, and are checked before being leased: disconnected connections are discarded, and connections idle for longer than
+ * the health check idle time must also answer a <code>::</code> query.</p>
+ * <p>A connection released in a disconnected state (e.g. after an {@link IOException} during a query, or a query exceeding
+ * its read timeout) is discarded rather than returned to the pool. If configured, replacement connections are then opened on a
+ * background thread so that the next lease does not wait for a connection to be opened.</p>
+ * <p>Objects are thread-safe.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @see com.buabook.kdb.query.KdbPooledSyncQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.2
+ * @since 17 Oct 2026
+ */
+public class KdbConnectionPool implements AutoCloseable {
+	private static final Logger log = LoggerFactory.getLogger(KdbConnectionPool.class);
+	
+	/** Identity query sent to idle connections to check they are still usable */
+	private static final String HEALTH_CHECK_QUERY = "::";
+	
+	
+	private final KdbConnectionPoolSettings settings;
+	
+	private final ConcurrentMap<KdbProcess, ProcessPool> pools;
+	
+	private volatile boolean closed;
+	
+	
+	public KdbConnectionPool(KdbConnectionPoolSettings settings) throws IllegalArgumentException {
+		if(settings == null)
+			throw new IllegalArgumentException("Connection pool settings must be specified");
+		
+		this.settings = settings;
+		this.pools = new ConcurrentHashMap<>();
+	}
+	
+	
+	/**
+	 * Leases a connection to the specified process, waiting up to the lease timeout if the maximum number of connections are
+	 * already leased. The first lease for a process opens the minimum number of connections.
+	 * @return A connected connection, which must be returned with {@link #release(KdbConnection)}
+	 * @throws KdbConnectionLeaseTimeoutException If no connection became available within the lease timeout, or the calling
+	 * thread was interrupted while waiting
+	 * @throws KdbTargetProcessUnavailableException If a new connection was required and the process is unavailable
+	 * @throws IllegalStateException If the pool has been closed
+	 */
+	public KdbConnection lease(KdbProcess process) throws KdbTargetProcessUnavailableException, IllegalStateException {
+		if(closed)
+			throw new IllegalStateException("Connection pool has been closed");
+		
+		ProcessPool pool = getPool(process);
+		
+		try {
+			if(! pool.permits.tryAcquire(settings.getLeaseTimeout().getMillis(), TimeUnit.MILLISECONDS))
+				throw new KdbConnectionLeaseTimeoutException("[ Process: " + process + " ] [ Timeout: " + settings.getLeaseTimeout() + " ]");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new KdbConnectionLeaseTimeoutException("Interrupted while waiting [ Process: " + process + " ]");
+		}
+		
+		KdbConnection connection;
+		
+		try {
+			connection = pool.takeIdle();
+			
+			if(connection == null)
+				connection = pool.open();
+		} catch (KdbTargetProcessUnavailableException | RuntimeException e) {
+			pool.permits.release();
+			throw e;
+		}
+		
+		pool.leased.add(connection);
+		return connection;
+	}
+	
+	/**
+	 * Returns a leased connection to the pool. Disconnected connections, and all connections once the pool has been closed,
+	 * are discarded.
+	 * @throws IllegalArgumentException If the connection is not currently leased from this pool
+	 */
+	public void release(KdbConnection connection) throws IllegalArgumentException {
+		ProcessPool pool = (connection == null) ? null : pools.get(connection.getRemoteProcess());
+		
+		if(pool == null || ! pool.leased.remove(connection))
+			throw new IllegalArgumentException("Connection is not leased from this pool");
+		
+		boolean discarded = ! connection.isConnected();
+		
+		if(closed || discarded || pool.idle.size() >= settings.getMaxSize())
+			connection.disconnect();
+		else
+			pool.idle.offerFirst(new IdleConnection(connection));
+		
+		pool.permits.release();
+		
+		if(discarded && ! closed && settings.isRefillInBackground())
+			refillInBackground(pool);
+	}
+	
+	/** @return The number of idle connections to the specified process */
+	public int getIdleCount(KdbProcess process) {
+		ProcessPool pool = pools.get(process);
+		return (pool == null) ? 0 : pool.idle.size();
+	}
+	
+	/** @return The number of connections to the specified process that are currently leased */
+	public int getLeasedCount(KdbProcess process) {
+		ProcessPool pool = pools.get(process);
+		return (pool == null) ? 0 : pool.leased.size();
+	}
+	
+	public KdbConnectionPoolSettings getSettings() {
+		return settings;
+	}
+	
+	/** Disconnects all idle connections. Leased connections are disconnected when they are released */
+	@Override
+	public void close() {
+		closed = true;
+		
+		for(ProcessPool pool : pools.values())
+			pool.disconnectIdle();
+	}
+	
+	@Override
+	public String toString() {
+		return "KdbConnectionPool [ Processes: " + pools.size() + " ] [ Settings: " + settings + " ]";
+	}
+	
+	
+	private void refillInBackground(ProcessPool pool) {
+		Thread refill = new Thread(pool::fill, "KdbConnectionPool-Refill-" + pool.process.getHostname() + "-" + pool.process.getPort());
+		
+		refill.setDaemon(true);
+		refill.start();
+	}
+	
+	private ProcessPool getPool(KdbProcess process) {
+		ProcessPool pool = pools.computeIfAbsent(process, ProcessPool::new);
+		
+		if(pool.filled.compareAndSet(false, true))
+			pool.fill();
+		
+		return pool;
+	}
+	
+	
+	/** The connections to a single process. The number of permits is the number of connections that can still be leased */
+	private class ProcessPool {
+		
+		private final KdbProcess process;
+		
+		private final Semaphore permits;
+		
+		/** Most recently released first */
+		private final Deque<IdleConnection> idle;
+		
+		private final Set<KdbConnection> leased;
+		
+		private final AtomicBoolean filled;
+		
+		
+		public ProcessPool(KdbProcess process) {
+			this.process = process;
+			this.permits = new Semaphore(settings.getMaxSize(), true);
+			this.idle = new ConcurrentLinkedDeque<>();
+			this.leased = ConcurrentHashMap.newKeySet();
+			this.filled = new AtomicBoolean();
+		}
+		
+		
+		/**
+		 * Opens connections until there are the minimum number. Failures are logged and left to be retried on lease. Stops once
+		 * the pool has been closed, disconnecting any connection opened while it was being closed
+		 */
+		public void fill() {
+			for(int count = 0; count < settings.getMinSize() && idle.size() + leased.size() < settings.getMinSize() && ! closed && permits.tryAcquire(); count++) {
+				try {
+					idle.offerLast(new IdleConnection(open()));
+					
+					if(closed) {
+						disconnectIdle();
+						return;
+					}
+				} catch (KdbTargetProcessUnavailableException e) {
+					log.warn("Failed to open minimum pooled connections [ Process: {} ]. Error - {}", process, e.getMessage());
+					return;
+				} finally {
+					permits.release();
+				}
+			}
+		}
+		
+		public void disconnectIdle() {
+			for(IdleConnection candidate = idle.pollFirst(); candidate != null; candidate = idle.pollFirst())
+				candidate.connection.disconnect();
+		}
+		
+		public KdbConnection open() throws KdbTargetProcessUnavailableException {
+			KdbConnection connection = new KdbConnection(process);
+			connection.setReadTimeout(settings.getReadTimeout());
+			connection.connect();
+			
+			return connection;
+		}
+		
+		/** @return The most recently released idle connection that passes its health check, or <code>null</code> if none */
+		public KdbConnection takeIdle() {
+			long checkAfterNanos = (settings.getHealthCheckIdleTime() == null) ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(settings.getHealthCheckIdleTime().getMillis());
+			
+			for(IdleConnection candidate = idle.pollFirst(); candidate != null; candidate = idle.pollFirst()) {
+				if(! candidate.connection.isConnected())
+					continue;
+				
+				if(System.nanoTime() - candidate.idleSinceNanos < checkAfterNanos || isHealthy(candidate.connection))
+					return candidate.connection;
+				
+				candidate.connection.disconnect();
+			}
+			
+			return null;
+		}
+		
+		private boolean isHealthy(KdbConnection connection) {
+			try {
+				connection.getConnection().k(HEALTH_CHECK_QUERY);
+				return true;
+			} catch (KException e) {
+				// The process responded, so the connection is usable
+				return true;
+			} catch (IOException e) {
+				log.warn("Pooled connection failed health check. Discarding [ Process: {} ]. Error - {}", process, e.getMessage());
+				return false;
+			}
+		}
+	}
+	
+	/** An idle connection and the time, from {@link System#nanoTime()}, it was returned to the pool */
+	private static class IdleConnection {
+		
+		private final KdbConnection connection;
+		
+		private final long idleSinceNanos;
+		
+		
+		public IdleConnection(KdbConnection connection) {
+			this.connection = connection;
+			this.idleSinceNanos = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.buabook.kdb.connection;
+
+import org.joda.time.Duration;
+
+/**
+ * <h3>Connection Pool Settings</h3>
+ * <p>Configures the size, lease timeout, health checking, query read timeout and refilling of each per-process pool in a
+ * {@link KdbConnectionPool}.</p>
+ * <p>Objects are immutable.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.1
+ * @since 17 Oct 2026
+ */
+public final class KdbConnectionPoolSettings {
+	
+	/** The number of connections opened to a process when it is first used */
+	private final int minSize;
+	
+	/** The maximum number of connections to a process, leased and idle */
+	private final int maxSize;
+	
+	/** The maximum time to wait for a connection to a process to become available */
+	private final Duration leaseTimeout;
+	
+	/** 
+	 * Idle connections that have not been used for longer than this are checked with a query before being leased. If 
+	 * <code>null</code>, only the socket state is checked
+	 */
+	private final Duration healthCheckIdleTime;
+	
+	/** The read timeout of each connection, and so the default read timeout of queries, or <code>null</code> to wait indefinitely */
+	private final Duration readTimeout;
+	
+	/** If a disconnected connection is discarded, replacement connections are opened in the background to the minimum size */
+	private final boolean refillInBackground;
+	
+	
+	/**
+	 * Settings with no read timeout, where discarded connections are replaced when next leased
+	 * @see #KdbConnectionPoolSettings(int, int, Duration, Duration, Duration, boolean)
+	 */
+	public KdbConnectionPoolSettings(int minSize, int maxSize, Duration leaseTimeout, Duration healthCheckIdleTime) throws IllegalArgumentException {
+		this(minSize, maxSize, leaseTimeout, healthCheckIdleTime, null, false);
+	}
+	
+	/**
+	 * @param minSize The number of connections opened to a process when it is first used
+	 * @param maxSize The maximum number of connections to a process
+	 * @param leaseTimeout The maximum time to wait for a connection to become available
+	 * @param healthCheckIdleTime Idle connections unused for longer than this are checked with a query before being leased. 
+	 * If <code>null</code>, only the socket state is checked
+	 * @param readTimeout The read timeout of each connection, and so the default read timeout of queries on it (see 
+	 * {@link KdbConnection#setReadTimeout(Duration)}). If <code>null</code>, queries wait indefinitely
+	 * @param refillInBackground If <code>true</code>, when a disconnected connection (e.g. after a query exceeded its read timeout)
+	 * is discarded, replacement connections are opened in the background so the pool stays at its minimum size
+	 * @throws IllegalArgumentException If the maximum size is not positive, the minimum size is negative or greater than the 
+	 * maximum, the lease timeout is not specified, any time is negative or the read timeout is zero
+	 */
+	public KdbConnectionPoolSettings(int minSize, int maxSize, Duration leaseTimeout, Duration healthCheckIdleTime, Duration readTimeout, boolean refillInBackground) throws IllegalArgumentException {
+		if(maxSize <= 0 || minSize < 0 || minSize > maxSize)
+			throw new IllegalArgumentException("Pool maximum size must be positive and minimum size must be between 0 and the maximum");
+		
+		if(leaseTimeout == null || leaseTimeout.getMillis() < 0)
+			throw new IllegalArgumentException("Lease timeout must be specified and cannot be negative");
+		
+		if(healthCheckIdleTime != null && healthCheckIdleTime.getMillis() < 0)
+			throw new IllegalArgumentException("Health check idle time cannot be negative");
+		
+		if(readTimeout != null && readTimeout.getMillis() <= 0)
+			throw new IllegalArgumentException("Read timeout must be positive");
+		
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.leaseTimeout = leaseTimeout;
+		this.healthCheckIdleTime = healthCheckIdleTime;
+		this.readTimeout = readTimeout;
+		this.refillInBackground = refillInBackground;
+	}
+	
+	
+	public int getMinSize() {
+		return minSize;
+	}
+	
+	public int getMaxSize() {
+		return maxSize;
+	}
+	
+	public Duration getLeaseTimeout() {
+		return leaseTimeout;
+	}
+	
+	public Duration getHealthCheckIdleTime() {
+		return healthCheckIdleTime;
+	}
+	
+	public Duration getReadTimeout() {
+		return readTimeout;
+	}
+	
+	public boolean isRefillInBackground() {
+		return refillInBackground;
+	}
+	
+	@Override
+	public String toString() {
+		return "Min Size: " + minSize + ", Max Size: " + maxSize + ", Lease Timeout: " + leaseTimeout + ", Health Check Idle Time: " + healthCheckIdleTime + ", Read Timeout: " + readTimeout + ", Refill In Background: " + refillInBackground;
+	}
+}
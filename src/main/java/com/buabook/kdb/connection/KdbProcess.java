@@ -5,16 +5,29 @@ import com.google.common.base.Strings;
 
 /**
  * <h3>kdb-specific Server Definition Container</h3>
- * (c) 2014 - 2015 Sport Trades Ltd
+ * (c) 2014 - 2026 Sport Trades Ltd
  *
  * @author Jas Rajasansir
- * @version 1.0.1
+ * @version 1.1.1
  * @since 31 Mar 2014
  */
 public class KdbProcess extends Process {
+	
+	/** The available implementations of the connection to the kdb process */
+	public enum ETransport {
+		/** The standard blocking {@link java.net.Socket} implementation ({@link com.kx.c}) */
+		SOCKET,
+		
+		/** The {@link java.nio.channels.SocketChannel} implementation with reusable receive buffers ({@link com.kx.NioC}) */
+		NIO_CHANNEL
+	};
+	
+	
 	private final String username;
 	
 	private final String password;
+	
+	private final ETransport transport;
 
 	
 	public KdbProcess(String hostname, Integer port) {
@@ -26,17 +39,32 @@ public class KdbProcess extends Process {
 	}
 	
 	public KdbProcess(String hostname, Integer port, String username, String password) {
+		this(hostname, port, username, password, ETransport.SOCKET);
+	}
+	
+	public KdbProcess(String hostname, String portStr, String username, String password) throws NumberFormatException {
+		this(hostname, portStr, username, password, ETransport.SOCKET);
+	}
+	
+	/**
+	 * @param transport The connection implementation to use when connecting to this process. If <code>null</code>, 
+	 * {@link ETransport#SOCKET} is used
+	 */
+	public KdbProcess(String hostname, Integer port, String username, String password, ETransport transport) {
 		super(hostname, port);
 		
 		this.username = username;
 		this.password = password;
+		this.transport = (transport == null) ? ETransport.SOCKET : transport;
 	}
 	
-	public KdbProcess(String hostname, String portStr, String username, String password) throws NumberFormatException {
+	/** @see #KdbProcess(String, Integer, String, String, ETransport) */
+	public KdbProcess(String hostname, String portStr, String username, String password, ETransport transport) throws NumberFormatException {
 		super(hostname, portStr);
 		
 		this.username = username;
 		this.password = password;
+		this.transport = (transport == null) ? ETransport.SOCKET : transport;
 	}
 
 	
@@ -47,6 +75,10 @@ public class KdbProcess extends Process {
 	public String getPassword() {
 		return password;
 	}
+	
+	public ETransport getTransport() {
+		return transport;
+	}
 
 	@Override
 	public String toString() {
@@ -84,13 +116,15 @@ public class KdbProcess extends Process {
 		
 		return super.equals(obj) &&
 				((this.username == null) ? kObj.username == null : this.username.equals(kObj.username)) &&
-				((this.password == null) ? kObj.password == null : this.password.equals(kObj.password));
+				((this.password == null) ? kObj.password == null : this.password.equals(kObj.password)) &&
+				this.transport == kObj.transport;
 	}
 	
 	@Override
 	public int hashCode() {
 		return super.hashCode() +
 				((this.username == null) ? 0 : this.username.hashCode()) +
-				((this.password == null) ? 0 : this.password.hashCode());
+				((this.password == null) ? 0 : this.password.hashCode()) +
+				transport.hashCode();
 	}
 }
@@ -0,0 +1,159 @@
+package com.buabook.kdb.connection;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.kx.c;
+import com.kx.c.ISymbolCache;
+
+/**
+ * <h3>Bounded kdb Symbol Intern Cache</h3>
+ * <p>Symbol cache for the {@link c} decoder. Symbols are looked up by their raw encoded bytes, so a symbol that has
+ * already been seen is returned without being decoded again or a new {@link String} allocated.</p>
+ * <p>The cache is a fixed size, direct-mapped table: each symbol hashes to a single slot and replaces whatever was
+ * previously cached in that slot. Memory use is therefore bounded by the configured capacity regardless of how many
+ * distinct symbols are received. Use {@link #getHits()} and {@link #getMisses()} to size the cache for a feed.</p>
+ * <p>Instances are thread-safe and can be shared between multiple connections.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @see KdbConnection#setSymbolCache(KdbSymbolCache)
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class KdbSymbolCache implements ISymbolCache {
+	
+	/** The default number of symbols that can be cached */
+	public static final int DEFAULT_CAPACITY = 8192;
+	
+	/** Symbols longer than this (in bytes) are never cached */
+	private static final int MAX_CACHED_SYMBOL_LENGTH = 256;
+	
+	
+	private final Entry[] table;
+	
+	private final int mask;
+	
+	private final LongAdder hits;
+	
+	private final LongAdder misses;
+	
+	
+	/** @see #KdbSymbolCache(int) */
+	public KdbSymbolCache() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * @param capacity The maximum number of symbols to cache. This is rounded up to the next power of 2
+	 * @throws IllegalArgumentException If the capacity is not positive
+	 */
+	public KdbSymbolCache(int capacity) throws IllegalArgumentException {
+		if(capacity <= 0)
+			throw new IllegalArgumentException("Symbol cache capacity must be greater than 0");
+		
+		int size = Integer.highestOneBit(capacity);
+		
+		if(size < capacity)
+			size = size << 1;
+		
+		this.table = new Entry[size];
+		this.mask = size - 1;
+		
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+	}
+	
+	
+	@Override
+	public String get(byte[] bytes, int offset, int length, String encoding) throws UnsupportedEncodingException {
+		if(length > MAX_CACHED_SYMBOL_LENGTH) {
+			misses.increment();
+			return new String(bytes, offset, length, encoding);
+		}
+		
+		int hash = hash(bytes, offset, length);
+		int slot = hash & mask;
+		
+		Entry entry = table[slot];
+		
+		if(entry != null && entry.matches(hash, bytes, offset, length)) {
+			hits.increment();
+			return entry.symbol;
+		}
+		
+		misses.increment();
+		
+		String symbol = new String(bytes, offset, length, encoding);
+		table[slot] = new Entry(hash, bytes, offset, length, symbol);
+		
+		return symbol;
+	}
+	
+	/** @return The number of symbols returned from the cache */
+	public long getHits() {
+		return hits.sum();
+	}
+	
+	/** @return The number of symbols that had to be decoded as they were not in the cache */
+	public long getMisses() {
+		return misses.sum();
+	}
+	
+	/** @return The maximum number of symbols that can be cached */
+	public int getCapacity() {
+		return table.length;
+	}
+	
+	/** Removes all cached symbols and resets the hit and miss counters */
+	public void clear() {
+		for(int i = 0; i < table.length; i++)
+			table[i] = null;
+		
+		hits.reset();
+		misses.reset();
+	}
+	
+	
+	private static int hash(byte[] bytes, int offset, int length) {
+		int hash = 1;
+		
+		for(int i = offset; i < offset + length; i++)
+			hash = 31 * hash + bytes[i];
+		
+		return hash ^ (hash >>> 16);
+	}
+	
+	
+	/** Immutable cache entry so that slots can be safely replaced by concurrent decoders without locking */
+	private static final class Entry {
+		
+		private final int hash;
+		
+		private final byte[] bytes;
+		
+		private final String symbol;
+		
+		
+		private Entry(int hash, byte[] source, int offset, int length, String symbol) {
+			this.hash = hash;
+			this.bytes = new byte[length];
+			this.symbol = symbol;
+			
+			System.arraycopy(source, offset, this.bytes, 0, length);
+		}
+		
+		
+		private boolean matches(int hash, byte[] source, int offset, int length) {
+			if(this.hash != hash || bytes.length != length)
+				return false;
+			
+			for(int i = 0; i < length; i++)
+				if(bytes[i] != source[offset + i])
+					return false;
+			
+			return true;
+		}
+	}
+}
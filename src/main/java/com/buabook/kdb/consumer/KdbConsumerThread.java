@@ -89,6 +89,12 @@ public class KdbConsumerThread extends Thread {
 	}
 	
 
+	/** @return The underlying consumer, to allow connection settings (such as {@link KdbConsumer#setLazyFlipDecoding(boolean)}) to be changed */
+	public KdbConsumer getConsumer() {
+		return consumer;
+	}
+	
+
 	@Override
 	public void run() {
 		try {
@@ -0,0 +1,234 @@
+package com.buabook.kdb.data;
+
+import java.util.List;
+
+import com.buabook.kdb.data.columns.BooleanColumn;
+import com.buabook.kdb.data.columns.ByteColumn;
+import com.buabook.kdb.data.columns.CharColumn;
+import com.buabook.kdb.data.columns.DoubleColumn;
+import com.buabook.kdb.data.columns.FloatColumn;
+import com.buabook.kdb.data.columns.IntColumn;
+import com.buabook.kdb.data.columns.LongColumn;
+import com.buabook.kdb.data.columns.ShortColumn;
+
+/**
+ * <h2>Reusable Row Cursor for {@link KdbTable}</h2>
+ * <p>Provides access to the rows of a table without allocating an object per row. The cursor is positioned on a row with
+ * {@link #next()} or {@link #moveTo(int)} and the cells of that row are read by column position or name. The typed getters
+ * (e.g. {@link #getLong(int)}) read directly from typed columns without boxing.</p>
+ * <p>Columns are in alphabetical order (as with {@link KdbTable#getRow(int)}) and are resolved when the cursor is created, so
+ * columns added to or removed from the table afterwards are not visible to the cursor. Columns of a table built from a
+ * {@link com.kx.c.LazyFlip} are only decoded when first read.</p>
+ * <p>Implementation is <i>not</i> thread-safe.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @see KdbTable#cursor()
+ * @see KdbTable#forEachRow(java.util.function.Consumer)
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.1
+ * @since 17 Oct 2026
+ */
+public class KdbRowCursor {
+	
+	private final KdbTable table;
+	
+	/** The schema of the table when the cursor was created, which defines the column order */
+	private final KdbSchema schema;
+	
+	private final List<Object>[] columns;
+	
+	private int row;
+	
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	KdbRowCursor(KdbTable table) {
+		this.table = table;
+		
+		this.schema = table.getSchema();
+		this.columns = new List[schema.getColumnCount()];
+		
+		for(int cCount = 0; cCount < columns.length; cCount++)
+			columns[cCount] = table.getTableData().get(schema.getColumnName(cCount));
+		
+		this.row = -1;
+	}
+	
+	
+	/**
+	 * Moves the cursor to the next row of the table. The cursor starts before the first row.
+	 * @return <code>true</code> if the cursor is now on a row, <code>false</code> if there are no more rows
+	 */
+	public boolean next() {
+		if(row + 1 >= table.getRowCount())
+			return false;
+		
+		row++;
+		return true;
+	}
+	
+	/**
+	 * Moves the cursor to the specified row
+	 * @return This cursor
+	 * @throws ArrayIndexOutOfBoundsException If the row is less than 0 or greater than or equal to the number of rows in the table
+	 */
+	public KdbRowCursor moveTo(int rowNumber) throws ArrayIndexOutOfBoundsException {
+		if(rowNumber < 0 || rowNumber >= table.getRowCount())
+			throw new ArrayIndexOutOfBoundsException(rowNumber);
+		
+		this.row = rowNumber;
+		return this;
+	}
+	
+	/** @return The row the cursor is currently on, or <code>-1</code> if {@link #next()} has not yet been called */
+	public int getRowIndex() {
+		return row;
+	}
+	
+	public KdbSchema getSchema() {
+		return schema;
+	}
+	
+	public int getColumnCount() {
+		return columns.length;
+	}
+	
+	public String getColumnName(int column) {
+		return schema.getColumnName(column);
+	}
+	
+	/** @return The position of the specified column, or <code>-1</code> if the column does not exist */
+	public int getColumnIndex(String columnName) {
+		return schema.getColumnIndex(columnName);
+	}
+	
+	/** @return The cell in the specified column of the current row. Primitive values are boxed */
+	public Object get(int column) {
+		return column(column).get(row);
+	}
+	
+	/** @see #get(int) */
+	public Object get(String columnName) {
+		return get(requireColumnIndex(columnName));
+	}
+	
+	/**
+	 * @return The cell in the specified column of the current row, cast to the specified type
+	 * @throws ClassCastException If the cell is not of the specified type
+	 */
+	public <T> T getAs(int column, Class<T> type) throws ClassCastException {
+		return type.cast(get(column));
+	}
+	
+	/** @return The symbol in the specified column of the current row */
+	public String getSymbol(int column) throws ClassCastException {
+		return (String) get(column);
+	}
+	
+	public long getLong(int column) throws ClassCastException {
+		List<Object> col = column(column);
+		
+		if(col instanceof LongColumn)
+			return ((LongColumn) col).getLong(row);
+		
+		return ((Number) col.get(row)).longValue();
+	}
+	
+	public int getInt(int column) throws ClassCastException {
+		List<Object> col = column(column);
+		
+		if(col instanceof IntColumn)
+			return ((IntColumn) col).getInt(row);
+		
+		return ((Number) col.get(row)).intValue();
+	}
+	
+	public double getDouble(int column) throws ClassCastException {
+		List<Object> col = column(column);
+		
+		if(col instanceof DoubleColumn)
+			return ((DoubleColumn) col).getDouble(row);
+		
+		return ((Number) col.get(row)).doubleValue();
+	}
+	
+	public float getFloat(int column) throws ClassCastException {
+		List<Object> col = column(column);
+		
+		if(col instanceof FloatColumn)
+			return ((FloatColumn) col).getFloat(row);
+		
+		return ((Number) col.get(row)).floatValue();
+	}
+	
+	public short getShort(int column) throws ClassCastException {
+		List<Object> col = column(column);
+		
+		if(col instanceof ShortColumn)
+			return ((ShortColumn) col).getShort(row);
+		
+		return ((Number) col.get(row)).shortValue();
+	}
+	
+	public byte getByte(int column) throws ClassCastException {
+		List<Object> col = column(column);
+		
+		if(col instanceof ByteColumn)
+			return ((ByteColumn) col).getByte(row);
+		
+		return ((Number) col.get(row)).byteValue();
+	}
+	
+	public boolean getBoolean(int column) throws ClassCastException {
+		List<Object> col = column(column);
+		
+		if(col instanceof BooleanColumn)
+			return ((BooleanColumn) col).getBoolean(row);
+		
+		return (Boolean) col.get(row);
+	}
+	
+	public char getChar(int column) throws ClassCastException {
+		List<Object> col = column(column);
+		
+		if(col instanceof CharColumn)
+			return ((CharColumn) col).getChar(row);
+		
+		return (Character) col.get(row);
+	}
+	
+	/**
+	 * Copies the current row into a new {@link KdbDict}, in the same way as {@link KdbTable#getRow(int)}
+	 * @return The current row
+	 */
+	public KdbDict toDict() {
+		KdbDict dict = new KdbDict();
+		
+		for(int cCount = 0; cCount < columns.length; cCount++) {
+			Object cell = get(cCount);
+			dict.add(schema.getColumnName(cCount), cell, cell.getClass());
+		}
+		
+		return dict;
+	}
+	
+	
+	/** Lazily decoded columns are replaced with the decoded column on first access to avoid checking on every subsequent read */
+	private List<Object> column(int column) {
+		List<Object> col = columns[column];
+		
+		if(col instanceof LazyColumn)
+			col = columns[column] = ((LazyColumn) col).getColumn();
+		
+		return col;
+	}
+	
+	private int requireColumnIndex(String columnName) throws IllegalArgumentException {
+		int index = getColumnIndex(columnName);
+		
+		if(index == -1)
+			throw new IllegalArgumentException("No column in table [ Column: " + columnName + " ]");
+		
+		return index;
+	}
+}
@@ -0,0 +1,206 @@
+package com.buabook.kdb.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.buabook.kdb.data.columns.KdbColumn;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * <h2>kdb Table Schema</h2>
+ * <p>Immutable description of the columns of a {@link KdbTable}: the column names in alphabetical order (the order in which
+ * they are sent to kdb) and, where known, the element type of each column.</p>
+ * <p>Schemas are interned per table name by {@link #of(String, Map)}, so tables with the same name and the same columns share
+ * the same schema instance. This allows compatibility to be checked by identity, falling back to a comparison of the column
+ * names only if the instances differ.</p>
+ * <p>Objects are thread-safe.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @see KdbTable#getSchema()
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public final class KdbSchema {
+	
+	/** The most recently created schema for each table name */
+	private static final ConcurrentMap<String, KdbSchema> schemas = new ConcurrentHashMap<>();
+	
+	
+	private final String tableName;
+	
+	private final String[] columnNames;
+	
+	private final Class<?>[] columnTypes;
+	
+	private final Map<String, Integer> columnIndexes;
+	
+	private final List<String> columnNameList;
+	
+	
+	private KdbSchema(String tableName, SortedMap<String, Class<?>> columns) {
+		this.tableName = tableName;
+		this.columnNames = columns.keySet().toArray(new String[0]);
+		this.columnTypes = columns.values().toArray(new Class<?>[0]);
+		
+		ImmutableMap.Builder<String, Integer> indexes = ImmutableMap.builder();
+		
+		for(int cCount = 0; cCount < columnNames.length; cCount++)
+			indexes.put(columnNames[cCount], cCount);
+		
+		this.columnIndexes = indexes.build();
+		this.columnNameList = ImmutableList.copyOf(columnNames);
+	}
+	
+	
+	/**
+	 * Returns the schema for the specified table and columns. If the most recent schema created for the table name has the same
+	 * columns and types, that instance is returned.
+	 * @param tableName The name of the table
+	 * @param columns The column names and their element types. The type can be <code>null</code> if it is not known
+	 * @return The schema
+	 * @throws IllegalArgumentException If the table name is empty or <code>null</code>
+	 */
+	public static KdbSchema of(String tableName, Map<String, Class<?>> columns) throws IllegalArgumentException {
+		if(Strings.isNullOrEmpty(tableName))
+			throw new IllegalArgumentException("Table name must be specified");
+		
+		KdbSchema schema = new KdbSchema(tableName, new TreeMap<>(columns));
+		
+		return schemas.compute(tableName, (name, existing) -> schema.equals(existing) ? existing : schema);
+	}
+	
+	
+	public String getTableName() {
+		return tableName;
+	}
+	
+	/** @return The column names, in alphabetical order */
+	public List<String> getColumnNames() {
+		return columnNameList;
+	}
+	
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+	
+	public String getColumnName(int column) {
+		return columnNames[column];
+	}
+	
+	/** @return The element type of the specified column, or <code>null</code> if the type is not known */
+	public Class<?> getColumnType(int column) {
+		return columnTypes[column];
+	}
+	
+	/** @return The position of the specified column, or <code>-1</code> if the column does not exist */
+	public int getColumnIndex(String columnName) {
+		Integer index = columnIndexes.get(columnName);
+		return (index == null) ? -1 : index;
+	}
+	
+	public boolean hasColumn(String columnName) {
+		return columnIndexes.containsKey(columnName);
+	}
+	
+	/**
+	 * @return <code>true</code> if the specified schema has exactly the same column names as this schema (types are not
+	 * compared), <code>false</code> otherwise. Checked by identity first.
+	 */
+	public boolean hasSameColumns(KdbSchema that) {
+		if(this == that)
+			return true;
+		
+		if(that == null)
+			return false;
+		
+		return Arrays.equals(columnNames, that.columnNames);
+	}
+	
+	/** @return <code>true</code> if every column of this schema is present in the specified schema, <code>false</code> otherwise */
+	public boolean isSubsetOf(KdbSchema that) {
+		if(hasSameColumns(that))
+			return true;
+		
+		if(that == null)
+			return false;
+		
+		for(String column : columnNames)
+			if(! that.hasColumn(column))
+				return false;
+		
+		return true;
+	}
+	
+	/** @return <code>true</code> if the specified row contains every column of this schema, <code>false</code> otherwise */
+	public boolean isSatisfiedBy(Map<String, ?> row) {
+		if(row.size() < columnNames.length)
+			return false;
+		
+		for(String column : columnNames)
+			if(! row.containsKey(column))
+				return false;
+		
+		return true;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(tableName, Arrays.hashCode(columnNames), Arrays.hashCode(columnTypes));
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		
+		if(obj == null || getClass() != obj.getClass())
+			return false;
+		
+		KdbSchema that = (KdbSchema) obj;
+		
+		return tableName.equals(that.tableName) &&
+				Arrays.equals(columnNames, that.columnNames) &&
+				Arrays.equals(columnTypes, that.columnTypes);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder schema = new StringBuilder(tableName).append(" [ ");
+		
+		for(int cCount = 0; cCount < columnNames.length; cCount++) {
+			Class<?> type = columnTypes[cCount];
+			schema.append(columnNames[cCount]).append(":").append((type == null) ? "?" : type.getSimpleName()).append(" ");
+		}
+		
+		return schema.append("]").toString();
+	}
+	
+	
+	/** @return The column names and types of the specified columns for use with {@link #of(String, Map)} */
+	static Map<String, Class<?>> getColumnTypes(Map<String, List<Object>> columns) {
+		Map<String, Class<?>> types = new TreeMap<>();
+		
+		for(Entry<String, List<Object>> column : columns.entrySet())
+			types.put(column.getKey(), getColumnType(column.getValue()));
+		
+		return types;
+	}
+	
+	private static Class<?> getColumnType(List<Object> column) {
+		if(column instanceof KdbColumn)
+			return ((KdbColumn<?>) column).getElementType();
+		
+		return null;
+	}
+}
@@ -1,46 +1,66 @@
 package com.buabook.kdb.data;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.buabook.kdb.Converters;
+import com.buabook.kdb.data.columns.BooleanColumn;
+import com.buabook.kdb.data.columns.ByteColumn;
+import com.buabook.kdb.data.columns.CharColumn;
+import com.buabook.kdb.data.columns.DoubleColumn;
+import com.buabook.kdb.data.columns.FloatColumn;
+import com.buabook.kdb.data.columns.IntColumn;
+import com.buabook.kdb.data.columns.KdbColumn;
+import com.buabook.kdb.data.columns.LongColumn;
+import com.buabook.kdb.data.columns.ObjectColumn;
+import com.buabook.kdb.data.columns.ShortColumn;
 import com.buabook.kdb.exceptions.DataOverwriteNotPermittedException;
 import com.buabook.kdb.exceptions.TableColumnAlreadyExistsException;
 import com.buabook.kdb.exceptions.TableSchemaMismatchException;
+import com.buabook.kdb.interfaces.IKdbPublishable;
 import com.buabook.kdb.query.KdbQuery;
 import com.google.common.base.Strings;
 import com.kx.c;
 import com.kx.c.Dict;
 import com.kx.c.Flip;
+import com.kx.c.LazyFlip;
 
 /**
  * <h2>Table Data Container for kdb</h2>
  * <p>Data container representing a table that can be serialised and sent to a kdb process (via {@link c})</p>
  * <p>Also provides the ability to accept a {@link Flip} object received from a kdb process and access it 
  * within Java, including iterating over it with the {@link KdbDict} object.</p>
+ * <p>Columns of a {@link Flip} are stored as typed {@link KdbColumn}s around the arrays decoded by {@link c}, so primitive
+ * columns are not copied or boxed. Use the typed accessors (e.g. {@link #getLongColumn(String)}) to read them without boxing.</p>
+ * <p><b>NOTE</b>: Unlike earlier versions, where every column was an untyped list, the columns of a table built from a 
+ * {@link Flip} (and the columns returned by {@link #getTableData()}) reject values of another type. For example, adding a 
+ * string or <code>1.5</code> to a long column through the returned map throws a {@link ClassCastException} or
+ * {@link IllegalArgumentException}. Columns built by {@link #addRow(Map)} remain untyped.</p>
+ * <p>If the table is built from a {@link LazyFlip}, each column is only decoded the first time it is accessed.</p>
  * <p>Implementation is <i>not</i> thread-safe.</p>
- * (c) 2014 - 2017 Sport Trades Ltd
+ * (c) 2014 - 2026 Sport Trades Ltd
  * 
  * @see KdbTableIterator
+ * @see KdbRowCursor
+ * @see KdbSchema
  * @see KdbDict
  *
  * @author Jas Rajasansir
- * @version 1.1.0
+ * @version 1.9.3
  * @since 1 Apr 2014
  */
-public class KdbTable implements Iterable<KdbDict> {
+public class KdbTable implements Iterable<KdbDict>, IKdbPublishable {
 	private static final Logger log = LoggerFactory.getLogger(KdbTable.class);
 	
 	
@@ -51,7 +71,10 @@ public class KdbTable implements Iterable<KdbDict> {
 	private final Map<String, List<Object>> data;
 	
 	private int rowCount;
-
+	
+	/** The schema of the table, or <code>null</code> if the columns have changed since it was last built. See {@link #getSchema()} */
+	private KdbSchema schema;
+	
 	
 	/**
 	 * Instantiate an empty table structure
@@ -76,7 +99,7 @@ public class KdbTable implements Iterable<KdbDict> {
 	 */
 	public KdbTable(String tableName, Flip initialData) throws DataOverwriteNotPermittedException {
 		this(tableName);
-
+		
 		setInitialDataSet(initialData);
 	}
 	
@@ -108,16 +131,25 @@ public class KdbTable implements Iterable<KdbDict> {
 		}
 		
 		data.clear();
+		schema = null;
 		
-		for(int cCount = 0; cCount < initialData.x.length; cCount++) {
-			String colName = initialData.x[cCount];
-			Object[] colData = Converters.arrayToObjectArray(initialData.y[cCount]);
-			List<Object> objArray = new ArrayList<>(Arrays.asList(colData));
-			
-			data.put(colName, objArray);
+		if(initialData instanceof LazyFlip) {
+			doSetOfLazyDataSet((LazyFlip) initialData);
+			return;
 		}
 		
-		this.rowCount = Converters.arrayToObjectArray(initialData.y[0]).length;
+		for(int cCount = 0; cCount < initialData.x.length; cCount++)
+			data.put(initialData.x[cCount], KdbColumn.of(initialData.y[cCount]));
+		
+		this.rowCount = data.get(initialData.x[0]).size();
+	}
+	
+	/** Columns of a {@link LazyFlip} are wrapped in a {@link LazyColumn} so they are only decoded on first access */
+	private void doSetOfLazyDataSet(LazyFlip initialData) {
+		for(int cCount = 0; cCount < initialData.x.length; cCount++)
+			data.put(initialData.x[cCount], new LazyColumn(initialData, cCount));
+		
+		this.rowCount = initialData.n(0);
 	}
 	
 	/**
@@ -135,6 +167,31 @@ public class KdbTable implements Iterable<KdbDict> {
 			throw new TableSchemaMismatchException("Column length (" + columnData.size() + ") does not match the current number of rows (" + rowCount + ")!");
 		
 		data.put(columnName, columnData);
+		schema = null;
+	}
+	
+	/**
+	 * Declares the type of the specified column. The existing elements are converted into a {@link KdbColumn} of the type, which
+	 * will then always be sent to kdb as a typed vector of that type. Any rows subsequently added must contain values compatible
+	 * with the column type.
+	 * @param columnName The column to declare the type of
+	 * @param elementType The element type of the column (e.g. <code>Long.class</code>, <code>long.class</code> or <code>String.class</code>)
+	 * @throws IllegalArgumentException If the column does not exist
+	 * @throws ClassCastException If any existing element of the column is not compatible with the type
+	 * @see KdbColumn#forElementType(Class)
+	 */
+	public void setColumnType(String columnName, Class<?> elementType) throws IllegalArgumentException, ClassCastException {
+		List<Object> existing = data.get(columnName);
+		
+		if(existing == null)
+			throw new IllegalArgumentException("No column in table [ Column: " + columnName + " ]");
+		
+		KdbColumn<?> typed = KdbColumn.forElementType(elementType);
+		typed.ensureCapacity(existing.size());
+		typed.addAll(existing);
+		
+		data.put(columnName, typed);
+		schema = null;
 	}
 	
 	public void deleteColumn(String columnName) {
@@ -142,6 +199,7 @@ public class KdbTable implements Iterable<KdbDict> {
 			throw new IllegalArgumentException("No column name specified to delete");
 		
 		data.remove(columnName);
+		schema = null;
 	}
 	
 	/** @see #addRow(Map) */
@@ -153,23 +211,25 @@ public class KdbTable implements Iterable<KdbDict> {
 	}
 	
 	/**
-	 * Adds a row to a table based on an {@link HashMap} representation of the row (i.e. a kdb dictionary). Any list
-	 * values are converted to arrays and any enumeration values are converted to strings.
+	 * <p>Adds a row to a table based on an {@link HashMap} representation of the row (i.e. a kdb dictionary). Any list
+	 * values are converted to arrays and any enumeration values are converted to strings.</p>
+	 * <p>Every value is checked against its column before any column is changed, so a rejected row leaves the table unchanged.</p>
 	 * @param row The new row to add
-	 * @throws TableSchemaMismatchException If there are any missing columns from the new row
+	 * @throws TableSchemaMismatchException If there are any missing columns from the new row, or a value cannot be stored in 
+	 * its typed column (see {@link KdbColumn#checkElement(Object)}), e.g. a string in a long column or <code>1.5</code> in a 
+	 * long column
 	 */
 	public void addRow(Map<String, Object> row) throws TableSchemaMismatchException {
 		if(row == null || row.isEmpty())
 			return; 
 		
 		if(! isEmpty())
-			if(! row.keySet().containsAll(data.keySet()))
+			if(! getSchema().isSatisfiedBy(row))
 				throw new TableSchemaMismatchException("Missing columns in row to add");
 		
+		Map<String, Object> rowValues = new HashMap<>();
+		
 		for(Entry<String, Object> entry : row.entrySet()) {
-			if(! data.containsKey(entry.getKey()))
-				data.put(entry.getKey(), new ArrayList<Object>());
-			
 			Object rowValue = entry.getValue();
 			
 			if(rowValue instanceof List<?>)
@@ -177,15 +237,38 @@ public class KdbTable implements Iterable<KdbDict> {
 			else if(rowValue instanceof Enum)
 				rowValue = ((Enum<?>) rowValue).toString();
 			
-			data.get(entry.getKey()).add(rowValue);
+			KdbColumn<?> typed = asTypedColumn(data.get(entry.getKey()));
+			
+			if(typed != null) {
+				try {
+					typed.checkElement(rowValue);
+				} catch (ClassCastException | IllegalArgumentException e) {
+					throw new TableSchemaMismatchException("Value not compatible with column type [ Column: " + entry.getKey() + " ] [ Type: " + typed.getElementType().getSimpleName() + " ] [ Value: " + rowValue + " ]");
+				}
+			}
+			
+			rowValues.put(entry.getKey(), rowValue);
+		}
+		
+		for(Entry<String, Object> entry : rowValues.entrySet()) {
+			if(! data.containsKey(entry.getKey())) {
+				data.put(entry.getKey(), new ArrayList<Object>());
+				schema = null;
+			}
+			
+			data.get(entry.getKey()).add(entry.getValue());
 		}
 		
 		this.rowCount++;
 	}
 	
 	/**
-	 * Appends the specified table onto the current table (similar to the kdb+ <code>uj</code> function) 
-	 * @throws TableSchemaMismatchException If the two table names or table schemas do not match
+	 * Appends the specified table onto the current table (similar to the kdb+ <code>uj</code> function). If both tables have the
+	 * same {@link KdbSchema} instance, the columns are appended without any further schema checks. Columns added to this table 
+	 * from typed columns of the specified table have the same element type.
+	 * <p>Every column is checked before any column is changed, so a rejected table leaves this table unchanged.</p>
+	 * @throws TableSchemaMismatchException If the two table names or table schemas do not match, or a value of the specified
+	 * table cannot be stored in the typed column of this table (e.g. a symbol appended to a long column)
 	 */
 	public void append(KdbTable that) throws TableSchemaMismatchException {
 		if(that == null || that.isEmpty())
@@ -194,13 +277,30 @@ public class KdbTable implements Iterable<KdbDict> {
 		if(! this.tableName.equals(that.tableName))
 			throw new TableSchemaMismatchException("Table names are different");
 		
-		if(! isEmpty())
-			if(! that.getTableData().keySet().containsAll(data.keySet()))
+		if(! isEmpty()) {
+			KdbSchema thisSchema = getSchema();
+			KdbSchema thatSchema = that.getSchema();
+			
+			// The types of lazy columns are not known by the schema until they are decoded
+			checkColumnTypes(that);
+			
+			if(thisSchema == thatSchema) {
+				for(String column : thisSchema.getColumnNames())
+					data.get(column).addAll(that.data.get(column));
+				
+				this.rowCount+=that.getRowCount();
+				return;
+			}
+			
+			if(! thisSchema.isSubsetOf(thatSchema))
 				throw new TableSchemaMismatchException("Tables have different schemas");
+		}
 		
-		for(Entry<String, List<Object>> column : that.getTableData().entrySet()) {
-			if(! data.containsKey(column.getKey()))
-				data.put(column.getKey(), new ArrayList<Object>());
+		for(Entry<String, List<Object>> column : that.data.entrySet()) {
+			if(! data.containsKey(column.getKey())) {
+				data.put(column.getKey(), newColumnLike(column.getValue()));
+				schema = null;
+			}
 			
 			data.get(column.getKey()).addAll(column.getValue());
 		}
@@ -208,34 +308,198 @@ public class KdbTable implements Iterable<KdbDict> {
 		this.rowCount+=that.getRowCount();
 	}
 	
+	/**
+	 * Checks every value of the specified table that will be appended to a typed column of this table, without changing either
+	 * table. Columns with the same element type are not checked value by value.
+	 * @throws TableSchemaMismatchException If a value cannot be stored in the typed column of this table
+	 */
+	private void checkColumnTypes(KdbTable that) throws TableSchemaMismatchException {
+		for(Entry<String, List<Object>> column : that.data.entrySet()) {
+			KdbColumn<?> typed = asTypedColumn(data.get(column.getKey()));
+			
+			if(typed == null)
+				continue;
+			
+			KdbColumn<?> source = asTypedColumn(column.getValue());
+			
+			if(source != null && source.getElementType() == typed.getElementType())
+				continue;
+			
+			for(Object value : column.getValue()) {
+				try {
+					typed.checkElement(value);
+				} catch (ClassCastException | IllegalArgumentException e) {
+					throw new TableSchemaMismatchException("Value not compatible with column type [ Column: " + column.getKey() + " ] [ Type: " + typed.getElementType().getSimpleName() + " ] [ Value: " + value + " ]");
+				}
+			}
+		}
+	}
+	
+	/** @return The typed column, decoding it if lazy, or <code>null</code> if the column is not typed or does not exist */
+	private static KdbColumn<?> asTypedColumn(List<Object> column) {
+		if(column instanceof LazyColumn)
+			return ((LazyColumn) column).getColumn();
+		
+		if(column instanceof KdbColumn)
+			return (KdbColumn<?>) column;
+		
+		return null;
+	}
+	
+	/** @return An empty column with the same element type as the specified column if it is typed, otherwise an untyped list */
+	private static List<Object> newColumnLike(List<Object> column) {
+		KdbColumn<?> source = asTypedColumn(column);
+		
+		if(source != null) {
+			KdbColumn<?> typed = KdbColumn.forElementType(source.getElementType());
+			typed.ensureCapacity(source.size());
+			
+			return typed;
+		}
+		
+		return new ArrayList<Object>();
+	}
+	
 	public String getTableName() {
 		return tableName;
 	}
 	
+	/**
+	 * <b>NOTE</b>: If columns are added or removed directly through the returned map, they may not be reflected in {@link #getSchema()}.
+	 * Use the column methods of this class (e.g. {@link #addColumn(String, List)}) instead.
+	 * <p>Typed columns (see {@link KdbColumn}) reject values that cannot be stored in their type, with a {@link ClassCastException}
+	 * or {@link IllegalArgumentException}. Columns of a {@link LazyFlip} are returned as views that decode the column on first access.</p>
+	 */
 	public Map<String, List<Object>> getTableData() {
 		return data;
 	}
 	
 	/**
-	 * Converts the nice Java representation of a kdb table into the actual format ready for sending across
+	 * Returns the schema of the table. The schema is cached until the columns of the table change, and is shared with other tables
+	 * with the same name and columns.
+	 * @return The schema
+	 * @see KdbSchema#of(String, Map)
+	 */
+	public KdbSchema getSchema() {
+		if(schema == null || schema.getColumnCount() != data.size())
+			schema = KdbSchema.of(tableName, KdbSchema.getColumnTypes(data));
+		
+		return schema;
+	}
+	
+	/**
+	 * @param columnName The column to return
+	 * @return The column as a <code>long</code> column, without boxing any of the values
+	 * @throws ClassCastException If the column is not a kdb long column
+	 * @see #getTypedColumn(String, Class)
+	 */
+	public LongColumn getLongColumn(String columnName) throws ClassCastException {
+		return getTypedColumn(columnName, LongColumn.class);
+	}
+	
+	/** @see #getLongColumn(String) */
+	public IntColumn getIntColumn(String columnName) throws ClassCastException {
+		return getTypedColumn(columnName, IntColumn.class);
+	}
+	
+	/** @see #getLongColumn(String) */
+	public DoubleColumn getDoubleColumn(String columnName) throws ClassCastException {
+		return getTypedColumn(columnName, DoubleColumn.class);
+	}
+	
+	/** @see #getLongColumn(String) */
+	public FloatColumn getFloatColumn(String columnName) throws ClassCastException {
+		return getTypedColumn(columnName, FloatColumn.class);
+	}
+	
+	/** @see #getLongColumn(String) */
+	public ShortColumn getShortColumn(String columnName) throws ClassCastException {
+		return getTypedColumn(columnName, ShortColumn.class);
+	}
+	
+	/** @see #getLongColumn(String) */
+	public ByteColumn getByteColumn(String columnName) throws ClassCastException {
+		return getTypedColumn(columnName, ByteColumn.class);
+	}
+	
+	/** @see #getLongColumn(String) */
+	public BooleanColumn getBooleanColumn(String columnName) throws ClassCastException {
+		return getTypedColumn(columnName, BooleanColumn.class);
+	}
+	
+	/** @see #getLongColumn(String) */
+	public CharColumn getCharColumn(String columnName) throws ClassCastException {
+		return getTypedColumn(columnName, CharColumn.class);
+	}
+	
+	/** @see #getObjectColumn(String, Class) */
+	public ObjectColumn<String> getSymbolColumn(String columnName) throws ClassCastException {
+		return getObjectColumn(columnName, String.class);
+	}
+	
+	/**
+	 * Returns a column of kdb values that are objects in Java, such as symbols or the temporal types
+	 * @param columnName The column to return
+	 * @param elementType The expected element type of the column (e.g. <code>Timestamp.class</code>)
+	 * @return The column
+	 * @throws ClassCastException If the column is not an {@link ObjectColumn} of the specified element type
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> ObjectColumn<T> getObjectColumn(String columnName, Class<T> elementType) throws ClassCastException {
+		ObjectColumn<?> column = getTypedColumn(columnName, ObjectColumn.class);
+		
+		if(! column.getElementType().equals(elementType))
+			throw new ClassCastException("Column '" + columnName + "' contains " + column.getElementType().getSimpleName() + ", not " + elementType.getSimpleName());
+		
+		return (ObjectColumn<T>) column;
+	}
+	
+	/**
+	 * Returns the specified column as a typed {@link KdbColumn}. Columns of a {@link LazyFlip} are decoded if they have not already been.
+	 * @param columnName The column to return
+	 * @param columnType The expected {@link KdbColumn} implementation
+	 * @return The column or <code>null</code> if the column does not exist
+	 * @throws ClassCastException If the column is not of the specified type. Columns built by {@link #addRow(Map)} are not typed.
+	 */
+	public <C extends KdbColumn<?>> C getTypedColumn(String columnName, Class<C> columnType) throws ClassCastException {
+		List<Object> column = data.get(columnName);
+		
+		if(column == null)
+			return null;
+		
+		if(column instanceof LazyColumn)
+			column = ((LazyColumn) column).getColumn();
+		
+		if(! columnType.isInstance(column))
+			throw new ClassCastException("Column '" + columnName + "' is not a " + columnType.getSimpleName());
+		
+		return columnType.cast(column);
+	}
+	
+	/**
+	 * <p>Converts the nice Java representation of a kdb table into the actual format ready for sending across
 	 * the wire to a kdb process. <b>NOTE</b>: The columns of the generated table will <i>always</i> be in 
-	 * alphabetical order.
+	 * alphabetical order.</p>
+	 * <p>Each column is sent as a typed kdb vector (e.g. <code>long[]</code> or <code>String[]</code> for symbols) where 
+	 * possible. Typed columns (see {@link #setColumnType(String, Class)}) are always sent with their type, otherwise the type 
+	 * is detected from the column elements. Columns with mixed or unsupported types are sent as general lists.</p>
 	 * @return The object that can be sent to a kdb process
+	 * @see KdbColumn#toKdbVector(List)
 	 */
 	public Flip convertToFlip() {
 		if(isEmpty())
 			return null;
-
-		// Used TreeSet to enforce alphabetical (and deterministic) ordering of column names 
-		TreeSet<String> orderedCols = new TreeSet<>(data.keySet());
 		
-		String[] colNames = orderedCols.toArray(new String[0]);
-		Object[] cols = new Object[data.keySet().size()];
+		// Schema column names are in alphabetical (and deterministic) order 
+		KdbSchema orderedCols = getSchema();
 		
-		log.trace("Generating kdb Flip object [ Table: {} ] [ Row Count: {} ] [ Columns: {} ]", tableName, rowCount, orderedCols);
+		String[] colNames = orderedCols.getColumnNames().toArray(new String[0]);
+		Object[] cols = new Object[colNames.length];
+		
+		log.trace("Generating kdb Flip object [ Table: {} ] [ Row Count: {} ] [ Columns: {} ]", tableName, rowCount, orderedCols.getColumnNames());
 		
 		for(int kCount = 0; kCount < colNames.length; kCount++)
-			cols[kCount] = data.get(colNames[kCount]).toArray();
+			cols[kCount] = KdbColumn.toKdbVector(data.get(colNames[kCount]));
 		
 		return new Flip(new Dict(colNames, cols));
 	}
@@ -258,6 +522,7 @@ public class KdbTable implements Iterable<KdbDict> {
 			throw new UnsupportedOperationException("Table name cannot be null or empty");
 		
 		this.tableName = newTableName;
+		this.schema = null;
 	}
 	
 	/**
@@ -272,10 +537,9 @@ public class KdbTable implements Iterable<KdbDict> {
 			throw new ArrayIndexOutOfBoundsException(rowNumber);
 		
 		KdbDict row = new KdbDict();
-		// Used TreeSet to enforce alphabetical (and deterministic) ordering of column names 
-		TreeSet<String> orderedCols = new TreeSet<>(data.keySet());
 		
-		for(String column : orderedCols) {
+		// Schema column names are in alphabetical (and deterministic) order 
+		for(String column : getSchema().getColumnNames()) {
 			Object cell = data.get(column).get(rowNumber);
 			row.add(column, cell, cell.getClass());
 		}
@@ -283,6 +547,27 @@ public class KdbTable implements Iterable<KdbDict> {
 		return row;
 	}
 	
+	/**
+	 * @return A new cursor, positioned before the first row, to read the rows of the table without allocating an object per row
+	 * @see KdbRowCursor
+	 */
+	public KdbRowCursor cursor() {
+		return new KdbRowCursor(this);
+	}
+	
+	/**
+	 * Calls the specified action for each row of the table in order. The <i>same</i> cursor instance is provided for every row, 
+	 * so it must not be retained by the action.
+	 * @param action The action to perform on each row
+	 * @see KdbRowCursor
+	 */
+	public void forEachRow(Consumer<KdbRowCursor> action) {
+		KdbRowCursor cursor = cursor();
+		
+		while(cursor.next())
+			action.accept(cursor);
+	}
+	
 	/**
 	 * Accepts a list of {@link KdbDict} objects and generates a new {@link KdbTable} from it
 	 * @param name The name of the new table
@@ -311,15 +596,32 @@ public class KdbTable implements Iterable<KdbDict> {
 		
 		return new KdbTable("table", (Flip) object);
 	}
-
+	
 	@Override
 	public Iterator<KdbDict> iterator() {
 		return new KdbTableIterator(this);
 	}
 	
+	/** 
+	 * @return A sized spliterator over the rows of the table that splits by row range
+	 * @see KdbTableSpliterator
+	 */
+	@Override
+	public Spliterator<KdbDict> spliterator() {
+		return new KdbTableSpliterator(this);
+	}
+	
 	/** TODO: Implement {@link Collection} interface so this is an override */
 	public Stream<KdbDict> stream() {
-		Iterable<KdbDict> iterable = () -> iterator();
-		return StreamSupport.stream(iterable.spliterator(), false);
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	/**
+	 * Returns a parallel stream over the rows of the table. The table is split into row ranges which are processed across the
+	 * fork-join pool. The table must not be modified while the stream is executing.
+	 * @see #stream()
+	 */
+	public Stream<KdbDict> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
 	}
 }
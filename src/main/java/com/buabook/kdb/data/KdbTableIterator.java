@@ -5,12 +5,13 @@ import java.util.Iterator;
 /**
  * <h2>Iterator for {@link KdbTable}</h2>
  * <p>The iterator for {@link KdbTable} to allow iteration over the table with the {@link KdbDict} class.</p>
- * (c) 2014 - 2017 Sport Trades Ltd
+ * <p>Each row is copied into a new {@link KdbDict}. Use {@link KdbRowCursor} to iterate without allocating per row.</p>
+ * (c) 2014 - 2026 Sport Trades Ltd
  * 
  * @see KdbTable
  *
  * @author Jas Rajasansir
- * @version 1.1.0
+ * @version 1.2.0
  * @since 11 Aug 2014
  */
 class KdbTableIterator implements Iterator<KdbDict> {
@@ -18,11 +19,15 @@ class KdbTableIterator implements Iterator<KdbDict> {
 	private int rowCounter;
 	
 	private final KdbTable table; 
+	
+	/** Cursor shared across all rows so that column names and ordering are only resolved once per iteration */
+	private final KdbRowCursor cursor;
 
 	
 	public KdbTableIterator(KdbTable table) {
 		this.rowCounter = 0;
 		this.table = table;
+		this.cursor = table.cursor();
 	}
 
 	
@@ -33,7 +38,7 @@ class KdbTableIterator implements Iterator<KdbDict> {
 
 	@Override
 	public KdbDict next() {
-		KdbDict next = table.getRow(rowCounter);
+		KdbDict next = cursor.moveTo(rowCounter).toDict();
 		rowCounter++;
 		
 		return next;
@@ -0,0 +1,90 @@
+package com.buabook.kdb.data;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * <h2>Row Range Spliterator for {@link KdbTable}</h2>
+ * <p>Splittable spliterator over a range of rows of a {@link KdbTable}. Splitting halves the remaining row range, so the
+ * table can be processed in parallel by {@link KdbTable#parallelStream()}. Each spliterator reads its rows through its own
+ * {@link KdbRowCursor}.</p>
+ * <p>The table must not be modified while it is being traversed.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @see KdbTable#spliterator()
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+class KdbTableSpliterator implements Spliterator<KdbDict> {
+	
+	/** Row ranges smaller than this are not split further, as the per-split cursor setup would outweigh the benefit */
+	private static final int MINIMUM_SPLIT_SIZE = 1024;
+	
+	
+	private final KdbTable table;
+	
+	private final KdbRowCursor cursor;
+	
+	/** The next row to return */
+	private int row;
+	
+	/** The row after the last row to return */
+	private final int end;
+	
+	
+	public KdbTableSpliterator(KdbTable table) {
+		this(table, 0, table.getRowCount());
+	}
+	
+	private KdbTableSpliterator(KdbTable table, int start, int end) {
+		this.table = table;
+		this.cursor = table.cursor();
+		this.row = start;
+		this.end = end;
+	}
+	
+	
+	@Override
+	public boolean tryAdvance(Consumer<? super KdbDict> action) {
+		if(row >= end)
+			return false;
+		
+		action.accept(cursor.moveTo(row).toDict());
+		row++;
+		
+		return true;
+	}
+	
+	@Override
+	public void forEachRemaining(Consumer<? super KdbDict> action) {
+		for(; row < end; row++)
+			action.accept(cursor.moveTo(row).toDict());
+	}
+	
+	@Override
+	public Spliterator<KdbDict> trySplit() {
+		int remaining = end - row;
+		
+		if(remaining < 2 * MINIMUM_SPLIT_SIZE)
+			return null;
+		
+		int start = row;
+		int middle = row + (remaining >>> 1);
+		
+		this.row = middle;
+		
+		return new KdbTableSpliterator(table, start, middle);
+	}
+	
+	@Override
+	public long estimateSize() {
+		return end - row;
+	}
+	
+	@Override
+	public int characteristics() {
+		return SIZED | SUBSIZED | ORDERED | NONNULL;
+	}
+}
@@ -0,0 +1,68 @@
+package com.buabook.kdb.data;
+
+import com.buabook.kdb.data.columns.KdbColumn;
+import com.google.common.collect.ForwardingList;
+import com.kx.c.LazyFlip;
+
+/**
+ * <h2>Lazily Decoded {@link KdbTable} Column</h2>
+ * <p>Column of a {@link KdbTable} that was built from a {@link LazyFlip}. The column is only decoded from the
+ * received message the first time any element of it is accessed. The number of elements in the column is read
+ * directly from the message so that {@link #size()} does not cause the column to be decoded.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @see KdbTable
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.0
+ * @since 17 Oct 2026
+ */
+class LazyColumn extends ForwardingList<Object> {
+	
+	private final LazyFlip source;
+	
+	private final int columnIndex;
+	
+	/** The decoded column, or <code>null</code> if the column has not yet been accessed */
+	private volatile KdbColumn<?> column;
+	
+	
+	public LazyColumn(LazyFlip source, int columnIndex) {
+		this.source = source;
+		this.columnIndex = columnIndex;
+	}
+	
+	
+	@Override
+	protected KdbColumn<?> delegate() {
+		KdbColumn<?> decoded = column;
+		
+		if(decoded != null)
+			return decoded;
+		
+		synchronized (this) {
+			if(column == null)
+				column = KdbColumn.of(source.col(columnIndex));
+			
+			return column;
+		}
+	}
+	
+	@Override
+	public int size() {
+		if(column == null)
+			return source.n(columnIndex);
+		
+		return column.size();
+	}
+	
+	/** @return The typed column, decoding it from the received message if it has not already been */
+	public KdbColumn<?> getColumn() {
+		return delegate();
+	}
+	
+	/** @return <code>true</code> if the column has been decoded from the received message, <code>false</code> otherwise */
+	public boolean isDecoded() {
+		return column != null;
+	}
+}
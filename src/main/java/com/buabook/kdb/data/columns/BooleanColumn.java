@@ -0,0 +1,63 @@
+package com.buabook.kdb.data.columns;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Boolean Column</h3>
+ * <p>Column of kdb boolean (<code>b</code>) values, stored in a <code>boolean[]</code>.</p>
+ * <p>Adding <code>null</code> stores the kdb null value for the type.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class BooleanColumn extends KdbColumn<boolean[]> {
+	
+	private static final boolean KDB_NULL = (Boolean) Types.getKdbNullFor(Boolean.class);
+	
+	
+	/** Creates an empty column */
+	public BooleanColumn() {
+		super(new boolean[DEFAULT_CAPACITY], 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	public BooleanColumn(boolean[] values) {
+		super(values, values.length);
+	}
+	
+	
+	public boolean getBoolean(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setBoolean(int index, boolean value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addBoolean(boolean value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException {
+		if(element != null)
+			Boolean.class.cast(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = (element == null) ? KDB_NULL : (Boolean) element;
+	}
+}
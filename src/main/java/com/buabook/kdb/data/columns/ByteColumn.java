@@ -0,0 +1,68 @@
+package com.buabook.kdb.data.columns;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Byte Column</h3>
+ * <p>Column of kdb byte (<code>x</code>) values, stored in a <code>byte[]</code>.</p>
+ * <p>Any {@link Number} with a whole value in the range of a <code>byte</code> can be added and is converted to a <code>byte</code>; other
+ * numbers are rejected rather than truncated. Adding <code>null</code> stores the kdb null value for the type.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class ByteColumn extends KdbColumn<byte[]> {
+	
+	private static final byte KDB_NULL = (Byte) Types.getKdbNullFor(Byte.class);
+	
+	
+	/** Creates an empty column */
+	public ByteColumn() {
+		super(new byte[DEFAULT_CAPACITY], 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	public ByteColumn(byte[] values) {
+		super(values, values.length);
+	}
+	
+	
+	public byte getByte(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setByte(int index, byte value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addByte(byte value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException, IllegalArgumentException {
+		toByte(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = toByte(element);
+	}
+	
+	
+	private static byte toByte(Object element) throws ClassCastException, IllegalArgumentException {
+		return (element == null) ? KDB_NULL : (byte) toIntegral(element, Byte.MIN_VALUE, Byte.MAX_VALUE);
+	}
+}
@@ -0,0 +1,63 @@
+package com.buabook.kdb.data.columns;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Character Column</h3>
+ * <p>Column of kdb char (<code>c</code>) values, stored in a <code>char[]</code>.</p>
+ * <p>Adding <code>null</code> stores the kdb null value for the type.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class CharColumn extends KdbColumn<char[]> {
+	
+	private static final char KDB_NULL = (Character) Types.getKdbNullFor(Character.class);
+	
+	
+	/** Creates an empty column */
+	public CharColumn() {
+		super(new char[DEFAULT_CAPACITY], 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	public CharColumn(char[] values) {
+		super(values, values.length);
+	}
+	
+	
+	public char getChar(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setChar(int index, char value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addChar(char value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException {
+		if(element != null)
+			Character.class.cast(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = (element == null) ? KDB_NULL : (Character) element;
+	}
+}
@@ -0,0 +1,63 @@
+package com.buabook.kdb.data.columns;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Double Column</h3>
+ * <p>Column of kdb float (<code>f</code>) values, stored in a <code>double[]</code>.</p>
+ * <p>Any {@link Number} can be added and is converted to a <code>double</code>. Adding <code>null</code> stores the kdb null value for the type.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class DoubleColumn extends KdbColumn<double[]> {
+	
+	private static final double KDB_NULL = (Double) Types.getKdbNullFor(Double.class);
+	
+	
+	/** Creates an empty column */
+	public DoubleColumn() {
+		super(new double[DEFAULT_CAPACITY], 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	public DoubleColumn(double[] values) {
+		super(values, values.length);
+	}
+	
+	
+	public double getDouble(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setDouble(int index, double value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addDouble(double value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException {
+		if(element != null)
+			Number.class.cast(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = (element == null) ? KDB_NULL : ((Number) element).doubleValue();
+	}
+}
@@ -0,0 +1,76 @@
+package com.buabook.kdb.data.columns;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Float Column</h3>
+ * <p>Column of kdb real (<code>e</code>) values, stored in a <code>float[]</code>.</p>
+ * <p>Any {@link Number} can be added and is converted to a <code>float</code>, losing precision if necessary. Finite numbers
+ * outside the range of a <code>float</code> are rejected rather than becoming infinite. Adding <code>null</code> stores the kdb null value for the type.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class FloatColumn extends KdbColumn<float[]> {
+	
+	private static final float KDB_NULL = (Float) Types.getKdbNullFor(Float.class);
+	
+	
+	/** Creates an empty column */
+	public FloatColumn() {
+		super(new float[DEFAULT_CAPACITY], 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	public FloatColumn(float[] values) {
+		super(values, values.length);
+	}
+	
+	
+	public float getFloat(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setFloat(int index, float value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addFloat(float value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException, IllegalArgumentException {
+		toFloat(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = toFloat(element);
+	}
+	
+	
+	private static float toFloat(Object element) throws ClassCastException, IllegalArgumentException {
+		if(element == null)
+			return KDB_NULL;
+		
+		double value = ((Number) element).doubleValue();
+		
+		if(Math.abs(value) > Float.MAX_VALUE && ! Double.isInfinite(value))
+			throw new IllegalArgumentException("Value is out of range for column [ Value: " + element + " ]");
+		
+		return (float) value;
+	}
+}
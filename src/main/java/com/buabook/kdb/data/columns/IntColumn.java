@@ -0,0 +1,68 @@
+package com.buabook.kdb.data.columns;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Integer Column</h3>
+ * <p>Column of kdb int (<code>i</code>) values, stored in a <code>int[]</code>.</p>
+ * <p>Any {@link Number} with a whole value in the range of a <code>int</code> can be added and is converted to a <code>int</code>; other
+ * numbers are rejected rather than truncated. Adding <code>null</code> stores the kdb null value for the type.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class IntColumn extends KdbColumn<int[]> {
+	
+	private static final int KDB_NULL = (Integer) Types.getKdbNullFor(Integer.class);
+	
+	
+	/** Creates an empty column */
+	public IntColumn() {
+		super(new int[DEFAULT_CAPACITY], 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	public IntColumn(int[] values) {
+		super(values, values.length);
+	}
+	
+	
+	public int getInt(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setInt(int index, int value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addInt(int value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException, IllegalArgumentException {
+		toInt(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = toInt(element);
+	}
+	
+	
+	private static int toInt(Object element) throws ClassCastException, IllegalArgumentException {
+		return (element == null) ? KDB_NULL : (int) toIntegral(element, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+}
@@ -0,0 +1,355 @@
+package com.buabook.kdb.data.columns;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.buabook.kdb.Types;
+import com.buabook.kdb.data.KdbTable;
+import com.kx.c;
+
+/**
+ * <h3>Array Backed {@link KdbTable} Column</h3>
+ * <p>Base class for columns that store their elements in a single growable array of the kdb vector type, rather than
+ * as a list of boxed objects. Columns are built around the array decoded by {@link c} without copying it; the array is
+ * only copied if elements are added and it is full.</p>
+ * <p>The column is exposed as a <code>List&lt;Object&gt;</code> so it can be used anywhere a {@link KdbTable} column is
+ * expected. Elements are boxed as they are read through the {@link java.util.List} interface, so the typed accessors
+ * of each implementation should be used where performance matters.</p>
+ * <p>Elements added through the {@link java.util.List} interface are checked before the column is changed. An element of the
+ * wrong type is rejected with a {@link ClassCastException}, and a number that cannot be stored in the column type without
+ * loss (e.g. <code>1.5</code> in a long column or <code>5000000000</code> in an int column) is rejected with an 
+ * {@link IllegalArgumentException}.</p>
+ * <p>Implementation is <i>not</i> thread-safe.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @param <A> The backing array type (e.g. <code>long[]</code>)
+ *
+ * @see #of(Object)
+ *
+ * @author Jas Rajasansir
+ * @version 1.2.0
+ * @since 17 Oct 2026
+ */
+public abstract class KdbColumn<A> extends AbstractList<Object> implements RandomAccess {
+	
+	/** The capacity of the backing array when a column is created empty */
+	protected static final int DEFAULT_CAPACITY = 16;
+	
+	
+	/** The backing array. The number of valid elements is {@link #size}, the remainder is spare capacity */
+	protected A values;
+	
+	protected int size;
+	
+	
+	protected KdbColumn(A values, int size) {
+		this.values = values;
+		this.size = size;
+	}
+	
+	
+	/**
+	 * Builds a new column around the specified array. The array is <i>not</i> copied, so subsequent changes to the column
+	 * may be visible in the array.
+	 * @param array A primitive or object array, as decoded by {@link c}
+	 * @return The column implementation for the type of the array
+	 * @throws IllegalArgumentException If the specified object is not an array
+	 */
+	public static KdbColumn<?> of(Object array) throws IllegalArgumentException {
+		if(array == null || ! array.getClass().isArray())
+			throw new IllegalArgumentException("Columns can only be built from arrays");
+		
+		Class<?> type = array.getClass().getComponentType();
+		
+		if(type == long.class)
+			return new LongColumn((long[]) array);
+		if(type == int.class)
+			return new IntColumn((int[]) array);
+		if(type == double.class)
+			return new DoubleColumn((double[]) array);
+		if(type == float.class)
+			return new FloatColumn((float[]) array);
+		if(type == short.class)
+			return new ShortColumn((short[]) array);
+		if(type == byte.class)
+			return new ByteColumn((byte[]) array);
+		if(type == boolean.class)
+			return new BooleanColumn((boolean[]) array);
+		if(type == char.class)
+			return new CharColumn((char[]) array);
+		
+		return ObjectColumn.of((Object[]) array);
+	}
+	
+	/**
+	 * Creates an empty column for the specified element type
+	 * @param elementType Either a primitive or boxed type (e.g. <code>long.class</code> or <code>Long.class</code>), or the object type
+	 * @return The column implementation for the type
+	 */
+	@SuppressWarnings("unchecked")
+	public static KdbColumn<?> forElementType(Class<?> elementType) {
+		Class<?> vectorType = Types.getKdbVectorTypeFor(elementType);
+		
+		if(vectorType == null)
+			vectorType = elementType;
+		
+		if(vectorType.isPrimitive())
+			return of(Array.newInstance(vectorType, 0));
+		
+		return new ObjectColumn<>((Class<Object>) vectorType);
+	}
+	
+	/**
+	 * <p>Converts the specified {@link KdbTable} column into the array to send to kdb. {@link KdbColumn}s return their typed
+	 * array (see {@link #toKdbVector()}).</p>
+	 * <p>For any other list, if every non-<code>null</code> element is of the same type and that type has a kdb vector 
+	 * equivalent (see {@link Types#getKdbVectorTypeFor(Class)}), a typed array is returned, with any <code>null</code>s replaced
+	 * by the kdb null for the type. Otherwise an <code>Object[]</code> is returned, which is sent as a general list.</p>
+	 * @param column The column to convert
+	 * @return The array to send to kdb
+	 */
+	public static Object toKdbVector(List<?> column) {
+		if(column instanceof KdbColumn)
+			return ((KdbColumn<?>) column).toKdbVector();
+		
+		return detectKdbVector(column);
+	}
+	
+	/** @see #toKdbVector(List) */
+	static Object detectKdbVector(List<?> column) {
+		Class<?> elementType = null;
+		
+		for(Object element : column) {
+			if(element == null)
+				continue;
+			
+			if(elementType == null)
+				elementType = element.getClass();
+			else if(elementType != element.getClass())
+				return column.toArray();
+		}
+		
+		if(elementType == null || Types.getKdbVectorTypeFor(elementType) == null)
+			return column.toArray();
+		
+		KdbColumn<?> typed = forElementType(elementType);
+		typed.ensureCapacity(column.size());
+		typed.addAll(column);
+		
+		return typed.toKdbVector();
+	}
+	
+	
+	/** @return The type of element stored in this column (e.g. <code>long.class</code> or <code>String.class</code>) */
+	public Class<?> getElementType() {
+		return values.getClass().getComponentType();
+	}
+	
+	/**
+	 * <b>NOTE</b>: The returned array may be longer than the column. Only the first {@link #size()} elements are valid.
+	 * @return The backing array of the column
+	 */
+	public A getArray() {
+		return values;
+	}
+	
+	/**
+	 * Returns the array to send to kdb for this column. The backing array is returned without copying if it contains no spare 
+	 * capacity, otherwise a copy of the valid elements is returned.
+	 * @return The typed array for the column (e.g. <code>long[]</code> or <code>String[]</code>)
+	 */
+	@SuppressWarnings("unchecked")
+	public Object toKdbVector() {
+		if(Array.getLength(values) == size)
+			return values;
+		
+		A trimmed = (A) Array.newInstance(getElementType(), size);
+		System.arraycopy(values, 0, trimmed, 0, size);
+		
+		return trimmed;
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public Object get(int index) {
+		checkIndex(index);
+		return getElement(index);
+	}
+	
+	@Override
+	public Object set(int index, Object element) {
+		checkIndex(index);
+		
+		Object previous = getElement(index);
+		setElement(index, element);
+		
+		return previous;
+	}
+	
+	@Override
+	public void add(int index, Object element) {
+		if(index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		
+		ensureCapacity(size + 1);
+		
+		if(index < size) {
+			checkElement(element);
+			System.arraycopy(values, index, values, index + 1, size - index);
+		}
+		
+		setElement(index, element);
+		
+		size++;
+		modCount++;
+	}
+	
+	/** Columns of the same type are appended with a single array copy, without boxing */
+	@Override
+	public boolean addAll(Collection<?> elements) {
+		if(elements.isEmpty())
+			return false;
+		
+		if(elements instanceof KdbColumn && ((KdbColumn<?>) elements).getElementType() == getElementType()) {
+			KdbColumn<?> that = (KdbColumn<?>) elements;
+			int count = that.size;
+			
+			ensureCapacity(size + count);
+			System.arraycopy(that.values, 0, values, size, count);
+			
+			size += count;
+			modCount++;
+			
+			return true;
+		}
+		
+		Object[] toAdd = elements.toArray();
+		
+		for(Object element : toAdd)
+			checkElement(element);
+		
+		ensureCapacity(size + toAdd.length);
+		
+		for(Object element : toAdd)
+			add(size, element);
+		
+		return true;
+	}
+	
+	@Override
+	public Object remove(int index) {
+		checkIndex(index);
+		
+		Object removed = getElement(index);
+		
+		System.arraycopy(values, index + 1, values, index, size - index - 1);
+		
+		size--;
+		modCount++;
+		
+		clearElement(size);
+		
+		return removed;
+	}
+	
+	@Override
+	public void clear() {
+		for(int i = 0; i < size; i++)
+			clearElement(i);
+		
+		size = 0;
+		modCount++;
+	}
+	
+	/**
+	 * Grows the backing array (by at least 50%) if it cannot hold the specified number of elements
+	 * @param minCapacity The number of elements the column must be able to hold
+	 */
+	@SuppressWarnings("unchecked")
+	public void ensureCapacity(int minCapacity) {
+		int capacity = Array.getLength(values);
+		
+		if(minCapacity <= capacity)
+			return;
+		
+		int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1)));
+		
+		A grown = (A) Array.newInstance(getElementType(), newCapacity);
+		System.arraycopy(values, 0, grown, 0, size);
+		
+		values = grown;
+	}
+	
+	/**
+	 * Checks that the specified element can be stored in this column, without changing the column
+	 * @throws ClassCastException If the element is not of a type that can be stored in the column
+	 * @throws IllegalArgumentException If the element is a number that cannot be stored in the column type without loss
+	 */
+	public abstract void checkElement(Object element) throws ClassCastException, IllegalArgumentException;
+	
+	
+	/** @return The element at the specified index, boxed if necessary. The index has already been checked */
+	protected abstract Object getElement(int index);
+	
+	/** 
+	 * Sets the element at the specified index, unboxing if necessary. The index has already been checked. The column must not
+	 * be changed if the element is rejected
+	 * @see #checkElement(Object)
+	 */
+	protected abstract void setElement(int index, Object element);
+	
+	/** Clears the specified unused element of the backing array so that it does not hold on to any references */
+	protected void clearElement(int index) {}
+	
+	protected void checkIndex(int index) {
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+	
+	/**
+	 * Converts the specified number to a <code>long</code>, if it is a whole number within the specified range
+	 * @throws ClassCastException If the element is not a {@link Number}
+	 * @throws IllegalArgumentException If the number has a fractional part or is outside the range
+	 */
+	protected static long toIntegral(Object element, long min, long max) throws ClassCastException, IllegalArgumentException {
+		Number number = (Number) element;
+		long value;
+		
+		try {
+			if(number instanceof BigInteger)
+				value = ((BigInteger) number).longValueExact();
+			else if(number instanceof BigDecimal)
+				value = ((BigDecimal) number).longValueExact();
+			else if(number instanceof Double || number instanceof Float)
+				value = toIntegral(number.doubleValue());
+			else
+				value = number.longValue();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Value cannot be stored as a whole number without loss [ Value: " + element + " ]");
+		}
+		
+		if(value < min || value > max)
+			throw new IllegalArgumentException("Value is out of range for column [ Value: " + element + " ] [ Min: " + min + " ] [ Max: " + max + " ]");
+		
+		return value;
+	}
+	
+	
+	/** @throws ArithmeticException If the value has a fractional part, is not finite or is outside the range of a <code>long</code> */
+	private static long toIntegral(double value) throws ArithmeticException {
+		// 2^63 is exactly representable as a double, unlike Long.MAX_VALUE
+		if(value != Math.floor(value) || value < -0x1p63 || value >= 0x1p63)
+			throw new ArithmeticException();
+		
+		return (long) value;
+	}
+}
@@ -0,0 +1,68 @@
+package com.buabook.kdb.data.columns;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Long Column</h3>
+ * <p>Column of kdb long (<code>j</code>) values, stored in a <code>long[]</code>.</p>
+ * <p>Any {@link Number} with a whole value in the range of a <code>long</code> can be added and is converted to a <code>long</code>; other
+ * numbers are rejected rather than truncated. Adding <code>null</code> stores the kdb null value for the type.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class LongColumn extends KdbColumn<long[]> {
+	
+	private static final long KDB_NULL = (Long) Types.getKdbNullFor(Long.class);
+	
+	
+	/** Creates an empty column */
+	public LongColumn() {
+		super(new long[DEFAULT_CAPACITY], 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	public LongColumn(long[] values) {
+		super(values, values.length);
+	}
+	
+	
+	public long getLong(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setLong(int index, long value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addLong(long value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException, IllegalArgumentException {
+		toLong(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = toLong(element);
+	}
+	
+	
+	private static long toLong(Object element) throws ClassCastException, IllegalArgumentException {
+		return (element == null) ? KDB_NULL : toIntegral(element, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+}
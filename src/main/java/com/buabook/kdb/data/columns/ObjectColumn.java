@@ -0,0 +1,109 @@
+package com.buabook.kdb.data.columns;
+
+import java.lang.reflect.Array;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Object Column</h3>
+ * <p>Column of kdb values that are represented as objects in Java, stored in an array of the element type. This includes
+ * symbols (<code>String[]</code>), the temporal types (e.g. <code>Timestamp[]</code>) and guids. An <code>Object[]</code>
+ * column represents a kdb general list.</p>
+ * <p>Adding <code>null</code> stores the kdb null value for the element type, if there is one.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @param <T> The element type of the column
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.1
+ * @since 17 Oct 2026
+ */
+public class ObjectColumn<T> extends KdbColumn<T[]> {
+	
+	private final Class<T> type;
+	
+	private final T kdbNull;
+	
+	
+	/** Creates an empty column of the specified element type */
+	@SuppressWarnings("unchecked")
+	public ObjectColumn(Class<T> type) {
+		this(type, (T[]) Array.newInstance(type, DEFAULT_CAPACITY), 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	@SuppressWarnings("unchecked")
+	public ObjectColumn(T[] values) {
+		this((Class<T>) values.getClass().getComponentType(), values, values.length);
+	}
+	
+	private ObjectColumn(Class<T> type, T[] values, int size) {
+		super(values, size);
+		
+		this.type = type;
+		this.kdbNull = type.cast(Types.getKdbNullFor(type));
+	}
+	
+	
+	/** @see #ObjectColumn(Object[]) */
+	public static <T> ObjectColumn<T> of(T[] values) {
+		return new ObjectColumn<>(values);
+	}
+	
+	
+	@Override
+	public Class<T> getElementType() {
+		return type;
+	}
+	
+	public T getValue(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setValue(int index, T value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addValue(T value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	
+	/** 
+	 * General list columns (<code>Object[]</code>) are sent as a typed vector if all elements are of the same type.
+	 * @see KdbColumn#toKdbVector(java.util.List)
+	 */
+	@Override
+	public Object toKdbVector() {
+		if(type == Object.class)
+			return detectKdbVector(this);
+		
+		return super.toKdbVector();
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException {
+		if(element != null)
+			type.cast(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = (element == null) ? kdbNull : type.cast(element);
+	}
+	
+	@Override
+	protected void clearElement(int index) {
+		values[index] = null;
+	}
+}
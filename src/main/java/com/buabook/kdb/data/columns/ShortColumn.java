@@ -0,0 +1,68 @@
+package com.buabook.kdb.data.columns;
+
+import com.buabook.kdb.Types;
+
+/**
+ * <h3>Short Column</h3>
+ * <p>Column of kdb short (<code>h</code>) values, stored in a <code>short[]</code>.</p>
+ * <p>Any {@link Number} with a whole value in the range of a <code>short</code> can be added and is converted to a <code>short</code>; other
+ * numbers are rejected rather than truncated. Adding <code>null</code> stores the kdb null value for the type.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class ShortColumn extends KdbColumn<short[]> {
+	
+	private static final short KDB_NULL = (Short) Types.getKdbNullFor(Short.class);
+	
+	
+	/** Creates an empty column */
+	public ShortColumn() {
+		super(new short[DEFAULT_CAPACITY], 0);
+	}
+	
+	/** Creates a column containing all elements of the specified array. The array is <i>not</i> copied */
+	public ShortColumn(short[] values) {
+		super(values, values.length);
+	}
+	
+	
+	public short getShort(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+	
+	public void setShort(int index, short value) {
+		checkIndex(index);
+		values[index] = value;
+	}
+	
+	public void addShort(short value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+		modCount++;
+	}
+	
+	@Override
+	public void checkElement(Object element) throws ClassCastException, IllegalArgumentException {
+		toShort(element);
+	}
+	
+	
+	@Override
+	protected Object getElement(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setElement(int index, Object element) {
+		values[index] = toShort(element);
+	}
+	
+	
+	private static short toShort(Object element) throws ClassCastException, IllegalArgumentException {
+		return (element == null) ? KDB_NULL : (short) toIntegral(element, Short.MIN_VALUE, Short.MAX_VALUE);
+	}
+}
@@ -0,0 +1,22 @@
+package com.buabook.kdb.exceptions;
+
+/**
+ * <h3>KdbConnectionLeaseTimeoutException</h3>
+ * <p>Thrown when no pooled connection to a kdb process becomes available within the lease timeout.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class KdbConnectionLeaseTimeoutException extends KdbTargetProcessUnavailableException {
+	private static final long serialVersionUID = 3318705294117370412L;
+	
+	private static final String message = "No pooled connection became available within the lease timeout.";
+	
+	
+	public KdbConnectionLeaseTimeoutException(String arg0) {
+		super(message + " " + arg0, null);
+	}
+	
+}
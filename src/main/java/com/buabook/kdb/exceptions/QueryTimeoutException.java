@@ -0,0 +1,23 @@
+package com.buabook.kdb.exceptions;
+
+/**
+ * <h3>QueryTimeoutException</h3>
+ * <p>Thrown when no data is received from a kdb process within the read timeout of a query. The connection the query was
+ * sent on is disconnected, as the late response would otherwise be read as the response to the next query.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public class QueryTimeoutException extends QueryExecutionFailedException {
+	private static final long serialVersionUID = -1837746170925316548L;
+	
+	private static final String message = "No data received within the query read timeout.";
+	
+	
+	public QueryTimeoutException(String msg, Throwable cause) {
+		super(message + " " + msg, cause);
+	}
+	
+}
@@ -0,0 +1,31 @@
+package com.buabook.kdb.interfaces;
+
+import java.util.function.BooleanSupplier;
+
+import com.buabook.kdb.publisher.KdbPublisherThread;
+
+/**
+ * <h3>Publisher Idle Wait Strategy</h3>
+ * <p>Defines how a {@link KdbPublisherThread} waits when there is nothing to publish, and how it is woken when a table is
+ * queued. Strategies trade CPU usage for the latency between a table being queued and it being sent to kdb.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ * 
+ * @see com.buabook.kdb.publisher.wait
+ */
+public interface IKdbPublishWaitStrategy {
+	
+	/**
+	 * Called by the publisher thread when there is nothing to publish. Implementations should return once the specified 
+	 * condition is <code>true</code>, but may return earlier (e.g. after a timeout) so the publisher can check its connection.
+	 * @param workAvailable Returns <code>true</code> when there is something to publish
+	 * @throws InterruptedException If the publisher thread is interrupted while waiting
+	 */
+	public void await(BooleanSupplier workAvailable) throws InterruptedException;
+	
+	/** Called each time a table is queued for publishing, or when the publisher is disconnected, to wake the publisher thread */
+	public void signal();
+}
@@ -0,0 +1,24 @@
+package com.buabook.kdb.interfaces;
+
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.publisher.KdbEncodedMessage;
+
+/**
+ * <h3>Publishable Table Update</h3>
+ * <p>A table update that can be queued for publishing by a {@link com.buabook.kdb.publisher.KdbPublisherThread}: either a
+ * {@link KdbTable} or a {@link KdbEncodedMessage} that has already been serialised.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public interface IKdbPublishable {
+	
+	public String getTableName();
+	
+	public int getRowCount();
+	
+	/** Called once the update has been published, or if it is dropped without being published. Does nothing by default */
+	public default void release() {}
+}
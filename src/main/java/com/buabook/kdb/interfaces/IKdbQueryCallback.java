@@ -0,0 +1,24 @@
+package com.buabook.kdb.interfaces;
+
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.query.KdbCallbackQuery;
+
+/**
+ * <h3>{@link KdbCallbackQuery} Result Callback</h3>
+ * <p>Provides the ability for an application to be notified of the result of a query sent with {@link KdbCallbackQuery}
+ * when the kdb process responds, rather than waiting for it.</p>
+ * <p>Methods are called on the reader thread of the connection, so must not block.</p>
+ * (c) 2026 Sport Trades Ltd
+ * 
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public interface IKdbQueryCallback {
+	
+	/** Called with the result of the query with the specified correlation ID */
+	public void onResult(long correlationId, Object result);
+	
+	/** Called if the query with the specified correlation ID fails, is cancelled, or the connection fails before it responds */
+	public void onFailure(long correlationId, QueryExecutionFailedException cause);
+}
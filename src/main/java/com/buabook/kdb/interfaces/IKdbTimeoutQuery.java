@@ -0,0 +1,32 @@
+package com.buabook.kdb.interfaces;
+
+import org.joda.time.Duration;
+
+import com.buabook.kdb.exceptions.QueryTimeoutException;
+import com.buabook.kdb.query.KdbQuery;
+
+/**
+ * <h3>{@link KdbQuery} with a Default Read Timeout</h3>
+ * <p>Implemented by queries that own the connection they query on (and by decorators that forward to them), allowing the
+ * read timeout of every query to be set once.</p>
+ * <p>This is a read timeout, not an overall deadline: a query fails with a {@link QueryTimeoutException} if no data is
+ * received from the kdb process for this long while waiting for its response. A large response that continues to arrive can
+ * take longer in total.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+public interface IKdbTimeoutQuery {
+	
+	/**
+	 * Sets the default read timeout for queries. Queries that exceed it fail with a {@link QueryTimeoutException} and their
+	 * connection is disconnected, to be reconnected by the next query.
+	 * @param readTimeout The default read timeout, or <code>null</code> to wait indefinitely (the default)
+	 */
+	public void setDefaultReadTimeout(Duration readTimeout);
+	
+	/** @return The default read timeout for queries, or <code>null</code> if none */
+	public Duration getDefaultReadTimeout();
+}
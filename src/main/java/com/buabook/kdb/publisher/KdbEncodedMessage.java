@@ -0,0 +1,157 @@
+package com.buabook.kdb.publisher;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.interfaces.IKdbPublishable;
+import com.kx.c;
+
+/**
+ * <h3>Encoded Publish Message</h3>
+ * <p>A <code>.u.upd</code> message for a table, serialised once into kdb IPC format so the same bytes can be written to 
+ * any number of kdb processes without converting or encoding the table again for each.</p>
+ * <p>The message is reference counted. It is created with one reference, owned by the caller of {@link #encode(KdbTable)}.
+ * Each additional holder (e.g. each {@link KdbPublisherThread} it is queued on) calls {@link #retain()}, and every holder
+ * calls {@link #release()} when it no longer needs the message. The encoded bytes are released once the last reference is 
+ * released, and the message cannot be written after that.</p>
+ * <p>Objects are thread-safe. The encoded bytes are never modified.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @see KdbPublisherManager#publish(java.util.List)
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.2
+ * @since 17 Oct 2026
+ */
+public final class KdbEncodedMessage implements IKdbPublishable {
+	
+	private static final char[] PUBLISH_FUNCTION = ".u.upd".toCharArray();
+	
+	/** Encoders are not thread-safe and retain their send buffer, so one is kept per encoding thread */
+	private static final ThreadLocal<c> encoders = ThreadLocal.withInitial(c::codec);
+	
+	
+	private final String tableName;
+	
+	private final int rowCount;
+	
+	private volatile byte[] message;
+	
+	private final AtomicInteger references;
+	
+	
+	private KdbEncodedMessage(String tableName, int rowCount, byte[] message) {
+		this.tableName = tableName;
+		this.rowCount = rowCount;
+		this.message = message;
+		this.references = new AtomicInteger(1);
+	}
+	
+	
+	/**
+	 * Converts the table to a {@link com.kx.c.Flip} and serialises it as an asynchronous <code>.u.upd</code> message
+	 * @return The encoded message, with one reference owned by the caller, or <code>null</code> if the table is empty as
+	 * there is nothing to publish
+	 * @throws IOException If the table cannot be serialised
+	 */
+	public static KdbEncodedMessage encode(KdbTable table) throws IOException {
+		if(table.isEmpty())
+			return null;
+		
+		Object[] update = { PUBLISH_FUNCTION, table.getTableName(), table.convertToFlip() };
+		byte[] message = encoders.get().serialize(0, update, false);
+		
+		return new KdbEncodedMessage(table.getTableName(), table.getRowCount(), message);
+	}
+	
+	/**
+	 * Wraps an already encoded <code>.u.upd</code> message (e.g. one read back from a {@link KdbSpillJournal})
+	 * @return The message, with one reference owned by the caller
+	 */
+	static KdbEncodedMessage wrap(String tableName, int rowCount, byte[] message) {
+		return new KdbEncodedMessage(tableName, rowCount, message);
+	}
+	
+	
+	@Override
+	public String getTableName() {
+		return tableName;
+	}
+	
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+	
+	/** @return The size of the encoded message, in bytes, including the IPC header */
+	public int getLength() {
+		byte[] bytes = message;
+		return (bytes == null) ? 0 : bytes.length;
+	}
+	
+	/**
+	 * Adds a reference to the message
+	 * @return This message
+	 * @throws IllegalStateException If the message has already been released
+	 */
+	public KdbEncodedMessage retain() throws IllegalStateException {
+		int current;
+		
+		do {
+			current = references.get();
+			
+			if(current <= 0)
+				throw new IllegalStateException("Encoded message has been released [ Table: " + tableName + " ]");
+		} while(! references.compareAndSet(current, current + 1));
+		
+		return this;
+	}
+	
+	/** 
+	 * Removes a reference to the message. The encoded bytes are released when there are no more references
+	 * @throws IllegalStateException If the message has already been released
+	 */
+	@Override
+	public void release() throws IllegalStateException {
+		int remaining = references.decrementAndGet();
+		
+		if(remaining < 0)
+			throw new IllegalStateException("Encoded message has been released [ Table: " + tableName + " ]");
+		
+		if(remaining == 0)
+			message = null;
+	}
+	
+	public int getReferenceCount() {
+		return Math.max(references.get(), 0);
+	}
+	
+	/**
+	 * @return The encoded bytes. These must not be modified
+	 * @throws IllegalStateException If the message has already been released
+	 */
+	byte[] getBytes() throws IllegalStateException {
+		byte[] bytes = message;
+		
+		if(bytes == null)
+			throw new IllegalStateException("Encoded message has been released [ Table: " + tableName + " ]");
+		
+		return bytes;
+	}
+	
+	/**
+	 * Writes the encoded message to the specified connection
+	 * @throws IOException If the write fails
+	 * @throws IllegalStateException If the message has already been released
+	 */
+	void writeTo(c connection) throws IOException, IllegalStateException {
+		byte[] bytes = getBytes();
+		connection.write(bytes, bytes.length);
+	}
+	
+	@Override
+	public String toString() {
+		return "KdbEncodedMessage [ Table: " + tableName + " ] [ Rows: " + rowCount + " ] [ Bytes: " + getLength() + " ]";
+	}
+}
@@ -0,0 +1,65 @@
+package com.buabook.kdb.publisher;
+
+import org.joda.time.Duration;
+
+/**
+ * <h3>Publisher Batching Settings</h3>
+ * <p>Enables batching in {@link KdbPublisherThread}: consecutive queued tables with the same name and columns are merged 
+ * into a single table and sent as one <code>.u.upd</code> message. A batch is sent when the next queued table cannot be
+ * merged, when adding it would exceed the maximum rows or bytes, or when the queue has been empty for the linger time.</p>
+ * <p>Objects are immutable.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public final class KdbPublishBatchSettings {
+	
+	/** The maximum number of rows in a single batch */
+	private final int maxRows;
+	
+	/** The maximum estimated serialised size of a single batch, in bytes */
+	private final long maxBytes;
+	
+	/** The maximum time to wait for more tables once the queue is empty before sending a partial batch */
+	private final Duration maxLinger;
+	
+	
+	/**
+	 * @param maxRows The maximum number of rows in a single batch
+	 * @param maxBytes The maximum estimated serialised size of a single batch, in bytes
+	 * @param maxLinger The maximum time to wait for more tables before sending a partial batch. If <code>null</code>, batches
+	 * are sent as soon as the queue is empty
+	 * @throws IllegalArgumentException If the maximum rows or bytes are not positive, or the linger time is negative
+	 */
+	public KdbPublishBatchSettings(int maxRows, long maxBytes, Duration maxLinger) throws IllegalArgumentException {
+		if(maxRows <= 0 || maxBytes <= 0)
+			throw new IllegalArgumentException("Maximum batch rows and bytes must be positive");
+		
+		if(maxLinger != null && maxLinger.getMillis() < 0)
+			throw new IllegalArgumentException("Maximum batch linger time cannot be negative");
+		
+		this.maxRows = maxRows;
+		this.maxBytes = maxBytes;
+		this.maxLinger = (maxLinger == null) ? Duration.ZERO : maxLinger;
+	}
+	
+	
+	public int getMaxRows() {
+		return maxRows;
+	}
+	
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+	
+	public Duration getMaxLinger() {
+		return maxLinger;
+	}
+	
+	@Override
+	public String toString() {
+		return "Max Rows: " + maxRows + ", Max Bytes: " + maxBytes + ", Max Linger: " + maxLinger;
+	}
+}
@@ -0,0 +1,106 @@
+package com.buabook.kdb.publisher;
+
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.interfaces.IKdbPublishable;
+
+/**
+ * <h3>Publisher Table Batcher</h3>
+ * <p>Builds batches of tables from the publish queue of a {@link KdbPublisherThread} as configured by 
+ * {@link KdbPublishBatchSettings}. Queued tables are never modified; when tables are merged a new table is created to hold 
+ * the batch.</p>
+ * <p>Only consecutive tables with the same name, column names and column types are merged, so appending a table to the batch
+ * cannot fail once it has been removed from the queue.</p>
+ * <p>Implementation is <i>not</i> thread-safe. There must only be one thread removing tables from the queue.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+class KdbPublishBatcher {
+	
+	/** How often the queue is checked while lingering for more tables */
+	private static final long LINGER_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+	
+	
+	private final KdbPublishBatchSettings settings;
+	
+	private final long maxLingerNanos;
+	
+	
+	public KdbPublishBatcher(KdbPublishBatchSettings settings) {
+		this.settings = settings;
+		this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(settings.getMaxLinger().getMillis());
+	}
+	
+	
+	/**
+	 * Removes the table at the head of the queue, and any following tables that can be merged with it, from the queue. 
+	 * {@link KdbEncodedMessage}s are never merged.
+	 * @return The table to publish, or <code>null</code> if the queue is empty
+	 */
+	public IKdbPublishable next(Queue<IKdbPublishable> queue) {
+		IKdbPublishable head = queue.poll();
+		
+		if(! (head instanceof KdbTable))
+			return head;
+		
+		KdbTable first = (KdbTable) head;
+		KdbTable batch = first;
+		long rows = first.getRowCount();
+		long bytes = KdbTableSizeEstimator.estimateBytes(first);
+		
+		long lingerDeadline = System.nanoTime() + maxLingerNanos;
+		
+		while(rows < settings.getMaxRows() && bytes < settings.getMaxBytes()) {
+			IKdbPublishable queued = queue.peek();
+			
+			if(queued == null) {
+				long remaining = lingerDeadline - System.nanoTime();
+				
+				if(remaining <= 0)
+					break;
+				
+				LockSupport.parkNanos(Math.min(remaining, LINGER_POLL_NANOS));
+				continue;
+			}
+			
+			if(! (queued instanceof KdbTable) || ! canMerge(batch, (KdbTable) queued))
+				break;
+			
+			KdbTable next = (KdbTable) queued;
+			
+			long nextRows = next.getRowCount();
+			long nextBytes = KdbTableSizeEstimator.estimateBytes(next);
+			
+			if(rows + nextRows > settings.getMaxRows() || bytes + nextBytes > settings.getMaxBytes())
+				break;
+			
+			// Only copy once there is something to merge so single tables are published as they were queued
+			if(batch == first) {
+				batch = new KdbTable(first.getTableName());
+				batch.append(first);
+			}
+			
+			// The table may have been removed by the queue overflow policy since it was checked
+			if(! queue.remove(next))
+				continue;
+			
+			batch.append(next);
+			
+			rows += nextRows;
+			bytes += nextBytes;
+		}
+		
+		return batch;
+	}
+	
+	
+	private static boolean canMerge(KdbTable batch, KdbTable next) {
+		return batch.getSchema().equals(next.getSchema());
+	}
+}
@@ -0,0 +1,554 @@
+package com.buabook.kdb.publisher;
+
+import java.io.IOException;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.interfaces.IKdbPublishable;
+
+/**
+ * <h3>Bounded Publish Queue</h3>
+ * <p>Queue of tables waiting to be published by a {@link KdbPublisherThread}, bounded by the total number of rows or the
+ * total estimated serialised size of the queued tables. When a table is queued and there is no room for it, the queue
+ * applies its {@link EOverflowPolicy}.</p>
+ * <p>A table is always accepted by an empty queue, even if it is larger than the capacity on its own.</p>
+ * <p>With {@link EOverflowPolicy#SPILL}, tables that do not fit are encoded and appended to a {@link KdbSpillJournal} on
+ * local disk instead of being held on the heap. Once a table has been spilled, all subsequent tables are also spilled until
+ * the journal has been drained, so tables are always removed in the order they were queued. Tables are encoded without
+ * holding the queue lock, so encoding does not block the publisher thread or other producers.</p>
+ * <p>The queue depth and the number of tables dropped, conflated, spilled and rejected are available for monitoring.</p>
+ * <p>Tables dropped, replaced by conflation or cleared from the queue are {@link IKdbPublishable#release() released}. Tables
+ * removed from the queue are owned by the caller.</p>
+ * <p>Objects are thread-safe. The iterator returns a snapshot of the queue and does not support removal.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @see KdbPublisherThread#KdbPublisherThread(KdbPublisher, com.buabook.kdb.interfaces.IKdbPublishWaitStrategy, KdbPublishBatchSettings, KdbPublishQueue)
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.3
+ * @since 17 Oct 2026
+ */
+public class KdbPublishQueue extends AbstractQueue<IKdbPublishable> {
+	
+	public enum ECapacityUnit {
+		/** The capacity is the total number of rows of the queued tables */
+		ROWS,
+		
+		/** The capacity is the total estimated serialised size, in bytes, of the queued tables */
+		BYTES
+	}
+	
+	public enum EOverflowPolicy {
+		/** The caller is blocked until there is room in the queue */
+		BLOCK,
+		
+		/** The table is not queued and {@link KdbPublishQueue#offer(IKdbPublishable)} returns <code>false</code> */
+		FAIL_FAST,
+		
+		/** The oldest queued tables are dropped until there is room in the queue */
+		DROP_OLDEST,
+		
+		/**
+		 * The most recently queued table with the same conflation key is replaced in its position in the queue. If there is
+		 * no such table, the oldest queued tables are dropped until there is room
+		 */
+		CONFLATE,
+		
+		/**
+		 * The table is encoded and appended to the {@link KdbSpillJournal}. The table is rejected if it is empty (as there is
+		 * nothing to publish), cannot be encoded or the journal is full
+		 */
+		SPILL
+	}
+	
+	
+	private final long capacity;
+	
+	private final ECapacityUnit capacityUnit;
+	
+	private final EOverflowPolicy overflowPolicy;
+	
+	/** Only used with {@link EOverflowPolicy#CONFLATE} */
+	private final Function<IKdbPublishable, ?> conflationKey;
+	
+	private final ArrayDeque<QueuedTable> queue;
+	
+	/** The most recently queued table for each conflation key. Only used with {@link EOverflowPolicy#CONFLATE} */
+	private final Map<Object, QueuedTable> latestByKey;
+	
+	/** Only used with {@link EOverflowPolicy#SPILL} */
+	private final KdbSpillJournal journal;
+	
+	/** The next message in the journal, once read by {@link #peek()}, so it is only read from the journal once */
+	private IKdbPublishable journalHead;
+	
+	private final ReentrantLock lock;
+	
+	private final Condition notFull;
+	
+	/** The total size of the queued tables, in {@link #capacityUnit} */
+	private long used;
+	
+	/** 
+	 * The number of queued tables, including those in the journal. Separate to {@link #queue} so it can be read without the 
+	 * lock by the publisher thread
+	 */
+	private volatile int depth;
+	
+	private final LongAdder dropped;
+	
+	private final LongAdder conflated;
+	
+	private final LongAdder spilled;
+	
+	private final LongAdder rejected;
+	
+	
+	/**
+	 * @see #KdbPublishQueue(long, ECapacityUnit, EOverflowPolicy, Function)
+	 * @throws IllegalArgumentException If the overflow policy is {@link EOverflowPolicy#CONFLATE}, which requires a key, or
+	 * {@link EOverflowPolicy#SPILL}, which requires a journal
+	 */
+	public KdbPublishQueue(long capacity, ECapacityUnit capacityUnit, EOverflowPolicy overflowPolicy) throws IllegalArgumentException {
+		this(capacity, capacityUnit, overflowPolicy, null, null);
+	}
+	
+	/**
+	 * Creates a queue with the {@link EOverflowPolicy#SPILL} policy. The journal is closed when the queue is {@link #close() closed}
+	 * @param capacity The maximum total size of the tables held on the heap
+	 * @param capacityUnit The unit of the capacity
+	 * @param journal The journal that tables are spilled to when there is no room on the heap
+	 * @throws IllegalArgumentException If the capacity is not positive, or the unit or journal is not specified
+	 */
+	public KdbPublishQueue(long capacity, ECapacityUnit capacityUnit, KdbSpillJournal journal) throws IllegalArgumentException {
+		this(capacity, capacityUnit, EOverflowPolicy.SPILL, null, journal);
+	}
+	
+	/**
+	 * @param capacity The maximum total size of the queued tables
+	 * @param capacityUnit The unit of the capacity
+	 * @param overflowPolicy The action to take when a table is queued and there is no room for it
+	 * @param conflationKey Returns the key of a table for {@link EOverflowPolicy#CONFLATE} (e.g. the table name and symbol).
+	 * Ignored for other policies
+	 * @throws IllegalArgumentException If the capacity is not positive, the unit or policy is not specified, the policy is
+	 * {@link EOverflowPolicy#CONFLATE} and no conflation key is specified, or the policy is {@link EOverflowPolicy#SPILL}
+	 */
+	public KdbPublishQueue(long capacity, ECapacityUnit capacityUnit, EOverflowPolicy overflowPolicy, Function<IKdbPublishable, ?> conflationKey) throws IllegalArgumentException {
+		this(capacity, capacityUnit, overflowPolicy, conflationKey, null);
+	}
+	
+	private KdbPublishQueue(long capacity, ECapacityUnit capacityUnit, EOverflowPolicy overflowPolicy, Function<IKdbPublishable, ?> conflationKey, KdbSpillJournal journal) throws IllegalArgumentException {
+		if(capacity <= 0)
+			throw new IllegalArgumentException("Queue capacity must be positive");
+		
+		if(capacityUnit == null || overflowPolicy == null)
+			throw new IllegalArgumentException("Queue capacity unit and overflow policy must be specified");
+		
+		if(overflowPolicy == EOverflowPolicy.CONFLATE && conflationKey == null)
+			throw new IllegalArgumentException("Conflation key must be specified for the conflate overflow policy");
+		
+		if(overflowPolicy == EOverflowPolicy.SPILL && journal == null)
+			throw new IllegalArgumentException("Spill journal must be specified for the spill overflow policy");
+		
+		this.capacity = capacity;
+		this.capacityUnit = capacityUnit;
+		this.overflowPolicy = overflowPolicy;
+		this.conflationKey = conflationKey;
+		this.journal = journal;
+		
+		this.queue = new ArrayDeque<>();
+		this.latestByKey = (overflowPolicy == EOverflowPolicy.CONFLATE) ? new HashMap<>() : null;
+		
+		this.lock = new ReentrantLock();
+		this.notFull = lock.newCondition();
+		
+		this.dropped = new LongAdder();
+		this.conflated = new LongAdder();
+		this.spilled = new LongAdder();
+		this.rejected = new LongAdder();
+	}
+	
+	
+	/**
+	 * Queues the table, applying the {@link EOverflowPolicy} if there is no room for it. With {@link EOverflowPolicy#BLOCK},
+	 * if the calling thread is interrupted while waiting the table is rejected and the interrupt status is restored.
+	 * @return <code>true</code> if the table was queued (or conflated or spilled), <code>false</code> if it was rejected
+	 * @throws NullPointerException If the table is <code>null</code>
+	 */
+	@Override
+	public boolean offer(IKdbPublishable table) throws NullPointerException {
+		if(table == null)
+			throw new NullPointerException("Cannot queue null table");
+		
+		long size = sizeOf(table);
+		Object key = (latestByKey == null) ? null : conflationKey.apply(table);
+		
+		KdbEncodedMessage message = null;
+		
+		try {
+			while(true) {
+				lock.lock();
+				
+				try {
+					// Checked again once encoded, as the journal may have been drained while encoding
+					if(journal == null || (journal.isEmpty() && hasRoomFor(size)))
+						return enqueue(table, size, key);
+					
+					if(message != null)
+						return spill(table, message);
+				} finally {
+					lock.unlock();
+				}
+				
+				try {
+					message = (table instanceof KdbEncodedMessage) ? ((KdbEncodedMessage) table).retain() : KdbEncodedMessage.encode((KdbTable) table);
+				} catch (IOException | RuntimeException e) {
+					rejected.increment();
+					return false;
+				}
+				
+				if(message == null) {
+					rejected.increment();
+					return false;
+				}
+			}
+		} finally {
+			if(message != null)
+				message.release();
+		}
+	}
+	
+	@Override
+	public IKdbPublishable poll() {
+		lock.lock();
+		
+		try {
+			if(queue.isEmpty())
+				return takeJournalHead();
+			
+			return removeHead().table;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public IKdbPublishable peek() {
+		lock.lock();
+		
+		try {
+			QueuedTable head = queue.peekFirst();
+			return (head == null) ? peekJournal() : head.table;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/** Removes the specified table, compared by identity, if it is still in the queue */
+	@Override
+	public boolean remove(Object table) {
+		lock.lock();
+		
+		try {
+			if(table != null && table == journalHead) {
+				takeJournalHead();
+				return true;
+			}
+			
+			Iterator<QueuedTable> tables = queue.iterator();
+			
+			while(tables.hasNext()) {
+				QueuedTable queued = tables.next();
+				
+				if(queued.table == table) {
+					tables.remove();
+					removed(queued);
+					
+					return true;
+				}
+			}
+			
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public void clear() {
+		lock.lock();
+		
+		try {
+			for(QueuedTable queued : queue)
+				queued.table.release();
+			
+			queue.clear();
+			used = 0;
+			
+			if(journal != null) {
+				journal.clear();
+				journalHead = null;
+			}
+			
+			updateDepth();
+			
+			if(latestByKey != null)
+				latestByKey.clear();
+			
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/** @return The number of queued tables */
+	@Override
+	public int size() {
+		return depth;
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return depth == 0;
+	}
+	
+	/** The iterator does not include tables in the journal */
+	@Override
+	public Iterator<IKdbPublishable> iterator() {
+		lock.lock();
+		
+		try {
+			List<IKdbPublishable> snapshot = new ArrayList<>(queue.size());
+			
+			for(QueuedTable queued : queue)
+				snapshot.add(queued.table);
+			
+			return Collections.unmodifiableList(snapshot).iterator();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/** @return The total size of the queued tables, in the {@link #getCapacityUnit()} */
+	public long getUsed() {
+		lock.lock();
+		
+		try {
+			return used;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	public long getCapacity() {
+		return capacity;
+	}
+	
+	public ECapacityUnit getCapacityUnit() {
+		return capacityUnit;
+	}
+	
+	public EOverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+	
+	/** @return The number of queued tables dropped to make room for newer tables */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+	
+	/** @return The number of queued tables replaced by a newer table with the same conflation key */
+	public long getConflatedCount() {
+		return conflated.sum();
+	}
+	
+	/** @return The number of tables appended to the journal */
+	public long getSpilledCount() {
+		return spilled.sum();
+	}
+	
+	/** @return The journal that tables are spilled to, or <code>null</code> if the policy is not {@link EOverflowPolicy#SPILL} */
+	public KdbSpillJournal getJournal() {
+		return journal;
+	}
+	
+	/** @return The number of tables that were not queued */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+	
+	/** Clears the queue and closes the journal, if there is one */
+	public void close() throws IOException {
+		clear();
+		
+		if(journal != null)
+			journal.close();
+	}
+	
+	@Override
+	public String toString() {
+		return "KdbPublishQueue [ Depth: " + depth + " ] [ Capacity: " + capacity + " " + capacityUnit + " ] [ Policy: " + overflowPolicy + " ]";
+	}
+	
+	
+	private boolean hasRoomFor(long size) {
+		return queue.isEmpty() || used + size <= capacity;
+	}
+	
+	/** Queues the table on the heap, applying the {@link EOverflowPolicy} if there is no room for it. Must be called with the lock held */
+	private boolean enqueue(IKdbPublishable table, long size, Object key) {
+		while(! hasRoomFor(size)) {
+			switch(overflowPolicy) {
+				case BLOCK:
+					try {
+						notFull.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						rejected.increment();
+						return false;
+					}
+					
+					break;
+				
+				case FAIL_FAST:
+					rejected.increment();
+					return false;
+				
+				case CONFLATE:
+					QueuedTable latest = latestByKey.get(key);
+					
+					if(latest != null && used - latest.size + size <= capacity) {
+						used += size - latest.size;
+						latest.table.release();
+						latest.table = table;
+						latest.size = size;
+						
+						conflated.increment();
+						return true;
+					}
+					
+					dropOldest();
+					break;
+				
+				case DROP_OLDEST:
+					dropOldest();
+					break;
+			}
+		}
+		
+		QueuedTable queued = new QueuedTable(table, size, key);
+		
+		queue.addLast(queued);
+		used += size;
+		updateDepth();
+		
+		if(latestByKey != null)
+			latestByKey.put(key, queued);
+		
+		return true;
+	}
+	
+	/** 
+	 * Appends the encoded table to the journal. The table is released, as it is no longer held by the queue. Must be called
+	 * with the lock held 
+	 */
+	private boolean spill(IKdbPublishable table, KdbEncodedMessage message) {
+		if(! journal.append(message)) {
+			rejected.increment();
+			return false;
+		}
+		
+		table.release();
+		spilled.increment();
+		updateDepth();
+		
+		return true;
+	}
+	
+	/** Must be called with the lock held */
+	private IKdbPublishable peekJournal() {
+		if(journalHead == null && journal != null)
+			journalHead = journal.read();
+		
+		return journalHead;
+	}
+	
+	/** Must be called with the lock held */
+	private IKdbPublishable takeJournalHead() {
+		IKdbPublishable head = peekJournal();
+		
+		if(head != null) {
+			journal.skip();
+			journalHead = null;
+			updateDepth();
+		}
+		
+		return head;
+	}
+	
+	/** Must be called with the lock held */
+	private void updateDepth() {
+		depth = queue.size() + ((journal == null) ? 0 : journal.getMessageCount());
+	}
+	
+	/** Must be called with the lock held */
+	private QueuedTable removeHead() {
+		QueuedTable head = queue.removeFirst();
+		removed(head);
+		
+		return head;
+	}
+	
+	/** Must be called with the lock held */
+	private void dropOldest() {
+		removeHead().table.release();
+		dropped.increment();
+	}
+	
+	/** Must be called with the lock held */
+	private void removed(QueuedTable queued) {
+		used -= queued.size;
+		updateDepth();
+		
+		if(latestByKey != null)
+			latestByKey.remove(queued.key, queued);
+		
+		notFull.signalAll();
+	}
+	
+	private long sizeOf(IKdbPublishable table) {
+		if(capacityUnit == ECapacityUnit.ROWS)
+			return table.getRowCount();
+		
+		return KdbTableSizeEstimator.estimateBytes(table);
+	}
+	
+	
+	/** A queued table and its size. The table is replaced when conflated */
+	private static class QueuedTable {
+		
+		private IKdbPublishable table;
+		
+		private long size;
+		
+		private final Object key;
+		
+		
+		public QueuedTable(IKdbPublishable table, long size, Object key) {
+			this.table = table;
+			this.size = size;
+			this.key = key;
+		}
+	}
+}
@@ -3,8 +3,8 @@ package com.buabook.kdb.publisher;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import org.joda.time.DateTime;
 import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,10 +23,14 @@ import com.kx.c.Flip;
  * {@link Flip} format) to a specific kdb process.</p>
  * <p>Any instantiation of this class will cause the publisher to run in the current
  * thread. Use {@link KdbPublisherThread} if you need a new thread.</p>
- * (c) 2014 - 2015 Sport Trades Ltd
+ * <p>Tables can also be published as a {@link KdbEncodedMessage}, which is serialised once and can be written to any
+ * number of publishers.</p>
+ * <p>Once connected, publishing does not allocate beyond the serialisation of the table itself; the connection reset check 
+ * uses {@link System#nanoTime()} and the publish function name is pre-encoded.</p>
+ * (c) 2014 - 2026 Sport Trades Ltd
  *
  * @author Jas Rajasansir
- * @version 1.1.0
+ * @version 1.3.0
  * @since 6 Apr 2014
  */
 public class KdbPublisher extends KdbConnection {
@@ -35,7 +39,7 @@ public class KdbPublisher extends KdbConnection {
 	/** @see #resetConnectionDuration */ 
 	private static final Duration DEFAULT_RESET_CONNECTION_DURATION = Duration.standardMinutes(30);
 	
-	private static final String PUBLISH_FUNCTION = ".u.upd";
+	private static final char[] PUBLISH_FUNCTION = ".u.upd".toCharArray();
 	
 
 	/**
@@ -47,8 +51,11 @@ public class KdbPublisher extends KdbConnection {
 	 */
 	private final Duration resetConnectionDuration;
 	
-	/** The time of the last successful publish to the kdb process */
-	private DateTime lastPublishTime;
+	/** {@link #resetConnectionDuration} in nanoseconds */
+	private final long resetConnectionNanos;
+	
+	/** The time, from {@link System#nanoTime()}, of the last successful publish to the kdb process */
+	private long lastPublishNanos;
 
 	
 	/** @see #KdbPublisher(KdbProcess, Duration) */
@@ -75,7 +82,8 @@ public class KdbPublisher extends KdbConnection {
 		else
 			this.resetConnectionDuration = resetConnectionDuration;
 		
-		this.lastPublishTime = DateTime.now();
+		this.resetConnectionNanos = TimeUnit.MILLISECONDS.toNanos(this.resetConnectionDuration.getMillis());
+		this.lastPublishNanos = System.nanoTime();
 		
 		log.info("Successfully connected to kdb process for publishing [ Target: {} ] [ Connection Reset After: {} ]", server, resetConnectionDuration);
 	}
@@ -122,20 +130,46 @@ public class KdbPublisher extends KdbConnection {
 		if(Strings.isNullOrEmpty(tableName) || tableData == null)
 			return true;
 		
-		if(lastPublishTime.plus(resetConnectionDuration).isBeforeNow()) {
-			log.info("Maximum connection duration has elapsed. Resetting connection before publishing");
-			reconnect();
-		}
+		ensureConnected();
 		
-		if(! isConnected()) {
-			log.warn("Connection to kdb process lost! Attempting reconnect now...");
+		if(log.isDebugEnabled())
+			log.debug("Publishing table update [ Table Name: {} ] [ Table Size: {} ]", tableName, Flips.getRowCount(tableData));
+		
+		try {
+			getConnection().ks(PUBLISH_FUNCTION, tableName, tableData);
+		} catch (RuntimeException e) { 
+			log.error("Uncaught RuntimeException during publishing. Error - {}", e.getMessage(), e);
+			return false;
+		} catch (IOException e) {
+			log.error("Basic I/O exception occurred. Assuming connection has been corrupted. Attempting reconnect. Error - {}", e.getMessage());
 			reconnect();
+			
+			return false;
 		}
 		
-		log.debug("Publishing table update [ Table Name: {} ] [ Table Size: {} ]", tableName, Flips.getRowCount(tableData));
+		lastPublishNanos = System.nanoTime();
+		
+		return true;
+	}
+	
+	/**
+	 * Publishes a table update that has already been serialised, writing the encoded bytes directly to the connection. The 
+	 * message is not released.
+	 * @param message The encoded <code>.u.upd</code> message
+	 * @return <code>true</code> if the publish was successful, <code>false</code> otherwise
+	 * @see KdbEncodedMessage#encode(KdbTable)
+	 */
+	public Boolean publish(KdbEncodedMessage message) {
+		if(message == null)
+			return true;
+		
+		ensureConnected();
+		
+		if(log.isDebugEnabled())
+			log.debug("Publishing encoded table update [ Table Name: {} ] [ Table Size: {} ]", message.getTableName(), message.getRowCount());
 		
 		try {
-			getConnection().ks(PUBLISH_FUNCTION, tableName, tableData);
+			message.writeTo(getConnection());
 		} catch (RuntimeException e) { 
 			log.error("Uncaught RuntimeException during publishing. Error - {}", e.getMessage(), e);
 			return false;
@@ -146,8 +180,20 @@ public class KdbPublisher extends KdbConnection {
 			return false;
 		}
 		
-		lastPublishTime = DateTime.now();
+		lastPublishNanos = System.nanoTime();
 		
 		return true;
 	}
+	
+	private void ensureConnected() {
+		if(System.nanoTime() - lastPublishNanos > resetConnectionNanos) {
+			log.info("Maximum connection duration has elapsed. Resetting connection before publishing");
+			reconnect();
+		}
+		
+		if(! isConnected()) {
+			log.warn("Connection to kdb process lost! Attempting reconnect now...");
+			reconnect();
+		}
+	}
 }
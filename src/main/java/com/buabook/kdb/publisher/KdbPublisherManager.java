@@ -1,8 +1,11 @@
 package com.buabook.kdb.publisher;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,10 +21,12 @@ import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
  * <p>Provides the ability to maintain numerous kdb publishers and interface with them 
  * all through a single method call, within this class.</p>
  * <p>Use cases include PROD &amp; DR dual-publishing</p>
- * (c) 2014 - 2017 Sport Trades Ltd
+ * <p>When publishing to more than one process, each table is converted and serialised once into a {@link KdbEncodedMessage}
+ * and the same encoded bytes are written to every process.</p>
+ * (c) 2014 - 2026 Sport Trades Ltd
  *
  * @author Jas Rajasansir
- * @version 1.0.2
+ * @version 1.1.1
  * @since 18 Apr 2014
  */
 public class KdbPublisherManager {
@@ -47,7 +52,7 @@ public class KdbPublisherManager {
 	
 	/** Publishes the specified tables to all processes that are managed by this class. */
 	public void publish(List<KdbTable> tables) {
-		publishers.forEach((process, publisher) -> publisher.publish(tables));
+		publish(publishers.values(), tables);
 	}
 	
 	/**
@@ -64,8 +69,11 @@ public class KdbPublisherManager {
 			throw new KdbPublisherDoesNotExistException();
 		}
 		
-		for(KdbProcess server : servers)
-			publishers.get(server).publish(tables);
+		List<KdbPublisherThread> targets = servers.stream()
+													.map(publishers::get)
+													.collect(Collectors.toList());
+		
+		publish(targets, tables);
 	}
 	
 	/** @return All target kdb processes that are controlled by this publish manager */
@@ -94,4 +102,43 @@ public class KdbPublisherManager {
 	public void shutdown() {
 		publishers.keySet().forEach(this::disconnect);
 	}
+	
+	
+	/** 
+	 * Tables published to a single process are queued as they are so they can be batched by the publisher. Otherwise each 
+	 * table is encoded once and the encoded message queued on every publisher.
+	 */
+	private void publish(Collection<KdbPublisherThread> targets, List<KdbTable> tables) {
+		if(tables == null || tables.isEmpty())
+			return;
+		
+		if(targets.size() <= 1) {
+			targets.forEach(publisher -> publisher.publish(tables));
+			return;
+		}
+		
+		for(KdbTable table : tables) {
+			if(table == null)
+				continue;
+			
+			KdbEncodedMessage message;
+			
+			try {
+				message = KdbEncodedMessage.encode(table);
+			} catch (IOException | RuntimeException e) {
+				log.error("Failed to encode table for publishing. Publishing table to each process instead [ Table: {} ]. Error - {}", table.getTableName(), e.getMessage());
+				targets.forEach(publisher -> publisher.publish(table));
+				continue;
+			}
+			
+			if(message == null)
+				continue;
+			
+			try {
+				targets.forEach(publisher -> publisher.publish(message));
+			} finally {
+				message.release();
+			}
+		}
+	}
 }
@@ -2,7 +2,9 @@ package com.buabook.kdb.publisher;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import org.joda.time.Duration;
@@ -12,15 +14,25 @@ import org.slf4j.LoggerFactory;
 import com.buabook.kdb.connection.KdbProcess;
 import com.buabook.kdb.data.KdbTable;
 import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.buabook.kdb.interfaces.IKdbPublishWaitStrategy;
+import com.buabook.kdb.interfaces.IKdbPublishable;
+import com.buabook.kdb.publisher.wait.SleepingWaitStrategy;
 import com.google.common.base.Strings;
 import com.kx.c.Flip;
 
 /**
  * <h3>KDB Publisher Thread</h3>
- * (c) 2014 - 2015 Sport Trades Ltd
+ * <p>How the thread waits when there is nothing to publish is defined by a {@link IKdbPublishWaitStrategy}. By default the
+ * thread sleeps for a fixed interval ({@link SleepingWaitStrategy}).</p>
+ * <p>If batching is enabled (see {@link KdbPublishBatchSettings}), consecutive queued tables with the same name and columns
+ * are merged and published as a single message.</p>
+ * <p>Tables can also be queued pre-encoded as a {@link KdbEncodedMessage} (see {@link KdbPublisherManager}).</p>
+ * <p>By default tables are buffered in an unbounded queue. Use a {@link KdbPublishQueue} to bound the buffer and configure 
+ * what happens when it is full.</p>
+ * (c) 2014 - 2026 Sport Trades Ltd
  *
  * @author Jas Rajasansir
- * @version 1.0.3
+ * @version 1.4.0
  * @since 17 Apr 2014
  */
 public class KdbPublisherThread extends Thread {
@@ -30,14 +42,29 @@ public class KdbPublisherThread extends Thread {
 	private static final Long DEFAULT_THREAD_SLEEP_MS = 10l;
 	
 	
-	/** The time the thread should sleep between cycles */
-	private final Long threadSleepMs;
+	/** How the thread waits when there is nothing to publish */
+	private final IKdbPublishWaitStrategy waitStrategy;
 	
 	/** The publisher class containing the code to publish to the KDB process */
 	private KdbPublisher publisher;
 	
-	/** Buffer for all tables that are to be published on this thread to the KDB process */
-	private ConcurrentLinkedQueue<KdbTable> publishBuffer;
+	/** 
+	 * Buffer for all tables that are to be published on this thread to the KDB process. Unbounded unless a 
+	 * {@link KdbPublishQueue} is provided
+	 */
+	private Queue<IKdbPublishable> publishBuffer;
+	
+	/** Set by {@link #disconnect()} so the thread exits without depending on the visibility of the publisher connection */
+	private volatile boolean disconnectRequested;
+	
+	/** Condition passed to the {@link #waitStrategy}, held to avoid allocating on every wait */
+	private final BooleanSupplier hasTablesToPublish = () -> disconnectRequested || ! publishBuffer.isEmpty();
+	
+	/** Merges queued tables for publishing, or <code>null</code> if batching is disabled */
+	private final KdbPublishBatcher batcher;
+	
+	/** The table (or batch) removed from the queue that has not yet been successfully published */
+	private IKdbPublishable pending;
 	
 	
 	/**
@@ -65,12 +92,56 @@ public class KdbPublisherThread extends Thread {
 		this(new KdbPublisher(server, resetConnectionDuration), threadSleepMs);
 	}
 	
+	/**
+	 * @param server The KDB process to connect to
+	 * @param waitStrategy How the thread should wait when there is nothing to publish
+	 * @throws KdbTargetProcessUnavailableException If the KDB process is unavailable at instantiation time
+	 * @see com.buabook.kdb.publisher.wait
+	 */
+	public KdbPublisherThread(KdbProcess server, IKdbPublishWaitStrategy waitStrategy) throws KdbTargetProcessUnavailableException {
+		this(new KdbPublisher(server), waitStrategy);
+	}
+	
+	/**
+	 * @param server The KDB process to connect to
+	 * @param waitStrategy How the thread should wait when there is nothing to publish
+	 * @param batchSettings How queued tables should be batched together, or <code>null</code> to publish each table separately
+	 * @throws KdbTargetProcessUnavailableException If the KDB process is unavailable at instantiation time
+	 */
+	public KdbPublisherThread(KdbProcess server, IKdbPublishWaitStrategy waitStrategy, KdbPublishBatchSettings batchSettings) throws KdbTargetProcessUnavailableException {
+		this(new KdbPublisher(server), waitStrategy, batchSettings);
+	}
+	
+	/** @see #KdbPublisherThread(KdbPublisher, IKdbPublishWaitStrategy, KdbPublishBatchSettings, KdbPublishQueue) */
+	public KdbPublisherThread(KdbProcess server, IKdbPublishWaitStrategy waitStrategy, KdbPublishBatchSettings batchSettings, KdbPublishQueue publishQueue) throws KdbTargetProcessUnavailableException {
+		this(new KdbPublisher(server), waitStrategy, batchSettings, publishQueue);
+	}
+	
 	public KdbPublisherThread(KdbPublisher publisher, Long threadSleepMs) {
+		this(publisher, new SleepingWaitStrategy(threadSleepMs));
+	}
+	
+	public KdbPublisherThread(KdbPublisher publisher, IKdbPublishWaitStrategy waitStrategy) {
+		this(publisher, waitStrategy, null);
+	}
+	
+	public KdbPublisherThread(KdbPublisher publisher, IKdbPublishWaitStrategy waitStrategy, KdbPublishBatchSettings batchSettings) {
+		this(publisher, waitStrategy, batchSettings, null);
+	}
+	
+	/**
+	 * @param publisher The connected publisher
+	 * @param waitStrategy How the thread should wait when there is nothing to publish
+	 * @param batchSettings How queued tables should be batched together, or <code>null</code> to publish each table separately
+	 * @param publishQueue The bounded queue to buffer tables in, or <code>null</code> to use an unbounded queue
+	 */
+	public KdbPublisherThread(KdbPublisher publisher, IKdbPublishWaitStrategy waitStrategy, KdbPublishBatchSettings batchSettings, KdbPublishQueue publishQueue) {
 		super();
 		
-		this.threadSleepMs = threadSleepMs;
+		this.waitStrategy = waitStrategy;
+		this.batcher = (batchSettings == null) ? null : new KdbPublishBatcher(batchSettings);
 		this.publisher = publisher;
-		this.publishBuffer = new ConcurrentLinkedQueue<>();
+		this.publishBuffer = (publishQueue == null) ? new ConcurrentLinkedQueue<>() : publishQueue;
 		this.setName("KdbPublisher-" + publisher.getRemoteProcess().getHostname() + "-" + publisher.getRemoteProcess().getPort());
 		
 		this.start();
@@ -78,56 +149,91 @@ public class KdbPublisherThread extends Thread {
 
 
 	/**
-	 * Thread sleeps for the specified {@link #threadSleepMs} before retrieving the latest
-	 * table from the head of the queue and publishes to the kdb process.
-	 * @see Thread#sleep(long)
+	 * Thread waits with the configured {@link #waitStrategy} until there is a table to publish before 
+	 * retrieving the latest table (or batch of tables) from the head of the queue and publishes to the kdb process.
+	 * @see IKdbPublishWaitStrategy#await(java.util.function.BooleanSupplier)
 	 * @see KdbPublisher#isConnected()
 	 * @see KdbPublisher#publish(KdbTable)
 	 */
 	@Override
 	public void run() {
-		while(publisher.isConnected()) {
+		while(! disconnectRequested && publisher.isConnected()) {
 			
-			if(publishBuffer.isEmpty()) {
+			if(pending == null && publishBuffer.isEmpty()) {
 				try {
-					Thread.sleep(threadSleepMs);
+					waitStrategy.await(hasTablesToPublish);
 				} catch (InterruptedException e) { }
 				
 				continue;
 			}
 			
-			KdbTable toPublish = publishBuffer.peek();
+			IKdbPublishable toPublish = nextToPublish();
 			
 			if(log.isDebugEnabled())
 				log.debug("Publishing table update [ Table Name: {} ] [ Table Size: {} ] [ Queue Size: {} ]", toPublish.getTableName(), toPublish.getRowCount(), publishBuffer.size());
 			
-			boolean published = publisher.publish(toPublish);
+			boolean published = send(toPublish);
 			
 			if(! published) {
 				log.warn("Kdb publishing failed. Will reattempt again. [ Table: {} ] [ Queue Size: {} ]", toPublish.getTableName(), publishBuffer.size());
 				continue;
 			}
 
-			publishBuffer.remove();
+			toPublish.release();
+			pending = null;
 		};
 		
 		log.error("KDB publisher thread has disconnected, thread will now exit [ KDB Process: {} ]", publisher);
 		
 		// Let's empty the buffer and null it so anyone attempting to add more elements knows that
 		// this publisher is dead
+		if(pending != null)
+			pending.release();
+		
+		// A bounded queue releases the tables itself on clear, without reading back any spilled to its journal
+		if(! (publishBuffer instanceof KdbPublishQueue))
+			for(IKdbPublishable queued = publishBuffer.poll(); queued != null; queued = publishBuffer.poll())
+				queued.release();
+		
 		publishBuffer.clear();
 		publishBuffer = null;
+		pending = null;
+	}
+	
+	private boolean send(IKdbPublishable toPublish) {
+		if(toPublish instanceof KdbEncodedMessage)
+			return publisher.publish((KdbEncodedMessage) toPublish);
+		
+		return publisher.publish((KdbTable) toPublish);
+	}
+	
+	/** 
+	 * Tables are removed from the queue before they are published (so they cannot be dropped from a bounded queue while being 
+	 * published) and held in {@link #pending} until they have been published successfully
+	 */
+	private IKdbPublishable nextToPublish() {
+		if(pending == null)
+			pending = (batcher == null) ? publishBuffer.poll() : batcher.next(publishBuffer);
+		
+		return pending;
+	}
+	
+	/** @return The number of tables waiting to be published, excluding any table currently being published */
+	public int getQueueDepth() {
+		Queue<IKdbPublishable> buffer = publishBuffer;
+		return (buffer == null) ? 0 : buffer.size();
 	}
 	
 	/** 
 	 * <p>This method adds the list of tables to the publish buffer ({@link #publishBuffer}) ready for
 	 * publishing to the kdb process on the next iteration of the main thread loop.</p>
 	 * <p><b>NOTE:</b> Do not send lists with <code>null</code> {@link KdbTable} elements.</p> 
-	 * @see ConcurrentLinkedQueue#addAll(java.util.Collection)
+	 * @return <code>true</code> if all the tables were queued, <code>false</code> if any were rejected by a bounded queue
+	 * @see KdbPublishQueue#offer(IKdbPublishable)
 	 */
-	public void publish(List<KdbTable> tables) {
+	public boolean publish(List<KdbTable> tables) {
 		if(tables == null || tables.isEmpty())
-			return;
+			return true;
 		
 		if(tables.contains(null)) {
 			int beforeNullSize = tables.size();
@@ -139,27 +245,67 @@ public class KdbPublisherThread extends Thread {
 			log.warn("One or more tables to be published are null and will not be published [ Before Size: {} ] [ After Size: {} ]", beforeNullSize, tables.size());
 		}
 		
-		publishBuffer.addAll(tables);
+		boolean allQueued = true;
+		
+		for(KdbTable table : tables)
+			allQueued &= publishBuffer.offer(table);
+		
+		waitStrategy.signal();
+		
+		if(! allQueued)
+			log.warn("One or more tables were rejected by the publish queue [ Queue: {} ]", publishBuffer);
+		
+		return allQueued;
 	}
 	
-	/** @see KdbPublisher#publish(KdbTable) */
-	public void publish(KdbTable table) {
+	/** 
+	 * @return <code>true</code> if the table was queued, <code>false</code> if it was rejected by a bounded queue
+	 * @see KdbPublisher#publish(KdbTable) 
+	 */
+	public boolean publish(KdbTable table) {
 		if(table == null)
-			return;
+			return true;
+		
+		boolean queued = publishBuffer.offer(table);
+		waitStrategy.signal();
+		
+		return queued;
+	}
+	
+	/**
+	 * Queues a table update that has already been encoded. The thread retains its own reference to the message, which it
+	 * releases once the message has been published (or dropped), so the caller must still release its reference.
+	 * @return <code>true</code> if the message was queued, <code>false</code> if it was rejected by a bounded queue
+	 * @see KdbEncodedMessage#retain()
+	 */
+	public boolean publish(KdbEncodedMessage message) {
+		if(message == null)
+			return true;
+		
+		message.retain();
+		
+		boolean queued = publishBuffer.offer(message);
+		
+		if(! queued)
+			message.release();
+		
+		waitStrategy.signal();
 		
-		publishBuffer.add(table);
+		return queued;
 	}
 	
-	/** @see KdbPublisher#publish(String, Flip) */
-	public void publish(String tableName, Flip tableData) { 
+	/** @see #publish(KdbTable) */
+	public boolean publish(String tableName, Flip tableData) { 
 		if(Strings.isNullOrEmpty(tableName) || tableData == null)
-			return;
+			return true;
 		
-		publish(new KdbTable(tableName, tableData));
+		return publish(new KdbTable(tableName, tableData));
 	}
 	
 	/** @see KdbPublisher#disconnect() */
 	public synchronized void disconnect() {
+		disconnectRequested = true;
 		publisher.disconnect();
+		waitStrategy.signal();
 	}
 }
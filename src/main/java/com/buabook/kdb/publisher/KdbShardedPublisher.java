@@ -0,0 +1,245 @@
+package com.buabook.kdb.publisher;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.data.columns.KdbColumn;
+import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+/**
+ * <h3>Key-Sharded KDB Publisher</h3>
+ * <p>Spreads a single logical feed over a number of kdb processes (e.g. tickerplants) by a key column of each table, such
+ * as <code>sym</code>. Each row is sent to the shard at position <code>floorMod(key.hashCode(), shardCount)</code> in the
+ * list of shards, so all rows for a key are always published to the same process.</p>
+ * <p>Routing depends only on the key value and the position of the shard in the list, not on the state of any connection,
+ * so it is stable across reconnects. The key values must have a stable hash code (e.g. {@link String} or {@link Long}).</p>
+ * <p>Tables are split column-wise in a single pass over each column. A table whose rows all belong to one shard is published
+ * without being copied.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class KdbShardedPublisher {
+	private static final Logger log = LoggerFactory.getLogger(KdbShardedPublisher.class);
+	
+	
+	private final String shardKeyColumn;
+	
+	private final List<KdbPublisherThread> shards;
+	
+	
+	/**
+	 * @param shardKeyColumn The column of each table to shard by
+	 * @param shards The publisher for each shard. The order of the list defines the routing and must be the same for all
+	 * instances publishing the same feed
+	 * @throws IllegalArgumentException If the shard key column is not specified or there are no shards
+	 */
+	public KdbShardedPublisher(String shardKeyColumn, List<KdbPublisherThread> shards) throws IllegalArgumentException {
+		if(Strings.isNullOrEmpty(shardKeyColumn))
+			throw new IllegalArgumentException("Shard key column must be specified");
+		
+		if(shards == null || shards.isEmpty() || shards.contains(null))
+			throw new IllegalArgumentException("At least one shard publisher must be specified");
+		
+		this.shardKeyColumn = shardKeyColumn;
+		this.shards = ImmutableList.copyOf(shards);
+	}
+	
+	/**
+	 * Connects a {@link KdbPublisherThread} with the default settings to each process
+	 * @param shardKeyColumn The column of each table to shard by
+	 * @param processes The kdb process for each shard. The order of the list defines the routing
+	 * @throws KdbTargetProcessUnavailableException If any process is unavailable. Any publishers already connected are disconnected
+	 * @see #KdbShardedPublisher(String, List)
+	 */
+	public static KdbShardedPublisher connect(String shardKeyColumn, List<KdbProcess> processes) throws KdbTargetProcessUnavailableException {
+		List<KdbPublisherThread> shards = new ArrayList<>();
+		
+		try {
+			for(KdbProcess process : processes)
+				shards.add(new KdbPublisherThread(process));
+		} catch (KdbTargetProcessUnavailableException e) {
+			shards.forEach(KdbPublisherThread::disconnect);
+			throw e;
+		}
+		
+		return new KdbShardedPublisher(shardKeyColumn, shards);
+	}
+	
+	
+	/**
+	 * Splits the table by the shard key column and queues each part on the publisher for its shard
+	 * @return <code>true</code> if every part was queued, <code>false</code> if any were rejected by a bounded queue
+	 * @throws IllegalArgumentException If the table does not contain the shard key column
+	 * @see #split(KdbTable, String, int)
+	 */
+	public boolean publish(KdbTable table) throws IllegalArgumentException {
+		if(table == null || table.isEmpty())
+			return true;
+		
+		KdbTable[] parts = split(table, shardKeyColumn, shards.size());
+		boolean allQueued = true;
+		
+		for(int shard = 0; shard < parts.length; shard++)
+			if(parts[shard] != null)
+				allQueued &= shards.get(shard).publish(parts[shard]);
+		
+		if(! allQueued)
+			log.warn("One or more shards rejected part of the table [ Table: {} ]", table.getTableName());
+		
+		return allQueued;
+	}
+	
+	/** @see #publish(KdbTable) */
+	public boolean publish(List<KdbTable> tables) throws IllegalArgumentException {
+		if(tables == null)
+			return true;
+		
+		boolean allQueued = true;
+		
+		for(KdbTable table : tables)
+			allQueued &= publish(table);
+		
+		return allQueued;
+	}
+	
+	/** @return The shard that rows with the specified key are published to */
+	public int getShard(Object key) {
+		return getShard(key, shards.size());
+	}
+	
+	public int getShardCount() {
+		return shards.size();
+	}
+	
+	public String getShardKeyColumn() {
+		return shardKeyColumn;
+	}
+	
+	/** @return The publisher for each shard, in routing order */
+	public List<KdbPublisherThread> getShards() {
+		return shards;
+	}
+	
+	/** Disconnects the publisher for every shard */
+	public void disconnect() {
+		shards.forEach(KdbPublisherThread::disconnect);
+	}
+	
+	@Override
+	public String toString() {
+		return "KdbShardedPublisher [ Key: " + shardKeyColumn + " ] [ Shards: " + shards.size() + " ]";
+	}
+	
+	
+	/**
+	 * Splits a table into one table per shard by the value of the shard key column in each row. Rows keep their relative order
+	 * within each shard, and typed columns remain typed.
+	 * @return The part of the table for each shard, or <code>null</code> for shards with no rows. If all rows belong to a
+	 * single shard, the original table is returned for that shard
+	 * @throws IllegalArgumentException If the table does not contain the shard key column
+	 */
+	public static KdbTable[] split(KdbTable table, String shardKeyColumn, int shardCount) throws IllegalArgumentException {
+		List<Object> keys = table.getTableData().get(shardKeyColumn);
+		
+		if(keys == null)
+			throw new IllegalArgumentException("Table does not contain shard key column [ Table: " + table.getTableName() + " ] [ Column: " + shardKeyColumn + " ]");
+		
+		int rowCount = table.getRowCount();
+		int[] rowShards = new int[rowCount];
+		int[] shardSizes = new int[shardCount];
+		
+		for(int row = 0; row < rowCount; row++)
+			shardSizes[rowShards[row] = getShard(keys.get(row), shardCount)]++;
+		
+		KdbTable[] parts = new KdbTable[shardCount];
+		
+		for(int shard = 0; shard < shardCount; shard++) {
+			if(shardSizes[shard] == rowCount) {
+				parts[shard] = table;
+				return parts;
+			}
+		}
+		
+		List<String> columnNames = new ArrayList<>(table.getTableData().keySet());
+		Object[][] shardColumns = new Object[shardCount][columnNames.size()];
+		
+		for(int cCount = 0; cCount < columnNames.size(); cCount++) {
+			Object[] columnParts = splitColumn(table.getTableData().get(columnNames.get(cCount)), rowShards, shardSizes);
+			
+			for(int shard = 0; shard < shardCount; shard++)
+				shardColumns[shard][cCount] = columnParts[shard];
+		}
+		
+		String[] names = columnNames.toArray(new String[0]);
+		
+		for(int shard = 0; shard < shardCount; shard++)
+			if(shardSizes[shard] > 0)
+				parts[shard] = new KdbTable(table.getTableName(), new Flip(new Dict(names, shardColumns[shard])));
+		
+		return parts;
+	}
+	
+	
+	private static int getShard(Object key, int shardCount) {
+		return Math.floorMod(Objects.hashCode(key), shardCount);
+	}
+	
+	/**
+	 * Typed columns are copied into arrays of the same type, copying runs of consecutive rows for the same shard at once. Other
+	 * columns are copied into object arrays.
+	 * @return The array for each shard
+	 */
+	private static Object[] splitColumn(List<Object> column, int[] rowShards, int[] shardSizes) {
+		Object[] parts = new Object[shardSizes.length];
+		int[] positions = new int[shardSizes.length];
+		
+		if(column instanceof KdbColumn) {
+			KdbColumn<?> typed = (KdbColumn<?>) column;
+			Object source = typed.getArray();
+			
+			for(int shard = 0; shard < shardSizes.length; shard++)
+				parts[shard] = Array.newInstance(typed.getElementType(), shardSizes[shard]);
+			
+			int runStart = 0;
+			
+			for(int row = 1; row <= rowShards.length; row++) {
+				if(row < rowShards.length && rowShards[row] == rowShards[runStart])
+					continue;
+				
+				int shard = rowShards[runStart];
+				int runLength = row - runStart;
+				
+				System.arraycopy(source, runStart, parts[shard], positions[shard], runLength);
+				
+				positions[shard] += runLength;
+				runStart = row;
+			}
+			
+			return parts;
+		}
+		
+		for(int shard = 0; shard < shardSizes.length; shard++)
+			parts[shard] = new Object[shardSizes[shard]];
+		
+		for(int row = 0; row < rowShards.length; row++) {
+			int shard = rowShards[row];
+			((Object[]) parts[shard])[positions[shard]++] = column.get(row);
+		}
+		
+		return parts;
+	}
+}
@@ -0,0 +1,174 @@
+package com.buabook.kdb.publisher;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h3>Publish Spill Journal</h3>
+ * <p>Memory-mapped, append-only journal of encoded publish messages, used by {@link KdbPublishQueue} to hold messages on local
+ * disk rather than the heap when the queue is full (e.g. during an outage of the kdb process). Messages are stored in kdb IPC
+ * format so they can be written straight to the connection when replayed, without any conversion.</p>
+ * <p>Messages are read back in the order they were appended. Once every message has been read the journal is reset, so the
+ * file is reused from the start for the next outage.</p>
+ * <p>The journal provides overflow capacity only; it is emptied when it is opened, so messages are not recovered after a
+ * restart.</p>
+ * <p>Implementation is <i>not</i> thread-safe. {@link KdbPublishQueue} only accesses it with its lock held.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class KdbSpillJournal implements Closeable {
+	
+	/** Record header: message length (int), row count (int), table name length (short) */
+	private static final int RECORD_HEADER_SIZE = 4 + 4 + 2;
+	
+	
+	private final Path file;
+	
+	private final FileChannel channel;
+	
+	private final MappedByteBuffer journal;
+	
+	/** The position the next message will be appended at */
+	private int writePosition;
+	
+	/** The position of the next message to read */
+	private int readPosition;
+	
+	private int messageCount;
+	
+	
+	/**
+	 * Opens (or creates) and maps the journal file. Any existing content is discarded.
+	 * @param file The file to map
+	 * @param capacityBytes The size of the journal, in bytes. Up to {@link Integer#MAX_VALUE}
+	 * @throws IOException If the file cannot be opened or mapped
+	 * @throws IllegalArgumentException If the capacity is not positive or is too large to map
+	 */
+	public KdbSpillJournal(Path file, long capacityBytes) throws IOException, IllegalArgumentException {
+		if(capacityBytes <= 0 || capacityBytes > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Journal capacity must be between 1 and " + Integer.MAX_VALUE + " bytes");
+		
+		this.file = file;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.journal = channel.map(MapMode.READ_WRITE, 0, capacityBytes);
+		
+		clear();
+	}
+	
+	
+	/**
+	 * Appends the encoded message to the end of the journal
+	 * @return <code>true</code> if the message was appended, <code>false</code> if there is not enough space in the journal
+	 * @throws IllegalStateException If the message has already been released
+	 */
+	public boolean append(KdbEncodedMessage message) throws IllegalStateException {
+		byte[] bytes = message.getBytes();
+		byte[] tableName = message.getTableName().getBytes(StandardCharsets.UTF_8);
+		
+		long recordSize = (long) RECORD_HEADER_SIZE + tableName.length + bytes.length;
+		
+		if(tableName.length > Short.MAX_VALUE || writePosition + recordSize > journal.capacity())
+			return false;
+		
+		journal.position(writePosition);
+		journal.putInt(bytes.length);
+		journal.putInt(message.getRowCount());
+		journal.putShort((short) tableName.length);
+		journal.put(tableName);
+		journal.put(bytes);
+		
+		writePosition = journal.position();
+		messageCount++;
+		
+		return true;
+	}
+	
+	/**
+	 * Reads the next message in the journal without removing it. Each call returns a new message with its own copy of the bytes.
+	 * @return The next message, or <code>null</code> if the journal is empty
+	 * @see #skip()
+	 */
+	public KdbEncodedMessage read() {
+		if(messageCount == 0)
+			return null;
+		
+		journal.position(readPosition);
+		
+		byte[] bytes = new byte[journal.getInt()];
+		int rowCount = journal.getInt();
+		byte[] tableName = new byte[journal.getShort()];
+		
+		journal.get(tableName);
+		journal.get(bytes);
+		
+		return KdbEncodedMessage.wrap(new String(tableName, StandardCharsets.UTF_8), rowCount, bytes);
+	}
+	
+	/** Removes the next message from the journal. When the last message is removed, the journal is reset */
+	public void skip() {
+		if(messageCount == 0)
+			return;
+		
+		int messageLength = journal.getInt(readPosition);
+		int tableNameLength = journal.getShort(readPosition + 8);
+		
+		readPosition += RECORD_HEADER_SIZE + tableNameLength + messageLength;
+		messageCount--;
+		
+		if(messageCount == 0)
+			clear();
+	}
+	
+	/** Discards all messages */
+	public void clear() {
+		readPosition = 0;
+		writePosition = 0;
+		messageCount = 0;
+	}
+	
+	public boolean isEmpty() {
+		return messageCount == 0;
+	}
+	
+	public int getMessageCount() {
+		return messageCount;
+	}
+	
+	/** @return The number of bytes used by the messages in the journal */
+	public long getUsedBytes() {
+		return writePosition - readPosition;
+	}
+	
+	public long getCapacityBytes() {
+		return journal.capacity();
+	}
+	
+	public Path getFile() {
+		return file;
+	}
+	
+	/**
+	 * Closes the journal file and deletes it. The mapping itself is released when the journal is garbage collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		clear();
+		channel.close();
+		Files.deleteIfExists(file);
+	}
+	
+	@Override
+	public String toString() {
+		return "KdbSpillJournal [ File: " + file + " ] [ Messages: " + messageCount + " ] [ Used: " + getUsedBytes() + " / " + journal.capacity() + " ]";
+	}
+}
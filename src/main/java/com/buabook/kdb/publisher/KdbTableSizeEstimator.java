@@ -0,0 +1,74 @@
+package com.buabook.kdb.publisher;
+
+import java.util.List;
+
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.data.columns.KdbColumn;
+import com.buabook.kdb.interfaces.IKdbPublishable;
+
+/**
+ * <h3>Table Size Estimator</h3>
+ * <p>Estimates the serialised size of a {@link KdbTable} (or returns the size of a {@link KdbEncodedMessage}) for the publisher batch and queue limits without serialising it.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+final class KdbTableSizeEstimator {
+	
+	/** The estimated serialised size of a cell in a column whose type is not known */
+	private static final int UNKNOWN_CELL_BYTES = 8;
+	
+	
+	private KdbTableSizeEstimator() {}
+	
+	
+	/** @return The size of an encoded message, or an estimate of the serialised size of a table */
+	static long estimateBytes(IKdbPublishable update) {
+		if(update instanceof KdbEncodedMessage)
+			return ((KdbEncodedMessage) update).getLength();
+		
+		return estimateBytes((KdbTable) update);
+	}
+	
+	/** @return An estimate of the serialised size of the table data, based on the element type of each column */
+	static long estimateBytes(KdbTable table) {
+		long bytes = 0;
+		
+		for(List<Object> column : table.getTableData().values())
+			bytes += estimateBytes(column);
+		
+		return bytes;
+	}
+	
+	private static long estimateBytes(List<Object> column) {
+		if(! (column instanceof KdbColumn))
+			return (long) column.size() * UNKNOWN_CELL_BYTES;
+		
+		Class<?> type = ((KdbColumn<?>) column).getElementType();
+		
+		if(type == long.class || type == double.class)
+			return column.size() * 8L;
+		
+		if(type == int.class || type == float.class)
+			return column.size() * 4L;
+		
+		if(type == short.class)
+			return column.size() * 2L;
+		
+		if(type == byte.class || type == boolean.class || type == char.class)
+			return column.size();
+		
+		if(type == String.class) {
+			long bytes = 0;
+			
+			for(Object symbol : column)
+				bytes += (symbol == null) ? 1 : ((String) symbol).length() + 1;
+			
+			return bytes;
+		}
+		
+		return (long) column.size() * UNKNOWN_CELL_BYTES;
+	}
+}
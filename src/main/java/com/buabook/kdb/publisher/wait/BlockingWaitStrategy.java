@@ -0,0 +1,80 @@
+package com.buabook.kdb.publisher.wait;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import com.buabook.kdb.interfaces.IKdbPublishWaitStrategy;
+
+/**
+ * <h3>Blocking Publisher Wait Strategy</h3>
+ * <p>Parks the publisher thread when there is nothing to publish and unparks it as soon as a table is queued. No CPU is used
+ * while idle and a queued table is sent without waiting for a sleep interval to expire, at the cost of a thread wake up.</p>
+ * <p>The publisher thread is also woken periodically (see {@link #BlockingWaitStrategy(long, TimeUnit)}) so that it can 
+ * check its connection.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class BlockingWaitStrategy implements IKdbPublishWaitStrategy {
+	
+	/** The default maximum time to park for before returning to the publisher */
+	private static final long DEFAULT_MAX_PARK_MS = 100;
+	
+	
+	private final long maxParkNanos;
+	
+	/** The publisher thread if it is currently waiting, otherwise <code>null</code> */
+	private volatile Thread waiter;
+	
+	
+	/** @see #BlockingWaitStrategy(long, TimeUnit) */
+	public BlockingWaitStrategy() {
+		this(DEFAULT_MAX_PARK_MS, TimeUnit.MILLISECONDS);
+	}
+	
+	/** 
+	 * @param maxPark The maximum time the publisher thread is parked for before returning to check its connection
+	 * @param unit The unit of the maximum park time
+	 */
+	public BlockingWaitStrategy(long maxPark, TimeUnit unit) {
+		this.maxParkNanos = unit.toNanos(maxPark);
+	}
+	
+	
+	/** 
+	 * The waiting thread is published <i>before</i> the condition is checked, and producers queue <i>before</i> reading the 
+	 * waiting thread, so a table queued concurrently with the publisher going to sleep always results in either the condition
+	 * being seen or the thread being unparked.
+	 */
+	@Override
+	public void await(BooleanSupplier workAvailable) throws InterruptedException {
+		waiter = Thread.currentThread();
+		
+		try {
+			long deadline = System.nanoTime() + maxParkNanos;
+			long remaining = maxParkNanos;
+			
+			while(! workAvailable.getAsBoolean() && remaining > 0) {
+				LockSupport.parkNanos(this, remaining);
+				
+				if(Thread.interrupted())
+					throw new InterruptedException();
+				
+				remaining = deadline - System.nanoTime();
+			}
+		} finally {
+			waiter = null;
+		}
+	}
+	
+	@Override
+	public void signal() {
+		Thread toWake = waiter;
+		
+		if(toWake != null)
+			LockSupport.unpark(toWake);
+	}
+}
@@ -0,0 +1,36 @@
+package com.buabook.kdb.publisher.wait;
+
+import java.util.function.BooleanSupplier;
+
+import com.buabook.kdb.interfaces.IKdbPublishWaitStrategy;
+
+/**
+ * <h3>Busy Spin Publisher Wait Strategy</h3>
+ * <p>Continuously checks for work without yielding the CPU. This gives the lowest possible latency between a table being
+ * queued and it being sent, but permanently uses a CPU core. It should only be used when the publisher thread is pinned to
+ * a dedicated core.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class BusySpinWaitStrategy implements IKdbPublishWaitStrategy {
+	
+	/** The number of checks before returning to the publisher so it can check its connection */
+	private static final int MAX_SPINS = 1000000;
+	
+	
+	@Override
+	public void await(BooleanSupplier workAvailable) throws InterruptedException {
+		for(int i = 0; i < MAX_SPINS; i++)
+			if(workAvailable.getAsBoolean())
+				return;
+		
+		if(Thread.interrupted())
+			throw new InterruptedException();
+	}
+	
+	@Override
+	public void signal() {}
+}
@@ -0,0 +1,34 @@
+package com.buabook.kdb.publisher.wait;
+
+import java.util.function.BooleanSupplier;
+
+import com.buabook.kdb.interfaces.IKdbPublishWaitStrategy;
+
+/**
+ * <h3>Sleeping Publisher Wait Strategy</h3>
+ * <p>Sleeps for a fixed interval when there is nothing to publish. This is the original {@link com.buabook.kdb.publisher.KdbPublisherThread}
+ * behaviour: CPU usage is minimal, but a table queued while the publisher is sleeping waits up to the full interval.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class SleepingWaitStrategy implements IKdbPublishWaitStrategy {
+	
+	private final long sleepMs;
+	
+	
+	public SleepingWaitStrategy(long sleepMs) {
+		this.sleepMs = sleepMs;
+	}
+	
+	
+	@Override
+	public void await(BooleanSupplier workAvailable) throws InterruptedException {
+		Thread.sleep(sleepMs);
+	}
+	
+	@Override
+	public void signal() {}
+}
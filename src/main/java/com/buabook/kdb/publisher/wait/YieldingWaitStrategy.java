@@ -0,0 +1,59 @@
+package com.buabook.kdb.publisher.wait;
+
+import java.util.function.BooleanSupplier;
+
+import com.buabook.kdb.interfaces.IKdbPublishWaitStrategy;
+
+/**
+ * <h3>Yielding Publisher Wait Strategy</h3>
+ * <p>Spins checking for work for a number of iterations and then yields the CPU with {@link Thread#yield()} between checks.
+ * Latency is lower than {@link BlockingWaitStrategy} as no thread wake up is required, but the publisher thread will use a
+ * CPU core whenever other threads are not runnable.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class YieldingWaitStrategy implements IKdbPublishWaitStrategy {
+	
+	/** The default number of checks before yielding */
+	private static final int DEFAULT_SPIN_TRIES = 100;
+	
+	/** The number of yields before returning to the publisher so it can check its connection */
+	private static final int MAX_YIELDS = 10000;
+	
+	
+	private final int spinTries;
+	
+	
+	public YieldingWaitStrategy() {
+		this(DEFAULT_SPIN_TRIES);
+	}
+	
+	/** @param spinTries The number of times to check for work before starting to yield */
+	public YieldingWaitStrategy(int spinTries) {
+		this.spinTries = spinTries;
+	}
+	
+	
+	@Override
+	public void await(BooleanSupplier workAvailable) throws InterruptedException {
+		for(int i = 0; i < spinTries; i++)
+			if(workAvailable.getAsBoolean())
+				return;
+		
+		for(int i = 0; i < MAX_YIELDS; i++) {
+			if(workAvailable.getAsBoolean())
+				return;
+			
+			if(Thread.interrupted())
+				throw new InterruptedException();
+			
+			Thread.yield();
+		}
+	}
+	
+	@Override
+	public void signal() {}
+}
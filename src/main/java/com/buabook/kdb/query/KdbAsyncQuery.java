@@ -1,7 +1,9 @@
 package com.buabook.kdb.query;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 
+import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,6 +12,8 @@ import com.buabook.kdb.connection.KdbProcess;
 import com.buabook.kdb.data.KdbDict;
 import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
 import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.exceptions.QueryTimeoutException;
+import com.buabook.kdb.interfaces.IKdbTimeoutQuery;
 import com.google.common.base.Stopwatch;
 import com.kx.c.KException;
 
@@ -17,14 +21,17 @@ import com.kx.c.KException;
  * <h3>KDB Query Class - Asynchronous Implementation</h3>
  * <p>Based on {@link KdbQuery} provides an asynchronous (send query and wait locally
  * for a response from process) means of communicating with a KDB process.</p>
- * (c) 2014 - 2015 Sport Trades Ltd
+ * <p><b>NOTE</b>: The calling thread still waits for the response. Use {@link KdbCallbackQuery} to continue without waiting
+ * and receive the response later.</p>
+ * (c) 2014 - 2026 Sport Trades Ltd
  * @see KdbQuery
+ * @see KdbCallbackQuery
  *
  * @author Jas Rajasansir
- * @version 1.0.1
+ * @version 1.1.3
  * @since 21 Jul 2014
  */
-public class KdbAsyncQuery extends KdbQuery {
+public class KdbAsyncQuery extends KdbQuery implements IKdbTimeoutQuery {
 	private static final Logger log = LoggerFactory.getLogger(KdbAsyncQuery.class);
 
 	
@@ -37,6 +44,12 @@ public class KdbAsyncQuery extends KdbQuery {
 	}
 	
 
+	/** @see KdbConnection#setReadTimeout(Duration) */
+	@Override
+	public void setDefaultReadTimeout(Duration readTimeout) {
+		connection.setReadTimeout(readTimeout);
+	}
+	
 	@Override
 	public Object query(String query) throws QueryExecutionFailedException {
 		return query(query, null);
@@ -49,6 +62,16 @@ public class KdbAsyncQuery extends KdbQuery {
 	 */
 	@Override
 	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException {
+		return query(query, arguments, null);
+	}
+	
+	/**
+	 * Runs the query with a read timeout, overriding the default (see {@link #setDefaultReadTimeout(Duration)}) for this query
+	 * @param readTimeout The read timeout, or <code>null</code> to use the default
+	 * @throws QueryTimeoutException If no data is received within the read timeout. The connection is disconnected
+	 * @see #query(String, KdbDict)
+	 */
+	public Object query(String query, KdbDict arguments, Duration readTimeout) throws QueryExecutionFailedException {
 		if(! connection.isConnected()) {
 			log.warn("Underlying connection to the kdb process ({}) has disconnected. Attempting to reconnect.", connection.getRemoteProcess());
 			log.warn("NOTE: Query (and calling thread) will be pending until the process reconnects.");
@@ -61,18 +84,28 @@ public class KdbAsyncQuery extends KdbQuery {
 		
 		try {
 			queryTime = Stopwatch.createStarted();
+			int previousTimeoutMs = applyTimeout(connection, readTimeout);
 			
-			if(arguments == null) {
-				log.debug("Running asynchronous query [ Process: {} ] [ Query: {} ]", connection.getRemoteProcess(), query);
-				connection.getConnection().ks(query);
-			} else {
-				log.debug("Running asynchronous query [ Process: {} ] [ Query: {} ] [ Args: {} ]", connection.getRemoteProcess(), query, arguments);
-				connection.getConnection().ks(query, arguments.convertToDict());
+			try {
+				if(arguments == null) {
+					log.debug("Running asynchronous query [ Process: {} ] [ Query: {} ]", connection.getRemoteProcess(), query);
+					connection.getConnection().ks(query);
+				} else {
+					log.debug("Running asynchronous query [ Process: {} ] [ Query: {} ] [ Args: {} ]", connection.getRemoteProcess(), query, arguments);
+					connection.getConnection().ks(query, arguments.convertToDict());
+				}
+				
+				queryResult = connection.getConnection().k();
+			} finally {
+				restoreTimeout(connection, previousTimeoutMs);
 			}
 			
-			queryResult = connection.getConnection().k();
-			
 			queryTime.stop();
+		} catch (SocketTimeoutException e) {
+			log.error("Asynchronous query exceeded read timeout. Disconnecting [ Process: {} ] [ Query: {} ] [ Query Time: {} ]", connection.getRemoteProcess(), query, queryTime);
+			connection.disconnect();
+			
+			throw new QueryTimeoutException(connection.getRemoteProcess().toString(), e);
 		} catch (KException e) {
 			log.error("Failed to execute asynchronous query [ Process: {} ] [ Query: {} ]. Error - {}", connection.getRemoteProcess(), query, e.getMessage());
 			throw new QueryExecutionFailedException(connection.getRemoteProcess().toString(), e);
@@ -0,0 +1,342 @@
+package com.buabook.kdb.query;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.interfaces.IKdbTimeoutQuery;
+import com.buabook.kdb.query.KdbQueryCacheSettings.EEvictionPolicy;
+import com.kx.c.KException;
+
+/**
+ * <h3>KDB Query Class - Caching Decorator</h3>
+ * <p>Caches the results of queries run through another {@link KdbQuery}, for queries that are repeated often and whose results
+ * change rarely (e.g. reference data or end of day HDB queries). Results are keyed by the query text and the serialised
+ * arguments, and are cached for the default time to live or the time specified for the query.</p>
+ * <p>The cache is bounded by the total serialised size of the results. When there is no room for a new result, expired
+ * results are removed and then results are evicted by the {@link EEvictionPolicy}. A result larger than the whole cache is not
+ * cached.</p>
+ * <p>Results are stored in serialised kdb IPC form and deserialised on every hit, so each caller receives its own copy and
+ * cannot modify the cached result.</p>
+ * <p>Objects are thread-safe if the wrapped query is. Concurrent misses for the same query each run the query.</p>
+ * (c) 2026 Sport Trades Ltd
+ * @see KdbQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.4
+ * @since 17 Oct 2026
+ */
+public class KdbCachingQuery extends KdbQuery implements IKdbTimeoutQuery {
+	private static final Logger log = LoggerFactory.getLogger(KdbCachingQuery.class);
+	
+	/** Cached in place of a <code>null</code> result, which cannot be serialised */
+	private static final byte[] NULL_RESULT = new byte[0];
+	
+	
+	private final KdbQuery delegate;
+	
+	private final KdbQueryCacheSettings settings;
+	
+	/** In least recently used order */
+	private final LinkedHashMap<KdbQueryKey, CacheEntry> cache;
+	
+	/** The total serialised size of the cached results */
+	private long usedBytes;
+	
+	private final LongAdder hits;
+	
+	private final LongAdder misses;
+	
+	private final LongAdder evictions;
+	
+	
+	/**
+	 * @param delegate The query to run on a cache miss. Closed when this query is closed
+	 * @param settings The cache configuration
+	 * @throws IllegalArgumentException If either parameter is not specified
+	 */
+	public KdbCachingQuery(KdbQuery delegate, KdbQueryCacheSettings settings) throws IllegalArgumentException {
+		super();
+		
+		if(delegate == null || settings == null)
+			throw new IllegalArgumentException("Query and cache settings must be specified");
+		
+		this.delegate = delegate;
+		this.settings = settings;
+		
+		this.cache = new LinkedHashMap<>(16, 0.75f, true);
+		
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.evictions = new LongAdder();
+	}
+	
+	
+	@Override
+	public Object query(String query) throws QueryExecutionFailedException {
+		return query(query, null, settings.getDefaultTimeToLive());
+	}
+	
+	@Override
+	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException {
+		return query(query, arguments, settings.getDefaultTimeToLive());
+	}
+	
+	/**
+	 * Returns the cached result of the query if present and not expired, otherwise runs the query and caches its result
+	 * @param timeToLive The time to cache the result for, if the query is run
+	 * @throws QueryExecutionFailedException If the query fails. Failures are not cached
+	 * @throws IllegalArgumentException If the time to live is not positive
+	 */
+	public Object query(String query, KdbDict arguments, Duration timeToLive) throws QueryExecutionFailedException, IllegalArgumentException {
+		if(timeToLive == null || timeToLive.getMillis() <= 0)
+			throw new IllegalArgumentException("Time to live must be positive");
+		
+		KdbQueryKey key;
+		
+		try {
+			key = KdbQueryKey.of(query, arguments);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Failed to serialise query arguments. Query will not be cached [ Query: {} ]. Error - {}", query, e.toString());
+			return delegate.query(query, arguments);
+		}
+		
+		byte[] cached = get(key);
+		
+		if(cached != null) {
+			hits.increment();
+			return deserialise(cached);
+		}
+		
+		misses.increment();
+		
+		Object result = delegate.query(query, arguments);
+		
+		byte[] serialised;
+		
+		// The serialiser fails with a RuntimeException for types it does not support
+		try {
+			serialised = (result == null) ? NULL_RESULT : KdbQueryKey.serialise(result);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Failed to serialise query result. Result will not be cached [ Query: {} ]. Error - {}", query, e.toString());
+			return result;
+		}
+		
+		put(key, serialised, timeToLive);
+		
+		return result;
+	}
+	
+	/** Removes the cached result of the query, if present */
+	public void invalidate(String query, KdbDict arguments) {
+		try {
+			KdbQueryKey key = KdbQueryKey.of(query, arguments);
+			
+			synchronized (cache) {
+				remove(key);
+			}
+		} catch (IOException | RuntimeException e) {
+			log.warn("Failed to serialise query arguments [ Query: {} ]. Error - {}", query, e.toString());
+		}
+	}
+	
+	/** Removes all cached results */
+	public void invalidateAll() {
+		synchronized (cache) {
+			cache.clear();
+			usedBytes = 0;
+		}
+	}
+	
+	public long getHitCount() {
+		return hits.sum();
+	}
+	
+	public long getMissCount() {
+		return misses.sum();
+	}
+	
+	/** @return The number of results removed to make room for a new result. Expired results are not included */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+	
+	/** @return The total serialised size of the cached results */
+	public long getUsedBytes() {
+		synchronized (cache) {
+			return usedBytes;
+		}
+	}
+	
+	public int getEntryCount() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+	
+	public KdbQueryCacheSettings getSettings() {
+		return settings;
+	}
+	
+	/**
+	 * Sets the default read timeout of the wrapped query. If the wrapped query does not support a default read timeout (it is
+	 * not an {@link IKdbTimeoutQuery}), a warning is logged and the read timeout is not changed
+	 */
+	@Override
+	public void setDefaultReadTimeout(Duration readTimeout) {
+		if(! (delegate instanceof IKdbTimeoutQuery)) {
+			log.warn("Wrapped query does not support a default read timeout. Read timeout not set [ Query: {} ] [ Read Timeout: {} ]", delegate.getClass().getSimpleName(), readTimeout);
+			return;
+		}
+		
+		((IKdbTimeoutQuery) delegate).setDefaultReadTimeout(readTimeout);
+	}
+	
+	/** @return The default read timeout of the wrapped query */
+	@Override
+	public Duration getDefaultReadTimeout() {
+		return delegate.getDefaultReadTimeout();
+	}
+	
+	/** Clears the cache and closes the wrapped query */
+	@Override
+	public void close() {
+		invalidateAll();
+		delegate.close();
+	}
+	
+	@Override
+	public String toString() {
+		return "KdbCachingQuery [ Entries: " + getEntryCount() + " ] [ Used: " + getUsedBytes() + " ] [ Settings: " + settings + " ]";
+	}
+	
+	
+	/** @return The serialised result, or <code>null</code> if not cached or expired */
+	private byte[] get(KdbQueryKey key) {
+		synchronized (cache) {
+			CacheEntry entry = cache.get(key);
+			
+			if(entry == null)
+				return null;
+			
+			if(entry.isExpired(System.nanoTime())) {
+				remove(key);
+				return null;
+			}
+			
+			entry.uses++;
+			return entry.result;
+		}
+	}
+	
+	private void put(KdbQueryKey key, byte[] result, Duration timeToLive) {
+		long size = key.size() + result.length;
+		
+		if(size > settings.getMaxBytes())
+			return;
+		
+		CacheEntry entry = new CacheEntry(result, size, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeToLive.getMillis()));
+		
+		synchronized (cache) {
+			remove(key);
+			
+			if(usedBytes + size > settings.getMaxBytes())
+				removeExpired();
+			
+			while(usedBytes + size > settings.getMaxBytes()) {
+				remove(getEvictionVictim());
+				evictions.increment();
+			}
+			
+			cache.put(key, entry);
+			usedBytes += size;
+		}
+	}
+	
+	/** Must be called with the cache lock held */
+	private void remove(KdbQueryKey key) {
+		CacheEntry removed = cache.remove(key);
+		
+		if(removed != null)
+			usedBytes -= removed.size;
+	}
+	
+	/** Must be called with the cache lock held */
+	private void removeExpired() {
+		long now = System.nanoTime();
+		Iterator<CacheEntry> entries = cache.values().iterator();
+		
+		while(entries.hasNext()) {
+			CacheEntry entry = entries.next();
+			
+			if(entry.isExpired(now)) {
+				entries.remove();
+				usedBytes -= entry.size;
+			}
+		}
+	}
+	
+	/** Must be called with the cache lock held and at least one entry in the cache */
+	private KdbQueryKey getEvictionVictim() {
+		Iterator<Map.Entry<KdbQueryKey, CacheEntry>> entries = cache.entrySet().iterator();
+		Map.Entry<KdbQueryKey, CacheEntry> victim = entries.next();
+		
+		if(settings.getEvictionPolicy() == EEvictionPolicy.LRU)
+			return victim.getKey();
+		
+		while(entries.hasNext()) {
+			Map.Entry<KdbQueryKey, CacheEntry> candidate = entries.next();
+			
+			if(candidate.getValue().uses < victim.getValue().uses)
+				victim = candidate;
+		}
+		
+		return victim.getKey();
+	}
+	
+	private Object deserialise(byte[] result) throws QueryExecutionFailedException {
+		if(result == NULL_RESULT)
+			return null;
+		
+		try {
+			return KdbQueryKey.deserialise(result);
+		} catch (KException | IOException e) {
+			throw new QueryExecutionFailedException("Failed to deserialise cached result", e);
+		}
+	}
+	
+	
+	private static class CacheEntry {
+		
+		private final byte[] result;
+		
+		private final long size;
+		
+		/** The time, from {@link System#nanoTime()}, the result expires */
+		private final long expiresAtNanos;
+		
+		/** The number of cache hits. Used for {@link EEvictionPolicy#LFU} */
+		private long uses;
+		
+		
+		public CacheEntry(byte[] result, long size, long expiresAtNanos) {
+			this.result = result;
+			this.size = size;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+		
+		
+		public boolean isExpired(long nowNanos) {
+			return nowNanos - expiresAtNanos >= 0;
+		}
+	}
+}
@@ -0,0 +1,281 @@
+package com.buabook.kdb.query;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.connection.KdbConnection;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.interfaces.IKdbQueryCallback;
+import com.google.common.base.Strings;
+import com.kx.c.KException;
+
+/**
+ * <h3>KDB Query Class - Asynchronous Callback Implementation</h3>
+ * <p>Based on {@link KdbQuery} provides a truly asynchronous means of querying a KDB process. Each query is sent as an
+ * asynchronous message with a unique correlation ID, and the kdb process sends the result back asynchronously (via 
+ * <code>neg[.z.w]</code>) with the same ID whenever it is ready. A single reader thread per connection completes the
+ * {@link CompletableFuture} or {@link IKdbQueryCallback} registered for each ID, so any number of long running queries can
+ * be outstanding on one connection, in any order, without a thread waiting for each.</p>
+ * <p>Each query is sent as <code>(handler; id; query; arguments)</code>, where the arguments are an empty list if not 
+ * specified. The handler must eventually send <code>neg[.z.w] (id; success; result)</code>, where <code>success</code> is
+ * a boolean and <code>result</code> is the error message if it is <code>0b</code>. The {@link #DEFAULT_HANDLER} evaluates the
+ * query immediately; a custom handler function (e.g. on a gateway) can defer the response until the result is available.</p>
+ * <p>A query only completes when its response is received, so callers should apply their own timeout and 
+ * {@link #cancel(long)} queries that are no longer required. If the connection fails, all outstanding queries fail with a
+ * {@link QueryExecutionFailedException}. The next query attempts to connect once.</p>
+ * <p>Any other asynchronous message received on the connection is logged and ignored.</p>
+ * <p>Objects are thread-safe.</p>
+ * (c) 2026 Sport Trades Ltd
+ * @see KdbQuery
+ * @see KdbPipelinedQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.2
+ * @since 17 Oct 2026
+ */
+public class KdbCallbackQuery extends KdbQuery {
+	private static final Logger log = LoggerFactory.getLogger(KdbCallbackQuery.class);
+	
+	/** Evaluates the query (applying it to the arguments if specified) and immediately sends the result back */
+	public static final String DEFAULT_HANDLER = "{[i;q;a] r:@[{(1b;value x)};$[()~a;q;(q;a)];{(0b;x)}]; neg[.z.w] (i;r 0;r 1)}";
+	
+	/** Sent in place of the arguments if none are specified */
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+	
+	
+	private final char[] handler;
+	
+	private final AtomicLong nextCorrelationId;
+	
+	/** Held while sending a query, and while failing the outstanding queries of a connection */
+	private final Object sendLock;
+	
+	/** The reader of the current connection */
+	private volatile Reader reader;
+	
+	
+	public KdbCallbackQuery(KdbProcess target) throws KdbTargetProcessUnavailableException {
+		this(target, DEFAULT_HANDLER);
+	}
+	
+	/**
+	 * @param handler The function on the kdb process to send each query to
+	 * @see KdbCallbackQuery
+	 */
+	public KdbCallbackQuery(KdbProcess target, String handler) throws KdbTargetProcessUnavailableException, IllegalArgumentException {
+		super(target);
+		
+		if(Strings.isNullOrEmpty(handler))
+			throw new IllegalArgumentException("Handler function must be specified");
+		
+		this.handler = handler.toCharArray();
+		this.nextCorrelationId = new AtomicLong();
+		this.sendLock = new Object();
+	}
+	
+	public KdbCallbackQuery(KdbConnection existingConnection) throws KdbTargetProcessUnavailableException {
+		this(existingConnection, DEFAULT_HANDLER);
+	}
+	
+	/** @see #KdbCallbackQuery(KdbProcess, String) */
+	public KdbCallbackQuery(KdbConnection existingConnection, String handler) throws KdbTargetProcessUnavailableException, IllegalArgumentException {
+		super(existingConnection);
+		
+		if(Strings.isNullOrEmpty(handler))
+			throw new IllegalArgumentException("Handler function must be specified");
+		
+		this.handler = handler.toCharArray();
+		this.nextCorrelationId = new AtomicLong();
+		this.sendLock = new Object();
+	}
+	
+	
+	/**
+	 * Sends the query without waiting for its result
+	 * @return A future completed with the query result, or completed exceptionally with a {@link QueryExecutionFailedException}
+	 * if the query fails. Cancelling the future cancels the query (see {@link #cancel(long)})
+	 */
+	public CompletableFuture<Object> submit(String query) {
+		return submit(query, (KdbDict) null);
+	}
+	
+	/** @see #submit(String) */
+	public CompletableFuture<Object> submit(String query, KdbDict arguments) {
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		send(query, arguments, result);
+		
+		return result;
+	}
+	
+	/**
+	 * Sends the query without waiting for its result, which is passed to the callback on the reader thread. Any failure,
+	 * including the query being {@link #cancel(long) cancelled}, is passed to {@link IKdbQueryCallback#onFailure(long, QueryExecutionFailedException)}
+	 * @return The correlation ID of the query, which is also passed to the callback
+	 */
+	public long submit(String query, KdbDict arguments, IKdbQueryCallback callback) {
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		long correlationId = send(query, arguments, result);
+		
+		result.whenComplete((response, error) -> {
+			if(error == null)
+				callback.onResult(correlationId, response);
+			else if(error instanceof QueryExecutionFailedException)
+				callback.onFailure(correlationId, (QueryExecutionFailedException) error);
+			else
+				callback.onFailure(correlationId, new QueryExecutionFailedException(connection.getRemoteProcess() + " [ ID: " + correlationId + " ]", error));
+		});
+		
+		return correlationId;
+	}
+	
+	/**
+	 * Stops waiting for the result of the query. The kdb process is not notified, and its response is ignored when received.
+	 * The callback of the query, if any, is called on this thread with a failure caused by a {@link CancellationException}
+	 * @return <code>true</code> if the query was outstanding
+	 */
+	public boolean cancel(long correlationId) {
+		Reader current = reader;
+		CompletableFuture<Object> result = (current == null) ? null : current.outstanding.get(correlationId);
+		
+		return result != null && result.cancel(false);
+	}
+	
+	@Override
+	public Object query(String query) throws QueryExecutionFailedException {
+		return query(query, null);
+	}
+	
+	/** Submits the query and waits for its result */
+	@Override
+	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException {
+		try {
+			return submit(query, arguments).get();
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof QueryExecutionFailedException)
+				throw (QueryExecutionFailedException) e.getCause();
+			
+			throw new QueryExecutionFailedException(connection.getRemoteProcess().toString(), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QueryExecutionFailedException(connection.getRemoteProcess().toString(), e);
+		}
+	}
+	
+	/** Stops the reader thread, failing all outstanding queries, before disconnecting */
+	@Override
+	public void close() {
+		synchronized (sendLock) {
+			if(reader != null)
+				reader.close(new IOException("Query closed"));
+			
+			super.close();
+		}
+	}
+	
+	/** @return The number of queries sent on the current connection that have not yet received a response */
+	public int getOutstandingCount() {
+		Reader current = reader;
+		return (current == null) ? 0 : current.outstanding.size();
+	}
+	
+	
+	/** @return The correlation ID of the query. If the query could not be sent, the result has already failed */
+	private long send(String query, KdbDict arguments, CompletableFuture<Object> result) {
+		long correlationId = nextCorrelationId.incrementAndGet();
+		Object[] request = { handler, correlationId, query.toCharArray(), (arguments == null) ? NO_ARGUMENTS : arguments.convertToDict() };
+		
+		synchronized (sendLock) {
+			Reader current;
+			
+			try {
+				current = getReader();
+			} catch (KdbTargetProcessUnavailableException e) {
+				result.completeExceptionally(new QueryExecutionFailedException(connection.getRemoteProcess().toString(), e));
+				return correlationId;
+			}
+			
+			log.debug("Sending callback query [ Process: {} ] [ ID: {} ] [ Query: {} ] [ Outstanding: {} ]", connection.getRemoteProcess(), correlationId, query, current.outstanding.size());
+			
+			current.outstanding.put(correlationId, result);
+			result.whenComplete((response, error) -> current.outstanding.remove(correlationId));
+			
+			try {
+				current.connection.ks(request);
+			} catch (IOException e) {
+				log.error("Low level I/O exception has occurred during callback query [ Process: {} ] Error - {}", connection.getRemoteProcess(), e.getMessage());
+				
+				// Fails this and all other outstanding queries
+				current.close(e);
+			}
+		}
+		
+		return correlationId;
+	}
+	
+	/** 
+	 * Connects if necessary, and starts a new reader thread if the connection has changed or the current reader has been closed.
+	 * Must be called with the send lock held
+	 */
+	private Reader getReader() throws KdbTargetProcessUnavailableException {
+		if(! connection.isConnected())
+			connection.connect();
+		
+		if(reader == null || ! reader.isCurrent()) {
+			reader = new Reader();
+			reader.start("KdbCallbackQuery");
+		}
+		
+		return reader;
+	}
+	
+	
+	/** The queries outstanding on a single connection, by correlation ID, and the reader that completes them */
+	private class Reader extends KdbResponseReader {
+		
+		public Reader() {
+			super(KdbCallbackQuery.this.connection, sendLock);
+		}
+		
+		
+		@Override
+		void onMessage(Object message) {
+			Object[] response = (message instanceof Object[]) ? (Object[]) message : null;
+			
+			if(response == null || response.length != 3 || ! (response[0] instanceof Long) || ! (response[1] instanceof Boolean)) {
+				log.warn("Received message that is not a callback query response [ Process: {} ]. Ignoring", process);
+				return;
+			}
+			
+			// Removed before completing, so the query is no longer outstanding once its result is available
+			CompletableFuture<Object> result = outstanding.remove(response[0]);
+			
+			if(result == null) {
+				log.debug("Received response for cancelled or unknown query. Ignoring [ Process: {} ] [ ID: {} ]", process, response[0]);
+				return;
+			}
+			
+			if((Boolean) response[1])
+				result.complete(response[2]);
+			else
+				result.completeExceptionally(new QueryExecutionFailedException(process + " Error: " + getErrorMessage(response[2])));
+		}
+		
+		@Override
+		void onError(KException error) {
+			log.warn("Received error message not associated with a query [ Process: {} ]. Ignoring. Error - {}", process, error.getMessage());
+		}
+		
+		private String getErrorMessage(Object error) {
+			return (error instanceof char[]) ? new String((char[]) error) : String.valueOf(error);
+		}
+	}
+}
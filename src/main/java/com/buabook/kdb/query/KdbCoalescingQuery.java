@@ -0,0 +1,183 @@
+package com.buabook.kdb.query;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.exceptions.QueryTimeoutException;
+import com.buabook.kdb.interfaces.IKdbTimeoutQuery;
+
+/**
+ * <h3>KDB Query Class - Coalescing Decorator</h3>
+ * <p>Coalesces identical concurrent queries run through another {@link KdbQuery}. If a query with the same text and arguments
+ * is already in flight, the caller waits for that query rather than sending another, and receives the same result (or the
+ * same failure). Only one of a burst of identical queries (e.g. at market open) is therefore sent to the kdb process.</p>
+ * <p>Results are shared between all coalesced callers, so callers must not modify them. Queries are only coalesced while
+ * in flight; wrap a {@link KdbCachingQuery} to also reuse completed results.</p>
+ * <p>Objects are thread-safe if the wrapped query is.</p>
+ * (c) 2026 Sport Trades Ltd
+ * @see KdbQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.3
+ * @since 17 Oct 2026
+ */
+public class KdbCoalescingQuery extends KdbQuery implements IKdbTimeoutQuery {
+	private static final Logger log = LoggerFactory.getLogger(KdbCoalescingQuery.class);
+	
+	
+	private final KdbQuery delegate;
+	
+	/** The result of each query currently being run by the wrapped query */
+	private final ConcurrentMap<KdbQueryKey, CompletableFuture<Object>> inFlight;
+	
+	private final LongAdder sent;
+	
+	private final LongAdder coalesced;
+	
+	
+	/**
+	 * @param delegate The query to run. Closed when this query is closed
+	 * @throws IllegalArgumentException If the query is not specified
+	 */
+	public KdbCoalescingQuery(KdbQuery delegate) throws IllegalArgumentException {
+		super();
+		
+		if(delegate == null)
+			throw new IllegalArgumentException("Query must be specified");
+		
+		this.delegate = delegate;
+		this.inFlight = new ConcurrentHashMap<>();
+		
+		this.sent = new LongAdder();
+		this.coalesced = new LongAdder();
+	}
+	
+	
+	@Override
+	public Object query(String query) throws QueryExecutionFailedException {
+		return query(query, null);
+	}
+	
+	/**
+	 * Runs the query, or waits for the result of an identical query already in flight. Waiting callers wait no longer than the
+	 * default read timeout of the wrapped query, if set
+	 * @throws QueryExecutionFailedException If the query fails, or the caller is interrupted while waiting for an identical query
+	 * @throws QueryTimeoutException If the identical query does not complete within the default read timeout
+	 */
+	@Override
+	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException {
+		KdbQueryKey key;
+		
+		try {
+			key = KdbQueryKey.of(query, arguments);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Failed to serialise query arguments. Query will not be coalesced [ Query: {} ]. Error - {}", query, e.toString());
+			
+			sent.increment();
+			return delegate.query(query, arguments);
+		}
+		
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, result);
+		
+		if(existing != null) {
+			coalesced.increment();
+			log.debug("Coalescing query with identical query in flight [ Query: {} ]", query);
+			
+			return await(existing, query);
+		}
+		
+		sent.increment();
+		
+		try {
+			Object queryResult = delegate.query(query, arguments);
+			result.complete(queryResult);
+			
+			return queryResult;
+		} catch (QueryExecutionFailedException | RuntimeException e) {
+			result.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, result);
+			
+			// Any other Throwable (e.g. an Error) must not leave the waiting callers blocked
+			if(! result.isDone())
+				result.completeExceptionally(new QueryExecutionFailedException(query + " Error: Query did not complete"));
+		}
+	}
+	
+	/** @return The number of queries sent to the wrapped query */
+	public long getSentCount() {
+		return sent.sum();
+	}
+	
+	/** @return The number of queries that waited for an identical query rather than being sent */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+	
+	/** @return The number of distinct queries currently in flight */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+	
+	/**
+	 * Sets the default read timeout of the wrapped query. If the wrapped query does not support a default read timeout (it is
+	 * not an {@link IKdbTimeoutQuery}), a warning is logged and the read timeout is not changed
+	 */
+	@Override
+	public void setDefaultReadTimeout(Duration readTimeout) {
+		if(! (delegate instanceof IKdbTimeoutQuery)) {
+			log.warn("Wrapped query does not support a default read timeout. Read timeout not set [ Query: {} ] [ Read Timeout: {} ]", delegate.getClass().getSimpleName(), readTimeout);
+			return;
+		}
+		
+		((IKdbTimeoutQuery) delegate).setDefaultReadTimeout(readTimeout);
+	}
+	
+	/** @return The default read timeout of the wrapped query */
+	@Override
+	public Duration getDefaultReadTimeout() {
+		return delegate.getDefaultReadTimeout();
+	}
+	
+	/** Closes the wrapped query */
+	@Override
+	public void close() {
+		delegate.close();
+	}
+	
+	
+	private Object await(CompletableFuture<Object> result, String query) throws QueryExecutionFailedException {
+		Duration timeout = getDefaultReadTimeout();
+		
+		try {
+			return (timeout == null) ? result.get() : result.get(timeout.getMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			throw new QueryTimeoutException(query, e);
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof QueryExecutionFailedException)
+				throw (QueryExecutionFailedException) e.getCause();
+			
+			if(e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			
+			throw new QueryExecutionFailedException(query, e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QueryExecutionFailedException(query, e);
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package com.buabook.kdb.query;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.connection.KdbConnection;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.kx.c.KException;
+
+/**
+ * <h3>KDB Query Class - Pipelined Implementation</h3>
+ * <p>Based on {@link KdbQuery} provides a non-blocking means of querying a KDB process. Each query is written to the
+ * connection as a synchronous request as soon as it is submitted, without waiting for the response to any earlier query, and
+ * a {@link CompletableFuture} is returned for its result. As kdb answers the synchronous requests on a connection in the
+ * order they were received, a dedicated reader thread completes the futures in the order the queries were submitted.</p>
+ * <p>Many queries can therefore be in flight on a single connection, so throughput is not limited by the round trip time.</p>
+ * <p>If the connection fails, all outstanding queries fail with a {@link QueryExecutionFailedException} caused by the
+ * {@link IOException} (or closure). The next query attempts to connect once, failing immediately if the process is unavailable.</p>
+ * <p><b>NOTE</b>: The kdb process must not send asynchronous messages on this connection, as they would be taken as the
+ * response to the oldest outstanding query.</p>
+ * <p>Objects are thread-safe.</p>
+ * (c) 2026 Sport Trades Ltd
+ * @see KdbQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.2
+ * @since 17 Oct 2026
+ */
+public class KdbPipelinedQuery extends KdbQuery {
+	private static final Logger log = LoggerFactory.getLogger(KdbPipelinedQuery.class);
+	
+	
+	/** Held while sending a query so that the order of the outstanding queries matches the order on the connection */
+	private final Object sendLock;
+	
+	/** The pipeline on the current connection */
+	private volatile Pipeline pipeline;
+	
+	/** The key of the next query sent, so that the outstanding queries are ordered as they were sent. Guarded by the send lock */
+	private long nextSequence;
+	
+	
+	public KdbPipelinedQuery(KdbProcess target) throws KdbTargetProcessUnavailableException {
+		super(target);
+		this.sendLock = new Object();
+		this.nextSequence = 0;
+	}
+	
+	public KdbPipelinedQuery(KdbConnection existingConnection) throws KdbTargetProcessUnavailableException {
+		super(existingConnection);
+		this.sendLock = new Object();
+		this.nextSequence = 0;
+	}
+	
+	
+	/**
+	 * Sends the query without waiting for its response
+	 * @return A future completed with the query result, or completed exceptionally with a {@link QueryExecutionFailedException}
+	 * if the query fails
+	 */
+	public CompletableFuture<Object> submit(String query) {
+		return submit(query, null);
+	}
+	
+	/** @see #submit(String) */
+	public CompletableFuture<Object> submit(String query, KdbDict arguments) {
+		Object request = (arguments == null) ? query.toCharArray() : new Object[] { query.toCharArray(), arguments.convertToDict() };
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		
+		synchronized (sendLock) {
+			Pipeline current;
+			
+			try {
+				current = getPipeline();
+			} catch (KdbTargetProcessUnavailableException e) {
+				result.completeExceptionally(new QueryExecutionFailedException(connection.getRemoteProcess().toString(), e));
+				return result;
+			}
+			
+			log.debug("Sending pipelined query [ Process: {} ] [ Query: {} ] [ Outstanding: {} ]", connection.getRemoteProcess(), query, current.outstanding.size());
+			
+			current.outstanding.put(nextSequence++, result);
+			
+			try {
+				current.connection.kw(request);
+			} catch (IOException e) {
+				log.error("Low level I/O exception has occurred during pipelined query [ Process: {} ] Error - {}", connection.getRemoteProcess(), e.getMessage());
+				
+				// Fails this and all other outstanding queries
+				current.close(e);
+			}
+		}
+		
+		return result;
+	}
+	
+	@Override
+	public Object query(String query) throws QueryExecutionFailedException {
+		return query(query, null);
+	}
+	
+	/** Submits the query and waits for its result */
+	@Override
+	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException {
+		try {
+			return submit(query, arguments).get();
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof QueryExecutionFailedException)
+				throw (QueryExecutionFailedException) e.getCause();
+			
+			throw new QueryExecutionFailedException(connection.getRemoteProcess().toString(), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QueryExecutionFailedException(connection.getRemoteProcess().toString(), e);
+		}
+	}
+	
+	/** Stops the reader thread, failing all outstanding queries, before disconnecting */
+	@Override
+	public void close() {
+		synchronized (sendLock) {
+			if(pipeline != null)
+				pipeline.close(new IOException("Query closed"));
+			
+			super.close();
+		}
+	}
+	
+	/** @return The number of queries sent on the current connection that have not yet received a response */
+	public int getOutstandingCount() {
+		Pipeline current = pipeline;
+		return (current == null) ? 0 : current.outstanding.size();
+	}
+	
+	
+	/** 
+	 * Connects if necessary, and starts a new pipeline with its own reader thread if the connection has changed or the current
+	 * pipeline has been closed. Must be called with the send lock held
+	 */
+	private Pipeline getPipeline() throws KdbTargetProcessUnavailableException {
+		if(! connection.isConnected())
+			connection.connect();
+		
+		if(pipeline == null || ! pipeline.isCurrent()) {
+			pipeline = new Pipeline();
+			pipeline.start("KdbPipelinedQuery");
+		}
+		
+		return pipeline;
+	}
+	
+	
+	/** The queries outstanding on a single connection, keyed by the order they were sent, and the reader that completes them */
+	private class Pipeline extends KdbResponseReader {
+		
+		public Pipeline() {
+			super(KdbPipelinedQuery.this.connection, sendLock);
+		}
+		
+		
+		@Override
+		void onMessage(Object response) {
+			CompletableFuture<Object> result = next();
+			
+			if(result != null)
+				result.complete(response);
+		}
+		
+		@Override
+		void onError(KException error) {
+			CompletableFuture<Object> result = next();
+			
+			if(result != null)
+				result.completeExceptionally(new QueryExecutionFailedException(process, error));
+		}
+		
+		/** @return The oldest outstanding query, which each response is for, or <code>null</code> if there is none */
+		private CompletableFuture<Object> next() {
+			Entry<Long, CompletableFuture<Object>> oldest = outstanding.pollFirstEntry();
+			
+			if(oldest == null) {
+				log.warn("Received unexpected message with no outstanding query. Ignoring [ Process: {} ]", process);
+				return null;
+			}
+			
+			return oldest.getValue();
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.buabook.kdb.query;
+
+import org.joda.time.Duration;
+
+import com.buabook.kdb.connection.KdbConnection;
+import com.buabook.kdb.connection.KdbConnectionPool;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+
+/**
+ * <h3>KDB Query Class - Pooled Synchronous Implementation</h3>
+ * <p>Synchronous query (as {@link KdbSyncQuery}) that leases a connection from a {@link KdbConnectionPool} for each query
+ * and returns it once the query completes. Unlike {@link KdbSyncQuery}, a single object can be shared by any number of
+ * threads, and queries from different threads run concurrently on separate connections.</p>
+ * <p>The default read timeout of queries is the read timeout in the pool settings. Closing the query does not close the pool.</p>
+ * (c) 2026 Sport Trades Ltd
+ * @see KdbSyncQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.2
+ * @since 17 Oct 2026
+ */
+public class KdbPooledSyncQuery extends KdbQuery {
+	
+	private final KdbConnectionPool pool;
+	
+	private final KdbProcess target;
+	
+	
+	public KdbPooledSyncQuery(KdbConnectionPool pool, KdbProcess target) throws IllegalArgumentException {
+		super();
+		
+		if(pool == null || target == null)
+			throw new IllegalArgumentException("Connection pool and target process must be specified");
+		
+		this.pool = pool;
+		this.target = target;
+	}
+	
+	
+	@Override
+	public Object query(String query) throws QueryExecutionFailedException {
+		return query(query, null);
+	}
+	
+	/**
+	 * @throws QueryExecutionFailedException If the query fails, or no connection could be leased from the pool (the cause is
+	 * a {@link com.buabook.kdb.exceptions.KdbConnectionLeaseTimeoutException} if none became available in time)
+	 */
+	@Override
+	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException {
+		return query(query, arguments, null);
+	}
+	
+	/**
+	 * Runs the query with a read timeout, overriding the read timeout in the pool settings for this query
+	 * @param readTimeout The read timeout, or <code>null</code> to use the default
+	 * @throws QueryExecutionFailedException If the query fails, no connection could be leased from the pool, or no data is
+	 * received within the read timeout (a {@link com.buabook.kdb.exceptions.QueryTimeoutException}). The connection is then 
+	 * disconnected and discarded by the pool
+	 * @see #query(String, KdbDict)
+	 */
+	public Object query(String query, KdbDict arguments, Duration readTimeout) throws QueryExecutionFailedException {
+		KdbConnection connection;
+		
+		try {
+			connection = pool.lease(target);
+		} catch (KdbTargetProcessUnavailableException e) {
+			throw new QueryExecutionFailedException(target.toString(), e);
+		}
+		
+		try {
+			return KdbSyncQuery.query(connection, query, arguments, readTimeout);
+		} finally {
+			pool.release(connection);
+		}
+	}
+	
+	/** @return The read timeout in the pool settings */
+	@Override
+	public Duration getDefaultReadTimeout() {
+		return pool.getSettings().getReadTimeout();
+	}
+	
+	/** Does nothing, as connections are owned by the pool */
+	@Override
+	public void close() {}
+	
+	public KdbProcess getTarget() {
+		return target;
+	}
+}
@@ -1,25 +1,39 @@
 package com.buabook.kdb.query;
 
+import java.net.Socket;
+import java.net.SocketException;
+
+import org.joda.time.Duration;
+
 import com.buabook.kdb.connection.KdbConnection;
 import com.buabook.kdb.connection.KdbProcess;
 import com.buabook.kdb.data.KdbDict;
 import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
 import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.interfaces.IKdbTimeoutQuery;
 
 /**
  * <h3>KDB Query Class (Abstract)</h3>
  * <p>Contains base connectivity (wrapping {@link KdbConnection}) and some wrapper functions
  * around the abstract {@link #query(String)} function
- * (c) 2014 - 2015 Sport Trades Ltd
+ * (c) 2014 - 2026 Sport Trades Ltd
  *
  * @author Jas Rajasansir
- * @version 1.0.1
+ * @version 1.2.2
  * @since 8 Jun 2014
  */
 public abstract class KdbQuery implements AutoCloseable {
 	/** The connection to use to query the kdb process */
 	KdbConnection connection;
 	
+	/** 
+	 * Constructs a new query object without a connection, for implementations that obtain a connection per query
+	 * @see KdbPooledSyncQuery
+	 */
+	KdbQuery() {
+		connection = null;
+	}
+	
 	/** Constructs a new query object, first opening an connection to the specified process
 	 * @param target The kdb process to connect to, ready for querying
 	 * @throws KdbTargetProcessUnavailableException If the process is unavailable
@@ -55,6 +69,15 @@ public abstract class KdbQuery implements AutoCloseable {
 		connection.disconnect();
 	}
 	
+	/**
+	 * @return The default read timeout for queries, or <code>null</code> if none. This is the read timeout of the connection
+	 * if the query has its own connection
+	 * @see IKdbTimeoutQuery
+	 */
+	public Duration getDefaultReadTimeout() {
+		return (connection == null) ? null : connection.getReadTimeout();
+	}
+	
 	/**
 	 * Method to query a kdb process with a string argument only. Example: <code>"aFunction[]"</code>
 	 * or <code>"aFunctionWithArgs[1;`symbol]</code>. 
@@ -73,4 +96,32 @@ public abstract class KdbQuery implements AutoCloseable {
 	 */
 	public abstract Object query(String query, KdbDict arguments) throws QueryExecutionFailedException;
 	
+	
+	/**
+	 * Sets the read timeout of the connection for a single query. Restore it with {@link #restoreTimeout(KdbConnection, int)}
+	 * once the query completes
+	 * @param timeout The read timeout for the query, or <code>null</code> to use the default of the connection
+	 * @return The read timeout to restore, in milliseconds
+	 */
+	static int applyTimeout(KdbConnection connection, Duration timeout) throws SocketException {
+		Socket socket = connection.getConnection().s;
+		int previousMs = socket.getSoTimeout();
+		
+		if(timeout != null)
+			socket.setSoTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE, timeout.getMillis())));
+		
+		return previousMs;
+	}
+	
+	/** Restores the read timeout after a query, if the connection is still connected */
+	static void restoreTimeout(KdbConnection connection, int previousMs) {
+		if(! connection.isConnected())
+			return;
+		
+		try {
+			connection.getConnection().s.setSoTimeout(previousMs);
+		} catch (SocketException e) {
+			connection.disconnect();
+		}
+	}
 }
@@ -0,0 +1,73 @@
+package com.buabook.kdb.query;
+
+import org.joda.time.Duration;
+
+/**
+ * <h3>Query Cache Settings</h3>
+ * <p>Configures the size bound, default time-to-live and eviction policy of a {@link KdbCachingQuery}.</p>
+ * <p>Objects are immutable.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public final class KdbQueryCacheSettings {
+	
+	public enum EEvictionPolicy {
+		/** The least recently used result is evicted first */
+		LRU,
+		
+		/** The least frequently used result is evicted first. Ties are broken by the least recently used */
+		LFU
+	}
+	
+	
+	/** The maximum total size of the cached results, in serialised bytes */
+	private final long maxBytes;
+	
+	/** The time a result is cached for, unless specified for the query */
+	private final Duration defaultTimeToLive;
+	
+	private final EEvictionPolicy evictionPolicy;
+	
+	
+	/**
+	 * @param maxBytes The maximum total size of the cached results, in serialised bytes
+	 * @param defaultTimeToLive The time a result is cached for, unless specified for the query
+	 * @param evictionPolicy The result to evict when there is no room for a new result
+	 * @throws IllegalArgumentException If the maximum size or time to live is not positive, or the policy is not specified
+	 */
+	public KdbQueryCacheSettings(long maxBytes, Duration defaultTimeToLive, EEvictionPolicy evictionPolicy) throws IllegalArgumentException {
+		if(maxBytes <= 0)
+			throw new IllegalArgumentException("Maximum cache size must be positive");
+		
+		if(defaultTimeToLive == null || defaultTimeToLive.getMillis() <= 0)
+			throw new IllegalArgumentException("Default time to live must be positive");
+		
+		if(evictionPolicy == null)
+			throw new IllegalArgumentException("Eviction policy must be specified");
+		
+		this.maxBytes = maxBytes;
+		this.defaultTimeToLive = defaultTimeToLive;
+		this.evictionPolicy = evictionPolicy;
+	}
+	
+	
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+	
+	public Duration getDefaultTimeToLive() {
+		return defaultTimeToLive;
+	}
+	
+	public EEvictionPolicy getEvictionPolicy() {
+		return evictionPolicy;
+	}
+	
+	@Override
+	public String toString() {
+		return "Max Bytes: " + maxBytes + ", Default TTL: " + defaultTimeToLive + ", Eviction: " + evictionPolicy;
+	}
+}
@@ -0,0 +1,79 @@
+package com.buabook.kdb.query;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.buabook.kdb.data.KdbDict;
+import com.kx.c;
+
+/**
+ * <h3>Query Key</h3>
+ * <p>Identifies a query by its text and its arguments, serialised in kdb IPC form, so that identical queries can be matched
+ * by {@link KdbCachingQuery} and {@link KdbCoalescingQuery}.</p>
+ * <p>Objects are immutable.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.1
+ * @since 17 Oct 2026
+ */
+final class KdbQueryKey {
+	
+	/** Serialisers are not thread-safe and retain their buffers, so one is kept per thread */
+	private static final ThreadLocal<c> serialisers = ThreadLocal.withInitial(c::codec);
+	
+	
+	private final String query;
+	
+	private final byte[] arguments;
+	
+	private final int hashCode;
+	
+	
+	private KdbQueryKey(String query, byte[] arguments) {
+		this.query = query;
+		this.arguments = arguments;
+		this.hashCode = 31 * query.hashCode() + Arrays.hashCode(arguments);
+	}
+	
+	
+	/** @throws IOException If the arguments cannot be serialised */
+	public static KdbQueryKey of(String query, KdbDict arguments) throws IOException {
+		return new KdbQueryKey(query, (arguments == null) ? null : serialise(arguments.convertToDict()));
+	}
+	
+	/** Serialises the object as a kdb IPC message, using a serialiser held by the calling thread */
+	static byte[] serialise(Object x) throws IOException {
+		return serialisers.get().serialize(0, x, false);
+	}
+	
+	/** @see #serialise(Object) */
+	static Object deserialise(byte[] x) throws IOException, c.KException {
+		return serialisers.get().deserialize(x);
+	}
+	
+	
+	/** @return The approximate size of the key, in bytes */
+	public long size() {
+		return query.length() * 2 + ((arguments == null) ? 0 : arguments.length);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof KdbQueryKey))
+			return false;
+		
+		KdbQueryKey other = (KdbQueryKey) obj;
+		return hashCode == other.hashCode && query.equals(other.query) && Arrays.equals(arguments, other.arguments);
+	}
+	
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+	
+	@Override
+	public String toString() {
+		return query;
+	}
+}
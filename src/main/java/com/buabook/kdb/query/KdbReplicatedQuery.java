@@ -0,0 +1,347 @@
+package com.buabook.kdb.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.connection.KdbConnectionPool;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.kx.c.KException;
+
+/**
+ * <h3>KDB Query Class - Replicated Implementation</h3>
+ * <p>Queries one of a set of identical kdb processes (e.g. HDB or gateway replicas), choosing the replica expected to respond
+ * fastest. An exponentially weighted moving average of the latency of each replica is kept, and each query is sent to the
+ * healthy replica with the lowest average multiplied by its number of outstanding queries (plus one), so a replica busy
+ * with a long query is avoided before its average catches up. Replicas without a latency sample are tried first.</p>
+ * <p>If hedging is enabled and the chosen replica has not responded within the configured percentile of its recent latencies,
+ * the query is also sent to the next best replica and the first successful response is returned. The slower response is
+ * discarded, but still updates the latency of its replica.</p>
+ * <p>A replica whose connection fails is avoided for the unhealthy period, unless every replica is unhealthy. Errors returned
+ * by kdb do not affect the health of the replica. Queries are not retried on another replica if they fail.</p>
+ * <p>Queries run on connections leased from a {@link KdbConnectionPool}. Closing the query does not close the pool.</p>
+ * <p>Objects are thread-safe.</p>
+ * (c) 2026 Sport Trades Ltd
+ * @see KdbReplicatedQuerySettings
+ * @see KdbPooledSyncQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class KdbReplicatedQuery extends KdbQuery {
+	private static final Logger log = LoggerFactory.getLogger(KdbReplicatedQuery.class);
+	
+	/** The number of recent latencies kept for each replica to calculate the hedge delay from */
+	private static final int LATENCY_WINDOW = 128;
+	
+	/** The number of latencies a replica must have before its queries are hedged */
+	private static final int MIN_HEDGE_SAMPLES = 20;
+	
+	private static final AtomicInteger instanceCount = new AtomicInteger();
+	
+	
+	private final KdbReplicatedQuerySettings settings;
+	
+	private final List<Replica> replicas;
+	
+	private final ExecutorService executor;
+	
+	private final LongAdder hedged;
+	
+	private final LongAdder hedgeWins;
+	
+	
+	/**
+	 * @param pool The pool to lease the connection to each replica from
+	 * @param replicas The identical processes to query. Replicas with equal estimates are chosen in this order
+	 * @throws IllegalArgumentException If any parameter is not specified, or there are no replicas
+	 */
+	public KdbReplicatedQuery(KdbConnectionPool pool, Collection<KdbProcess> replicas, KdbReplicatedQuerySettings settings) throws IllegalArgumentException {
+		super();
+		
+		if(pool == null || replicas == null || replicas.isEmpty() || settings == null)
+			throw new IllegalArgumentException("Connection pool, settings and at least one replica must be specified");
+		
+		this.settings = settings;
+		this.replicas = new ArrayList<>();
+		
+		for(KdbProcess replica : new LinkedHashSet<>(replicas))
+			this.replicas.add(new Replica(new KdbPooledSyncQuery(pool, replica)));
+		
+		String threadName = "KdbReplicatedQuery-" + instanceCount.incrementAndGet() + "-";
+		AtomicInteger threadCount = new AtomicInteger();
+		
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, threadName + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			
+			return thread;
+		});
+		
+		this.hedged = new LongAdder();
+		this.hedgeWins = new LongAdder();
+	}
+	
+	
+	@Override
+	public Object query(String query) throws QueryExecutionFailedException {
+		return query(query, null);
+	}
+	
+	/**
+	 * Sends the query to the replica expected to respond fastest, hedging it to the next best replica if enabled
+	 * @throws QueryExecutionFailedException If the query fails on every replica it was sent to, or the calling thread is
+	 * interrupted while waiting
+	 */
+	@Override
+	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException {
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		AtomicInteger outstanding = new AtomicInteger(1);
+		AtomicReference<Replica> winner = new AtomicReference<>();
+		
+		Replica primary = select(null);
+		send(primary, query, arguments, result, outstanding, winner);
+		
+		try {
+			long hedgeDelayNanos = settings.isHedgingEnabled() ? primary.getPercentileNanos(settings.getHedgePercentile()) : -1;
+			
+			if(hedgeDelayNanos < 0 || replicas.size() == 1)
+				return result.get();
+			
+			try {
+				return result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				// Incremented before checking for completion, so a failure of the primary cannot complete the result once hedged
+				outstanding.incrementAndGet();
+				
+				if(result.isDone()) {
+					outstanding.decrementAndGet();
+					return result.get();
+				}
+				
+				Replica hedge = select(primary);
+				
+				log.debug("Hedging query [ Primary: {} ] [ Hedge: {} ] [ Delay: {} ns ] [ Query: {} ]", primary, hedge, hedgeDelayNanos, query);
+				
+				hedged.increment();
+				send(hedge, query, arguments, result, outstanding, winner);
+				
+				Object response = result.get();
+				
+				if(winner.get() == hedge)
+					hedgeWins.increment();
+				
+				return response;
+			}
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof QueryExecutionFailedException)
+				throw (QueryExecutionFailedException) e.getCause();
+			
+			throw new QueryExecutionFailedException(primary.toString(), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QueryExecutionFailedException(primary.toString(), e);
+		}
+	}
+	
+	/** @return The replica processes, in the order specified */
+	public List<KdbProcess> getReplicas() {
+		List<KdbProcess> processes = new ArrayList<>();
+		replicas.forEach(replica -> processes.add(replica.query.getTarget()));
+		
+		return Collections.unmodifiableList(processes);
+	}
+	
+	/** @return The moving average latency of the replica in nanoseconds, or 0 if it has not yet responded to a query */
+	public long getLatencyEstimateNanos(KdbProcess process) throws IllegalArgumentException {
+		return (long) getReplica(process).getLatencyEstimateNanos();
+	}
+	
+	/** @return <code>true</code> if the replica is currently avoided due to a connection failure */
+	public boolean isUnhealthy(KdbProcess process) throws IllegalArgumentException {
+		return getReplica(process).isUnhealthy(System.nanoTime());
+	}
+	
+	/** @return The number of queries that were also sent to a second replica */
+	public long getHedgedCount() {
+		return hedged.sum();
+	}
+	
+	/** @return The number of hedged queries where the second replica responded first */
+	public long getHedgeWinCount() {
+		return hedgeWins.sum();
+	}
+	
+	public KdbReplicatedQuerySettings getSettings() {
+		return settings;
+	}
+	
+	/** Stops the query threads. Does not close the connection pool */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+	
+	
+	/**
+	 * @param exclude A replica not to choose, or <code>null</code>
+	 * @return The healthy replica with the lowest score, or the replica with the lowest score if none are healthy
+	 */
+	private Replica select(Replica exclude) {
+		long now = System.nanoTime();
+		
+		Replica best = null;
+		double bestScore = Double.MAX_VALUE;
+		boolean bestHealthy = false;
+		
+		for(Replica replica : replicas) {
+			if(replica == exclude)
+				continue;
+			
+			boolean healthy = ! replica.isUnhealthy(now);
+			double score = replica.getScore();
+			
+			if(best == null || (healthy && ! bestHealthy) || (healthy == bestHealthy && score < bestScore)) {
+				best = replica;
+				bestScore = score;
+				bestHealthy = healthy;
+			}
+		}
+		
+		return best;
+	}
+	
+	/** 
+	 * Runs the query on the replica, completing the result if it is the first to succeed (recording the replica as the winner)
+	 * or if it is the last outstanding attempt to fail
+	 */
+	private void send(Replica replica, String query, KdbDict arguments, CompletableFuture<Object> result, AtomicInteger outstanding, AtomicReference<Replica> winner) {
+		replica.outstanding.incrementAndGet();
+		
+		executor.execute(() -> {
+			long startNanos = System.nanoTime();
+			
+			try {
+				Object response = replica.query.query(query, arguments);
+				replica.recordLatency(System.nanoTime() - startNanos);
+				
+				if(winner.compareAndSet(null, replica))
+					result.complete(response);
+			} catch (QueryExecutionFailedException | RuntimeException e) {
+				if(! (e.getCause() instanceof KException))
+					replica.markUnhealthy();
+				
+				if(outstanding.decrementAndGet() == 0)
+					result.completeExceptionally(e);
+			} finally {
+				replica.outstanding.decrementAndGet();
+			}
+		});
+	}
+	
+	private Replica getReplica(KdbProcess process) throws IllegalArgumentException {
+		for(Replica replica : replicas)
+			if(replica.query.getTarget().equals(process))
+				return replica;
+		
+		throw new IllegalArgumentException("Process is not a replica [ Process: " + process + " ]");
+	}
+	
+	
+	/** The latency and health of a single replica */
+	private class Replica {
+		
+		private final KdbPooledSyncQuery query;
+		
+		private final AtomicInteger outstanding;
+		
+		/** The moving average latency in nanoseconds, or 0 if no latency has been recorded */
+		private double latencyEstimateNanos;
+		
+		/** The most recent latencies, as a ring buffer */
+		private final long[] latencies;
+		
+		private long latencyCount;
+		
+		/** The time, from {@link System#nanoTime()}, the replica is avoided until */
+		private volatile long unhealthyUntilNanos;
+		
+		private volatile boolean unhealthy;
+		
+		
+		public Replica(KdbPooledSyncQuery query) {
+			this.query = query;
+			this.outstanding = new AtomicInteger();
+			this.latencies = new long[LATENCY_WINDOW];
+		}
+		
+		
+		public synchronized void recordLatency(long nanos) {
+			if(latencyCount == 0)
+				latencyEstimateNanos = nanos;
+			else
+				latencyEstimateNanos += settings.getSmoothingFactor() * (nanos - latencyEstimateNanos);
+			
+			latencies[(int) (latencyCount++ % LATENCY_WINDOW)] = nanos;
+			unhealthy = false;
+		}
+		
+		public synchronized double getLatencyEstimateNanos() {
+			return latencyEstimateNanos;
+		}
+		
+		/** @return The latency estimate scaled by the number of queries the replica is already running */
+		public double getScore() {
+			return getLatencyEstimateNanos() * (outstanding.get() + 1);
+		}
+		
+		/** @return The percentile of the recent latencies, or -1 if there are too few to calculate it from */
+		public long getPercentileNanos(double percentile) {
+			long[] sorted;
+			
+			synchronized (this) {
+				if(latencyCount < MIN_HEDGE_SAMPLES)
+					return -1;
+				
+				sorted = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_WINDOW));
+			}
+			
+			Arrays.sort(sorted);
+			return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile / 100 * sorted.length) - 1)];
+		}
+		
+		public void markUnhealthy() {
+			log.warn("Replica connection failed. Avoiding for {} [ Process: {} ]", settings.getUnhealthyPeriod(), query.getTarget());
+			
+			unhealthyUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getUnhealthyPeriod().getMillis());
+			unhealthy = true;
+		}
+		
+		public boolean isUnhealthy(long nowNanos) {
+			return unhealthy && nowNanos - unhealthyUntilNanos < 0;
+		}
+		
+		@Override
+		public String toString() {
+			return query.getTarget().toString();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.buabook.kdb.query;
+
+import org.joda.time.Duration;
+
+/**
+ * <h3>Replicated Query Settings</h3>
+ * <p>Configures how a {@link KdbReplicatedQuery} estimates the latency of each replica, how long a failed replica is avoided
+ * for, and whether queries are hedged.</p>
+ * <p>Objects are immutable.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public final class KdbReplicatedQuerySettings {
+	
+	/** The weight of each new latency sample in the moving average of a replica, between 0 (exclusive) and 1 */
+	private final double smoothingFactor;
+	
+	/** The percentile of the recent latencies of a replica to wait for before hedging, or 0 if queries are not hedged */
+	private final double hedgePercentile;
+	
+	/** The time a replica is avoided for after its connection fails */
+	private final Duration unhealthyPeriod;
+	
+	
+	/**
+	 * Settings for queries that are not hedged
+	 * @see #KdbReplicatedQuerySettings(double, double, Duration)
+	 */
+	public KdbReplicatedQuerySettings(double smoothingFactor, Duration unhealthyPeriod) throws IllegalArgumentException {
+		this(smoothingFactor, 0, unhealthyPeriod);
+	}
+	
+	/**
+	 * @param smoothingFactor The weight of each new latency sample in the moving average of a replica. Higher values react
+	 * faster to changes in latency
+	 * @param hedgePercentile If a replica has not responded within this percentile (e.g. 95) of its recent latencies, the
+	 * query is also sent to the next fastest replica. 0 to disable hedging
+	 * @param unhealthyPeriod The time a replica is avoided for after its connection fails
+	 * @throws IllegalArgumentException If the smoothing factor is not in (0, 1], the percentile is not in [0, 100) or the 
+	 * period is not specified
+	 */
+	public KdbReplicatedQuerySettings(double smoothingFactor, double hedgePercentile, Duration unhealthyPeriod) throws IllegalArgumentException {
+		if(smoothingFactor <= 0 || smoothingFactor > 1)
+			throw new IllegalArgumentException("Smoothing factor must be greater than 0 and at most 1");
+		
+		if(hedgePercentile < 0 || hedgePercentile >= 100)
+			throw new IllegalArgumentException("Hedge percentile must be at least 0 and less than 100");
+		
+		if(unhealthyPeriod == null || unhealthyPeriod.getMillis() < 0)
+			throw new IllegalArgumentException("Unhealthy period must be specified");
+		
+		this.smoothingFactor = smoothingFactor;
+		this.hedgePercentile = hedgePercentile;
+		this.unhealthyPeriod = unhealthyPeriod;
+	}
+	
+	
+	public double getSmoothingFactor() {
+		return smoothingFactor;
+	}
+	
+	public double getHedgePercentile() {
+		return hedgePercentile;
+	}
+	
+	public boolean isHedgingEnabled() {
+		return hedgePercentile > 0;
+	}
+	
+	public Duration getUnhealthyPeriod() {
+		return unhealthyPeriod;
+	}
+	
+	@Override
+	public String toString() {
+		return "Smoothing: " + smoothingFactor + ", Hedge Percentile: " + hedgePercentile + ", Unhealthy Period: " + unhealthyPeriod;
+	}
+}
@@ -0,0 +1,146 @@
+package com.buabook.kdb.query;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.connection.KdbConnection;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.kx.c;
+import com.kx.c.KException;
+
+/**
+ * <h3>Response Reader</h3>
+ * <p>Holds the queries outstanding on a single connection, by ID, and reads the connection on a dedicated daemon thread,
+ * passing each message to the subclass to complete the query it answers.</p>
+ * <p>The reader stops when it is {@link #close(Exception) closed}, or when reading fails. A read failure on a reader that has
+ * not been closed disconnects the owning {@link KdbConnection} (if it is still using the same connection). Either way, all
+ * the outstanding queries fail with a {@link QueryExecutionFailedException}.</p>
+ * (c) 2026 Sport Trades Ltd
+ * @see KdbPipelinedQuery
+ * @see KdbCallbackQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+abstract class KdbResponseReader {
+	private static final Logger log = LoggerFactory.getLogger(KdbResponseReader.class);
+	
+	
+	/** The connection of the owner at the time this reader was created */
+	final c connection;
+	
+	/** The result of each query that has been sent, by ID */
+	final ConcurrentSkipListMap<Long, CompletableFuture<Object>> outstanding;
+	
+	final String process;
+	
+	private final KdbConnection owner;
+	
+	/** Held by the owner while sending a query on the connection */
+	private final Object sendLock;
+	
+	private volatile boolean closed;
+	
+	
+	/** Creates a reader for the current connection of the owner. Must be called with the send lock held */
+	KdbResponseReader(KdbConnection owner, Object sendLock) {
+		this.connection = owner.getConnection();
+		this.outstanding = new ConcurrentSkipListMap<>();
+		this.process = owner.getRemoteProcess().toString();
+		this.owner = owner;
+		this.sendLock = sendLock;
+		this.closed = false;
+	}
+	
+	
+	/** Called on the reader thread with each message read from the connection */
+	abstract void onMessage(Object message);
+	
+	/** Called on the reader thread with each error message read from the connection */
+	abstract void onError(KException error);
+	
+	
+	/** Starts the reader thread, named with the prefix and the host and port of the process */
+	void start(String threadPrefix) {
+		KdbProcess target = owner.getRemoteProcess();
+		Thread reader = new Thread(this::read, threadPrefix + "-" + target.getHostname() + "-" + target.getPort());
+		
+		reader.setDaemon(true);
+		reader.start();
+	}
+	
+	/** @return <code>true</code> if the reader has not been closed and the owner is still using the same connection */
+	boolean isCurrent() {
+		return ! closed && owner.getConnection() == connection;
+	}
+	
+	/**
+	 * Stops the reader, disconnecting the owner if it is still using the same connection, and fails all outstanding queries
+	 * with the specified cause. Must be called with the send lock held
+	 */
+	void close(Exception cause) {
+		if(closed)
+			return;
+		
+		closed = true;
+		
+		if(owner.getConnection() == connection)
+			owner.disconnect();
+		
+		failOutstanding(cause);
+	}
+	
+	
+	private void read() {
+		while(! closed) {
+			Object message;
+			
+			try {
+				message = connection.k();
+			} catch (KException e) {
+				onError(e);
+				continue;
+			} catch (IOException | RuntimeException e) {
+				fail(e);
+				return;
+			}
+			
+			onMessage(message);
+		}
+	}
+	
+	/**
+	 * Closes the reader after a read failure, unless it has already been closed. If the owner has disconnected or replaced the
+	 * connection, the read failure is the result of the closed connection rather than its cause
+	 */
+	private void fail(Exception error) {
+		synchronized (sendLock) {
+			if(closed)
+				return;
+			
+			if(owner.getConnection() != connection) {
+				close(new IOException("Connection closed"));
+				return;
+			}
+			
+			if(error instanceof IOException)
+				log.error("Connection failed [ Process: {} ] [ Outstanding: {} ]. Error - {}", process, outstanding.size(), error.getMessage());
+			else
+				log.error("Failed to read response, connection cannot be read further [ Process: {} ] [ Outstanding: {} ]", process, outstanding.size(), error);
+			
+			close(error);
+		}
+	}
+	
+	private void failOutstanding(Exception cause) {
+		for(Entry<Long, CompletableFuture<Object>> entry = outstanding.pollFirstEntry(); entry != null; entry = outstanding.pollFirstEntry())
+			entry.getValue().completeExceptionally(new QueryExecutionFailedException(process, cause));
+	}
+}
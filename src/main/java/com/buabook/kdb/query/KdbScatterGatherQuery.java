@@ -0,0 +1,383 @@
+package com.buabook.kdb.query;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buabook.kdb.connection.KdbConnectionPool;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.data.columns.KdbColumn;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.exceptions.TableSchemaMismatchException;
+import com.kx.c;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+/**
+ * <h3>KDB Query Class - Scatter-Gather Implementation</h3>
+ * <p>Sends the same query to a set of kdb processes in parallel (e.g. HDBs each holding a different date range) and merges
+ * the tables they return into a single table. Tables are either appended in target order, or merged by a sort column. Keyed
+ * tables are unkeyed before merging.</p>
+ * <p>Each target has its own timeout, measured from when the query is sent. A target that fails, times out or does not return
+ * a table is reported in the {@link KdbScatterGatherResult} and the table is built from the remaining targets. A target that
+ * times out keeps its pooled connection until its response arrives.</p>
+ * <p>Queries run on connections leased from a {@link KdbConnectionPool}. Closing the query does not close the pool.</p>
+ * <p>Objects are thread-safe.</p>
+ * (c) 2026 Sport Trades Ltd
+ * @see KdbQuery
+ * @see KdbPooledSyncQuery
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.0
+ * @since 17 Oct 2026
+ */
+public class KdbScatterGatherQuery extends KdbQuery {
+	private static final Logger log = LoggerFactory.getLogger(KdbScatterGatherQuery.class);
+	
+	private static final String TABLE_NAME = "table";
+	
+	private static final AtomicInteger instanceCount = new AtomicInteger();
+	
+	
+	/** The query for each target, in target order */
+	private final Map<KdbProcess, KdbPooledSyncQuery> queries;
+	
+	/** The timeout for each target, in nanoseconds */
+	private final Map<KdbProcess, Long> timeoutNanos;
+	
+	private final ExecutorService executor;
+	
+	
+	/**
+	 * @param pool The pool to lease the connection to each target from
+	 * @param targets The processes to query. Appended tables are in this order
+	 * @param timeout The time to wait for each target
+	 * @throws IllegalArgumentException If any parameter is not specified, there are no targets or the timeout is not positive
+	 */
+	public KdbScatterGatherQuery(KdbConnectionPool pool, Collection<KdbProcess> targets, Duration timeout) throws IllegalArgumentException {
+		this(pool, getTimeouts(targets, timeout));
+	}
+	
+	/**
+	 * @param pool The pool to lease the connection to each target from
+	 * @param targetTimeouts The processes to query and the time to wait for each. Appended tables are in the iteration order of the map
+	 * @throws IllegalArgumentException If any parameter is not specified, there are no targets or any timeout is not positive
+	 */
+	public KdbScatterGatherQuery(KdbConnectionPool pool, Map<KdbProcess, Duration> targetTimeouts) throws IllegalArgumentException {
+		super();
+		
+		if(pool == null || targetTimeouts == null || targetTimeouts.isEmpty())
+			throw new IllegalArgumentException("Connection pool and at least one target process must be specified");
+		
+		this.queries = new LinkedHashMap<>();
+		this.timeoutNanos = new LinkedHashMap<>();
+		
+		for(Entry<KdbProcess, Duration> target : targetTimeouts.entrySet()) {
+			if(target.getValue() == null || target.getValue().getMillis() <= 0)
+				throw new IllegalArgumentException("Timeout must be positive [ Process: " + target.getKey() + " ]");
+			
+			queries.put(target.getKey(), new KdbPooledSyncQuery(pool, target.getKey()));
+			timeoutNanos.put(target.getKey(), TimeUnit.MILLISECONDS.toNanos(target.getValue().getMillis()));
+		}
+		
+		String threadName = "KdbScatterGatherQuery-" + instanceCount.incrementAndGet() + "-";
+		AtomicInteger threadCount = new AtomicInteger();
+		
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, threadName + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			
+			return thread;
+		});
+	}
+	
+	
+	@Override
+	public Object query(String query) throws QueryExecutionFailedException {
+		return query(query, null);
+	}
+	
+	/**
+	 * Queries all targets and appends their tables in target order
+	 * @return The merged table, as a {@link Flip} like any other query result
+	 * @throws QueryExecutionFailedException If any target fails. Use {@link #scatter(String, KdbDict)} to accept partial results
+	 * @throws TableSchemaMismatchException If the tables returned have different columns or column types
+	 */
+	@Override
+	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException, TableSchemaMismatchException {
+		Map<KdbProcess, QueryExecutionFailedException> failures = new LinkedHashMap<>();
+		Flip table = gather(query, arguments, null, failures);
+		
+		if(! failures.isEmpty()) {
+			Entry<KdbProcess, QueryExecutionFailedException> first = failures.entrySet().iterator().next();
+			throw new QueryExecutionFailedException("Failed targets: " + failures.keySet(), first.getValue());
+		}
+		
+		return table;
+	}
+	
+	/**
+	 * Queries all targets and appends their tables in target order
+	 * @see #scatter(String, KdbDict, String)
+	 */
+	public KdbScatterGatherResult scatter(String query, KdbDict arguments) throws QueryExecutionFailedException, TableSchemaMismatchException {
+		return scatter(query, arguments, null);
+	}
+	
+	/**
+	 * Queries all targets and merges their tables by the specified column. The table from each target must already be sorted
+	 * by the column (ascending, with kdb nulls first), as is typical when each target holds a separate date range. Rows with
+	 * equal values are kept in target order.
+	 * @param sortColumn The column to merge by, or <code>null</code> to append the tables in target order. The column must 
+	 * contain {@link Comparable} values
+	 * @return The merged table and any targets that failed
+	 * @throws QueryExecutionFailedException If the calling thread is interrupted while waiting for the targets
+	 * @throws TableSchemaMismatchException If the tables returned have different columns or column types, or do not contain 
+	 * the sort column
+	 */
+	public KdbScatterGatherResult scatter(String query, KdbDict arguments, String sortColumn) throws QueryExecutionFailedException, TableSchemaMismatchException {
+		Map<KdbProcess, QueryExecutionFailedException> failures = new LinkedHashMap<>();
+		Flip table = gather(query, arguments, sortColumn, failures);
+		
+		if(table == null)
+			return new KdbScatterGatherResult(null, failures);
+		
+		return new KdbScatterGatherResult((table.x.length == 0) ? new KdbTable(TABLE_NAME) : new KdbTable(TABLE_NAME, table), failures);
+	}
+	
+	/** @return The processes queried, in target order */
+	public Collection<KdbProcess> getTargets() {
+		return Collections.unmodifiableSet(queries.keySet());
+	}
+	
+	/** Stops the query threads. Does not close the connection pool */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+	
+	
+	/**
+	 * Queries all targets and merges the tables returned, adding the failure of each target that did not return a table
+	 * @return The merged table, or <code>null</code> if every target failed
+	 */
+	private Flip gather(String query, KdbDict arguments, String sortColumn, Map<KdbProcess, QueryExecutionFailedException> failures) throws QueryExecutionFailedException, TableSchemaMismatchException {
+		long sentNanos = System.nanoTime();
+		Map<KdbProcess, Future<Object>> pending = new LinkedHashMap<>();
+		
+		log.debug("Scattering query [ Targets: {} ] [ Query: {} ]", queries.keySet(), query);
+		
+		for(Entry<KdbProcess, KdbPooledSyncQuery> target : queries.entrySet())
+			pending.put(target.getKey(), executor.submit(() -> target.getValue().query(query, arguments)));
+		
+		List<Flip> tables = new ArrayList<>(pending.size());
+		
+		for(Entry<KdbProcess, Future<Object>> target : pending.entrySet()) {
+			KdbProcess process = target.getKey();
+			long remainingNanos = sentNanos + timeoutNanos.get(process) - System.nanoTime();
+			
+			try {
+				tables.add(toFlip(process, target.getValue().get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS)));
+			} catch (ExecutionException e) {
+				failures.put(process, (e.getCause() instanceof QueryExecutionFailedException) ? (QueryExecutionFailedException) e.getCause() : new QueryExecutionFailedException(process.toString(), e.getCause()));
+			} catch (TimeoutException e) {
+				target.getValue().cancel(true);
+				failures.put(process, new QueryExecutionFailedException(process + " Timed out", e));
+			} catch (QueryExecutionFailedException e) {
+				failures.put(process, e);
+			} catch (InterruptedException e) {
+				pending.values().forEach(future -> future.cancel(true));
+				
+				Thread.currentThread().interrupt();
+				throw new QueryExecutionFailedException("Interrupted while waiting for targets", e);
+			}
+		}
+		
+		if(! failures.isEmpty())
+			log.warn("Scatter-gather query failed on {} of {} targets [ Query: {} ] [ Failed: {} ]", failures.size(), queries.size(), query, failures.keySet());
+		
+		return tables.isEmpty() ? null : merge(tables, sortColumn);
+	}
+	
+	private static Map<KdbProcess, Duration> getTimeouts(Collection<KdbProcess> targets, Duration timeout) {
+		if(targets == null)
+			return null;
+		
+		Map<KdbProcess, Duration> timeouts = new LinkedHashMap<>();
+		
+		for(KdbProcess target : targets)
+			timeouts.put(target, timeout);
+		
+		return timeouts;
+	}
+	
+	private static Flip toFlip(KdbProcess process, Object result) throws QueryExecutionFailedException {
+		boolean keyed = (result instanceof Dict) && ((Dict) result).x instanceof Flip && ((Dict) result).y instanceof Flip;
+		
+		if(! (result instanceof Flip) && ! keyed)
+			throw new QueryExecutionFailedException(process + " Result is not a table");
+		
+		try {
+			return c.td(result);
+		} catch (java.io.UnsupportedEncodingException e) {
+			throw new QueryExecutionFailedException(process.toString(), e);
+		}
+	}
+	
+	/**
+	 * Merges the tables as a list of runs of consecutive rows from the same table, then copies each column run by run. The 
+	 * columns of the merged table are in the order of the first table.
+	 * @param sortColumn The column to merge by, or <code>null</code> to append
+	 */
+	static Flip merge(List<Flip> tables, String sortColumn) throws TableSchemaMismatchException {
+		String[] columns = tables.get(0).x;
+		
+		if(columns.length == 0)
+			return tables.get(0);
+		
+		Object[][] data = new Object[tables.size()][];
+		int[] rowCounts = new int[tables.size()];
+		int totalRows = 0;
+		
+		for(int tCount = 0; tCount < tables.size(); tCount++) {
+			data[tCount] = getColumns(tables.get(tCount), columns);
+			rowCounts[tCount] = Array.getLength(data[tCount][0]);
+			totalRows += rowCounts[tCount];
+		}
+		
+		for(int cCount = 0; cCount < columns.length; cCount++)
+			for(int tCount = 1; tCount < tables.size(); tCount++)
+				if(data[tCount][cCount].getClass() != data[0][cCount].getClass())
+					throw new TableSchemaMismatchException("Column types are different [ Column: " + columns[cCount] + " ]");
+		
+		int[] runs = (sortColumn == null) ? getAppendRuns(rowCounts) : getSortedRuns(data, rowCounts, getColumnIndex(columns, sortColumn));
+		Object[] merged = new Object[columns.length];
+		
+		for(int cCount = 0; cCount < columns.length; cCount++) {
+			merged[cCount] = Array.newInstance(data[0][cCount].getClass().getComponentType(), totalRows);
+			
+			for(int rCount = 0, target = 0; rCount < runs.length; rCount += 3) {
+				System.arraycopy(data[runs[rCount]][cCount], runs[rCount + 1], merged[cCount], target, runs[rCount + 2]);
+				target += runs[rCount + 2];
+			}
+		}
+		
+		return new Flip(new Dict(columns, merged));
+	}
+	
+	/** @return The columns of the table in the specified order */
+	private static Object[] getColumns(Flip table, String[] columns) throws TableSchemaMismatchException {
+		if(table.x.length != columns.length)
+			throw new TableSchemaMismatchException("Tables have different columns");
+		
+		Object[] ordered = new Object[columns.length];
+		
+		for(int cCount = 0; cCount < columns.length; cCount++) {
+			getColumnIndex(table.x, columns[cCount]);
+			ordered[cCount] = table.at(columns[cCount]);
+		}
+		
+		return ordered;
+	}
+	
+	private static int getColumnIndex(String[] columns, String column) throws TableSchemaMismatchException {
+		int index = Arrays.asList(columns).indexOf(column);
+		
+		if(index == -1)
+			throw new TableSchemaMismatchException("Column missing [ Column: " + column + " ]");
+		
+		return index;
+	}
+	
+	/** @return A run (table, first row, row count) covering each table, in table order */
+	private static int[] getAppendRuns(int[] rowCounts) {
+		int[] runs = new int[rowCounts.length * 3];
+		
+		for(int tCount = 0; tCount < rowCounts.length; tCount++) {
+			runs[tCount * 3] = tCount;
+			runs[tCount * 3 + 1] = 0;
+			runs[tCount * 3 + 2] = rowCounts[tCount];
+		}
+		
+		return runs;
+	}
+	
+	/** 
+	 * K-way merge of the sorted tables, taking the lowest next row of any table each time. Consecutive rows from the same table
+	 * are combined into a single run (table, first row, row count).
+	 * @see #compareSortValues(Object, Object)
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int[] getSortedRuns(Object[][] data, int[] rowCounts, int sortColumn) {
+		List<Object>[] keys = new List[data.length];
+		int[] positions = new int[data.length];
+		
+		for(int tCount = 0; tCount < data.length; tCount++)
+			keys[tCount] = KdbColumn.of(data[tCount][sortColumn]);
+		
+		PriorityQueue<Integer> next = new PriorityQueue<>(data.length, (a, b) -> {
+			int compare = compareSortValues(keys[a].get(positions[a]), keys[b].get(positions[b]));
+			return (compare != 0) ? compare : Integer.compare(a, b);
+		});
+		
+		for(int tCount = 0; tCount < data.length; tCount++)
+			if(rowCounts[tCount] > 0)
+				next.add(tCount);
+		
+		int[] runs = new int[3 * 16];
+		int runEnd = 0;
+		
+		while(! next.isEmpty()) {
+			int table = next.poll();
+			
+			if(runEnd > 0 && runs[runEnd - 3] == table) {
+				runs[runEnd - 1]++;
+			} else {
+				if(runEnd == runs.length)
+					runs = Arrays.copyOf(runs, runs.length * 2);
+				
+				runs[runEnd] = table;
+				runs[runEnd + 1] = positions[table];
+				runs[runEnd + 2] = 1;
+				runEnd += 3;
+			}
+			
+			if(++positions[table] < rowCounts[table])
+				next.add(table);
+		}
+		
+		return Arrays.copyOf(runs, runEnd);
+	}
+	
+	/** Orders kdb nulls (and Java <code>null</code>) first, as kdb does when sorting, then by the natural order of the values */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compareSortValues(Object a, Object b) {
+		boolean aNull = (a == null) || c.qn(a);
+		boolean bNull = (b == null) || c.qn(b);
+		
+		if(aNull || bNull)
+			return Boolean.compare(bNull, aNull);
+		
+		return ((Comparable) a).compareTo(b);
+	}
+}
@@ -0,0 +1,53 @@
+package com.buabook.kdb.query;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+
+/**
+ * <h3>Scatter-Gather Query Result</h3>
+ * <p>The merged table returned by a {@link KdbScatterGatherQuery}, along with the targets that failed to return their part of
+ * it. If any target failed the table is partial.</p>
+ * <p>Objects are immutable, although the table is not.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public final class KdbScatterGatherResult {
+	
+	private final KdbTable table;
+	
+	private final Map<KdbProcess, QueryExecutionFailedException> failures;
+	
+	
+	KdbScatterGatherResult(KdbTable table, Map<KdbProcess, QueryExecutionFailedException> failures) {
+		this.table = table;
+		this.failures = Collections.unmodifiableMap(failures);
+	}
+	
+	
+	/** @return The merged table from the targets that succeeded, or <code>null</code> if every target failed */
+	public KdbTable getTable() {
+		return table;
+	}
+	
+	/** @return The failure of each target that did not return its part of the table, in target order */
+	public Map<KdbProcess, QueryExecutionFailedException> getFailures() {
+		return failures;
+	}
+	
+	/** @return <code>true</code> if every target returned its part of the table */
+	public boolean isComplete() {
+		return failures.isEmpty();
+	}
+	
+	@Override
+	public String toString() {
+		return "KdbScatterGatherResult [ Rows: " + ((table == null) ? 0 : table.getRowCount()) + " ] [ Failed: " + failures.keySet() + " ]";
+	}
+}
@@ -1,7 +1,9 @@
 package com.buabook.kdb.query;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 
+import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,6 +12,8 @@ import com.buabook.kdb.connection.KdbProcess;
 import com.buabook.kdb.data.KdbDict;
 import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
 import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.exceptions.QueryTimeoutException;
+import com.buabook.kdb.interfaces.IKdbTimeoutQuery;
 import com.google.common.base.Stopwatch;
 import com.kx.c.KException;
 
@@ -17,14 +21,14 @@ import com.kx.c.KException;
  * <h3>KDB Query Class - Synchronous Implementation</h3>
  * <p>Based on {@link KdbQuery} provides a synchronous (server accepts and responds 
  * immediately to query) means of communicating with a KDB process.</p> 
- * (c) 2014 - 2015 Sport Trades Ltd
+ * (c) 2014 - 2026 Sport Trades Ltd
  * @see KdbQuery
  * 
  * @author Jas Rajasansir
- * @version 1.0.1
+ * @version 1.2.2
  * @since 21 Jul 2014
  */
-public class KdbSyncQuery extends KdbQuery {
+public class KdbSyncQuery extends KdbQuery implements IKdbTimeoutQuery {
 	private static final Logger log = LoggerFactory.getLogger(KdbSyncQuery.class);
 
 	
@@ -37,6 +41,12 @@ public class KdbSyncQuery extends KdbQuery {
 	}
 
 	
+	/** @see KdbConnection#setReadTimeout(Duration) */
+	@Override
+	public void setDefaultReadTimeout(Duration readTimeout) {
+		connection.setReadTimeout(readTimeout);
+	}
+	
 	@Override
 	public Object query(String query) throws QueryExecutionFailedException {
 		return query(query, null);
@@ -49,6 +59,26 @@ public class KdbSyncQuery extends KdbQuery {
 	 */
 	@Override
 	public Object query(String query, KdbDict arguments) throws QueryExecutionFailedException {
+		return query(connection, query, arguments, null);
+	}
+	
+	/**
+	 * Runs the query with a read timeout, overriding the default (see {@link #setDefaultReadTimeout(Duration)}) for this query
+	 * @param readTimeout The read timeout, or <code>null</code> to use the default
+	 * @throws QueryTimeoutException If no data is received within the read timeout. The connection is disconnected
+	 * @see #query(String, KdbDict)
+	 */
+	public Object query(String query, KdbDict arguments, Duration readTimeout) throws QueryExecutionFailedException {
+		return query(connection, query, arguments, readTimeout);
+	}
+	
+	/**
+	 * Runs the query synchronously on the specified connection, reconnecting first if it is disconnected. On an 
+	 * {@link IOException}, including exceeding the read timeout, the connection is disconnected.
+	 * @param readTimeout The read timeout for the query, or <code>null</code> to use the read timeout of the connection
+	 * @see #query(String, KdbDict, Duration)
+	 */
+	static Object query(KdbConnection connection, String query, KdbDict arguments, Duration readTimeout) throws QueryExecutionFailedException {
 		if(! connection.isConnected()) {
 			log.warn("Underlying connection to the kdb process ({}) has disconnected. Attempting to reconnect.", connection.getRemoteProcess());
 			log.warn("NOTE: Query (and calling thread) will be pending until the process reconnects.");
@@ -61,16 +91,26 @@ public class KdbSyncQuery extends KdbQuery {
 		
 		try {
 			queryTime = Stopwatch.createStarted();
+			int previousTimeoutMs = applyTimeout(connection, readTimeout);
 			
-			if(arguments == null) {
-				log.debug("Running synchronous query [ Process: {} ] [ Query: {} ]", connection.getRemoteProcess(), query);
-				queryResult = connection.getConnection().k(query);
-			} else {
-				log.debug("Running synchronous query [ Process: {} ] [ Query: {} ] [ Args: {} ]", connection.getRemoteProcess(), query, arguments);
-				queryResult = connection.getConnection().k(query, arguments.convertToDict());
+			try {
+				if(arguments == null) {
+					log.debug("Running synchronous query [ Process: {} ] [ Query: {} ]", connection.getRemoteProcess(), query);
+					queryResult = connection.getConnection().k(query);
+				} else {
+					log.debug("Running synchronous query [ Process: {} ] [ Query: {} ] [ Args: {} ]", connection.getRemoteProcess(), query, arguments);
+					queryResult = connection.getConnection().k(query, arguments.convertToDict());
+				}
+			} finally {
+				restoreTimeout(connection, previousTimeoutMs);
 			}
 			
 			queryTime.stop();
+		} catch (SocketTimeoutException e) {
+			log.error("Synchronous query exceeded read timeout. Disconnecting [ Process: {} ] [ Query: {} ] [ Query Time: {} ]", connection.getRemoteProcess(), query, queryTime);
+			connection.disconnect();
+			
+			throw new QueryTimeoutException(connection.getRemoteProcess().toString(), e);
 		} catch (KException e) {
 			log.error("Failed to execute synchronous query [ Process: {} ] [ Query: {} ]. Error - {}", connection.getRemoteProcess(), query, e.getMessage());
 			throw new QueryExecutionFailedException(connection.getRemoteProcess().toString(), e);
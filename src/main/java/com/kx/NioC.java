@@ -0,0 +1,182 @@
+package com.kx;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+/**
+ * <h3>NIO {@link SocketChannel} Transport for {@link c}</h3>
+ * <p>Drop-in replacement for the standard {@link c} connection that reads from a {@link SocketChannel}
+ * into receive buffers that are kept for the lifetime of the connection. Messages are decoded directly
+ * from the receive buffer, so unlike {@link c#k()} no new byte array is allocated for every message received.</p>
+ * <p>The receive buffers are heap buffers rather than direct buffers as the {@link c} decoder operates on the
+ * backing array; this still removes the per-message copy and allocation.</p>
+ * <p>The socket read timeout ({@link java.net.Socket#setSoTimeout(int)}) is honoured, as with {@link c}.</p>
+ * <p><b>NOTE</b>: TLS is not supported by this transport.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.1.0
+ * @since 17 Oct 2026
+ */
+public class NioC extends c {
+	
+	/** The size of the kdb IPC message header */
+	private static final int HEADER_SIZE = 8;
+	
+	/** The initial size of the message body receive buffer. It will grow as required for larger messages */
+	private static final int INITIAL_RECEIVE_BUFFER_SIZE = 64 * 1024;
+	
+	
+	private SocketChannel channel;
+	
+	/** The stream of the channel socket, which (unlike the channel) honours the socket read timeout */
+	private InputStream timedInput;
+	
+	/** Reusable buffer for the 8 byte message header */
+	private final ByteBuffer header;
+	
+	/** Reusable buffer for the message body. Replaced with a larger buffer if a message does not fit */
+	private ByteBuffer body;
+	
+	
+	/** @see #NioC(String, int, String) */
+	public NioC(String host, int port) throws KException, IOException {
+		this(host, port, System.getProperty("user.name"));
+	}
+	
+	/**
+	 * Opens a new connection to the specified kdb process and performs the kdb handshake. If the process does not accept
+	 * the capability byte (kdb+ 2.5 and earlier), the connection is re-opened and the handshake attempted without it.
+	 * @param host The kdb process host name
+	 * @param port The kdb process port
+	 * @param userPass The user name and password in <code>user:password</code> format
+	 * @throws KException If the kdb process refuses the connection credentials
+	 * @throws IOException If the connection cannot be opened
+	 */
+	public NioC(String host, int port, String userPass) throws KException, IOException {
+		super();
+		
+		this.header = ByteBuffer.allocate(HEADER_SIZE);
+		this.body = ByteBuffer.allocate(INITIAL_RECEIVE_BUFFER_SIZE);
+		
+		if(! handshake(host, port, userPass + "\3")) {
+			close();
+			
+			if(! handshake(host, port, userPass)) {
+				close();
+				throw new KException("access");
+			}
+		}
+	}
+	
+	
+	/**
+	 * Reads the next message from the channel into the reusable receive buffers and decodes it.
+	 * @see c#k()
+	 */
+	@Override
+	public Object k() throws KException, IOException {
+		synchronized(header) {
+			header.clear();
+			readFully(header);
+			
+			a = header.get(0) == 1;
+			
+			if(header.get(1) == 1)
+				sync++;
+			
+			boolean compressed = header.get(2) == 1;
+			int bodyLength = header.order(a ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).getInt(4) - HEADER_SIZE;
+			
+			if(body.capacity() < bodyLength)
+				body = ByteBuffer.allocate(Math.max(bodyLength, 2 * body.capacity()));
+			
+			body.clear();
+			body.limit(bodyLength);
+			readFully(body);
+			
+			// Lazily decoded tables keep a reference to the message, so they must not share the reusable buffer
+			b = lazy ? Arrays.copyOf(body.array(), bodyLength) : body.array();
+			j = 0;
+			
+			if(compressed)
+				u();
+			
+			if(b[0] == -128) {
+				j = 1;
+				throw new KException(rs());
+			}
+			
+			return r();
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		super.close();
+		
+		if(channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+	
+	
+	private boolean handshake(String host, int port, String credentials) throws IOException {
+		channel = SocketChannel.open(new InetSocketAddress(host, port));
+		channel.configureBlocking(true);
+		
+		s = channel.socket();
+		s.setTcpNoDelay(true);
+		s.setKeepAlive(true);
+		
+		InetAddress address = s.getInetAddress();
+		l = address.isAnyLocalAddress() || address.isLoopbackAddress();
+		
+		o = Channels.newOutputStream(channel);
+		timedInput = s.getInputStream();
+		
+		B = new byte[1 + ns(credentials)];
+		J = 0;
+		w(credentials);
+		
+		ByteBuffer request = ByteBuffer.wrap(B, 0, J);
+		
+		while(request.hasRemaining())
+			channel.write(request);
+		
+		ByteBuffer response = ByteBuffer.allocate(1);
+		
+		if(channel.read(response) != 1)
+			return false;
+		
+		vt = Math.min(response.get(0), 3);
+		return true;
+	}
+	
+	/** @throws java.net.SocketTimeoutException If a read timeout is set and no data is received within it */
+	private void readFully(ByteBuffer buffer) throws IOException {
+		boolean timed = s.getSoTimeout() > 0;
+		
+		while(buffer.hasRemaining())
+			if((timed ? readTimed(buffer) : channel.read(buffer)) < 0)
+				throw new EOFException("kdb process closed the connection");
+	}
+	
+	private int readTimed(ByteBuffer buffer) throws IOException {
+		int read = timedInput.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		
+		if(read > 0)
+			buffer.position(buffer.position() + read);
+		
+		return read;
+	}
+}
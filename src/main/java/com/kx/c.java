@@ -9,12 +9,15 @@ import java.net.*;import javax.net.ssl.*;import java.io.*;import java.sql.*;impo
 */
 @SuppressWarnings("all")
 public class c{
-private static String e="UTF-8";private static PrintStream out=System.out;private int sync=0;
-public static void setEncoding(String e)throws UnsupportedEncodingException{c.e=e;out=new PrintStream(System.out,true,e);}
-public Socket s;DataInputStream i;OutputStream o;byte[]b,B;int j,J,vt;boolean a,l,zip;
-public void zip(boolean b){zip=b;}
+private static String e="UTF-8";private static PrintStream out=System.out;int sync=0;
+public static void setEncoding(String e)throws UnsupportedEncodingException{c.e=e;out=new PrintStream(System.out,true,e);ae=ae(e);}
+private static boolean ae=true;static boolean ae(String e){String n=java.nio.charset.Charset.forName(e).name();return n.equals("UTF-8")||n.equals("ISO-8859-1")||n.equals("US-ASCII");}
+static boolean a(String s){if(!ae)return false;for(int i=0,n=s.length();i<n;)if(s.charAt(i++)>127)return false;return true;}static boolean a(char[]s){if(!ae)return false;for(int i=0;i<s.length;)if(s[i++]>127)return false;return true;}
+public Socket s;DataInputStream i;OutputStream o;byte[]b,B;int j,J,vt,nB;boolean a,l,zip;
+public void zip(boolean b){zip=b;}public int sendBufferAllocations(){return nB;}volatile boolean lazy;public void lazy(boolean b){lazy=b;}volatile ISymbolCache sc;public void symbolCache(ISymbolCache x){sc=x;}
 void io(Socket x)throws IOException{s=x;s.setTcpNoDelay(true);{InetAddress a=s.getInetAddress();l=a.isAnyLocalAddress()||a.isLoopbackAddress();}i=new DataInputStream(s.getInputStream());o=s.getOutputStream();s.setKeepAlive(true);}public void close()throws IOException{if(null!=s){s.close();s=null;};if(null!=i){i.close();i=null;}if(null!=o){o.close();o=null;}}
 public interface IAuthenticate{public boolean authenticate(String s);}
+public interface ISymbolCache{public String get(byte[]b,int i,int n,String e)throws UnsupportedEncodingException;}
 public c(ServerSocket s,IAuthenticate a)throws IOException{io(s.accept());int n=i.read(b=new byte[99]);if(a!=null&&!a.authenticate(new String(b,0,n>1?n-2:0))){close();throw new IOException("access");}vt=n>1?b[n-2]:0;b[0]=(byte)(vt<'\3'?vt:'\3');o.write(b,0,1);}
 public c(ServerSocket s)throws IOException{this(s,null);}
 public c(String h,int p,String u)throws KException,IOException{this(h,p,u,false);}
@@ -22,7 +25,7 @@ public c(String h,int p,String u,boolean useTLS)throws KException,IOException{B=
 if(useTLS){s=((SSLSocketFactory)SSLSocketFactory.getDefault()).createSocket(s,h,p,true);((SSLSocket)s).startHandshake();}
 io(s);J=0;w(u+"\3");o.write(B);if(1!=i.read(B,0,1)){close();B=new byte[1+ns(u)];io(new Socket(h,p));J=0;w(u);o.write(B);if(1!=i.read(B,0,1)){close();throw new KException("access");}}vt=Math.min(B[0],3);}
 public c(String h,int p)throws KException,IOException{this(h,p,System.getProperty("user.name"));}
-protected c(){};
+protected c(){vt=3;}public static c codec(){return new c();}
 public static class Month implements Comparable<Month>{public int i;public Month(int x){i=x;}public String toString(){int m=i+24000,y=m/12;return i==ni?"":i2(y/100)+i2(y%100)+"-"+i2(1+m%12);}public boolean equals(final Object o){return(o instanceof Month)?((Month)o).i==i:false;}public int hashCode(){return i;}public int compareTo(Month m){return i-m.i;}}
 public static class Minute implements Comparable<Minute>{public int i;public Minute(int x){i=x;}public String toString(){return i==ni?"":i2(i/60)+":"+i2(i%60);}
 public boolean equals(final Object o){return(o instanceof Minute)?((Minute)o).i==i:false;}public int hashCode(){return i;}public int compareTo(Minute m){return i-m.i;}}
@@ -33,9 +36,12 @@ public boolean equals(final Object o){return(o instanceof Timespan)?((Timespan)o
 public static class Dict{public Object x;public Object y;public Dict(Object X,Object Y){x=X;y=Y;}}
 public static class Flip{public String[]x;public Object[]y;public Flip(Dict X){x=(String[])X.x;y=(Object[])X.y;}public Object at(String s){return y[find(x,s)];}}
 public static class KException extends Exception{KException(String s){super(s);}}
-private void z(){byte i=0;boolean g;int j=J,f=0,h0=0,h=0;byte[]y=B;B=new byte[y.length/2];int c=12,d=c,e=B.length,p=0,q,r,s0=0,s=8,t=J,a[]=new int[256];System.arraycopy(y,0,B,0,4);B[2]=1;J=8;w(j);for(;s<t;i*=2){if(0==i){if(d>e-17){J=j;B=y;return;}i=1;B[c]=(byte)f;c=d++;f=0;}g=(s>t-3)||(0==(p=a[h=0xFF&(y[s]^y[s+1])]))||(0!=(y[s]^y[p]));if(0<s0){a[h0]=s0;s0=0;}if(g){h0=h;s0=s;B[d++]=y[s++];}else{a[h]=s;f|=i;p+=2;r=s+=2;q=Math.min(s+255,t);for(;y[p]==y[s]&&++s<q;)++p;B[d++]=(byte)h;B[d++]=(byte)(s-r);}}B[c]=(byte)f;J=4;w(d);J=d;}
-private void u(){int n=0,r=0,f=0,s=8,p=s;short i=0;j=0;byte[]dst=new byte[ri()];int d=j;int[]aa=new int[256];while(s<dst.length){if(i==0){f=0xff&(int)b[d++];i=1;}if((f&i)!=0){r=aa[0xff&(int)b[d++]];dst[s++]=dst[r++];dst[s++]=dst[r++];n=0xff&(int)b[d++];for(int m=0;m<n;m++)dst[s+m]=dst[r+m];}else dst[s++]=b[d++];while(p<s-1)aa[(0xff&(int)dst[p])^(0xff&(int)dst[p+1])]=p++;if((f&i)!=0)p=s+=n;i*=2;if(i==256)i=0;}b=dst;j=8;}
-void w(byte x){B[J++]=x;}static int ni=Integer.MIN_VALUE;static long nj=Long.MIN_VALUE;static double nf=Double.NaN;
+public static class LazyFlip extends Flip{byte[]b;int[]o;boolean a;java.util.TimeZone tz;ISymbolCache sc;LazyFlip(String[]X,byte[]B,int[]O,boolean A,java.util.TimeZone T,ISymbolCache S){super(new Dict(X,new Object[X.length]));b=B;o=O;a=A;tz=T;sc=S;}
+ c d(int i){c d=new c();d.b=b;d.j=o[i];d.a=a;d.tz=tz;d.sc=sc;return d;}public int n(int i){c d=d(i);d.j+=2;return d.ri();}public boolean decoded(int i){return null!=y[i];}
+ public synchronized Object col(int i){if(null==y[i])try{y[i]=d(i).r();}catch(UnsupportedEncodingException e){throw new RuntimeException(e);}return y[i];}public Object at(String s){return col(find(x,s));}public Flip decode(){for(int i=0;i<y.length;)col(i++);return this;}}
+private void z(){byte i=0;boolean g;int j=J,f=0,h0=0,h=0;byte[]y=B;B=new byte[j/2];int c=12,d=c,e=B.length,p=0,q,r,s0=0,s=8,t=J,a[]=new int[256];System.arraycopy(y,0,B,0,4);B[2]=1;J=8;w(j);for(;s<t;i*=2){if(0==i){if(d>e-17){J=j;B=y;return;}i=1;B[c]=(byte)f;c=d++;f=0;}g=(s>t-3)||(0==(p=a[h=0xFF&(y[s]^y[s+1])]))||(0!=(y[s]^y[p]));if(0<s0){a[h0]=s0;s0=0;}if(g){h0=h;s0=s;B[d++]=y[s++];}else{a[h]=s;f|=i;p+=2;r=s+=2;q=Math.min(s+255,t);for(;y[p]==y[s]&&++s<q;)++p;B[d++]=(byte)h;B[d++]=(byte)(s-r);}}B[c]=(byte)f;J=4;w(d);J=d;}
+void u(){int n=0,r=0,f=0,s=8,p=s;short i=0;j=0;byte[]dst=new byte[ri()];int d=j;int[]aa=new int[256];while(s<dst.length){if(i==0){f=0xff&(int)b[d++];i=1;}if((f&i)!=0){r=aa[0xff&(int)b[d++]];dst[s++]=dst[r++];dst[s++]=dst[r++];n=0xff&(int)b[d++];for(int m=0;m<n;m++)dst[s+m]=dst[r+m];}else dst[s++]=b[d++];while(p<s-1)aa[(0xff&(int)dst[p])^(0xff&(int)dst[p+1])]=p++;if((f&i)!=0)p=s+=n;i*=2;if(i==256)i=0;}b=dst;j=8;}
+void w(byte x){if(J==B.length){nB++;B=java.util.Arrays.copyOf(B,2*J);}B[J++]=x;}static int ni=Integer.MIN_VALUE;static long nj=Long.MIN_VALUE;static double nf=Double.NaN;
 boolean rb(){return 1==b[j++];}void w(boolean x){w((byte)(x?1:0));}  char rc(){return(char)(b[j++]&0xff);}void w(char c){w((byte)c);}
 short rh(){int x=b[j++],y=b[j++];return(short)(a?x&0xff|y<<8:x<<8|y&0xff);}                               void w(short h){w((byte)(h>>8));w((byte)h);}
 int ri(){int x=rh(),y=rh();return a?x&0xffff|y<<16:x<<16|y&0xffff;}                                       void w(int i){w((short)(i>>16));w((short)i);}
@@ -55,12 +61,12 @@ java.util.Date rz(){double f=rf();return new java.util.Date(Double.isNaN(f)?nj:g
 Timestamp rp(){long j=rj(),d=j<0?(j+1)/n-1:j/n;Timestamp p=new Timestamp(j==nj?j:gl(k+1000*d));if(j!=nj)p.setNanos((int)(j-n*d));return p;}
 void w(Timestamp p){long j=p.getTime();if(vt<1)throw new RuntimeException("Timestamp not valid pre kdb+2.6");w(j==nj?j:1000000*(lg(j)-k)+p.getNanos()%1000000);}
 
-String rs()throws UnsupportedEncodingException{int i=j;for(;b[j++]!=0;);return (i==j-1)?"":new String(b,i,j-1-i,e);}void w(String s)throws UnsupportedEncodingException{int i=0,n;if(s!=null){n=ns(s);byte[]b=s.getBytes(e);for(;i<n;)w(b[i++]);}B[J++]=0;}
+String rs()throws UnsupportedEncodingException{int i=j;for(;b[j++]!=0;);ISymbolCache x=sc;return (i==j-1)?"":null!=x?x.get(b,i,j-1-i,e):new String(b,i,j-1-i,e);}void w(String s)throws UnsupportedEncodingException{int i,n;char ch;if(s!=null){if(a(s)){for(i=0,n=s.length();i<n&&0!=(ch=s.charAt(i));++i)w((byte)ch);}else{if(-1<(i=s.indexOf('\000')))s=s.substring(0,i);byte[]b=s.getBytes(e);for(i=0;i<b.length;)w(b[i++]);}}w((byte)0);}
 Object r()throws UnsupportedEncodingException{int i=0,n,t=b[j++];if(t<0)switch(t){case-1:return new Boolean(rb());case(-2):return rg();case-4:return new Byte(b[j++]);case-5:return new Short(rh());
   case-6:return new Integer(ri());case-7:return new Long(rj());case-8:return new Float(re());case-9:return new Double(rf());case-10:return new Character(rc());case-11:return rs();
   case-12:return rp();case-13:return rm();case-14:return rd();case-15:return rz();case-16:return rn();case-17:return ru();case-18:return rv();case-19:return rt();}
  if(t>99){if(t==100){rs();return r();}if(t<104)return b[j++]==0&&t==101?null:"func";if(t>105)r();else for(n=ri();i<n;i++)r();return"func";}
- if(t==99)return new Dict(r(),r());j++;if(t==98)return new Flip((Dict)r());n=ri();switch(t){
+ if(t==99)return new Dict(r(),r());j++;if(t==98)return lazy?rl():new Flip((Dict)r());n=ri();switch(t){
   case 0:Object[]L=new Object[n];for(;i<n;i++)L[i]=r();return L;        case 1:boolean[]B=new boolean[n];for(;i<n;i++)B[i]=rb();return B;
   case 2:{UUID[]G=new UUID[n];for(;i<n;i++)G[i]=rg();return G;}
   case 4:byte[]G=new byte[n];for(;i<n;i++)G[i]=b[j++];return G;         case 5:short[]H=new short[n];for(;i<n;i++)H[i]=rh();return H;
@@ -72,6 +78,11 @@ Object r()throws UnsupportedEncodingException{int i=0,n,t=b[j++];if(t<0)switch(t
  case 16:Timespan[]N=new Timespan[n];for(;i<n;i++)N[i]=rn();return N;   case 17:Minute[]U=new Minute[n];for(;i<n;i++)U[i]=ru();return U;
  case 18:Second[]V=new Second[n];for(;i<n;i++)V[i]=rv();return V;       case 19:Time[]T=new Time[n];for(;i<n;i++)T[i]=rt();return T;}return null;}
 
+Flip rl()throws UnsupportedEncodingException{int i=0,n;j++;String[]x=(String[])r();if(b[j]!=0)return new Flip(new Dict(x,r()));j+=2;int[]o=new int[n=ri()];for(;i<n;i++){o[i]=j;sk();}return new LazyFlip(x,b,o,a,tz,sc);}
+void sk()throws UnsupportedEncodingException{int i=0,n,t=b[j++];if(t<0){if(t==-11)for(;b[j++]!=0;);else j+=nt[-t];return;}if(t>99){j--;r();return;}if(t==99){sk();sk();return;}j++;if(t==98){sk();return;}n=ri();
+ if(t==0)for(;i<n;i++)sk();else if(t==11)for(;i<n;i++)for(;b[j++]!=0;);else if(t<20)j+=n*nt[t];}
+public synchronized Object deserialize(byte[]x)throws KException,UnsupportedEncodingException{b=x;a=b[0]==1;if(b[2]==1){b=java.util.Arrays.copyOfRange(b,8,b.length);u();}else j=8;if(b[j]==-128){j++;throw new KException(rs());}return r();}
+
 //object.getClass().isArray()   t(int[]) is .5 isarray is .1 lookup .05
 public static int t(Object x){return
  x instanceof Boolean?-1:x instanceof UUID?-2:x instanceof Byte?-4:x instanceof Short?-5:x instanceof Integer?-6:x instanceof Long?-7:x instanceof Float?-8:x instanceof Double?-9:x instanceof Character?-10:x instanceof String?-11:
@@ -81,9 +92,10 @@ x instanceof Date[]?14:x instanceof Time[]?19:x instanceof Timestamp[]?12:x inst
  x instanceof Flip?98:x instanceof Dict?99:0;}
 
 static int[]nt={0,1,16,0,1,2,4,8,4,8,1,0,8,4,4,8,8,4,4,4};static int ns(String s)throws UnsupportedEncodingException{int i;if(s==null)return 0;if(-1<(i=s.indexOf('\000')))s=s.substring(0,i);return s.getBytes(e).length;}
-public static int n(Object x)throws UnsupportedEncodingException{return x instanceof Dict?n(((Dict)x).x):x instanceof Flip?n(((Flip)x).y[0]):x instanceof char[]?new String((char[])x).getBytes(e).length:Array.getLength(x);}
-public int nx(Object x)throws UnsupportedEncodingException{int i=0,n,t=t(x),j;if(t==99)return 1+nx(((Dict)x).x)+nx(((Dict)x).y);if(t==98)return 3+nx(((Flip)x).x)+nx(((Flip)x).y);
+public static int n(Object x)throws UnsupportedEncodingException{return x instanceof Dict?n(((Dict)x).x):x instanceof LazyFlip?((LazyFlip)x).n(0):x instanceof Flip?n(((Flip)x).y[0]):x instanceof char[]?(a((char[])x)?((char[])x).length:new String((char[])x).getBytes(e).length):Array.getLength(x);}
+public int nx(Object x)throws UnsupportedEncodingException{int i=0,n,t=t(x),j;if(t==99)return 1+nx(((Dict)x).x)+nx(((Dict)x).y);if(t==98)return 3+nx(((Flip)x).x)+nx(flip(x).y);
  if(t<0)return t==-11?2+ns((String)x):1+nt[-t];j=6;n=n(x);if(t==0||t==11)for(;i<n;++i)j+=t==0?nx(((Object[])x)[i]):1+ns(((String[])x)[i]);else j+=n*nt[t];return j;}
+static Flip flip(Object x){return x instanceof LazyFlip?((LazyFlip)x).decode():(Flip)x;}
 void w(Object x)throws UnsupportedEncodingException{int i=0,n,t=t(x);w((byte)t);if(t<0)switch(t){
   case-1:w(((Boolean)x).booleanValue());return; case-2:w((UUID)x);return;
   case-4:w(((Byte)x).byteValue());return;       case-5:w(((Short)x).shortValue());return;
@@ -93,21 +105,26 @@ void w(Object x)throws UnsupportedEncodingException{int i=0,n,t=t(x);w((byte)t);
   case-12:w((Timestamp)x);return;               case-13:w((Month)x);return;case-14:w((Date)x);return;
   case-15:w((java.util.Date)x);return;          case-16:w((Timespan)x);return;case-17:w((Minute)x);return;
   case-18:w((Second)x);return;case-19:w((Time)x);return;}
- if(t==99){Dict r=(Dict)x;w(r.x);w(r.y);return;}B[J++]=0;if(t==98){Flip r=(Flip)x;B[J++]=99;w(r.x);w(r.y);return;}
- w(n=n(x));if(t==10){byte[]b=new String((char[])x).getBytes(e);for(;i<b.length;)w(b[i++]);}else for(;i<n;++i)if(t==0)w(((Object[])x)[i]);else if(t==1)w(((boolean[])x)[i]);
+ if(t==99){Dict r=(Dict)x;w(r.x);w(r.y);return;}w((byte)0);if(t==98){Flip r=flip(x);w((byte)99);w(r.x);w(r.y);return;}
+ w(n=n(x));if(t==10){char[]s=(char[])x;if(a(s))for(;i<s.length;)w((byte)s[i++]);else{byte[]b=new String(s).getBytes(e);for(;i<b.length;)w(b[i++]);}}else for(;i<n;++i)if(t==0)w(((Object[])x)[i]);else if(t==1)w(((boolean[])x)[i]);
  else if(t==2)w(((UUID[])x)[i]);else if(t==4)w(((byte[])x)[i]);
  else if(t==5)w(((short[])x)[i]);else if(t==6)w(((int[])x)[i]);else if(t==7)w(((long[])x)[i]);
  else if(t==8)w(((float[])x)[i]);else if(t==9)w(((double[])x)[i]);
  else if(t==11)w(((String[])x)[i]);else if(t==12)w(((Timestamp[])x)[i]);else if(t==13)w(((Month[])x)[i]);else if(t==14)w(((Date[])x)[i]);
  else if(t==15)w(((java.util.Date[])x)[i]);else if(t==16)w(((Timespan[])x)[i]);else if(t==17)w(((Minute[])x)[i]);else if(t==18)w(((Second[])x)[i]);
  else w(((Time[])x)[i]);}
-protected void w(int i,Object x)throws IOException{int n=nx(x)+8;synchronized(o){B=new byte[n];B[0]=0;B[1]=(byte)i;J=4;w(n);w(x);if(zip&&J>2000&&!l)z();o.write(B,0,J);}}
+byte[]wb(){if(null==B||B.length<1024){nB++;B=new byte[1024];}B[0]=0;B[2]=B[3]=0;J=8;return B;}void wn(){int n=J;J=4;w(n);J=n;}
+byte[]wm(int i,Object x,boolean z)throws UnsupportedEncodingException{wb();B[1]=(byte)i;w(x);wn();byte[]y=B;if(z&&J>2000&&!l)z();return y;}
+protected void w(int i,Object x)throws IOException{synchronized(o){byte[]y=wm(i,x,zip);o.write(B,0,J);B=y;}}
+public byte[]serialize(int i,Object x,boolean zip)throws IOException{synchronized(null==o?this:o){byte[]y=wm(i,x,zip),r=java.util.Arrays.copyOf(B,J);B=y;return r;}}
 public void kr(Object x)throws IOException{if(sync==0)throw new IOException("Unexpected response msg");sync--;w(2,x);}
-public void ke(String s)throws IOException{if(sync==0)throw new IOException("Unexpected error msg");sync--;int n=2+ns(s)+8;synchronized(o){B=new byte[n];B[0]=0;B[1]=2;J=4;w(n);w((byte)-128);w(s);o.write(B);}}
-public void ks(String s)throws IOException{w(0,cs(s));}public void ks(Object x)throws IOException{w(0,x);} char[]cs(String s){return s.toCharArray();}
+public void ke(String s)throws IOException{if(sync==0)throw new IOException("Unexpected error msg");sync--;synchronized(o){wb();B[1]=2;w((byte)-128);w(s);wn();o.write(B,0,J);}}
+public void kw(Object x)throws IOException{w(1,x);}public void ks(String s)throws IOException{w(0,cs(s));}public void ks(Object x)throws IOException{w(0,x);} char[]cs(String s){return s.toCharArray();}
 public void ks(String s,Object x)throws IOException{Object[]a={cs(s),x};w(0,a);}
 public void ks(String s,Object x,Object y)throws IOException{Object[]a={cs(s),x,y};w(0,a);}
+public void ks(char[]f,Object x,Object y)throws IOException{synchronized(o){wb();B[1]=0;w((byte)0);w((byte)0);w(3);w((Object)f);w(x);w(y);wn();byte[]b=B;if(zip&&J>2000&&!l)z();o.write(B,0,J);B=b;}}
 public void ks(String s,Object x,Object y,Object z)throws IOException{Object[]a={cs(s),x,y,z};w(0,a);}
+public void write(byte[]x,int n)throws IOException{synchronized(o){o.write(x,0,n);}}
 public Object k()throws KException,IOException,UnsupportedEncodingException{synchronized(i){i.readFully(b=new byte[8]);a=b[0]==1;if(b[1]==1)sync++;boolean c=b[2]==1;j=4;i.readFully(b=new byte[ri()-8]);if(c)u();else j=0;if(b[0]==-128){j=1;throw new KException(rs());}return r();}}
 public synchronized Object k(Object x)throws KException,IOException{w(1,x);return k();}
 public Object k(String s)throws KException,IOException{return k(cs(s));}
@@ -124,11 +141,22 @@ public static Object at(Object x,int i){return qn(x=Array.get(x,i))?null:x;}
 public static void set(Object x,int i,Object y){Array.set(x,i,null==y?NULL[t(x)]:y);}
 
 static int find(String[]x,String y){int i=0;for(;i<x.length&&!x[i].equals(y);)++i;return i;}
-public static Flip td(Object X)throws java.io.UnsupportedEncodingException{if(X instanceof Flip)return(Flip)X;Dict d=(Dict)X;Flip a=(Flip)d.x,b=(Flip)d.y;int m=n(a.x),n=n(b.x);String[]x=new String[m+n];System.arraycopy(a.x,0,x,0,m);System.arraycopy(b.x,0,x,m,n);Object[]y=new Object[m+n];System.arraycopy(a.y,0,y,0,m);System.arraycopy(b.y,0,y,m,n);return new Flip(new Dict(x,y));}
+static Flip fd(Object x){return x instanceof LazyFlip?((LazyFlip)x).decode():(Flip)x;}
+public static Flip td(Object X)throws java.io.UnsupportedEncodingException{if(X instanceof Flip)return(Flip)X;Dict d=(Dict)X;Flip a=fd(d.x),b=fd(d.y);int m=n(a.x),n=n(b.x);String[]x=new String[m+n];System.arraycopy(a.x,0,x,0,m);System.arraycopy(b.x,0,x,m,n);Object[]y=new Object[m+n];System.arraycopy(a.y,0,y,0,m);System.arraycopy(b.y,0,y,m,n);return new Flip(new Dict(x,y));}
 public static Object O(Object x){out.println(x);return x;}public static void O(int x){out.println(x);}public static void O(boolean x){out.println(x);}public static void O(long x){out.println(x);}public static void O(double x){out.println(x);}
 public static long t(){return System.currentTimeMillis();}static long t;public static void tm(){long u=t;t=t();if(u>0)O(t-u);}static String i2(int i){return new DecimalFormat("00").format(i);}static String i9(int i){return new DecimalFormat("000000000").format(i);}
 
 }
+//2026.10.17 td() decodes keyed LazyFlip columns before copying them
+//2026.10.17 LazyFlip columns not yet accessed are decoded before the table is written or counted, so received tables can be sent on
+//2026.10.17 kw(Object) sends a sync request without reading the response, so several requests can be in flight on one connection with the responses read in order by k()
+//2026.10.17 ks(char[],Object,Object) sends a 3 item call without allocating the argument list. ASCII symbols and strings are written without an intermediate byte[]
+//2026.10.17 added write(byte[],int) to send a message already encoded by serialize(), e.g. to several connections
+//2026.10.17 symbolCache(ISymbolCache) lets rs() return previously decoded symbols rather than allocating a new String per symbol
+//2026.10.17 lazy(true) decodes tables as LazyFlip, recording column offsets and decoding each column on first access. added deserialize(), codec() for an unconnected instance
+//2026.10.17 sync and u() no longer private so that alternative transports (NioC) can read messages
+//2026.10.17 single pass w(int,Object) into a growable B with the length back-patched, nx() no longer used when sending. added serialize()
+//2026.10.17 reuse the per-connection send buffer B across messages rather than allocating one per w(int,Object)
 //2016.05.25 check for null arg to w(String s)
 //2016.05.24 added s.setTcpNoDelay(true)
 //2016.04.27 added ssl/tls support
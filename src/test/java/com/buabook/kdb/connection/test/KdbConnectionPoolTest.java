@@ -0,0 +1,172 @@
+package com.buabook.kdb.connection.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.connection.KdbConnection;
+import com.buabook.kdb.connection.KdbConnectionPool;
+import com.buabook.kdb.connection.KdbConnectionPoolSettings;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.exceptions.KdbConnectionLeaseTimeoutException;
+import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.buabook.kdb.test.FakeKdbProcess;
+
+public class KdbConnectionPoolTest {
+	
+	private FakeKdbProcess server;
+	
+	/** The queries received by the fake kdb process, on any connection */
+	private BlockingQueue<Object> received;
+	
+	private KdbProcess process;
+	
+	private KdbConnectionPool pool;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		received = new ArrayBlockingQueue<>(10000);
+		
+		server = new FakeKdbProcess((connection, query) -> {
+			received.put(query);
+			connection.kr(query);
+		});
+		
+		process = server.getProcess();
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if(pool != null)
+			pool.close();
+		
+		server.close();
+	}
+	
+	// KdbConnectionPoolSettings
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testSettingsThrowsExceptionIfMinSizeGreaterThanMaxSize() {
+		new KdbConnectionPoolSettings(2, 1, Duration.millis(100), null);
+	}
+	
+	// KdbConnectionPool.lease
+	
+	@Test
+	public void testLeaseOpensMinimumConnections() throws KdbTargetProcessUnavailableException {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(2, 4, Duration.millis(100), null));
+		
+		KdbConnection connection = pool.lease(process);
+		
+		assertThat(connection.isConnected(), is(equalTo(true)));
+		assertThat(pool.getLeasedCount(process), is(equalTo(1)));
+		assertThat(pool.getIdleCount(process), is(equalTo(1)));
+	}
+	
+	@Test
+	public void testLeaseReusesReleasedConnection() throws KdbTargetProcessUnavailableException {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 4, Duration.millis(100), null));
+		
+		KdbConnection connection = pool.lease(process);
+		pool.release(connection);
+		
+		assertThat(pool.lease(process), is(sameInstance(connection)));
+	}
+	
+	@Test(expected=KdbConnectionLeaseTimeoutException.class)
+	public void testLeaseThrowsExceptionWhenNoConnectionAvailableInTime() throws KdbTargetProcessUnavailableException {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 1, Duration.millis(50), null));
+		
+		pool.lease(process);
+		pool.lease(process);
+	}
+	
+	@Test
+	public void testLeaseWaitsForReleasedConnection() throws Exception {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 1, Duration.standardSeconds(10), null));
+		
+		KdbConnection connection = pool.lease(process);
+		BlockingQueue<KdbConnection> leased = new ArrayBlockingQueue<>(1);
+		
+		Thread waiter = new Thread(() -> {
+			try {
+				leased.put(pool.lease(process));
+			} catch (KdbTargetProcessUnavailableException | InterruptedException e) {}
+		});
+		
+		waiter.start();
+		
+		assertThat(leased.poll(100, TimeUnit.MILLISECONDS), is(nullValue()));
+		
+		pool.release(connection);
+		
+		assertThat(leased.poll(10, TimeUnit.SECONDS), is(sameInstance(connection)));
+	}
+	
+	@Test
+	public void testLeaseHealthChecksIdleConnection() throws Exception {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 1, Duration.millis(100), Duration.ZERO));
+		
+		KdbConnection connection = pool.lease(process);
+		pool.release(connection);
+		
+		assertThat(pool.lease(process), is(sameInstance(connection)));
+		assertThat(new String((char[]) received.poll(10, TimeUnit.SECONDS)), is(equalTo("::")));
+	}
+	
+	@Test
+	public void testLeaseDoesNotHealthCheckRecentlyUsedConnection() throws Exception {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 1, Duration.millis(100), Duration.standardMinutes(1)));
+		
+		pool.release(pool.lease(process));
+		pool.lease(process);
+		
+		assertThat(received.poll(100, TimeUnit.MILLISECONDS), is(nullValue()));
+	}
+	
+	// KdbConnectionPool.release
+	
+	@Test
+	public void testReleaseDiscardsDisconnectedConnection() throws KdbTargetProcessUnavailableException {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 1, Duration.millis(100), null));
+		
+		KdbConnection connection = pool.lease(process);
+		connection.disconnect();
+		pool.release(connection);
+		
+		assertThat(pool.getIdleCount(process), is(equalTo(0)));
+		assertThat(pool.lease(process), is(not(sameInstance(connection))));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testReleaseThrowsExceptionIfNotLeased() throws KdbTargetProcessUnavailableException {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 1, Duration.millis(100), null));
+		
+		KdbConnection connection = pool.lease(process);
+		pool.release(connection);
+		pool.release(connection);
+	}
+	
+	// KdbConnectionPool.close
+	
+	@Test
+	public void testCloseDisconnectsIdleConnections() throws KdbTargetProcessUnavailableException {
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 1, Duration.millis(100), null));
+		
+		KdbConnection connection = pool.lease(process);
+		pool.release(connection);
+		pool.close();
+		
+		assertThat(connection.isConnected(), is(equalTo(false)));
+	}
+}
@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import com.buabook.kdb.connection.KdbConnection;
 import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.connection.KdbProcess.ETransport;
 import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
 
 import static org.hamcrest.Matchers.*;
@@ -24,6 +25,11 @@ public class KdbConnectionTest {
 		new KdbConnection(new KdbProcess("localhost", 1)).connect();
 	}
 	
+	@Test(expected=KdbTargetProcessUnavailableException.class)
+	public void testConnectThrowsExceptionIfCannotConnectToProcessWithNioTransport() throws KdbTargetProcessUnavailableException {
+		new KdbConnection(new KdbProcess("localhost", 1, null, null, ETransport.NIO_CHANNEL)).connect();
+	}
+	
 	// KdbConnection.isConnected
 	
 	@Test
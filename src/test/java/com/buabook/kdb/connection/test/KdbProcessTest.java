@@ -3,6 +3,7 @@ package com.buabook.kdb.connection.test;
 import org.junit.Test;
 
 import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.connection.KdbProcess.ETransport;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
@@ -81,6 +82,26 @@ public class KdbProcessTest {
 		assertThat(process.getPassword(), is(nullValue()));
 	}
 	
+	// KdbProcess.getTransport
+	
+	@Test
+	public void testGetTransportReturnsSocketByDefault() {
+		assertThat(new KdbProcess("hostname", 12345).getTransport(), is(equalTo(ETransport.SOCKET)));
+		assertThat(new KdbProcess("hostname", "12345", "username", "password").getTransport(), is(equalTo(ETransport.SOCKET)));
+	}
+	
+	@Test
+	public void testGetTransportReturnsSocketIfNullTransport() {
+		KdbProcess process = new KdbProcess("hostname", 12345, null, null, null);
+		assertThat(process.getTransport(), is(equalTo(ETransport.SOCKET)));
+	}
+	
+	@Test
+	public void testGetTransportReturnsConfiguredTransport() {
+		KdbProcess process = new KdbProcess("hostname", "12345", null, null, ETransport.NIO_CHANNEL);
+		assertThat(process.getTransport(), is(equalTo(ETransport.NIO_CHANNEL)));
+	}
+	
 	// KdbProcess.toString
 	
 	@Test
@@ -128,17 +149,20 @@ public class KdbProcessTest {
 	// KdbProcess.equals
 	
 	@Test
-	public void testEqualsReturnsTrueIfHostPortUsernamePasswordMatch() {
+	public void testEqualsReturnsTrueIfHostPortUsernamePasswordTransportMatch() {
 		KdbProcess process = new KdbProcess("hostname", 12345, "username", "password");
 		
 		KdbProcess differentUser = new KdbProcess("hostname", 12345, "a-different-username", "password");
 		KdbProcess differentPass = new KdbProcess("hostname", 12345, "username", "a-different-password");
+		KdbProcess differentTransport = new KdbProcess("hostname", 12345, "username", "password", ETransport.NIO_CHANNEL);
 		
 		assertThat(process.equals(null), is(equalTo(false)));
 		assertThat(process.equals("string"), is(equalTo(false)));
 		assertThat(process.equals(process), is(equalTo(true)));
 		assertThat(process.equals(differentUser), is(equalTo(false)));
 		assertThat(process.equals(differentPass), is(equalTo(false)));
+		assertThat(process.equals(differentTransport), is(equalTo(false)));
+		assertThat(process.equals(new KdbProcess("hostname", 12345, "username", "password", ETransport.SOCKET)), is(equalTo(true)));
 	}
 	
 	// KdbProces.hashCode
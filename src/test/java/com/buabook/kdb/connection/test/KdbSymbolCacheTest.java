@@ -0,0 +1,125 @@
+package com.buabook.kdb.connection.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.connection.KdbSymbolCache;
+import com.kx.c;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+import com.kx.c.KException;
+import com.kx.c.LazyFlip;
+
+public class KdbSymbolCacheTest {
+	
+	private KdbSymbolCache cache;
+	
+	
+	@Before
+	public void setUp() {
+		cache = new KdbSymbolCache(16);
+	}
+	
+	// KdbSymbolCache(int)
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructorThrowsExceptionIfCapacityNotPositive() {
+		new KdbSymbolCache(0);
+	}
+	
+	@Test
+	public void testConstructorRoundsCapacityUpToPowerOfTwo() {
+		assertThat(new KdbSymbolCache(1000).getCapacity(), is(equalTo(1024)));
+		assertThat(new KdbSymbolCache(1024).getCapacity(), is(equalTo(1024)));
+	}
+	
+	// KdbSymbolCache.get
+	
+	@Test
+	public void testGetReturnsSameInstanceForRepeatedSymbol() throws IOException {
+		byte[] message = "xVOD.Lx".getBytes(StandardCharsets.UTF_8);
+		
+		String first = cache.get(message, 1, 5, "UTF-8");
+		String second = cache.get("VOD.L".getBytes(StandardCharsets.UTF_8), 0, 5, "UTF-8");
+		
+		assertThat(first, is(equalTo("VOD.L")));
+		assertThat(second, is(sameInstance(first)));
+		assertThat(cache.getHits(), is(equalTo(1L)));
+		assertThat(cache.getMisses(), is(equalTo(1L)));
+	}
+	
+	@Test
+	public void testGetDecodesMultiByteSymbols() throws IOException {
+		byte[] symbol = "tr\u00e4de".getBytes(StandardCharsets.UTF_8);
+		
+		assertThat(cache.get(symbol, 0, symbol.length, "UTF-8"), is(equalTo("tr\u00e4de")));
+		assertThat(cache.get(symbol, 0, symbol.length, "UTF-8"), is(equalTo("tr\u00e4de")));
+		assertThat(cache.getHits(), is(equalTo(1L)));
+	}
+	
+	@Test
+	public void testGetDoesNotExceedCapacityForManyDistinctSymbols() throws IOException {
+		for(int i = 0; i < 1000; i++) {
+			byte[] symbol = ("SYM" + i).getBytes(StandardCharsets.UTF_8);
+			assertThat(cache.get(symbol, 0, symbol.length, "UTF-8"), is(equalTo("SYM" + i)));
+		}
+		
+		assertThat(cache.getCapacity(), is(equalTo(16)));
+		assertThat(cache.getMisses(), is(equalTo(1000L)));
+	}
+	
+	// KdbSymbolCache.clear
+	
+	@Test
+	public void testClearRemovesSymbolsAndResetsCounters() throws IOException {
+		byte[] symbol = "VOD.L".getBytes(StandardCharsets.UTF_8);
+		
+		String first = cache.get(symbol, 0, symbol.length, "UTF-8");
+		cache.get(symbol, 0, symbol.length, "UTF-8");
+		cache.clear();
+		
+		assertThat(cache.getHits(), is(equalTo(0L)));
+		assertThat(cache.getMisses(), is(equalTo(0L)));
+		assertThat(cache.get(symbol, 0, symbol.length, "UTF-8"), is(not(sameInstance(first))));
+	}
+	
+	// c.symbolCache
+	
+	@Test
+	public void testDecoderUsesCacheForSymbolVectors() throws IOException, KException {
+		c decoder = c.codec();
+		decoder.symbolCache(cache);
+		
+		Flip table = (Flip) decoder.deserialize(c.codec().serialize(1, getTable(), false));
+		
+		String[] syms = (String[]) table.y[0];
+		
+		assertThat(syms, is(arrayContaining("VOD.L", "BARC.L", "VOD.L")));
+		assertThat(syms[2], is(sameInstance(syms[0])));
+		assertThat(cache.getHits(), is(greaterThanOrEqualTo(1L)));
+	}
+	
+	@Test
+	public void testLazyDecoderUsesCacheForSymbolColumns() throws IOException, KException {
+		c decoder = c.codec();
+		decoder.symbolCache(cache);
+		decoder.lazy(true);
+		
+		LazyFlip table = (LazyFlip) decoder.deserialize(c.codec().serialize(1, getTable(), false));
+		
+		String[] syms = (String[]) table.col(0);
+		
+		assertThat(syms[2], is(sameInstance(syms[0])));
+	}
+	
+	
+	private Flip getTable() {
+		return new Flip(new Dict(new String[] { "sym", "size" }, new Object[] { new String[] { "VOD.L", "BARC.L", "VOD.L" }, new long[] { 1, 2, 3 } }));
+	}
+}
@@ -0,0 +1,192 @@
+package com.buabook.kdb.data.columns.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.buabook.kdb.data.columns.BooleanColumn;
+import com.buabook.kdb.data.columns.ByteColumn;
+import com.buabook.kdb.data.columns.CharColumn;
+import com.buabook.kdb.data.columns.DoubleColumn;
+import com.buabook.kdb.data.columns.FloatColumn;
+import com.buabook.kdb.data.columns.IntColumn;
+import com.buabook.kdb.data.columns.KdbColumn;
+import com.buabook.kdb.data.columns.LongColumn;
+import com.buabook.kdb.data.columns.ObjectColumn;
+import com.buabook.kdb.data.columns.ShortColumn;
+import com.kx.c;
+
+public class KdbColumnTest {
+	
+	// KdbColumn.of
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testOfThrowsExceptionIfNotArray() {
+		KdbColumn.of("not-an-array");
+	}
+	
+	@Test
+	public void testOfReturnsTypedColumnForEachPrimitiveArray() {
+		assertThat(KdbColumn.of(new long[0]), is(instanceOf(LongColumn.class)));
+		assertThat(KdbColumn.of(new int[0]), is(instanceOf(IntColumn.class)));
+		assertThat(KdbColumn.of(new double[0]), is(instanceOf(DoubleColumn.class)));
+		assertThat(KdbColumn.of(new float[0]), is(instanceOf(FloatColumn.class)));
+		assertThat(KdbColumn.of(new short[0]), is(instanceOf(ShortColumn.class)));
+		assertThat(KdbColumn.of(new byte[0]), is(instanceOf(ByteColumn.class)));
+		assertThat(KdbColumn.of(new boolean[0]), is(instanceOf(BooleanColumn.class)));
+		assertThat(KdbColumn.of(new char[0]), is(instanceOf(CharColumn.class)));
+	}
+	
+	@Test
+	public void testOfReturnsObjectColumnWithElementTypeForObjectArrays() {
+		assertThat(KdbColumn.of(new String[0]).getElementType(), is(equalTo((Object) String.class)));
+		assertThat(KdbColumn.of(new Timestamp[0]).getElementType(), is(equalTo((Object) Timestamp.class)));
+		assertThat(KdbColumn.of(new Object[0]).getElementType(), is(equalTo((Object) Object.class)));
+	}
+	
+	@Test
+	public void testOfDoesNotCopyArray() {
+		long[] array = { 1, 2, 3 };
+		
+		assertThat(KdbColumn.of(array).getArray(), is(sameInstance((Object) array)));
+	}
+	
+	// KdbColumn.add
+	
+	@Test
+	public void testAddGrowsBackingArray() {
+		LongColumn column = new LongColumn(new long[] { 1, 2 });
+		
+		for(long i = 3; i <= 100; i++)
+			column.add(i);
+		
+		assertThat(column.size(), is(equalTo(100)));
+		assertThat(column.getLong(99), is(equalTo(100L)));
+		assertThat(column.getArray().length, is(greaterThanOrEqualTo(100)));
+	}
+	
+	@Test
+	public void testAddAtIndexShiftsElements() {
+		IntColumn column = new IntColumn(new int[] { 1, 3 });
+		column.add(1, 2);
+		
+		assertThat(column, contains((Object) 1, 2, 3));
+	}
+	
+	@Test
+	public void testAddConvertsAnyNumberToColumnType() {
+		LongColumn column = new LongColumn();
+		column.add(1);
+		column.add((short) 2);
+		
+		assertThat(column.getLong(0), is(equalTo(1L)));
+		assertThat(column.getLong(1), is(equalTo(2L)));
+	}
+	
+	@Test
+	public void testAddStoresKdbNullForNull() {
+		LongColumn longs = new LongColumn();
+		DoubleColumn doubles = new DoubleColumn();
+		ObjectColumn<String> syms = new ObjectColumn<>(String.class);
+		ObjectColumn<Timestamp> timestamps = new ObjectColumn<>(Timestamp.class);
+		
+		longs.add(null);
+		doubles.add(null);
+		syms.add(null);
+		timestamps.add(null);
+		new IntColumn().add(null);
+		new FloatColumn().add(null);
+		new ShortColumn().add(null);
+		new ByteColumn().add(null);
+		new BooleanColumn().add(null);
+		new CharColumn().add(null);
+		
+		assertThat(longs.getLong(0), is(equalTo(c.NULL('j'))));
+		assertThat(Double.isNaN(doubles.getDouble(0)), is(equalTo(true)));
+		assertThat(syms.getValue(0), is(equalTo("")));
+		assertThat(timestamps.getValue(0), is(equalTo(c.NULL('p'))));
+	}
+	
+	@Test(expected=ClassCastException.class)
+	public void testAddThrowsExceptionIfWrongType() {
+		new ObjectColumn<>(String.class).add(1L);
+	}
+	
+	// KdbColumn.remove
+	
+	@Test
+	public void testRemoveShiftsElements() {
+		ObjectColumn<String> column = ObjectColumn.of(new String[] { "a", "b", "c" });
+		
+		assertThat(column.remove(1), is(equalTo((Object) "b")));
+		assertThat(column, contains((Object) "a", "c"));
+	}
+	
+	// KdbColumn.set
+	
+	@Test
+	public void testSetReturnsPreviousElement() {
+		DoubleColumn column = new DoubleColumn(new double[] { 1.0, 2.0 });
+		
+		assertThat(column.set(0, 3.0), is(equalTo((Object) 1.0)));
+		assertThat(column.getDouble(0), is(equalTo(3.0)));
+	}
+	
+	// KdbColumn.get
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetThrowsExceptionIfOutsideColumn() {
+		LongColumn column = new LongColumn();
+		column.addLong(1);
+		
+		column.get(1);
+	}
+	
+	// KdbColumn.toKdbVector
+	
+	@Test
+	public void testToKdbVectorReturnsBackingArrayIfNoSpareCapacity() {
+		long[] array = { 1, 2, 3 };
+		
+		assertThat(new LongColumn(array).toKdbVector(), is(sameInstance((Object) array)));
+	}
+	
+	@Test
+	public void testToKdbVectorTrimsSpareCapacity() {
+		ObjectColumn<String> column = new ObjectColumn<>(String.class);
+		column.add("a");
+		
+		assertThat((String[]) column.toKdbVector(), is(arrayContaining("a")));
+	}
+	
+	@Test
+	public void testToKdbVectorDetectsTypeOfGeneralList() {
+		assertThat(KdbColumn.toKdbVector(Arrays.asList(1.0, null, 2.0)), is(instanceOf(double[].class)));
+		assertThat(KdbColumn.of(new Object[] { new Timestamp(0) }).toKdbVector(), is(instanceOf(Timestamp[].class)));
+	}
+	
+	@Test
+	public void testToKdbVectorReturnsGeneralListIfTypeCannotBeDetected() {
+		assertThat(KdbColumn.toKdbVector(Arrays.asList(1L, 2)), is(instanceOf(Object[].class)));
+		assertThat(KdbColumn.toKdbVector(Arrays.asList(null, null)), is(instanceOf(Object[].class)));
+		assertThat(KdbColumn.toKdbVector(Arrays.asList("ab".toCharArray())), is(instanceOf(Object[].class)));
+	}
+	
+	// KdbColumn.forElementType
+	
+	@Test
+	public void testForElementTypeReturnsPrimitiveColumnForBoxedType() {
+		assertThat(KdbColumn.forElementType(Long.class), is(instanceOf(LongColumn.class)));
+		assertThat(KdbColumn.forElementType(long.class), is(instanceOf(LongColumn.class)));
+		assertThat(KdbColumn.forElementType(String.class).getElementType(), is(equalTo((Object) String.class)));
+	}
+	
+	@Test
+	public void testColumnEqualsListOfSameElements() {
+		assertThat(KdbColumn.of(new long[] { 1, 2 }), is(equalTo((Object) Arrays.asList(1L, 2L))));
+	}
+}
@@ -0,0 +1,133 @@
+package com.buabook.kdb.data.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.data.KdbRowCursor;
+import com.buabook.kdb.data.KdbTable;
+import com.google.common.collect.ImmutableMap;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbRowCursorTest {
+	
+	// KdbRowCursor.next
+	
+	@Test
+	public void testNextVisitsEveryRowThenReturnsFalse() {
+		KdbRowCursor cursor = getTable().cursor();
+		
+		assertThat(cursor.getRowIndex(), is(equalTo(-1)));
+		assertThat(cursor.next(), is(equalTo(true)));
+		assertThat(cursor.next(), is(equalTo(true)));
+		assertThat(cursor.next(), is(equalTo(true)));
+		assertThat(cursor.next(), is(equalTo(false)));
+		assertThat(cursor.getRowIndex(), is(equalTo(2)));
+	}
+	
+	@Test
+	public void testNextReturnsFalseForEmptyTable() {
+		assertThat(new KdbTable("empty").cursor().next(), is(equalTo(false)));
+	}
+	
+	// KdbRowCursor.moveTo
+	
+	@Test(expected=ArrayIndexOutOfBoundsException.class)
+	public void testMoveToThrowsExceptionIfRowOutsideTable() {
+		getTable().cursor().moveTo(3);
+	}
+	
+	@Test
+	public void testMoveToPositionsCursorOnRow() {
+		KdbRowCursor cursor = getTable().cursor().moveTo(1);
+		
+		assertThat(cursor.getSymbol(cursor.getColumnIndex("sym")), is(equalTo("BARC.L")));
+	}
+	
+	// KdbRowCursor.getColumnIndex
+	
+	@Test
+	public void testColumnsAreInAlphabeticalOrder() {
+		KdbRowCursor cursor = getTable().cursor();
+		
+		assertThat(cursor.getColumnCount(), is(equalTo(4)));
+		assertThat(cursor.getColumnName(0), is(equalTo("flag")));
+		assertThat(cursor.getColumnIndex("size"), is(equalTo(2)));
+		assertThat(cursor.getColumnIndex("missing"), is(equalTo(-1)));
+	}
+	
+	// KdbRowCursor typed getters
+	
+	@Test
+	public void testTypedGettersReadTypedColumns() {
+		KdbRowCursor cursor = getTable().cursor().moveTo(2);
+		
+		assertThat(cursor.getBoolean(0), is(equalTo(true)));
+		assertThat(cursor.getDouble(1), is(equalTo(1.2)));
+		assertThat(cursor.getLong(2), is(equalTo(300L)));
+		assertThat(cursor.getSymbol(3), is(equalTo("HSBA.L")));
+	}
+	
+	@Test
+	public void testTypedGettersReadUntypedColumns() {
+		KdbTable table = new KdbTable("trade");
+		table.addRow(ImmutableMap.<String, Object>of("size", 100L, "price", 1.5));
+		
+		KdbRowCursor cursor = table.cursor().moveTo(0);
+		
+		assertThat(cursor.getDouble(0), is(equalTo(1.5)));
+		assertThat(cursor.getLong(1), is(equalTo(100L)));
+		assertThat(cursor.getInt(1), is(equalTo(100)));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetByNameThrowsExceptionIfNoColumn() {
+		getTable().cursor().moveTo(0).get("missing");
+	}
+	
+	// KdbRowCursor.toDict
+	
+	@Test
+	public void testToDictMatchesGetRow() {
+		KdbTable table = getTable();
+		KdbDict row = table.cursor().moveTo(1).toDict();
+		
+		assertThat(row, is(equalTo(table.getRow(1))));
+	}
+	
+	// KdbTable.forEachRow
+	
+	@Test
+	public void testForEachRowProvidesSameCursorForEveryRow() {
+		List<Long> sizes = new ArrayList<>();
+		List<KdbRowCursor> cursors = new ArrayList<>();
+		
+		getTable().forEachRow((cursor) -> {
+			sizes.add(cursor.getLong(2));
+			cursors.add(cursor);
+		});
+		
+		assertThat(sizes, contains(100L, 200L, 300L));
+		assertThat(cursors.get(2), is(sameInstance(cursors.get(0))));
+	}
+	
+	
+	private KdbTable getTable() {
+		String[] keys = { "sym", "price", "size", "flag" };
+		
+		Object[] cols = {
+				new String[] { "VOD.L", "BARC.L", "HSBA.L" },
+				new double[] { 1.0, 1.1, 1.2 },
+				new long[] { 100, 200, 300 },
+				new boolean[] { false, false, true }
+		};
+		
+		return new KdbTable("trade", new Flip(new Dict(keys, cols)));
+	}
+}
@@ -0,0 +1,134 @@
+package com.buabook.kdb.data.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.buabook.kdb.data.KdbSchema;
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.exceptions.TableSchemaMismatchException;
+import com.google.common.collect.ImmutableMap;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbSchemaTest {
+	
+	// KdbSchema.of
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testOfThrowsExceptionIfNoTableName() {
+		KdbSchema.of(null, new HashMap<>());
+	}
+	
+	@Test
+	public void testOfOrdersColumnsAlphabetically() {
+		KdbSchema schema = KdbSchema.of("schema-test-order", getColumns());
+		
+		assertThat(schema.getColumnNames(), contains("price", "size", "sym"));
+		assertThat(schema.getColumnIndex("sym"), is(equalTo(2)));
+		assertThat(schema.getColumnIndex("missing"), is(equalTo(-1)));
+		assertThat(schema.getColumnType(1), is(equalTo((Object) long.class)));
+	}
+	
+	@Test
+	public void testOfReturnsSameInstanceForSameTableAndColumns() {
+		assertThat(KdbSchema.of("schema-test-intern", getColumns()), is(sameInstance(KdbSchema.of("schema-test-intern", getColumns()))));
+	}
+	
+	@Test
+	public void testOfReturnsNewInstanceForDifferentColumnTypes() {
+		Map<String, Class<?>> columns = new HashMap<>(getColumns());
+		columns.put("size", int.class);
+		
+		KdbSchema schema = KdbSchema.of("schema-test-types", getColumns());
+		KdbSchema other = KdbSchema.of("schema-test-types", columns);
+		
+		assertThat(other, is(not(sameInstance(schema))));
+		assertThat(other.hasSameColumns(schema), is(equalTo(true)));
+	}
+	
+	// KdbSchema.isSubsetOf
+	
+	@Test
+	public void testIsSubsetOfChecksColumnNames() {
+		KdbSchema schema = KdbSchema.of("schema-test-subset", ImmutableMap.<String, Class<?>>of("sym", String.class));
+		
+		assertThat(schema.isSubsetOf(KdbSchema.of("schema-test-subset-2", getColumns())), is(equalTo(true)));
+		assertThat(KdbSchema.of("schema-test-subset-2", getColumns()).isSubsetOf(schema), is(equalTo(false)));
+	}
+	
+	// KdbSchema.isSatisfiedBy
+	
+	@Test
+	public void testIsSatisfiedByRequiresAllColumns() {
+		KdbSchema schema = KdbSchema.of("schema-test-row", getColumns());
+		
+		assertThat(schema.isSatisfiedBy(ImmutableMap.of("sym", "a", "price", 1.0, "size", 1L)), is(equalTo(true)));
+		assertThat(schema.isSatisfiedBy(ImmutableMap.of("sym", "a", "price", 1.0, "other", 1L)), is(equalTo(false)));
+	}
+	
+	// KdbTable.getSchema
+	
+	@Test
+	public void testTablesWithSameNameAndColumnsShareSchema() {
+		KdbTable table = new KdbTable("trade", getTable());
+		KdbTable other = new KdbTable("trade", getTable());
+		
+		assertThat(table.getSchema(), is(sameInstance(other.getSchema())));
+	}
+	
+	@Test
+	public void testTableSchemaIsRebuiltWhenColumnsChange() {
+		KdbTable table = new KdbTable("trade", getTable());
+		KdbSchema before = table.getSchema();
+		
+		table.deleteColumn("price");
+		
+		assertThat(table.getSchema(), is(not(sameInstance(before))));
+		assertThat(table.getSchema().getColumnNames(), contains("size", "sym"));
+	}
+	
+	@Test
+	public void testAppendWithSameSchemaAppendsTypedColumns() {
+		KdbTable table = new KdbTable("trade", getTable());
+		table.append(new KdbTable("trade", getTable()));
+		
+		assertThat(table.getRowCount(), is(equalTo(4)));
+		assertThat(table.getLongColumn("size").getLong(3), is(equalTo(200L)));
+		assertThat(table.getTableData().get("sym"), contains((Object) "VOD.L", "BARC.L", "VOD.L", "BARC.L"));
+	}
+	
+	@Test
+	public void testAppendToItself() {
+		KdbTable table = new KdbTable("trade", getTable());
+		table.append(table);
+		
+		assertThat(table.getRowCount(), is(equalTo(4)));
+		assertThat(table.getDoubleColumn("price").size(), is(equalTo(4)));
+	}
+	
+	@Test(expected=TableSchemaMismatchException.class)
+	public void testAppendThrowsExceptionIfColumnsMissing() {
+		KdbTable table = new KdbTable("trade", getTable());
+		KdbTable other = new KdbTable("trade", getTable());
+		other.deleteColumn("size");
+		
+		table.append(other);
+	}
+	
+	
+	private Map<String, Class<?>> getColumns() {
+		return ImmutableMap.<String, Class<?>>of("sym", String.class, "size", long.class, "price", double.class);
+	}
+	
+	private Flip getTable() {
+		String[] keys = { "sym", "price", "size" };
+		Object[] cols = { new String[] { "VOD.L", "BARC.L" }, new double[] { 1.0, 1.1 }, new long[] { 100, 200 } };
+		
+		return new Flip(new Dict(keys, cols));
+	}
+}
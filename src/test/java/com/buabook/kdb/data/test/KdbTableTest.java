@@ -4,22 +4,30 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.CoreMatchers.instanceOf;
 
+import java.io.IOException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
 import com.buabook.kdb.data.KdbDict;
 import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.data.columns.LongColumn;
 import com.buabook.kdb.exceptions.DataOverwriteNotPermittedException;
 import com.buabook.kdb.exceptions.TableColumnAlreadyExistsException;
 import com.buabook.kdb.exceptions.TableSchemaMismatchException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.kx.c;
 import com.kx.c.Dict;
 import com.kx.c.Flip;
+import com.kx.c.KException;
+import com.kx.c.LazyFlip;
 
 public class KdbTableTest {
 
@@ -86,6 +94,47 @@ public class KdbTableTest {
 		assertThat(table.getTableData(), hasKey("key6"));
 	}
 	
+	@Test
+	public void testSetInitialDataSetFromLazyFlipDoesNotDecodeColumns() throws IOException, KException {
+		LazyFlip lazy = getLazyTable();
+		
+		KdbTable table = new KdbTable("my-test-table");
+		table.setInitialDataSet(lazy);
+		
+		assertThat(table.getRowCount(), is(equalTo(3)));
+		assertThat(table.getTableData(), hasKey("key1"));
+		assertThat(table.getTableData().get("key2").size(), is(equalTo(3)));
+		assertThat(lazy.decoded(0), is(equalTo(false)));
+		assertThat(lazy.decoded(1), is(equalTo(false)));
+		assertThat(lazy.decoded(2), is(equalTo(false)));
+	}
+	
+	@Test
+	public void testSetInitialDataSetFromLazyFlipDecodesColumnOnFirstAccess() throws IOException, KException {
+		LazyFlip lazy = getLazyTable();
+		KdbTable table = new KdbTable("my-test-table", lazy);
+		
+		assertThat(table.getTableData().get("key2").get(1), is(equalTo((Object) 8)));
+		assertThat(lazy.decoded(0), is(equalTo(false)));
+		assertThat(lazy.decoded(1), is(equalTo(true)));
+		assertThat(lazy.decoded(2), is(equalTo(false)));
+	}
+	
+	@Test
+	public void testSetInitialDataSetFromLazyFlipSupportsAddRow() throws IOException, KException {
+		KdbTable table = new KdbTable("my-test-table", getLazyTable());
+		KdbDict newRow = new KdbDict()
+									.add("key1", 1.3)
+									.add("key2", 10)
+									.add("key3", "a");
+		
+		table.addRow(newRow);
+		
+		assertThat(table.getRowCount(), is(equalTo(4)));
+		assertThat(table.getRow(3), is(equalTo(newRow)));
+		assertThat(table.getRow(0).get("key3"), is(equalTo((Object) "x")));
+	}
+	
 	// KdbTable.addColumn
 	
 	@Test(expected=TableColumnAlreadyExistsException.class)
@@ -211,6 +260,43 @@ public class KdbTableTest {
 		assertThat(addedRow.get("enum"), is(equalTo("VALUE_1")));
 	}
 	
+	@Test
+	public void testAddRowMapLeavesTableUnchangedIfAnyValueIncompatibleWithColumnType() {
+		KdbTable table = new KdbTable("my-test-table", getTypedTable());
+		
+		try {
+			table.addRow(new KdbDict().add("a", 3L).add("b", 3).add("c", "not-a-timestamp"));
+			throw new AssertionError("Expected TableSchemaMismatchException");
+		} catch (TableSchemaMismatchException e) {}
+		
+		assertThat(table.getRowCount(), is(equalTo(2)));
+		assertThat(table.getTableData().get("a").size(), is(equalTo(2)));
+		assertThat(table.getTableData().get("b").size(), is(equalTo(2)));
+		assertThat(table.getTableData().get("c").size(), is(equalTo(2)));
+	}
+	
+	@Test(expected=TableSchemaMismatchException.class)
+	public void testAddRowMapThrowsExceptionIfFractionalValueInLongColumn() {
+		KdbTable table = new KdbTable("my-test-table", getTypedTable());
+		table.addRow(new KdbDict().add("a", 1.9).add("b", 3).add("c", new Timestamp(0)));
+	}
+	
+	@Test(expected=TableSchemaMismatchException.class)
+	public void testAddRowMapThrowsExceptionIfValueOutOfRangeOfIntColumn() {
+		KdbTable table = new KdbTable("my-test-table", getTypedTable());
+		table.addRow(new KdbDict().add("a", 3L).add("b", 5000000000L).add("c", new Timestamp(0)));
+	}
+	
+	@Test
+	public void testAddRowMapConvertsWholeNumbersToColumnType() {
+		KdbTable table = new KdbTable("my-test-table", getTypedTable());
+		table.addRow(new KdbDict().add("a", 3.0).add("b", 3L).add("c", new Timestamp(0)));
+		
+		assertThat(table.getRowCount(), is(equalTo(3)));
+		assertThat(table.getLongColumn("a").getLong(2), is(equalTo(3L)));
+		assertThat(table.getIntColumn("b").getInt(2), is(equalTo(3)));
+	}
+	
 	// KdbTable.append
 	
 	@Test
@@ -258,6 +344,39 @@ public class KdbTableTest {
 		assertThat(empty.getRowCount(), is(equalTo(3)));
 	}
 	
+	@Test
+	public void testAppendToEmptyTableKeepsTypedColumnsAndSchema() {
+		KdbTable toAppend = getLargeTable(10);
+		KdbTable empty = new KdbTable("a-table");
+		
+		empty.append(toAppend);
+		
+		assertThat(empty.getLongColumn("size").getLong(9), is(equalTo(9L)));
+		assertThat(empty.getSchema(), is(sameInstance(toAppend.getSchema())));
+		assertThat(toAppend.getRowCount(), is(equalTo(10)));
+	}
+	
+	@Test
+	public void testAppendThrowsExceptionAndLeavesTableUnchangedIfColumnTypeMismatches() {
+		String[] keys = { "a", "b", "c" };
+		
+		KdbTable table = new KdbTable("a-table", new Flip(new Dict(keys, new Object[] { new long[] { 1 }, new long[] { 2 }, new long[] { 3 } })));
+		KdbTable toAppend = new KdbTable("a-table", new Flip(new Dict(keys, new Object[] { new long[] { 4 }, new String[] { "x" }, new long[] { 6 } })));
+		
+		try {
+			table.append(toAppend);
+		} catch (TableSchemaMismatchException e) {
+			assertThat(table.getRowCount(), is(equalTo(1)));
+			
+			for(String column : keys)
+				assertThat(table.getLongColumn(column).size(), is(equalTo(1)));
+			
+			return;
+		}
+		
+		throw new AssertionError("Expected TableSchemaMismatchException");
+	}
+	
 	// KdbTable.getTableName
 	
 	@Test
@@ -274,6 +393,57 @@ public class KdbTableTest {
 		assertThat(table.getTableData(), is(anEmptyMap()));
 	}
 	
+	// KdbTable.getLongColumn
+	
+	@Test
+	public void testGetLongColumnReturnsPrimitiveColumnWithoutCopy() {
+		long[] sizes = { 100, 200, 300 };
+		KdbTable table = new KdbTable("my-test-table", new Flip(new Dict(new String[] { "size" }, new Object[] { sizes })));
+		
+		LongColumn column = table.getLongColumn("size");
+		
+		assertThat(column.getArray(), is(sameInstance(sizes)));
+		assertThat(column.getLong(2), is(equalTo(300L)));
+		assertThat(table.getTableData().get("size").get(0), is(equalTo((Object) 100L)));
+	}
+	
+	@Test(expected=ClassCastException.class)
+	public void testGetLongColumnThrowsExceptionIfNotLongColumn() {
+		new KdbTable("my-test-table", getTable()).getLongColumn("key1");
+	}
+	
+	@Test
+	public void testGetLongColumnDecodesLazyColumn() throws IOException, KException {
+		c lazyDecoder = c.codec();
+		lazyDecoder.lazy(true);
+		
+		Flip sizes = new Flip(new Dict(new String[] { "size" }, new Object[] { new long[] { 5, 6 } }));
+		KdbTable table = new KdbTable("my-test-table", (Flip) lazyDecoder.deserialize(c.codec().serialize(1, sizes, false)));
+		
+		assertThat(table.getLongColumn("size").getLong(1), is(equalTo(6L)));
+	}
+	
+	// KdbTable.getSymbolColumn
+	
+	@Test
+	public void testGetSymbolColumnReturnsStringColumn() {
+		KdbTable table = new KdbTable("my-test-table", new Flip(new Dict(new String[] { "sym" }, new Object[] { new String[] { "a", "b" } })));
+		
+		assertThat(table.getSymbolColumn("sym").getValue(1), is(equalTo("b")));
+	}
+	
+	@Test(expected=ClassCastException.class)
+	public void testGetObjectColumnThrowsExceptionIfDifferentElementType() {
+		KdbTable table = new KdbTable("my-test-table", new Flip(new Dict(new String[] { "sym" }, new Object[] { new String[] { "a", "b" } })));
+		
+		table.getObjectColumn("sym", Timestamp.class);
+	}
+	
+	@Test
+	public void testGetTypedColumnReturnsNullIfNoColumn() {
+		assertThat(new KdbTable("my-test-table", getTable()).getLongColumn("missing"), is(nullValue()));
+	}
+	
 	// KdbTable.convertToFlip
 	
 	@Test
@@ -291,6 +461,70 @@ public class KdbTableTest {
 		assertThat(converted.x, is(arrayContainingInAnyOrder("key1", "key2", "key3")));
 	}
 	
+	@Test
+	public void testConvertToFlipSendsTypedVectorsForDetectedColumnTypes() {
+		KdbTable table = new KdbTable("my-test-table", getTable());
+		Flip converted = table.convertToFlip();
+		
+		assertThat(converted.y[0], is(equalTo((Object) new double[] { 1.0, 1.1, 1.2 })));
+		assertThat(converted.y[1], is(equalTo((Object) new int[] { 7, 8, 9 })));
+		assertThat((String[]) converted.y[2], is(arrayContaining("x", "y", "z")));
+	}
+	
+	@Test
+	public void testConvertToFlipDetectsTypesOfAddedRowsAndReplacesNulls() {
+		KdbTable table = new KdbTable("my-test-table");
+		
+		Map<String, Object> row1 = new HashMap<>();
+		row1.put("sym", "VOD.L");
+		row1.put("size", 100L);
+		
+		Map<String, Object> row2 = new HashMap<>();
+		row2.put("sym", null);
+		row2.put("size", null);
+		
+		table.addRow(row1);
+		table.addRow(row2);
+		
+		Flip converted = table.convertToFlip();
+		
+		assertThat(converted.y[0], is(equalTo((Object) new long[] { 100L, (long) c.NULL('j') })));
+		assertThat((String[]) converted.y[1], is(arrayContaining("VOD.L", "")));
+	}
+	
+	@Test
+	public void testConvertToFlipSendsGeneralListForMixedTypes() {
+		KdbTable table = new KdbTable("my-test-table", new Flip(new Dict(new String[] { "mixed" }, new Object[] { new Object[] { 1L, "a", "b".toCharArray() } })));
+		
+		assertThat(table.convertToFlip().y[0], is(instanceOf(Object[].class)));
+	}
+	
+	@Test
+	public void testConvertToFlipIsSmallerOnTheWireThanGeneralLists() throws IOException {
+		KdbTable table = new KdbTable("my-test-table", new Flip(new Dict(new String[] { "size" }, new Object[] { new Object[] { 1L, 2L, 3L, 4L, 5L } })));
+		
+		int generalSize = c.codec().serialize(1, new Flip(new Dict(new String[] { "size" }, new Object[] { new Object[] { 1L, 2L, 3L, 4L, 5L } })), false).length;
+		int typedSize = c.codec().serialize(1, table.convertToFlip(), false).length;
+		
+		assertThat(typedSize, is(lessThan(generalSize)));
+	}
+	
+	// KdbTable.setColumnType
+	
+	@Test
+	public void testSetColumnTypeConvertsColumnToDeclaredType() {
+		KdbTable table = new KdbTable("my-test-table", getTable());
+		table.setColumnType("key2", Long.class);
+		
+		assertThat(table.getLongColumn("key2").getLong(0), is(equalTo(7L)));
+		assertThat(table.convertToFlip().y[1], is(equalTo((Object) new long[] { 7, 8, 9 })));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetColumnTypeThrowsExceptionIfNoColumn() {
+		new KdbTable("my-test-table", getTable()).setColumnType("missing", Long.class);
+	}
+	
 	// KdbTable.getRowCount()
 	
 	@Test
@@ -405,6 +639,59 @@ public class KdbTableTest {
 						});
 	}
 	
+	@Test
+	public void testStreamIsSizedAndOrdered() {
+		KdbTable table = getLargeTable(10000);
+		
+		assertThat(table.stream().isParallel(), is(equalTo(false)));
+		assertThat(table.spliterator().getExactSizeIfKnown(), is(equalTo(10000L)));
+		assertThat(table.spliterator().hasCharacteristics(Spliterator.SUBSIZED | Spliterator.ORDERED), is(equalTo(true)));
+		assertThat(table.stream().count(), is(equalTo(10000L)));
+	}
+	
+	// KdbTable.spliterator
+	
+	@Test
+	public void testSpliteratorSplitsByRowRange() {
+		Spliterator<KdbDict> second = getLargeTable(10000).spliterator();
+		Spliterator<KdbDict> first = second.trySplit();
+		
+		assertThat(first.estimateSize() + second.estimateSize(), is(equalTo(10000L)));
+		
+		first.tryAdvance((row) -> assertThat(row.get("size"), is(equalTo((Object) 0L))));
+		second.tryAdvance((row) -> assertThat(row.get("size"), is(equalTo((Object) 5000L))));
+	}
+	
+	@Test
+	public void testSpliteratorDoesNotSplitSmallTable() {
+		assertThat(new KdbTable("a-table", getTable()).spliterator().trySplit(), is(nullValue()));
+	}
+	
+	// KdbTable.parallelStream
+	
+	@Test
+	public void testParallelStreamProcessesAllRowsInOrder() {
+		KdbTable table = getLargeTable(100000);
+		
+		List<Object> sizes = table.parallelStream()
+											.map((row) -> row.get("size"))
+											.collect(Collectors.toList());
+		
+		assertThat(table.parallelStream().isParallel(), is(equalTo(true)));
+		assertThat(sizes.size(), is(equalTo(100000)));
+		assertThat(sizes.get(99999), is(equalTo((Object) 99999L)));
+		assertThat(table.parallelStream().mapToLong((row) -> (Long) row.get("size")).sum(), is(equalTo(99999L * 100000L / 2)));
+	}
+	
+	
+	private KdbTable getLargeTable(int rows) {
+		long[] sizes = new long[rows];
+		
+		for(int i = 0; i < rows; i++)
+			sizes[i] = i;
+		
+		return new KdbTable("a-table", new Flip(new Dict(new String[] { "size" }, new Object[] { sizes })));
+	}
 	
 	private Flip getTable() {
 		String[] keys = { "key1", "key2", "key3" };
@@ -418,6 +705,20 @@ public class KdbTableTest {
 		return new Flip(new Dict(keys, cols));
 	}
 	
+	private Flip getTypedTable() {
+		String[] keys = { "a", "b", "c" };
+		Object[] cols = { new long[] { 1, 2 }, new int[] { 1, 2 }, new Timestamp[] { new Timestamp(0), new Timestamp(1) } };
+		
+		return new Flip(new Dict(keys, cols));
+	}
+	
+	private LazyFlip getLazyTable() throws IOException, KException {
+		c lazyDecoder = c.codec();
+		lazyDecoder.lazy(true);
+		
+		return (LazyFlip) lazyDecoder.deserialize(c.codec().serialize(1, getTable(), false));
+	}
+	
 	private Flip getTable2() {
 		String[] keys = { "key4", "key5", "key6" };
 		
@@ -0,0 +1,80 @@
+package com.buabook.kdb.publisher.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.buabook.kdb.Flips;
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.publisher.KdbEncodedMessage;
+import com.kx.c;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+import com.kx.c.KException;
+
+public class KdbEncodedMessageTest {
+	
+	// KdbEncodedMessage.encode
+	
+	@Test
+	public void testEncodeSerialisesPublishMessage() throws IOException, KException {
+		KdbEncodedMessage message = KdbEncodedMessage.encode(getTable());
+		
+		byte[] bytes = c.codec().serialize(0, new Object[] { ".u.upd".toCharArray(), "trade", getTable().convertToFlip() }, false);
+		
+		assertThat(message.getTableName(), is(equalTo("trade")));
+		assertThat(message.getRowCount(), is(equalTo(2)));
+		assertThat(message.getLength(), is(equalTo(bytes.length)));
+		
+		Object[] decoded = (Object[]) c.codec().deserialize(bytes);
+		assertThat(Flips.getRowCount((Flip) decoded[2]), is(equalTo(2)));
+	}
+	
+	// KdbEncodedMessage.release
+	
+	@Test
+	public void testEncodeReturnsNullForEmptyTable() throws IOException {
+		assertThat(KdbEncodedMessage.encode(new KdbTable("trade")), is(nullValue()));
+	}
+	
+	@Test
+	public void testReleaseReleasesBytesWhenNoReferencesRemain() throws IOException {
+		KdbEncodedMessage message = KdbEncodedMessage.encode(getTable());
+		message.retain();
+		
+		message.release();
+		assertThat(message.getReferenceCount(), is(equalTo(1)));
+		assertThat(message.getLength(), is(greaterThan(0)));
+		
+		message.release();
+		assertThat(message.getReferenceCount(), is(equalTo(0)));
+		assertThat(message.getLength(), is(equalTo(0)));
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void testRetainThrowsExceptionIfReleased() throws IOException {
+		KdbEncodedMessage message = KdbEncodedMessage.encode(getTable());
+		message.release();
+		
+		message.retain();
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void testReleaseThrowsExceptionIfAlreadyReleased() throws IOException {
+		KdbEncodedMessage message = KdbEncodedMessage.encode(getTable());
+		message.release();
+		
+		message.release();
+	}
+	
+	
+	private KdbTable getTable() {
+		String[] keys = { "sym", "price" };
+		Object[] cols = { new String[] { "VOD.L", "BARC.L" }, new double[] { 1.0, 1.1 } };
+		
+		return new KdbTable("trade", new Flip(new Dict(keys, cols)));
+	}
+}
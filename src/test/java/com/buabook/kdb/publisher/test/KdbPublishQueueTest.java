@@ -0,0 +1,318 @@
+package com.buabook.kdb.publisher.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.interfaces.IKdbPublishable;
+import com.buabook.kdb.publisher.KdbEncodedMessage;
+import com.buabook.kdb.publisher.KdbPublishQueue;
+import com.buabook.kdb.publisher.KdbPublishQueue.ECapacityUnit;
+import com.buabook.kdb.publisher.KdbPublishQueue.EOverflowPolicy;
+import com.buabook.kdb.publisher.KdbSpillJournal;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbPublishQueueTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	
+	// KdbPublishQueue
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructorThrowsExceptionIfConflateWithoutKey() {
+		new KdbPublishQueue(10, ECapacityUnit.ROWS, EOverflowPolicy.CONFLATE);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructorThrowsExceptionIfCapacityNotPositive() {
+		new KdbPublishQueue(0, ECapacityUnit.ROWS, EOverflowPolicy.FAIL_FAST);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructorThrowsExceptionIfSpillWithoutJournal() {
+		new KdbPublishQueue(10, ECapacityUnit.ROWS, EOverflowPolicy.SPILL);
+	}
+	
+	// KdbPublishQueue.offer
+	
+	@Test
+	public void testOfferAlwaysAcceptsTableIntoEmptyQueue() {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, EOverflowPolicy.FAIL_FAST);
+		
+		assertThat(queue.offer(getTable("VOD.L", 5)), is(equalTo(true)));
+		assertThat(queue.getUsed(), is(equalTo(5L)));
+	}
+	
+	@Test
+	public void testOfferWithFailFastRejectsTableWhenFull() {
+		KdbPublishQueue queue = new KdbPublishQueue(3, ECapacityUnit.ROWS, EOverflowPolicy.FAIL_FAST);
+		
+		assertThat(queue.offer(getTable("VOD.L", 2)), is(equalTo(true)));
+		assertThat(queue.offer(getTable("VOD.L", 1)), is(equalTo(true)));
+		assertThat(queue.offer(getTable("VOD.L", 1)), is(equalTo(false)));
+		
+		assertThat(queue.size(), is(equalTo(2)));
+		assertThat(queue.getRejectedCount(), is(equalTo(1L)));
+	}
+	
+	@Test
+	public void testOfferWithDropOldestDropsHeadOfQueue() {
+		KdbPublishQueue queue = new KdbPublishQueue(2, ECapacityUnit.ROWS, EOverflowPolicy.DROP_OLDEST);
+		KdbTable second = getTable("BARC.L", 1);
+		KdbTable third = getTable("HSBA.L", 1);
+		
+		queue.offer(getTable("VOD.L", 1));
+		queue.offer(second);
+		queue.offer(third);
+		
+		assertThat(queue.getDroppedCount(), is(equalTo(1L)));
+		assertThat(queue.poll(), is(sameInstance(second)));
+		assertThat(queue.poll(), is(sameInstance(third)));
+		assertThat(queue.poll(), is(nullValue()));
+	}
+	
+	@Test
+	public void testOfferWithConflateReplacesTableWithSameKeyInPlace() {
+		KdbPublishQueue queue = new KdbPublishQueue(2, ECapacityUnit.ROWS, EOverflowPolicy.CONFLATE, KdbPublishQueueTest::getSymbol);
+		KdbTable latestVod = getTable("VOD.L", 1);
+		KdbTable barc = getTable("BARC.L", 1);
+		
+		queue.offer(getTable("VOD.L", 1));
+		queue.offer(barc);
+		queue.offer(latestVod);
+		
+		assertThat(queue.getConflatedCount(), is(equalTo(1L)));
+		assertThat(queue.getDroppedCount(), is(equalTo(0L)));
+		assertThat(queue.poll(), is(sameInstance(latestVod)));
+		assertThat(queue.poll(), is(sameInstance(barc)));
+	}
+	
+	@Test
+	public void testOfferWithConflateDropsOldestIfNoTableWithSameKey() {
+		KdbPublishQueue queue = new KdbPublishQueue(2, ECapacityUnit.ROWS, EOverflowPolicy.CONFLATE, KdbPublishQueueTest::getSymbol);
+		
+		queue.offer(getTable("VOD.L", 1));
+		queue.offer(getTable("BARC.L", 1));
+		queue.offer(getTable("HSBA.L", 1));
+		
+		assertThat(queue.getDroppedCount(), is(equalTo(1L)));
+		assertThat(getSymbol(queue.poll()), is(equalTo("BARC.L")));
+	}
+	
+	@Test
+	public void testOfferWithBlockWaitsForRoom() throws InterruptedException {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, EOverflowPolicy.BLOCK);
+		queue.offer(getTable("VOD.L", 1));
+		
+		CountDownLatch queued = new CountDownLatch(1);
+		AtomicBoolean result = new AtomicBoolean();
+		
+		Thread producer = new Thread(() -> {
+			result.set(queue.offer(getTable("BARC.L", 1)));
+			queued.countDown();
+		});
+		
+		producer.start();
+		
+		assertThat(queued.await(100, TimeUnit.MILLISECONDS), is(equalTo(false)));
+		
+		queue.poll();
+		
+		assertThat(queued.await(10, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(result.get(), is(equalTo(true)));
+		assertThat(queue.size(), is(equalTo(1)));
+	}
+	
+	@Test
+	public void testOfferWithByteCapacityUsesEstimatedSize() {
+		// 2 rows of 8 byte prices and 6 byte symbols
+		KdbPublishQueue queue = new KdbPublishQueue(40, ECapacityUnit.BYTES, EOverflowPolicy.FAIL_FAST);
+		
+		assertThat(queue.offer(getTable("VOD.L", 2)), is(equalTo(true)));
+		assertThat(queue.getUsed(), is(equalTo(28L)));
+		assertThat(queue.offer(getTable("VOD.L", 1)), is(equalTo(false)));
+	}
+	
+	@Test
+	public void testOfferWithSpillAppendsToJournalWhenFull() throws IOException {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, getJournal(1024));
+		KdbTable first = getTable("VOD.L", 1);
+		
+		queue.offer(first);
+		queue.offer(getTable("BARC.L", 2));
+		
+		assertThat(queue.size(), is(equalTo(2)));
+		assertThat(queue.getUsed(), is(equalTo(1L)));
+		assertThat(queue.getSpilledCount(), is(equalTo(1L)));
+		assertThat(queue.getJournal().getMessageCount(), is(equalTo(1)));
+		
+		assertThat(queue.poll(), is(sameInstance(first)));
+		
+		IKdbPublishable spilled = queue.poll();
+		
+		assertThat(spilled, is(instanceOf(KdbEncodedMessage.class)));
+		assertThat(spilled.getTableName(), is(equalTo("trade")));
+		assertThat(spilled.getRowCount(), is(equalTo(2)));
+		assertThat(queue.isEmpty(), is(equalTo(true)));
+		
+		queue.close();
+	}
+	
+	@Test
+	public void testOfferWithSpillKeepsSpillingUntilJournalDrained() throws IOException {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, getJournal(1024));
+		
+		queue.offer(getTable("VOD.L", 1));
+		queue.offer(getTable("BARC.L", 1));
+		queue.poll();
+		
+		// There is now room on the heap, but the table must follow the one already in the journal
+		queue.offer(getTable("HSBA.L", 1));
+		
+		assertThat(queue.getSpilledCount(), is(equalTo(2L)));
+		assertThat(queue.getUsed(), is(equalTo(0L)));
+		
+		queue.poll();
+		queue.poll();
+		
+		assertThat(queue.getJournal().isEmpty(), is(equalTo(true)));
+		assertThat(queue.offer(getTable("VOD.L", 1)), is(equalTo(true)));
+		assertThat(queue.getUsed(), is(equalTo(1L)));
+		
+		queue.close();
+	}
+	
+	@Test
+	public void testOfferWithSpillRejectsTableWhenJournalFull() throws IOException {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, getJournal(16));
+		
+		queue.offer(getTable("VOD.L", 1));
+		
+		assertThat(queue.offer(getTable("BARC.L", 1)), is(equalTo(false)));
+		assertThat(queue.getRejectedCount(), is(equalTo(1L)));
+		assertThat(queue.size(), is(equalTo(1)));
+		
+		queue.close();
+	}
+	
+	@Test
+	public void testOfferWithSpillRejectsEmptyTable() throws IOException {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, getJournal(1024));
+		
+		queue.offer(getTable("VOD.L", 1));
+		queue.offer(getTable("BARC.L", 1));
+		
+		assertThat(queue.offer(new KdbTable("trade")), is(equalTo(false)));
+		assertThat(queue.getRejectedCount(), is(equalTo(1L)));
+		assertThat(queue.getSpilledCount(), is(equalTo(1L)));
+		assertThat(queue.size(), is(equalTo(2)));
+		
+		queue.close();
+	}
+	
+	@Test
+	public void testOfferWithSpillReleasesSpilledEncodedMessage() throws IOException {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, getJournal(1024));
+		KdbEncodedMessage message = KdbEncodedMessage.encode(getTable("BARC.L", 1));
+		
+		queue.offer(getTable("VOD.L", 1));
+		queue.offer(message);
+		
+		assertThat(message.getReferenceCount(), is(equalTo(0)));
+		assertThat(queue.getSpilledCount(), is(equalTo(1L)));
+		
+		queue.close();
+	}
+	
+	// KdbPublishQueue.peek
+	
+	@Test
+	public void testPeekThenRemoveTakesMessageFromJournal() throws IOException {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, getJournal(1024));
+		
+		queue.offer(getTable("VOD.L", 1));
+		queue.offer(getTable("BARC.L", 1));
+		queue.poll();
+		
+		IKdbPublishable head = queue.peek();
+		
+		assertThat(queue.peek(), is(sameInstance(head)));
+		assertThat(queue.remove(head), is(equalTo(true)));
+		assertThat(queue.isEmpty(), is(equalTo(true)));
+		
+		queue.close();
+	}
+	
+	// KdbPublishQueue.remove
+	
+	@Test
+	public void testRemoveReleasesCapacity() {
+		KdbPublishQueue queue = new KdbPublishQueue(2, ECapacityUnit.ROWS, EOverflowPolicy.FAIL_FAST);
+		KdbTable table = getTable("VOD.L", 2);
+		
+		queue.offer(table);
+		
+		assertThat(queue.remove(table), is(equalTo(true)));
+		assertThat(queue.remove(table), is(equalTo(false)));
+		assertThat(queue.getUsed(), is(equalTo(0L)));
+		assertThat(queue.isEmpty(), is(equalTo(true)));
+	}
+	
+	// KdbPublishQueue.iterator
+	
+	@Test
+	public void testIteratorReturnsSnapshotOfQueuedTables() {
+		KdbPublishQueue queue = new KdbPublishQueue(10, ECapacityUnit.ROWS, EOverflowPolicy.FAIL_FAST);
+		KdbTable table = getTable("VOD.L", 2);
+		
+		queue.offer(table);
+		
+		Iterator<IKdbPublishable> tables = queue.iterator();
+		queue.clear();
+		
+		assertThat(tables.next(), is(sameInstance((IKdbPublishable) table)));
+		assertThat(tables.hasNext(), is(equalTo(false)));
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void testIteratorDoesNotSupportRemoval() {
+		KdbPublishQueue queue = new KdbPublishQueue(10, ECapacityUnit.ROWS, EOverflowPolicy.FAIL_FAST);
+		queue.offer(getTable("VOD.L", 2));
+		
+		queue.removeIf(table -> true);
+	}
+	
+	
+	private KdbSpillJournal getJournal(long capacityBytes) throws IOException {
+		return new KdbSpillJournal(folder.newFile().toPath(), capacityBytes);
+	}
+	
+	private static String getSymbol(IKdbPublishable table) {
+		return (String) ((KdbTable) table).getTableData().get("sym").get(0);
+	}
+	
+	private KdbTable getTable(String sym, int rows) {
+		String[] syms = new String[rows];
+		double[] prices = new double[rows];
+		
+		for(int i = 0; i < rows; i++) {
+			syms[i] = sym;
+			prices[i] = i;
+		}
+		
+		return new KdbTable("trade", new Flip(new Dict(new String[] { "sym", "price" }, new Object[] { syms, prices })));
+	}
+}
@@ -0,0 +1,106 @@
+package com.buabook.kdb.publisher.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.publisher.KdbPublisherManager;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbPublisherManagerTest {
+	
+	private FakeKdbProcess[] servers;
+	
+	private BlockingQueue<Object[]> received;
+	
+	private KdbPublisherManager manager;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		received = new ArrayBlockingQueue<>(10000);
+		servers = new FakeKdbProcess[2];
+		
+		for(int i = 0; i < servers.length; i++)
+			servers[i] = new FakeKdbProcess((connection, message) -> received.put((Object[]) message));
+		
+		manager = new KdbPublisherManager();
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		manager.shutdown();
+		
+		for(FakeKdbProcess server : servers)
+			server.close();
+	}
+	
+	// KdbPublisherManager.publish
+	
+	@Test
+	public void testPublishWritesSameUpdateToEveryProcess() throws Exception {
+		for(FakeKdbProcess server : servers)
+			manager.addPublisher(server.getProcess());
+		
+		manager.publish(Arrays.asList(getTable(), getTable()));
+		
+		for(int i = 0; i < 4; i++) {
+			Object[] update = received.poll(10, TimeUnit.SECONDS);
+			
+			assertThat(new String((char[]) update[0]), is(equalTo(".u.upd")));
+			assertThat(update[1], is(equalTo((Object) "trade")));
+			assertThat(((Flip) update[2]).x, is(arrayContaining("price", "sym")));
+			assertThat((double[]) ((Flip) update[2]).y[0], is(equalTo(new double[] { 1.0, 1.1 })));
+		}
+		
+		assertThat(received.poll(100, TimeUnit.MILLISECONDS), is(nullValue()));
+	}
+	
+	@Test
+	public void testPublishSkipsEmptyTableWhenPublishingToEveryProcess() throws Exception {
+		for(FakeKdbProcess server : servers)
+			manager.addPublisher(server.getProcess());
+		
+		manager.publish(Arrays.asList(new KdbTable("trade"), getTable()));
+		
+		for(int i = 0; i < 2; i++) {
+			Object[] update = received.poll(10, TimeUnit.SECONDS);
+			
+			assertThat(update, is(notNullValue()));
+			assertThat((double[]) ((Flip) update[2]).y[0], is(equalTo(new double[] { 1.0, 1.1 })));
+		}
+		
+		assertThat(received.poll(100, TimeUnit.MILLISECONDS), is(nullValue()));
+	}
+	
+	@Test
+	public void testPublishToSingleProcessPublishesTables() throws Exception {
+		KdbProcess process = servers[0].getProcess();
+		
+		manager.addPublisher(process);
+		manager.publish(Arrays.asList(process), Arrays.asList(getTable()));
+		
+		assertThat(received.poll(10, TimeUnit.SECONDS)[1], is(equalTo((Object) "trade")));
+	}
+	
+	
+	private KdbTable getTable() {
+		String[] keys = { "sym", "price" };
+		Object[] cols = { new String[] { "VOD.L", "BARC.L" }, new double[] { 1.0, 1.1 } };
+		
+		return new KdbTable("trade", new Flip(new Dict(keys, cols)));
+	}
+}
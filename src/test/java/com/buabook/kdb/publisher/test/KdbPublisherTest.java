@@ -0,0 +1,94 @@
+package com.buabook.kdb.publisher.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.publisher.KdbPublisher;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbPublisherTest {
+	
+	private static final int PUBLISHES = 1000;
+	
+	
+	private FakeKdbProcess server;
+	
+	/** The first <code>.u.upd</code> message received by the fake kdb process */
+	private BlockingQueue<Object[]> received;
+	
+	/** The number of messages received by the fake kdb process */
+	private AtomicLong receivedCount;
+	
+	private KdbPublisher publisher;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		received = new ArrayBlockingQueue<>(1);
+		receivedCount = new AtomicLong();
+		
+		server = new FakeKdbProcess((connection, message) -> {
+			received.offer((Object[]) message);
+			receivedCount.incrementAndGet();
+		});
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if(publisher != null)
+			publisher.disconnect();
+		
+		server.close();
+	}
+	
+	// KdbPublisher.publish
+	
+	@Test
+	public void testPublishSendsUpdMessage() throws Exception {
+		publisher = new KdbPublisher(server.getProcess());
+		
+		assertThat(publisher.publish("trade", getTable()), is(equalTo(true)));
+		
+		Object[] message = received.poll(10, TimeUnit.SECONDS);
+		
+		assertThat(new String((char[]) message[0]), is(equalTo(".u.upd")));
+		assertThat(message[1], is(equalTo((Object) "trade")));
+		assertThat(((String[]) ((Flip) message[2]).at("sym"))[1], is(equalTo("BARC.L")));
+	}
+	
+	@Test
+	public void testPublishRepeatedlySendsEveryMessage() throws Exception {
+		publisher = new KdbPublisher(server.getProcess());
+		Flip table = getTable();
+		
+		for(int i = 0; i < PUBLISHES; i++)
+			assertThat(publisher.publish("trade", table), is(equalTo(true)));
+		
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		
+		while(receivedCount.get() < PUBLISHES && System.nanoTime() < deadline)
+			Thread.sleep(1);
+		
+		assertThat(receivedCount.get(), is(equalTo((long) PUBLISHES)));
+	}
+	
+	
+	private Flip getTable() {
+		String[] keys = { "sym", "price", "size" };
+		Object[] cols = { new String[] { "VOD.L", "BARC.L" }, new double[] { 1.0, 1.1 }, new long[] { 100, 200 } };
+		
+		return new Flip(new Dict(keys, cols));
+	}
+}
@@ -0,0 +1,250 @@
+package com.buabook.kdb.publisher.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.buabook.kdb.Flips;
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.exceptions.KdbTargetProcessUnavailableException;
+import com.buabook.kdb.interfaces.IKdbPublishWaitStrategy;
+import com.buabook.kdb.publisher.KdbPublishBatchSettings;
+import com.buabook.kdb.publisher.KdbPublishQueue;
+import com.buabook.kdb.publisher.KdbPublishQueue.ECapacityUnit;
+import com.buabook.kdb.publisher.KdbPublishQueue.EOverflowPolicy;
+import com.buabook.kdb.publisher.KdbPublisherThread;
+import com.buabook.kdb.publisher.KdbSpillJournal;
+import com.buabook.kdb.publisher.wait.BlockingWaitStrategy;
+import com.buabook.kdb.publisher.wait.BusySpinWaitStrategy;
+import com.buabook.kdb.publisher.wait.SleepingWaitStrategy;
+import com.buabook.kdb.publisher.wait.YieldingWaitStrategy;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbPublisherThreadTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private FakeKdbProcess server;
+	
+	/** The time, from {@link System#nanoTime()}, that each message was received by the fake kdb process */
+	private BlockingQueue<Long> received;
+	
+	/** The table of each <code>.u.upd</code> message received by the fake kdb process */
+	private BlockingQueue<Flip> messages;
+	
+	private KdbPublisherThread publisher;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		received = new ArrayBlockingQueue<>(10000);
+		messages = new ArrayBlockingQueue<>(10000);
+		
+		server = new FakeKdbProcess((connection, message) -> {
+			received.put(System.nanoTime());
+			messages.put((Flip) ((Object[]) message)[2]);
+		});
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if(publisher != null)
+			publisher.disconnect();
+		
+		server.close();
+	}
+	
+	// KdbPublisherThread.publish
+	
+	@Test
+	public void testPublishWithSleepingWaitStrategyPublishesAllTables() throws Exception {
+		assertPublishesAllTables(new SleepingWaitStrategy(1));
+	}
+	
+	@Test
+	public void testPublishWithBlockingWaitStrategyPublishesAllTables() throws Exception {
+		assertPublishesAllTables(new BlockingWaitStrategy());
+	}
+	
+	@Test
+	public void testPublishWithYieldingWaitStrategyPublishesAllTables() throws Exception {
+		assertPublishesAllTables(new YieldingWaitStrategy());
+	}
+	
+	@Test
+	public void testPublishWithBusySpinWaitStrategyPublishesAllTables() throws Exception {
+		assertPublishesAllTables(new BusySpinWaitStrategy());
+	}
+	
+	@Test
+	public void testPublishWithBlockingWaitStrategyWakesParkedPublisherThread() throws Exception {
+		publisher = startPublisher(new BlockingWaitStrategy(1, TimeUnit.HOURS));
+		
+		// Ensures the publisher thread has gone idle and parked before publishing
+		Thread.sleep(50);
+		publisher.publish(getTable());
+		
+		assertThat(received.poll(10, TimeUnit.SECONDS), is(notNullValue()));
+	}
+	
+	// KdbPublisherThread batching
+	
+	@Test
+	public void testBatchingMergesQueuedTablesIntoOneMessage() throws Exception {
+		publisher = startPublisher(new KdbPublishBatchSettings(1000, Long.MAX_VALUE, Duration.millis(500)));
+		
+		List<KdbTable> tables = new ArrayList<>();
+		
+		for(int i = 0; i < 100; i++)
+			tables.add(getTable());
+		
+		publisher.publish(tables);
+		
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(100)));
+		assertThat(tables.get(0).getRowCount(), is(equalTo(1)));
+	}
+	
+	@Test
+	public void testBatchingSplitsBatchesAtMaxRows() throws Exception {
+		publisher = startPublisher(new KdbPublishBatchSettings(4, Long.MAX_VALUE, Duration.millis(500)));
+		publisher.publish(Collections.nCopies(10, getTable()));
+		
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(4)));
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(4)));
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(2)));
+	}
+	
+	@Test
+	public void testBatchingSplitsBatchesAtMaxBytes() throws Exception {
+		// Each table is estimated as 8 bytes for the price and 6 bytes for the symbol
+		publisher = startPublisher(new KdbPublishBatchSettings(1000, 30, Duration.millis(500)));
+		publisher.publish(Collections.nCopies(3, getTable()));
+		
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(2)));
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(1)));
+	}
+	
+	@Test
+	public void testBatchingOnlyMergesConsecutiveTablesWithSameName() throws Exception {
+		KdbTable quote = new KdbTable("quote", getTable().convertToFlip());
+		
+		publisher = startPublisher(new KdbPublishBatchSettings(1000, Long.MAX_VALUE, Duration.millis(200)));
+		publisher.publish(Arrays.asList(getTable(), getTable(), quote, getTable()));
+		
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(2)));
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(1)));
+		assertThat(Flips.getRowCount(messages.poll(10, TimeUnit.SECONDS)), is(equalTo(1)));
+	}
+	
+	@Test
+	public void testBatchingDoesNotMergeTablesWithDifferentColumnTypes() throws Exception {
+		String[] keys = { "sym", "price" };
+		Object[] cols = { new String[] { "VOD.L" }, new long[] { 2 } };
+		
+		KdbTable longPrice = new KdbTable("trade", new Flip(new Dict(keys, cols)));
+		
+		publisher = startPublisher(new KdbPublishBatchSettings(1000, Long.MAX_VALUE, Duration.millis(200)));
+		publisher.publish(Arrays.asList(getTable(), longPrice, getTable()));
+		
+		assertThat((double[]) messages.poll(10, TimeUnit.SECONDS).at("price"), is(equalTo(new double[] { 1.0 })));
+		assertThat((long[]) messages.poll(10, TimeUnit.SECONDS).at("price"), is(equalTo(new long[] { 2 })));
+		assertThat((double[]) messages.poll(10, TimeUnit.SECONDS).at("price"), is(equalTo(new double[] { 1.0 })));
+		assertThat(publisher.isAlive(), is(equalTo(true)));
+	}
+	
+	// KdbPublisherThread bounded queue
+	
+	@Test
+	public void testPublishWithBoundedQueuePublishesAllTables() throws Exception {
+		KdbPublishQueue queue = new KdbPublishQueue(10, ECapacityUnit.ROWS, EOverflowPolicy.BLOCK);
+		publisher = new KdbPublisherThread(server.getProcess(), new BlockingWaitStrategy(), null, queue);
+		
+		for(int i = 0; i < 100; i++)
+			assertThat(publisher.publish(getTable()), is(equalTo(true)));
+		
+		for(int i = 0; i < 100; i++)
+			assertThat(received.poll(10, TimeUnit.SECONDS), is(notNullValue()));
+		
+		assertThat(queue.getRejectedCount(), is(equalTo(0L)));
+	}
+	
+	@Test
+	public void testPublishWithSpillQueuePublishesSpilledTablesInOrder() throws Exception {
+		KdbPublishQueue queue = new KdbPublishQueue(1, ECapacityUnit.ROWS, new KdbSpillJournal(folder.newFile().toPath(), 1024 * 1024));
+		publisher = new KdbPublisherThread(server.getProcess(), new BlockingWaitStrategy(), null, queue);
+		
+		for(int i = 0; i < 200; i++)
+			assertThat(publisher.publish(getTable(i)), is(equalTo(true)));
+		
+		for(int i = 0; i < 200; i++) {
+			Flip message = messages.poll(10, TimeUnit.SECONDS);
+			
+			assertThat(message, is(notNullValue()));
+			assertThat(((double[]) message.at("price"))[0], is(equalTo((double) i)));
+		}
+		
+		assertThat(queue.getRejectedCount(), is(equalTo(0L)));
+		
+		publisher.disconnect();
+		queue.close();
+	}
+	
+	// KdbPublisherThread.disconnect
+	
+	@Test
+	public void testDisconnectWakesBlockedPublisherThread() throws Exception {
+		publisher = startPublisher(new BlockingWaitStrategy(1, TimeUnit.MINUTES));
+		publisher.disconnect();
+		publisher.join(TimeUnit.SECONDS.toMillis(10));
+		
+		assertThat(publisher.isAlive(), is(equalTo(false)));
+	}
+	
+	
+	private void assertPublishesAllTables(IKdbPublishWaitStrategy waitStrategy) throws Exception {
+		publisher = startPublisher(waitStrategy);
+		
+		for(int i = 0; i < 100; i++)
+			publisher.publish(getTable());
+		
+		for(int i = 0; i < 100; i++)
+			assertThat(received.poll(10, TimeUnit.SECONDS), is(notNullValue()));
+	}
+	
+	private KdbPublisherThread startPublisher(IKdbPublishWaitStrategy waitStrategy) throws KdbTargetProcessUnavailableException {
+		return new KdbPublisherThread(server.getProcess(), waitStrategy);
+	}
+	
+	private KdbPublisherThread startPublisher(KdbPublishBatchSettings batchSettings) throws KdbTargetProcessUnavailableException {
+		return new KdbPublisherThread(server.getProcess(), new BlockingWaitStrategy(), batchSettings);
+	}
+	
+	private KdbTable getTable() {
+		return getTable(1.0);
+	}
+	
+	private KdbTable getTable(double price) {
+		String[] keys = { "sym", "price" };
+		Object[] cols = { new String[] { "VOD.L" }, new double[] { price } };
+		
+		return new KdbTable("trade", new Flip(new Dict(keys, cols)));
+	}
+}
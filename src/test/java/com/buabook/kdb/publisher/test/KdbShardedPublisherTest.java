@@ -0,0 +1,130 @@
+package com.buabook.kdb.publisher.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.buabook.kdb.Flips;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.publisher.KdbShardedPublisher;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbShardedPublisherTest {
+	
+	private static final String[] SYMS = { "VOD.L", "BARC.L", "HSBA.L", "LLOY.L", "RBS.L", "BP.L" };
+	
+	
+	// KdbShardedPublisher.split
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testSplitThrowsExceptionIfNoShardKeyColumn() {
+		KdbShardedPublisher.split(getTable(), "missing", 2);
+	}
+	
+	@Test
+	public void testSplitSendsEveryRowForKeyToSameShard() {
+		KdbTable[] parts = KdbShardedPublisher.split(getTable(), "sym", 3);
+		int rows = 0;
+		
+		for(int shard = 0; shard < parts.length; shard++) {
+			if(parts[shard] == null)
+				continue;
+			
+			rows += parts[shard].getRowCount();
+			
+			for(Object sym : parts[shard].getTableData().get("sym"))
+				assertThat(Math.floorMod(sym.hashCode(), 3), is(equalTo(shard)));
+		}
+		
+		assertThat(rows, is(equalTo(SYMS.length * 2)));
+	}
+	
+	@Test
+	public void testSplitKeepsRowOrderAndColumnTypes() {
+		KdbTable[] parts = KdbShardedPublisher.split(getTable(), "sym", 2);
+		KdbTable part = parts[Math.floorMod("VOD.L".hashCode(), 2)];
+		
+		List<Long> vodSizes = new ArrayList<>();
+		
+		for(int row = 0; row < part.getRowCount(); row++)
+			if(part.getTableData().get("sym").get(row).equals("VOD.L"))
+				vodSizes.add(part.getLongColumn("size").getLong(row));
+		
+		assertThat(vodSizes, contains(0L, 6L));
+		assertThat(part.getSchema().getColumnType(part.getSchema().getColumnIndex("size")), is(equalTo((Object) long.class)));
+	}
+	
+	@Test
+	public void testSplitReturnsOriginalTableIfAllRowsInOneShard() {
+		KdbTable table = getTable();
+		KdbTable[] parts = KdbShardedPublisher.split(table, "sym", 1);
+		
+		assertThat(parts[0], is(sameInstance(table)));
+	}
+	
+	// KdbShardedPublisher.publish
+	
+	@Test
+	public void testPublishSendsEachShardToItsProcess() throws Exception {
+		List<KdbProcess> processes = new ArrayList<>();
+		List<BlockingQueue<Flip>> received = new ArrayList<>();
+		List<FakeKdbProcess> servers = new ArrayList<>();
+		
+		for(int i = 0; i < 2; i++) {
+			BlockingQueue<Flip> updates = new ArrayBlockingQueue<>(100);
+			FakeKdbProcess server = new FakeKdbProcess((connection, message) -> updates.put((Flip) ((Object[]) message)[2]));
+			
+			servers.add(server);
+			received.add(updates);
+			processes.add(server.getProcess());
+		}
+		
+		KdbShardedPublisher publisher = KdbShardedPublisher.connect("sym", processes);
+		
+		try {
+			publisher.publish(getTable());
+			
+			for(int shard = 0; shard < 2; shard++) {
+				Flip update = received.get(shard).poll(10, TimeUnit.SECONDS);
+				String[] syms = (String[]) update.at("sym");
+				
+				assertThat(Flips.getRowCount(update), is(greaterThan(0)));
+				
+				for(String sym : syms)
+					assertThat(publisher.getShard(sym), is(equalTo(shard)));
+			}
+		} finally {
+			publisher.disconnect();
+			
+			for(FakeKdbProcess server : servers)
+				server.close();
+		}
+	}
+	
+	
+	private KdbTable getTable() {
+		int rows = SYMS.length * 2;
+		
+		String[] syms = new String[rows];
+		long[] sizes = new long[rows];
+		double[] prices = new double[rows];
+		
+		for(int i = 0; i < rows; i++) {
+			syms[i] = SYMS[i % SYMS.length];
+			sizes[i] = i;
+			prices[i] = i / 10.0;
+		}
+		
+		return new KdbTable("trade", new Flip(new Dict(new String[] { "sym", "size", "price" }, new Object[] { syms, sizes, prices })));
+	}
+}
@@ -0,0 +1,133 @@
+package com.buabook.kdb.publisher.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.buabook.kdb.data.KdbTable;
+import com.buabook.kdb.publisher.KdbEncodedMessage;
+import com.buabook.kdb.publisher.KdbSpillJournal;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbSpillJournalTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	
+	// KdbSpillJournal
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructorThrowsExceptionIfCapacityNotPositive() throws IOException {
+		new KdbSpillJournal(folder.newFile().toPath(), 0);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructorThrowsExceptionIfCapacityTooLarge() throws IOException {
+		new KdbSpillJournal(folder.newFile().toPath(), Integer.MAX_VALUE + 1L);
+	}
+	
+	// KdbSpillJournal.append
+	
+	@Test
+	public void testAppendReturnsFalseWhenFull() throws IOException {
+		KdbSpillJournal journal = new KdbSpillJournal(folder.newFile().toPath(), 16);
+		
+		assertThat(journal.append(KdbEncodedMessage.encode(getTable(1))), is(equalTo(false)));
+		assertThat(journal.isEmpty(), is(equalTo(true)));
+		
+		journal.close();
+	}
+	
+	// KdbSpillJournal.read
+	
+	@Test
+	public void testReadReturnsMessagesInOrder() throws IOException {
+		KdbSpillJournal journal = new KdbSpillJournal(folder.newFile().toPath(), 4096);
+		
+		for(int rows = 1; rows <= 3; rows++)
+			assertThat(journal.append(KdbEncodedMessage.encode(getTable(rows))), is(equalTo(true)));
+		
+		assertThat(journal.getMessageCount(), is(equalTo(3)));
+		
+		for(int rows = 1; rows <= 3; rows++) {
+			KdbEncodedMessage message = journal.read();
+			
+			assertThat(message.getTableName(), is(equalTo("trade")));
+			assertThat(message.getRowCount(), is(equalTo(rows)));
+			assertThat(message.getLength(), is(equalTo(KdbEncodedMessage.encode(getTable(rows)).getLength())));
+			
+			journal.skip();
+		}
+		
+		assertThat(journal.read(), is(nullValue()));
+		
+		journal.close();
+	}
+	
+	@Test
+	public void testReadDoesNotRemoveMessage() throws IOException {
+		KdbSpillJournal journal = new KdbSpillJournal(folder.newFile().toPath(), 4096);
+		journal.append(KdbEncodedMessage.encode(getTable(2)));
+		
+		assertThat(journal.read().getRowCount(), is(equalTo(2)));
+		assertThat(journal.read().getRowCount(), is(equalTo(2)));
+		assertThat(journal.getMessageCount(), is(equalTo(1)));
+		
+		journal.close();
+	}
+	
+	// KdbSpillJournal.skip
+	
+	@Test
+	public void testSkipResetsJournalWhenDrained() throws IOException {
+		KdbSpillJournal journal = new KdbSpillJournal(folder.newFile().toPath(), 4096);
+		
+		journal.append(KdbEncodedMessage.encode(getTable(1)));
+		journal.append(KdbEncodedMessage.encode(getTable(2)));
+		journal.skip();
+		
+		assertThat(journal.getUsedBytes(), is(greaterThan(0L)));
+		
+		journal.skip();
+		
+		assertThat(journal.isEmpty(), is(equalTo(true)));
+		assertThat(journal.getUsedBytes(), is(equalTo(0L)));
+		
+		journal.close();
+	}
+	
+	// KdbSpillJournal.close
+	
+	@Test
+	public void testCloseDeletesFile() throws IOException {
+		Path file = folder.newFile().toPath();
+		new KdbSpillJournal(file, 1024).close();
+		
+		assertThat(Files.exists(file), is(equalTo(false)));
+	}
+	
+	
+	private KdbTable getTable(int rows) {
+		String[] syms = new String[rows];
+		double[] prices = new double[rows];
+		
+		for(int i = 0; i < rows; i++) {
+			syms[i] = "VOD.L";
+			prices[i] = i;
+		}
+		
+		String[] keys = { "sym", "price" };
+		Object[] cols = { syms, prices };
+		
+		return new KdbTable("trade", new Flip(new Dict(keys, cols)));
+	}
+}
@@ -0,0 +1,90 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.exceptions.QueryTimeoutException;
+import com.buabook.kdb.query.KdbAsyncQuery;
+import com.buabook.kdb.test.FakeKdbProcess;
+
+public class KdbAsyncQueryTest {
+	
+	/** The time the fake kdb process takes to answer the <code>slow</code> query */
+	private static final long SLOW_QUERY_TIME_MS = 500;
+	
+	
+	private FakeKdbProcess server;
+	
+	private KdbAsyncQuery query;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		server = new FakeKdbProcess((connection, received) -> {
+			if(new String((char[]) received).equals("slow"))
+				Thread.sleep(SLOW_QUERY_TIME_MS);
+			
+			// The response to an asynchronous query is sent asynchronously, as by neg[.z.w]
+			connection.ks(received);
+		});
+		
+		query = new KdbAsyncQuery(server.getProcess());
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		query.close();
+		server.close();
+	}
+	
+	// KdbAsyncQuery.query
+	
+	@Test
+	public void testQueryWithTimeoutThrowsExceptionAndReconnectsOnNextQuery() throws Exception {
+		try {
+			query.query("slow", null, Duration.millis(50));
+			throw new AssertionError("Expected QueryTimeoutException");
+		} catch (QueryTimeoutException e) {}
+		
+		assertThat(new String((char[]) query.query("fast")), is(equalTo("fast")));
+	}
+	
+	@Test(expected=QueryTimeoutException.class)
+	public void testQueryThrowsExceptionWhenDefaultReadTimeoutExceeded() throws Exception {
+		query.setDefaultReadTimeout(Duration.millis(50));
+		query.query("slow");
+	}
+	
+	@Test
+	public void testQueryWithTimeoutOverridesDefaultReadTimeout() throws Exception {
+		query.setDefaultReadTimeout(Duration.millis(50));
+		
+		assertThat(new String((char[]) query.query("slow", null, Duration.standardSeconds(10))), is(equalTo("slow")));
+		assertThat(query.getDefaultReadTimeout(), is(equalTo(Duration.millis(50))));
+	}
+	
+	@Test
+	public void testSetDefaultReadTimeoutIsRetainedAcrossReconnect() throws Exception {
+		query.setDefaultReadTimeout(Duration.millis(50));
+		
+		try {
+			query.query("slow");
+		} catch (QueryTimeoutException e) {}
+		
+		long start = System.currentTimeMillis();
+		
+		try {
+			query.query("slow");
+			throw new AssertionError("Expected QueryTimeoutException");
+		} catch (QueryTimeoutException e) {}
+		
+		assertThat(System.currentTimeMillis() - start, is(lessThan(SLOW_QUERY_TIME_MS)));
+	}
+}
@@ -0,0 +1,201 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.query.KdbCachingQuery;
+import com.buabook.kdb.query.KdbQueryCacheSettings;
+import com.buabook.kdb.query.KdbQueryCacheSettings.EEvictionPolicy;
+import com.buabook.kdb.query.KdbSyncQuery;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c;
+
+public class KdbCachingQueryTest {
+	
+	/** Room for two cached results of the single character queries used by these tests */
+	private static final long TWO_ENTRIES_BYTES = 50;
+	
+	
+	private FakeKdbProcess server;
+	
+	/** The number of queries received by the fake kdb process, which is also the result of each query */
+	private AtomicLong queryCount;
+	
+	private KdbCachingQuery query;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		queryCount = new AtomicLong();
+		server = new FakeKdbProcess((connection, message) -> connection.kr(new long[] { queryCount.incrementAndGet() }));
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if(query != null)
+			query.close();
+		
+		server.close();
+	}
+	
+	// KdbCachingQuery.query
+	
+	@Test
+	public void testQueryReturnsCachedResult() throws Exception {
+		query = getQuery(1024, Duration.standardMinutes(1), EEvictionPolicy.LRU);
+		
+		assertThat(query.query("refData[]"), is(equalTo((Object) new long[] { 1 })));
+		assertThat(query.query("refData[]"), is(equalTo((Object) new long[] { 1 })));
+		
+		assertThat(queryCount.get(), is(equalTo(1L)));
+		assertThat(query.getHitCount(), is(equalTo(1L)));
+		assertThat(query.getMissCount(), is(equalTo(1L)));
+	}
+	
+	@Test
+	public void testQueryKeysByArguments() throws Exception {
+		query = getQuery(1024, Duration.standardMinutes(1), EEvictionPolicy.LRU);
+		
+		query.query("eod", getArguments("VOD.L"));
+		query.query("eod", getArguments("BARC.L"));
+		
+		assertThat(query.query("eod", getArguments("VOD.L")), is(equalTo((Object) new long[] { 1 })));
+		assertThat(queryCount.get(), is(equalTo(2L)));
+		assertThat(query.getEntryCount(), is(equalTo(2)));
+	}
+	
+	@Test
+	public void testQueryReturnsCopyOfCachedResult() throws Exception {
+		query = getQuery(1024, Duration.standardMinutes(1), EEvictionPolicy.LRU);
+		
+		((long[]) query.query("refData[]"))[0] = 99;
+		((long[]) query.query("refData[]"))[0] = 99;
+		
+		assertThat(query.query("refData[]"), is(equalTo((Object) new long[] { 1 })));
+	}
+	
+	@Test
+	public void testQueryRunsQueryAgainOnceExpired() throws Exception {
+		query = getQuery(1024, Duration.standardMinutes(1), EEvictionPolicy.LRU);
+		
+		query.query("refData[]", null, Duration.millis(20));
+		Thread.sleep(50);
+		
+		assertThat(query.query("refData[]"), is(equalTo((Object) new long[] { 2 })));
+		assertThat(query.getMissCount(), is(equalTo(2L)));
+		assertThat(query.getEvictionCount(), is(equalTo(0L)));
+	}
+	
+	@Test
+	public void testQueryWithLruEvictsLeastRecentlyUsed() throws Exception {
+		query = getQuery(TWO_ENTRIES_BYTES, Duration.standardMinutes(1), EEvictionPolicy.LRU);
+		
+		query.query("a");
+		query.query("a");
+		query.query("b");
+		query.query("c");
+		
+		assertThat(query.getEvictionCount(), is(equalTo(1L)));
+		
+		query.query("b");
+		assertThat(queryCount.get(), is(equalTo(3L)));
+		
+		query.query("a");
+		assertThat(queryCount.get(), is(equalTo(4L)));
+	}
+	
+	@Test
+	public void testQueryWithLfuEvictsLeastFrequentlyUsed() throws Exception {
+		query = getQuery(TWO_ENTRIES_BYTES, Duration.standardMinutes(1), EEvictionPolicy.LFU);
+		
+		query.query("a");
+		query.query("a");
+		query.query("b");
+		query.query("c");
+		
+		assertThat(query.getEvictionCount(), is(equalTo(1L)));
+		
+		query.query("a");
+		assertThat(queryCount.get(), is(equalTo(3L)));
+		
+		query.query("b");
+		assertThat(queryCount.get(), is(equalTo(4L)));
+	}
+	
+	@Test
+	public void testQueryDoesNotCacheResultLargerThanCache() throws Exception {
+		query = getQuery(10, Duration.standardMinutes(1), EEvictionPolicy.LRU);
+		
+		query.query("refData[]");
+		query.query("refData[]");
+		
+		assertThat(queryCount.get(), is(equalTo(2L)));
+		assertThat(query.getUsedBytes(), is(equalTo(0L)));
+	}
+	
+	@Test
+	public void testQueryReturnsResultThatCannotBeSerialisedWithoutCaching() throws Exception {
+		Object unsupported = new Object();
+		
+		KdbSyncQuery delegate = new KdbSyncQuery(server.getProcess()) {
+			@Override
+			public Object query(String query, KdbDict arguments) {
+				queryCount.incrementAndGet();
+				return unsupported;
+			}
+		};
+		
+		query = new KdbCachingQuery(delegate, new KdbQueryCacheSettings(1024, Duration.standardMinutes(1), EEvictionPolicy.LRU));
+		
+		assertThat(query.query("refData[]"), is(sameInstance(unsupported)));
+		assertThat(query.query("refData[]"), is(sameInstance(unsupported)));
+		
+		assertThat(queryCount.get(), is(equalTo(2L)));
+		assertThat(query.getEntryCount(), is(equalTo(0)));
+	}
+	
+	// KdbCachingQuery.invalidate
+	
+	@Test
+	public void testInvalidateRemovesCachedResult() throws Exception {
+		query = getQuery(1024, Duration.standardMinutes(1), EEvictionPolicy.LRU);
+		
+		query.query("eod", getArguments("VOD.L"));
+		query.invalidate("eod", getArguments("VOD.L"));
+		
+		assertThat(query.getEntryCount(), is(equalTo(0)));
+		assertThat(query.getUsedBytes(), is(equalTo(0L)));
+	}
+	
+	// KdbCachingQuery.setDefaultReadTimeout
+	
+	@Test
+	public void testSetDefaultReadTimeoutSetsTimeoutOfWrappedQuery() throws Exception {
+		KdbSyncQuery delegate = new KdbSyncQuery(server.getProcess());
+		query = new KdbCachingQuery(delegate, new KdbQueryCacheSettings(1024, Duration.standardMinutes(1), EEvictionPolicy.LRU));
+		
+		query.setDefaultReadTimeout(Duration.millis(50));
+		
+		assertThat(delegate.getDefaultReadTimeout(), is(equalTo(Duration.millis(50))));
+		assertThat(query.getDefaultReadTimeout(), is(equalTo(Duration.millis(50))));
+	}
+	
+	
+	private KdbCachingQuery getQuery(long maxBytes, Duration timeToLive, EEvictionPolicy evictionPolicy) throws Exception {
+		KdbSyncQuery delegate = new KdbSyncQuery(server.getProcess());
+		return new KdbCachingQuery(delegate, new KdbQueryCacheSettings(maxBytes, timeToLive, evictionPolicy));
+	}
+	
+	private KdbDict getArguments(String sym) {
+		return new KdbDict().add("sym", sym);
+	}
+}
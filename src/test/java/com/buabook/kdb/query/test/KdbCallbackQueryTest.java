@@ -0,0 +1,232 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.interfaces.IKdbQueryCallback;
+import com.buabook.kdb.query.KdbCallbackQuery;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c;
+import com.kx.c.Dict;
+
+public class KdbCallbackQueryTest {
+	
+	/** The time the fake kdb process takes to answer the <code>slow</code> query */
+	private static final long SLOW_QUERY_TIME_MS = 300;
+	
+	
+	private FakeKdbProcess server;
+	
+	/** The requests received by the fake kdb process */
+	private BlockingQueue<Object[]> received;
+	
+	private KdbCallbackQuery query;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		received = new ArrayBlockingQueue<>(100);
+		
+		// Each request is answered asynchronously on its own thread, so fast queries are answered before slow queries sent earlier
+		server = new FakeKdbProcess((connection, message) -> {
+			Object[] request = (Object[]) message;
+			received.put(request);
+			
+			Thread responder = new Thread(() -> respond(connection, request));
+			responder.setDaemon(true);
+			responder.start();
+		});
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if(query != null)
+			query.close();
+		
+		server.close();
+	}
+	
+	// KdbCallbackQuery.submit
+	
+	@Test
+	public void testSubmitSendsQueryWithCorrelationIdToHandler() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess());
+		
+		assertThat(query.submit("fast").get(10, TimeUnit.SECONDS), is(equalTo((Object) "fast")));
+		
+		Object[] request = received.poll(10, TimeUnit.SECONDS);
+		
+		assertThat(new String((char[]) request[0]), is(equalTo(KdbCallbackQuery.DEFAULT_HANDLER)));
+		assertThat(request[1], is(instanceOf(Long.class)));
+		assertThat(new String((char[]) request[2]), is(equalTo("fast")));
+		assertThat(((Object[]) request[3]).length, is(equalTo(0)));
+	}
+	
+	@Test
+	public void testSubmitSendsArgumentsAndCustomHandler() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess(), ".gw.callback");
+		
+		query.submit("analytic", new KdbDict().add("sym", "VOD.L")).get(10, TimeUnit.SECONDS);
+		
+		Object[] request = received.poll(10, TimeUnit.SECONDS);
+		
+		assertThat(new String((char[]) request[0]), is(equalTo(".gw.callback")));
+		assertThat(request[3], is(instanceOf(Dict.class)));
+	}
+	
+	@Test
+	public void testSubmitCompletesQueriesInResponseOrder() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess());
+		
+		CompletableFuture<Object> slow = query.submit("slow");
+		CompletableFuture<Object> fast = query.submit("fast");
+		
+		assertThat(fast.get(10, TimeUnit.SECONDS), is(equalTo((Object) "fast")));
+		assertThat(slow.isDone(), is(equalTo(false)));
+		assertThat(query.getOutstandingCount(), is(equalTo(1)));
+		
+		assertThat(slow.get(10, TimeUnit.SECONDS), is(equalTo((Object) "slow")));
+		assertThat(query.getOutstandingCount(), is(equalTo(0)));
+	}
+	
+	@Test
+	public void testSubmitPassesResultToCallback() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess());
+		BlockingQueue<Object> results = new ArrayBlockingQueue<>(2);
+		
+		long correlationId = query.submit("fast", null, new IKdbQueryCallback() {
+			
+			@Override
+			public void onResult(long id, Object result) {
+				results.add(id);
+				results.add(result);
+			}
+			
+			@Override
+			public void onFailure(long id, QueryExecutionFailedException cause) {}
+		});
+		
+		assertThat(results.poll(10, TimeUnit.SECONDS), is(equalTo((Object) correlationId)));
+		assertThat(results.poll(10, TimeUnit.SECONDS), is(equalTo((Object) "fast")));
+	}
+	
+	@Test
+	public void testSubmitFailsQueryWithErrorResponse() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess());
+		
+		try {
+			query.submit("fail").get(10, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(instanceOf(QueryExecutionFailedException.class)));
+			assertThat(e.getCause().getMessage(), containsString("type"));
+			return;
+		}
+		
+		throw new AssertionError("Expected ExecutionException");
+	}
+	
+	@Test
+	public void testSubmitFailsOutstandingQueriesWhenConnectionLost() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess());
+		
+		CompletableFuture<Object> hang = query.submit("hang");
+		received.poll(10, TimeUnit.SECONDS);
+		
+		query.close();
+		
+		try {
+			hang.get(10, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(instanceOf(QueryExecutionFailedException.class)));
+			return;
+		}
+		
+		throw new AssertionError("Expected ExecutionException");
+	}
+	
+	@Test
+	public void testSubmitReconnectsAfterClose() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess());
+		
+		assertThat(query.query("before"), is(equalTo((Object) "before")));
+		
+		query.close();
+		
+		assertThat(query.query("after"), is(equalTo((Object) "after")));
+		assertThat(query.getOutstandingCount(), is(equalTo(0)));
+	}
+	
+	// KdbCallbackQuery.cancel
+	
+	@Test
+	public void testCancelFailsCallbackAndIgnoresLateResponse() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess());
+		BlockingQueue<Object> results = new ArrayBlockingQueue<>(2);
+		
+		long correlationId = query.submit("slow", null, new IKdbQueryCallback() {
+			
+			@Override
+			public void onResult(long id, Object result) {
+				results.add(result);
+			}
+			
+			@Override
+			public void onFailure(long id, QueryExecutionFailedException cause) {
+				results.add(cause);
+			}
+		});
+		
+		assertThat(query.cancel(correlationId), is(equalTo(true)));
+		assertThat(query.getOutstandingCount(), is(equalTo(0)));
+		
+		Object cancelled = results.poll(10, TimeUnit.SECONDS);
+		
+		assertThat(cancelled, is(instanceOf(QueryExecutionFailedException.class)));
+		assertThat(((QueryExecutionFailedException) cancelled).getCause(), is(instanceOf(CancellationException.class)));
+		
+		assertThat(results.poll(SLOW_QUERY_TIME_MS * 2, TimeUnit.MILLISECONDS), is(nullValue()));
+		assertThat(query.query("fast"), is(equalTo((Object) "fast")));
+	}
+	
+	// KdbCallbackQuery.query
+	
+	@Test(expected=QueryExecutionFailedException.class)
+	public void testQueryThrowsExceptionForErrorResponse() throws Exception {
+		query = new KdbCallbackQuery(server.getProcess());
+		query.query("fail");
+	}
+	
+	
+	/** Sends <code>(id; success; result)</code> as the default handler would, echoing the query as the result */
+	private void respond(c connection, Object[] request) {
+		String queryString = new String((char[]) request[2]);
+		
+		try {
+			if(queryString.equals("hang"))
+				return;
+			
+			if(queryString.equals("slow"))
+				Thread.sleep(SLOW_QUERY_TIME_MS);
+			
+			Object[] response = queryString.equals("fail") ? new Object[] { request[1], false, "type" } : new Object[] { request[1], true, queryString };
+			
+			synchronized (connection) {
+				connection.ks(response);
+			}
+		} catch (IOException | InterruptedException e) {}
+	}
+}
@@ -0,0 +1,275 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.connection.KdbConnectionPool;
+import com.buabook.kdb.connection.KdbConnectionPoolSettings;
+import com.buabook.kdb.data.KdbDict;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.exceptions.QueryTimeoutException;
+import com.buabook.kdb.query.KdbCoalescingQuery;
+import com.buabook.kdb.query.KdbPooledSyncQuery;
+import com.buabook.kdb.query.KdbSyncQuery;
+import com.buabook.kdb.test.FakeKdbProcess;
+
+public class KdbCoalescingQueryTest {
+	
+	private FakeKdbProcess server;
+	
+	/** The queries received by the fake kdb process, on any connection */
+	private BlockingQueue<Object> received;
+	
+	/** A permit is required for the fake kdb process to respond to each query */
+	private Semaphore responses;
+	
+	/** The number of queries received by the fake kdb process, which is also the result of each query */
+	private AtomicLong queryCount;
+	
+	private KdbConnectionPool pool;
+	
+	private KdbCoalescingQuery query;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		received = new ArrayBlockingQueue<>(1000);
+		responses = new Semaphore(0);
+		queryCount = new AtomicLong();
+		
+		server = new FakeKdbProcess((connection, request) -> {
+			long count = queryCount.incrementAndGet();
+			
+			received.put(request);
+			responses.acquire();
+			
+			if(request instanceof char[] && new String((char[]) request).equals("fail"))
+				connection.ke("fail");
+			else
+				connection.kr(new long[] { count });
+		});
+		
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 4, Duration.standardSeconds(10), null));
+		query = new KdbCoalescingQuery(new KdbPooledSyncQuery(pool, server.getProcess()));
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		responses.release(1000);
+		
+		query.close();
+		pool.close();
+		
+		server.close();
+	}
+	
+	// KdbCoalescingQuery
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructorThrowsExceptionIfNoQuery() {
+		new KdbCoalescingQuery(null);
+	}
+	
+	// KdbCoalescingQuery.query
+	
+	@Test
+	public void testQuerySendsIdenticalConcurrentQueriesOnce() throws Exception {
+		List<CompletableFuture<Object>> results = submitConcurrently("refData[]", null, 5);
+		
+		responses.release();
+		
+		for(CompletableFuture<Object> result : results)
+			assertThat(result.get(10, TimeUnit.SECONDS), is(equalTo((Object) new long[] { 1 })));
+		
+		assertThat(queryCount.get(), is(equalTo(1L)));
+		assertThat(query.getSentCount(), is(equalTo(1L)));
+		assertThat(query.getCoalescedCount(), is(equalTo(4L)));
+		assertThat(query.getInFlightCount(), is(equalTo(0)));
+	}
+	
+	@Test
+	public void testQueryDoesNotCoalesceDifferentArguments() throws Exception {
+		CompletableFuture<Object> first = submit("eod", new KdbDict().add("sym", "VOD.L"));
+		received.poll(10, TimeUnit.SECONDS);
+		
+		CompletableFuture<Object> second = submit("eod", new KdbDict().add("sym", "BARC.L"));
+		assertThat(received.poll(10, TimeUnit.SECONDS), is(notNullValue()));
+		
+		responses.release(2);
+		
+		first.get(10, TimeUnit.SECONDS);
+		second.get(10, TimeUnit.SECONDS);
+		
+		assertThat(query.getSentCount(), is(equalTo(2L)));
+		assertThat(query.getCoalescedCount(), is(equalTo(0L)));
+	}
+	
+	@Test
+	public void testQueryDoesNotCoalesceCompletedQuery() throws Exception {
+		responses.release(2);
+		
+		assertThat(query.query("refData[]"), is(equalTo((Object) new long[] { 1 })));
+		assertThat(query.query("refData[]"), is(equalTo((Object) new long[] { 2 })));
+		assertThat(query.getCoalescedCount(), is(equalTo(0L)));
+	}
+	
+	@Test
+	public void testQueryFailsAllCoalescedQueries() throws Exception {
+		List<CompletableFuture<Object>> results = submitConcurrently("fail", null, 3);
+		
+		responses.release();
+		
+		for(CompletableFuture<Object> result : results) {
+			try {
+				result.get(10, TimeUnit.SECONDS);
+			} catch (ExecutionException e) {
+				assertThat(e.getCause().getCause(), is(instanceOf(QueryExecutionFailedException.class)));
+				continue;
+			}
+			
+			throw new AssertionError("Coalesced query did not fail");
+		}
+		
+		assertThat(queryCount.get(), is(equalTo(1L)));
+		assertThat(query.getInFlightCount(), is(equalTo(0)));
+	}
+	
+	@Test
+	public void testQueryFailsCoalescedQueriesIfQueryThrowsError() throws Exception {
+		query.close();
+		query = new KdbCoalescingQuery(getBlockingQuery(new AssertionError("Query failed")));
+		
+		List<CompletableFuture<Object>> results = submitConcurrently("refData[]", null, 3);
+		
+		responses.release();
+		
+		for(CompletableFuture<Object> result : results.subList(1, results.size())) {
+			try {
+				result.get(10, TimeUnit.SECONDS);
+			} catch (ExecutionException e) {
+				assertThat(e.getCause().getCause(), is(instanceOf(QueryExecutionFailedException.class)));
+				continue;
+			}
+			
+			throw new AssertionError("Coalesced query did not fail");
+		}
+		
+		assertThat(query.getInFlightCount(), is(equalTo(0)));
+	}
+	
+	@Test
+	public void testQueryCoalescedQueriesWaitNoLongerThanDefaultReadTimeout() throws Exception {
+		query.close();
+		
+		KdbSyncQuery delegate = getBlockingQuery(null);
+		delegate.setDefaultReadTimeout(Duration.millis(100));
+		
+		query = new KdbCoalescingQuery(delegate);
+		
+		List<CompletableFuture<Object>> results = submitConcurrently("refData[]", null, 2);
+		
+		try {
+			results.get(1).get(10, TimeUnit.SECONDS);
+			throw new AssertionError("Coalesced query did not time out");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause().getCause(), is(instanceOf(QueryTimeoutException.class)));
+		}
+		
+		assertThat(results.get(0).isDone(), is(equalTo(false)));
+		
+		responses.release();
+		assertThat(results.get(0).get(10, TimeUnit.SECONDS), is(equalTo((Object) "refData[]")));
+	}
+	
+	// KdbCoalescingQuery.setDefaultReadTimeout
+	
+	@Test
+	public void testSetDefaultReadTimeoutIgnoredIfWrappedQueryHasNoDefaultReadTimeout() {
+		query.setDefaultReadTimeout(Duration.millis(50));
+		
+		assertThat(query.getDefaultReadTimeout(), is(nullValue()));
+	}
+	
+	// KdbCoalescingQuery.getDefaultReadTimeout
+	
+	@Test
+	public void testGetDefaultReadTimeoutReturnsPoolReadTimeoutOfWrappedQuery() throws Exception {
+		KdbConnectionPoolSettings settings = new KdbConnectionPoolSettings(0, 1, Duration.standardSeconds(10), null, Duration.millis(50), false);
+		
+		try(KdbConnectionPool timeoutPool = new KdbConnectionPool(settings);
+				KdbCoalescingQuery timeoutQuery = new KdbCoalescingQuery(new KdbPooledSyncQuery(timeoutPool, server.getProcess()))) {
+			assertThat(timeoutQuery.getDefaultReadTimeout(), is(equalTo(Duration.millis(50))));
+		}
+	}
+	
+	
+	/** 
+	 * @return A query that waits for a response permit without querying the fake kdb process, then throws the error, or returns
+	 * the query if none
+	 */
+	private KdbSyncQuery getBlockingQuery(Error error) throws Exception {
+		return new KdbSyncQuery(server.getProcess()) {
+			@Override
+			public Object query(String query, KdbDict arguments) {
+				received.add(query);
+				responses.acquireUninterruptibly();
+				
+				if(error != null)
+					throw error;
+				
+				return query;
+			}
+		};
+	}
+	
+	/** 
+	 * Submits the query once and waits for it to reach the fake kdb process, then submits it again the specified number of
+	 * times less one and waits for these to be coalesced
+	 */
+	private List<CompletableFuture<Object>> submitConcurrently(String queryString, KdbDict arguments, int count) throws Exception {
+		List<CompletableFuture<Object>> results = new ArrayList<>();
+		
+		results.add(submit(queryString, arguments));
+		assertThat(received.poll(10, TimeUnit.SECONDS), is(notNullValue()));
+		
+		for(int i = 1; i < count; i++)
+			results.add(submit(queryString, arguments));
+		
+		long deadline = System.currentTimeMillis() + 10000;
+		
+		while(query.getCoalescedCount() < count - 1 && System.currentTimeMillis() < deadline)
+			Thread.sleep(5);
+		
+		return results;
+	}
+	
+	private CompletableFuture<Object> submit(String queryString, KdbDict arguments) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return query.query(queryString, arguments);
+			} catch (QueryExecutionFailedException e) {
+				throw new RuntimeException(e);
+			}
+		}, runnable -> {
+			Thread thread = new Thread(runnable);
+			thread.setDaemon(true);
+			thread.start();
+		});
+	}
+}
@@ -0,0 +1,141 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.query.KdbPipelinedQuery;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c.KException;
+
+public class KdbPipelinedQueryTest {
+	
+	/** The fake kdb process reads this many requests before answering any of them */
+	private static final int BURST = 3;
+	
+	
+	private FakeKdbProcess server;
+	
+	private KdbPipelinedQuery query;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		// Only read by the reader thread of the current connection, as each connection is closed before the next is opened
+		List<String> requests = Collections.synchronizedList(new ArrayList<>());
+		
+		server = new FakeKdbProcess((connection, message) -> {
+			requests.add(new String((char[]) message));
+			
+			if(requests.size() < BURST)
+				return;
+			
+			try {
+				for(String request : requests) {
+					if(request.equals("close")) {
+						connection.close();
+						return;
+					}
+					
+					if(request.equals("fail"))
+						connection.ke("type");
+					else
+						connection.kr(request);
+				}
+			} finally {
+				requests.clear();
+			}
+		});
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if(query != null)
+			query.close();
+		
+		server.close();
+	}
+	
+	// KdbPipelinedQuery.submit
+	
+	@Test
+	public void testSubmitSendsQueriesWithoutWaitingForResponses() throws Exception {
+		query = new KdbPipelinedQuery(server.getProcess());
+		
+		List<CompletableFuture<Object>> results = new ArrayList<>();
+		
+		// The fake process only answers once all of these have been received
+		for(int i = 0; i < BURST * 100; i++)
+			results.add(query.submit("query-" + i));
+		
+		for(int i = 0; i < results.size(); i++)
+			assertThat(results.get(i).get(10, TimeUnit.SECONDS), is(equalTo((Object) ("query-" + i))));
+		
+		assertThat(query.getOutstandingCount(), is(equalTo(0)));
+	}
+	
+	@Test
+	public void testSubmitFailsOnlyQueryWithErrorResponse() throws Exception {
+		query = new KdbPipelinedQuery(server.getProcess());
+		
+		CompletableFuture<Object> first = query.submit("first");
+		CompletableFuture<Object> failed = query.submit("fail");
+		CompletableFuture<Object> last = query.submit("last");
+		
+		assertThat(first.get(10, TimeUnit.SECONDS), is(equalTo((Object) "first")));
+		assertThat(last.get(10, TimeUnit.SECONDS), is(equalTo((Object) "last")));
+		
+		try {
+			failed.get(10, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(instanceOf(QueryExecutionFailedException.class)));
+			assertThat(e.getCause().getCause(), is(instanceOf(KException.class)));
+			return;
+		}
+		
+		throw new AssertionError("Expected query to fail");
+	}
+	
+	@Test
+	public void testSubmitFailsOutstandingQueriesWhenConnectionLost() throws Exception {
+		query = new KdbPipelinedQuery(server.getProcess());
+		
+		List<CompletableFuture<Object>> results = new ArrayList<>();
+		
+		results.add(query.submit("close"));
+		results.add(query.submit("pending"));
+		results.add(query.submit("pending"));
+		
+		for(CompletableFuture<Object> result : results) {
+			try {
+				result.get(10, TimeUnit.SECONDS);
+				throw new AssertionError("Expected query to fail");
+			} catch (ExecutionException e) {
+				assertThat(e.getCause(), is(instanceOf(QueryExecutionFailedException.class)));
+			}
+		}
+	}
+	
+	// KdbPipelinedQuery.query
+	
+	@Test(expected=QueryExecutionFailedException.class)
+	public void testQueryThrowsExceptionForErrorResponse() throws Exception {
+		query = new KdbPipelinedQuery(server.getProcess());
+		
+		query.submit("first");
+		query.submit("second");
+		query.query("fail");
+	}
+}
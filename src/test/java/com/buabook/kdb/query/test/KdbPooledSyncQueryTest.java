@@ -0,0 +1,136 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.connection.KdbConnectionPool;
+import com.buabook.kdb.connection.KdbConnectionPoolSettings;
+import com.buabook.kdb.exceptions.KdbConnectionLeaseTimeoutException;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.exceptions.QueryTimeoutException;
+import com.buabook.kdb.query.KdbPooledSyncQuery;
+import com.buabook.kdb.test.FakeKdbProcess;
+
+public class KdbPooledSyncQueryTest {
+	
+	/** The time the fake kdb process takes to answer each query */
+	private static final long QUERY_TIME_MS = 100;
+	
+	private static final int CALLERS = 4;
+	
+	
+	private FakeKdbProcess server;
+	
+	private KdbConnectionPool pool;
+	
+	private KdbPooledSyncQuery query;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		server = new FakeKdbProcess((connection, received) -> {
+			Thread.sleep(QUERY_TIME_MS);
+			connection.kr(received);
+		});
+		
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, CALLERS, Duration.standardSeconds(10), null));
+		query = new KdbPooledSyncQuery(pool, server.getProcess());
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		pool.close();
+		server.close();
+	}
+	
+	// KdbPooledSyncQuery.query
+	
+	@Test
+	public void testQueryReturnsResultAndReleasesConnection() throws QueryExecutionFailedException {
+		assertThat(new String((char[]) query.query("1+1")), is(equalTo("1+1")));
+		assertThat(pool.getLeasedCount(query.getTarget()), is(equalTo(0)));
+		assertThat(pool.getIdleCount(query.getTarget()), is(equalTo(1)));
+	}
+	
+	@Test
+	public void testQueryRunsConcurrentCallersOnSeparateConnections() throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		List<Future<Object>> results = new ArrayList<>();
+		
+		long start = System.nanoTime();
+		
+		for(int i = 0; i < CALLERS; i++)
+			results.add(callers.submit(() -> query.query("1+1")));
+		
+		for(Future<Object> result : results)
+			assertThat(result.get(10, TimeUnit.SECONDS), is(notNullValue()));
+		
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		callers.shutdown();
+		
+		// Serialised on a single connection this would take CALLERS * QUERY_TIME_MS
+		assertThat(elapsedMs, is(lessThan(CALLERS * QUERY_TIME_MS - QUERY_TIME_MS)));
+		assertThat(pool.getIdleCount(query.getTarget()), is(equalTo(CALLERS)));
+	}
+	
+	@Test
+	public void testQueryThrowsExceptionWhenNoConnectionAvailable() throws Exception {
+		KdbConnectionPool singlePool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 1, Duration.millis(10), null));
+		KdbPooledSyncQuery singleQuery = new KdbPooledSyncQuery(singlePool, query.getTarget());
+		
+		singlePool.lease(query.getTarget());
+		
+		try {
+			singleQuery.query("1+1");
+		} catch (QueryExecutionFailedException e) {
+			assertThat(e.getCause(), is(instanceOf(KdbConnectionLeaseTimeoutException.class)));
+			return;
+		} finally {
+			singlePool.close();
+		}
+		
+		throw new AssertionError("Expected QueryExecutionFailedException");
+	}
+	
+	@Test
+	public void testQueryWithTimeoutDiscardsConnectionAndRefillsInBackground() throws Exception {
+		pool.close();
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(1, CALLERS, Duration.standardSeconds(10), null, null, true));
+		query = new KdbPooledSyncQuery(pool, query.getTarget());
+		
+		try {
+			query.query("1+1", null, Duration.millis(QUERY_TIME_MS / 5));
+			throw new AssertionError("Expected QueryTimeoutException");
+		} catch (QueryTimeoutException e) {}
+		
+		long deadline = System.currentTimeMillis() + 10000;
+		
+		while(pool.getIdleCount(query.getTarget()) == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(5);
+		
+		assertThat(pool.getIdleCount(query.getTarget()), is(equalTo(1)));
+		assertThat(query.query("1+1"), is(notNullValue()));
+	}
+	
+	@Test(expected=QueryTimeoutException.class)
+	public void testQueryThrowsExceptionWhenPoolReadTimeoutExceeded() throws Exception {
+		pool.close();
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, CALLERS, Duration.standardSeconds(10), null, Duration.millis(QUERY_TIME_MS / 5), false));
+		query = new KdbPooledSyncQuery(pool, query.getTarget());
+		
+		query.query("1+1");
+	}
+}
@@ -0,0 +1,143 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.connection.KdbConnectionPool;
+import com.buabook.kdb.connection.KdbConnectionPoolSettings;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.query.KdbReplicatedQuery;
+import com.buabook.kdb.query.KdbReplicatedQuerySettings;
+import com.buabook.kdb.test.FakeKdbProcess;
+
+public class KdbReplicatedQueryTest {
+	
+	private List<FakeKdbProcess> servers;
+	
+	/** The response delay of each fake kdb process, in milliseconds */
+	private List<AtomicLong> delays;
+	
+	private KdbConnectionPool pool;
+	
+	private KdbReplicatedQuery query;
+	
+	
+	@Before
+	public void setUp() {
+		servers = new ArrayList<>();
+		delays = new ArrayList<>();
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 4, Duration.standardSeconds(10), null));
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if(query != null)
+			query.close();
+		
+		pool.close();
+		
+		for(FakeKdbProcess server : servers)
+			server.close();
+	}
+	
+	// KdbReplicatedQuerySettings
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testSettingsThrowsExceptionIfSmoothingFactorNotPositive() {
+		new KdbReplicatedQuerySettings(0, Duration.standardSeconds(1));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testSettingsThrowsExceptionIfHedgePercentileTooHigh() {
+		new KdbReplicatedQuerySettings(0.5, 100, Duration.standardSeconds(1));
+	}
+	
+	// KdbReplicatedQuery.query
+	
+	@Test
+	public void testQueryPrefersFastestReplica() throws Exception {
+		KdbProcess slow = startServer("slow", 50);
+		KdbProcess fast = startServer("fast", 0);
+		
+		query = new KdbReplicatedQuery(pool, Arrays.asList(slow, fast), new KdbReplicatedQuerySettings(0.5, Duration.standardSeconds(10)));
+		
+		// Each replica is tried once before either has a latency estimate
+		query.query("a");
+		query.query("a");
+		
+		for(int count = 0; count < 5; count++)
+			assertThat(query.query("a"), is(equalTo((Object) "fast")));
+		
+		assertThat(query.getLatencyEstimateNanos(slow), is(greaterThan(query.getLatencyEstimateNanos(fast))));
+	}
+	
+	@Test
+	public void testQueryAvoidsUnhealthyReplica() throws Exception {
+		KdbProcess failed = startServer("failed", 0);
+		KdbProcess healthy = startServer("healthy", 0);
+		
+		servers.get(0).close();
+		
+		query = new KdbReplicatedQuery(pool, Arrays.asList(failed, healthy), new KdbReplicatedQuerySettings(0.5, Duration.standardMinutes(1)));
+		
+		try {
+			query.query("a");
+		} catch (QueryExecutionFailedException e) {}
+		
+		assertThat(query.isUnhealthy(failed), is(equalTo(true)));
+		
+		for(int count = 0; count < 5; count++)
+			assertThat(query.query("a"), is(equalTo((Object) "healthy")));
+	}
+	
+	@Test
+	public void testQueryReturnsHedgedResponseIfReplicaSlow() throws Exception {
+		KdbProcess primary = startServer("primary", 0);
+		KdbProcess secondary = startServer("secondary", 50);
+		
+		query = new KdbReplicatedQuery(pool, Arrays.asList(primary, secondary), new KdbReplicatedQuerySettings(0.2, 95, Duration.standardSeconds(10)));
+		
+		for(int count = 0; count < 30; count++)
+			query.query("a");
+		
+		long hedged = query.getHedgedCount();
+		long hedgeWins = query.getHedgeWinCount();
+		
+		delays.get(0).set(5000);
+		
+		long start = System.currentTimeMillis();
+		
+		assertThat(query.query("a"), is(equalTo((Object) "secondary")));
+		assertThat(System.currentTimeMillis() - start, is(lessThan(5000L)));
+		assertThat(query.getHedgedCount(), is(equalTo(hedged + 1)));
+		assertThat(query.getHedgeWinCount(), is(equalTo(hedgeWins + 1)));
+	}
+	
+	
+	/** Starts a fake kdb process that responds to every query with its name, after its delay */
+	private KdbProcess startServer(String name, long delayMillis) throws IOException {
+		AtomicLong delay = new AtomicLong(delayMillis);
+		
+		FakeKdbProcess server = new FakeKdbProcess((connection, message) -> {
+			Thread.sleep(delay.get());
+			connection.kr(name);
+		});
+		
+		servers.add(server);
+		delays.add(delay);
+		
+		return server.getProcess();
+	}
+}
@@ -0,0 +1,192 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.connection.KdbConnectionPool;
+import com.buabook.kdb.connection.KdbConnectionPoolSettings;
+import com.buabook.kdb.connection.KdbProcess;
+import com.buabook.kdb.exceptions.QueryExecutionFailedException;
+import com.buabook.kdb.exceptions.TableSchemaMismatchException;
+import com.buabook.kdb.query.KdbScatterGatherQuery;
+import com.buabook.kdb.query.KdbScatterGatherResult;
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+
+public class KdbScatterGatherQueryTest {
+	
+	private List<FakeKdbProcess> servers;
+	
+	private KdbConnectionPool pool;
+	
+	private KdbScatterGatherQuery query;
+	
+	
+	@Before
+	public void setUp() {
+		servers = new ArrayList<>();
+		pool = new KdbConnectionPool(new KdbConnectionPoolSettings(0, 4, Duration.standardSeconds(10), null));
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if(query != null)
+			query.close();
+		
+		pool.close();
+		
+		for(FakeKdbProcess server : servers)
+			server.close();
+	}
+	
+	// KdbScatterGatherQuery
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructorThrowsExceptionIfNoTargets() {
+		new KdbScatterGatherQuery(pool, new ArrayList<>(), Duration.standardSeconds(1));
+	}
+	
+	// KdbScatterGatherQuery.query
+	
+	@Test
+	public void testQueryAppendsTablesInTargetOrder() throws Exception {
+		KdbProcess first = startServer(getTable(new long[] { 3, 4 }, "a", "b"), 0);
+		KdbProcess second = startServer(getTable(new long[] { 1, 2 }, "c", "d"), 0);
+		
+		query = new KdbScatterGatherQuery(pool, Arrays.asList(first, second), Duration.standardSeconds(10));
+		
+		Flip table = (Flip) query.query("select from trade");
+		
+		assertThat(table.at("time"), is(equalTo((Object) new long[] { 3, 4, 1, 2 })));
+		assertThat(table.at("sym"), is(equalTo((Object) new String[] { "a", "b", "c", "d" })));
+	}
+	
+	@Test(expected=QueryExecutionFailedException.class)
+	public void testQueryThrowsExceptionIfAnyTargetFails() throws Exception {
+		KdbProcess first = startServer(getTable(new long[] { 1 }, "a"), 0);
+		KdbProcess second = startServer(null, 0);
+		
+		query = new KdbScatterGatherQuery(pool, Arrays.asList(first, second), Duration.standardSeconds(10));
+		query.query("select from trade");
+	}
+	
+	// KdbScatterGatherQuery.scatter
+	
+	@Test
+	public void testScatterMergesBySortColumn() throws Exception {
+		KdbProcess first = startServer(getTable(new long[] { 1, 2, 5, 6 }, "a", "b", "e", "f"), 0);
+		KdbProcess second = startServer(getTable(new long[] { 3, 4, 5 }, "c", "d", "g"), 0);
+		KdbProcess third = startServer(getTable(new long[0]), 0);
+		
+		query = new KdbScatterGatherQuery(pool, Arrays.asList(first, second, third), Duration.standardSeconds(10));
+		
+		KdbScatterGatherResult result = query.scatter("select from trade", null, "time");
+		
+		assertThat(result.isComplete(), is(equalTo(true)));
+		assertThat(result.getTable().getLongColumn("time").toArray(), is(equalTo(new Object[] { 1L, 2L, 3L, 4L, 5L, 5L, 6L })));
+		assertThat(result.getTable().getSymbolColumn("sym").toArray(), is(equalTo(new Object[] { "a", "b", "c", "d", "e", "g", "f" })));
+	}
+	
+	@Test
+	public void testScatterMergesNullsFirst() throws Exception {
+		KdbProcess first = startServer(new Flip(new Dict(new String[] { "price" }, new Object[] { new double[] { 1.5, 2.5 } })), 0);
+		KdbProcess second = startServer(new Flip(new Dict(new String[] { "price" }, new Object[] { new double[] { Double.NaN, 2 } })), 0);
+		
+		query = new KdbScatterGatherQuery(pool, Arrays.asList(first, second), Duration.standardSeconds(10));
+		
+		KdbScatterGatherResult result = query.scatter("select from trade", null, "price");
+		
+		assertThat(result.getTable().getDoubleColumn("price").toArray(), is(equalTo(new Object[] { Double.NaN, 1.5, 2d, 2.5 })));
+	}
+	
+	@Test
+	public void testScatterReturnsPartialResultOnFailure() throws Exception {
+		KdbProcess first = startServer(getTable(new long[] { 1 }, "a"), 0);
+		KdbProcess second = startServer(null, 0);
+		
+		query = new KdbScatterGatherQuery(pool, Arrays.asList(first, second), Duration.standardSeconds(10));
+		
+		KdbScatterGatherResult result = query.scatter("select from trade", null);
+		
+		assertThat(result.isComplete(), is(equalTo(false)));
+		assertThat(result.getFailures().keySet(), contains(second));
+		assertThat(result.getTable().getRowCount(), is(equalTo(1)));
+	}
+	
+	@Test
+	public void testScatterReportsTimedOutTarget() throws Exception {
+		KdbProcess first = startServer(getTable(new long[] { 1 }, "a"), 0);
+		KdbProcess second = startServer(getTable(new long[] { 2 }, "b"), 5000);
+		
+		Map<KdbProcess, Duration> timeouts = new LinkedHashMap<>();
+		timeouts.put(first, Duration.standardSeconds(10));
+		timeouts.put(second, Duration.millis(100));
+		
+		query = new KdbScatterGatherQuery(pool, timeouts);
+		
+		long start = System.currentTimeMillis();
+		KdbScatterGatherResult result = query.scatter("select from trade", null);
+		
+		assertThat(System.currentTimeMillis() - start, is(lessThan(5000L)));
+		assertThat(result.getFailures().get(second).getCause(), is(instanceOf(TimeoutException.class)));
+		assertThat(result.getTable().getSymbolColumn("sym").toArray(), is(equalTo(new Object[] { "a" })));
+	}
+	
+	@Test
+	public void testScatterReportsTargetNotReturningTable() throws Exception {
+		KdbProcess first = startServer(getTable(new long[] { 1 }, "a"), 0);
+		KdbProcess second = startServer(new long[] { 1 }, 0);
+		
+		query = new KdbScatterGatherQuery(pool, Arrays.asList(first, second), Duration.standardSeconds(10));
+		
+		assertThat(query.scatter("select from trade", null).getFailures().keySet(), contains(second));
+	}
+	
+	@Test(expected=TableSchemaMismatchException.class)
+	public void testScatterThrowsExceptionIfSchemasDiffer() throws Exception {
+		KdbProcess first = startServer(getTable(new long[] { 1 }, "a"), 0);
+		KdbProcess second = startServer(new Flip(new Dict(new String[] { "time" }, new Object[] { new long[] { 2 } })), 0);
+		
+		query = new KdbScatterGatherQuery(pool, Arrays.asList(first, second), Duration.standardSeconds(10));
+		query.scatter("select from trade", null);
+	}
+	
+	
+	/**
+	 * Starts a fake kdb process that responds to every query with the specified object after the specified delay
+	 * @param response The response, or <code>null</code> to fail every query
+	 */
+	private KdbProcess startServer(Object response, long delayMillis) throws IOException {
+		FakeKdbProcess server = new FakeKdbProcess((connection, message) -> {
+			Thread.sleep(delayMillis);
+			
+			if(response == null)
+				connection.ke("fail");
+			else
+				connection.kr(response);
+		});
+		
+		servers.add(server);
+		
+		return server.getProcess();
+	}
+	
+	private Flip getTable(long[] time, String... sym) {
+		return new Flip(new Dict(new String[] { "time", "sym" }, new Object[] { time, sym }));
+	}
+}
@@ -0,0 +1,89 @@
+package com.buabook.kdb.query.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.exceptions.QueryTimeoutException;
+import com.buabook.kdb.query.KdbSyncQuery;
+import com.buabook.kdb.test.FakeKdbProcess;
+
+public class KdbSyncQueryTest {
+	
+	/** The time the fake kdb process takes to answer the <code>slow</code> query */
+	private static final long SLOW_QUERY_TIME_MS = 500;
+	
+	
+	private FakeKdbProcess server;
+	
+	private KdbSyncQuery query;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		server = new FakeKdbProcess((connection, received) -> {
+			if(new String((char[]) received).equals("slow"))
+				Thread.sleep(SLOW_QUERY_TIME_MS);
+			
+			connection.kr(received);
+		});
+		
+		query = new KdbSyncQuery(server.getProcess());
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		query.close();
+		server.close();
+	}
+	
+	// KdbSyncQuery.query
+	
+	@Test
+	public void testQueryWithTimeoutThrowsExceptionAndReconnectsOnNextQuery() throws Exception {
+		try {
+			query.query("slow", null, Duration.millis(50));
+			throw new AssertionError("Expected QueryTimeoutException");
+		} catch (QueryTimeoutException e) {}
+		
+		assertThat(new String((char[]) query.query("fast")), is(equalTo("fast")));
+	}
+	
+	@Test(expected=QueryTimeoutException.class)
+	public void testQueryThrowsExceptionWhenDefaultReadTimeoutExceeded() throws Exception {
+		query.setDefaultReadTimeout(Duration.millis(50));
+		query.query("slow");
+	}
+	
+	@Test
+	public void testQueryWithTimeoutOverridesDefaultReadTimeout() throws Exception {
+		query.setDefaultReadTimeout(Duration.millis(50));
+		
+		assertThat(new String((char[]) query.query("slow", null, Duration.standardSeconds(10))), is(equalTo("slow")));
+		assertThat(query.getDefaultReadTimeout(), is(equalTo(Duration.millis(50))));
+	}
+	
+	@Test
+	public void testSetDefaultReadTimeoutIsRetainedAcrossReconnect() throws Exception {
+		query.setDefaultReadTimeout(Duration.millis(50));
+		
+		try {
+			query.query("slow");
+		} catch (QueryTimeoutException e) {}
+		
+		long start = System.currentTimeMillis();
+		
+		try {
+			query.query("slow");
+			throw new AssertionError("Expected QueryTimeoutException");
+		} catch (QueryTimeoutException e) {}
+		
+		assertThat(System.currentTimeMillis() - start, is(lessThan(SLOW_QUERY_TIME_MS)));
+	}
+}
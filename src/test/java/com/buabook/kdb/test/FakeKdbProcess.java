@@ -0,0 +1,98 @@
+package com.buabook.kdb.test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.buabook.kdb.connection.KdbProcess;
+import com.kx.c;
+
+/**
+ * <h3>Fake kdb Process for Tests</h3>
+ * <p>Accepts kdb IPC connections on a free local port and passes each message received to a handler, on a separate reader
+ * thread for each connection. The handler replies, if required, through the connection.</p>
+ * <p>If the handler throws, the connection is no longer read. Closing the process closes the listening socket and every
+ * accepted connection.</p>
+ * (c) 2026 Sport Trades Ltd
+ *
+ * @author Jas Rajasansir
+ * @version 1.0.0
+ * @since 17 Oct 2026
+ */
+public class FakeKdbProcess implements Closeable {
+	
+	/** Receives the messages sent to the fake kdb process */
+	@FunctionalInterface
+	public interface IMessageHandler {
+		/** Called on the reader thread of the connection the message was received on */
+		public void onMessage(c connection, Object message) throws Exception;
+	}
+	
+	
+	private final ServerSocket serverSocket;
+	
+	private final IMessageHandler handler;
+	
+	private final List<c> connections;
+	
+	
+	public FakeKdbProcess(IMessageHandler handler) throws IOException {
+		this.serverSocket = new ServerSocket(0);
+		this.handler = handler;
+		this.connections = new ArrayList<>();
+		
+		Thread acceptor = new Thread(this::accept, "FakeKdbProcess-" + getPort());
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+	
+	
+	/** @return A process that replies to every synchronous message with the message itself */
+	public static FakeKdbProcess echo() throws IOException {
+		return new FakeKdbProcess((connection, message) -> connection.kr(message));
+	}
+	
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+	
+	public KdbProcess getProcess() {
+		return new KdbProcess("localhost", getPort());
+	}
+	
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		
+		synchronized (connections) {
+			for(c connection : connections)
+				connection.close();
+		}
+	}
+	
+	
+	private void accept() {
+		try {
+			while(true) {
+				c connection = new c(serverSocket);
+				
+				synchronized (connections) {
+					connections.add(connection);
+				}
+				
+				Thread reader = new Thread(() -> read(connection), "FakeKdbProcess-" + getPort() + "-Reader");
+				reader.setDaemon(true);
+				reader.start();
+			}
+		} catch (IOException e) {}
+	}
+	
+	private void read(c connection) {
+		try {
+			while(true)
+				handler.onMessage(connection, connection.k());
+		} catch (Exception e) {}
+	}
+}
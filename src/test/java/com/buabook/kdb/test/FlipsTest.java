@@ -8,12 +8,17 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 
+import java.io.IOException;
+
 import org.junit.Test;
 
 import com.buabook.kdb.Flips;
 import com.buabook.kdb.data.KdbTable;
+import com.kx.c;
 import com.kx.c.Dict;
 import com.kx.c.Flip;
+import com.kx.c.KException;
+import com.kx.c.LazyFlip;
 
 public class FlipsTest {
 
@@ -36,6 +41,25 @@ public class FlipsTest {
 		assertThat(Flips.getRowCount(getTable()), is(equalTo(3)));
 	}
 	
+	@Test
+	public void testGetRowCountReturnsRowCountForTypedColumn() {
+		Flip table = new Flip(new Dict(new String[] { "size" }, new Object[] { new long[] { 1, 2 } }));
+		
+		assertThat(Flips.getRowCount(table), is(equalTo(2)));
+	}
+	
+	@Test
+	public void testGetRowCountReturnsRowCountOfLazyFlipWithoutDecoding() throws IOException, KException {
+		c decoder = c.codec();
+		decoder.lazy(true);
+		
+		Flip table = new Flip(new Dict(new String[] { "size" }, new Object[] { new long[] { 1, 2 } }));
+		LazyFlip lazy = (LazyFlip) decoder.deserialize(c.codec().serialize(1, table, false));
+		
+		assertThat(Flips.getRowCount(lazy), is(equalTo(2)));
+		assertThat(lazy.decoded(0), is(equalTo(false)));
+	}
+	
 	// Flips.getColumn
 	
 	@Test
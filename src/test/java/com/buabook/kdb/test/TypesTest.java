@@ -1,5 +1,8 @@
 package com.buabook.kdb.test;
 
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
 import org.junit.Test;
 
 import com.buabook.kdb.Types;
@@ -12,5 +15,19 @@ public class TypesTest {
 	public void testConstructorConstructsWithoutError() {
 		new Types();
 	}
+	
+	// Types.getKdbVectorTypeFor
+	
+	@Test
+	public void testGetKdbVectorTypeForReturnsPrimitiveTypeForBoxedType() {
+		assertThat(Types.getKdbVectorTypeFor(Long.class), is(equalTo((Object) long.class)));
+		assertThat(Types.getKdbVectorTypeFor(String.class), is(equalTo((Object) String.class)));
+	}
+	
+	@Test
+	public void testGetKdbVectorTypeForReturnsNullForGeneralListTypes() {
+		assertThat(Types.getKdbVectorTypeFor(char[].class), is(nullValue()));
+		assertThat(Types.getKdbVectorTypeFor(Object.class), is(nullValue()));
+	}
 
 }
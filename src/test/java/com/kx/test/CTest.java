@@ -0,0 +1,270 @@
+package com.kx.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.c;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+import com.kx.c.KException;
+import com.kx.c.LazyFlip;
+
+public class CTest {
+	
+	private FakeKdbProcess server;
+	
+	private BlockingQueue<Object> received;
+	
+	private c client;
+	
+	
+	@Before
+	public void setUp() throws IOException, KException, InterruptedException {
+		received = new ArrayBlockingQueue<>(10000);
+		server = new FakeKdbProcess((connection, message) -> received.put(message));
+		
+		client = new c("localhost", server.getPort(), "user");
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		client.close();
+		server.close();
+	}
+	
+	// c.ks
+	
+	@Test
+	public void testKsReusesSendBufferForRepeatedPublishesOfSameSize() throws IOException, InterruptedException {
+		client.ks(".u.upd", "trade", getTable());
+		int allocationsAfterFirstPublish = client.sendBufferAllocations();
+		
+		for(int i = 0; i < 1000; i++)
+			client.ks(".u.upd", "trade", getTable());
+		
+		assertThat(allocationsAfterFirstPublish, is(equalTo(1)));
+		assertThat(client.sendBufferAllocations(), is(equalTo(allocationsAfterFirstPublish)));
+		
+		for(int i = 0; i < 1001; i++)
+			assertThat(received.poll(5, TimeUnit.SECONDS), is(instanceOf(Object[].class)));
+	}
+	
+	@Test
+	public void testKsGrowsSendBufferForLargerMessage() throws IOException, InterruptedException {
+		client.ks(".u.upd", "trade", getTable());
+		client.ks(".u.upd", "trade", new Flip(new Dict(new String[] { "price" }, new Object[] { new double[1000] })));
+		
+		assertThat(client.sendBufferAllocations(), is(greaterThan(1)));
+		
+		received.poll(5, TimeUnit.SECONDS);
+		Object[] update = (Object[]) received.poll(5, TimeUnit.SECONDS);
+		
+		assertThat(((double[]) ((Flip) update[2]).y[0]).length, is(equalTo(1000)));
+	}
+	
+	@Test
+	public void testKsSendsSmallerMessageFromLargerReusedBuffer() throws IOException, InterruptedException {
+		client.ks(".u.upd", "trade", new Flip(new Dict(new String[] { "price" }, new Object[] { new double[1000] })));
+		int allocationsAfterLargePublish = client.sendBufferAllocations();
+		
+		client.ks(".u.upd", "trade", getTable());
+		
+		received.poll(5, TimeUnit.SECONDS);
+		Object[] update = (Object[]) received.poll(5, TimeUnit.SECONDS);
+		Flip table = (Flip) update[2];
+		
+		assertThat(client.sendBufferAllocations(), is(equalTo(allocationsAfterLargePublish)));
+		assertThat(update[1], is(equalTo("trade")));
+		assertThat(table.x, is(arrayContaining("sym", "price", "size")));
+		assertThat((String[]) table.y[0], is(arrayContaining("VOD.L", "BARC.L", "HSBA.L")));
+	}
+	
+	@Test
+	public void testKsTruncatesSymbolsAtNullCharacter() throws IOException, InterruptedException {
+		client.ks(".u.upd", "trade\000ignored", getTable());
+		
+		Object[] update = (Object[]) received.poll(5, TimeUnit.SECONDS);
+		
+		assertThat(update[1], is(equalTo("trade")));
+	}
+	
+	@Test
+	public void testKsSendsMultiByteSymbols() throws IOException, InterruptedException {
+		client.ks(".u.upd", "tr\u00e4de", new Flip(new Dict(new String[] { "sym" }, new Object[] { new String[] { "\u00fc\u00f1\u00ee", "" } })));
+		
+		Object[] update = (Object[]) received.poll(5, TimeUnit.SECONDS);
+		
+		assertThat(update[1], is(equalTo("tr\u00e4de")));
+		assertThat((String[]) ((Flip) update[2]).y[0], is(arrayContaining("\u00fc\u00f1\u00ee", "")));
+	}
+	
+	// c.serialize
+	
+	@Test
+	public void testSerializeWritesMessageLengthIntoHeader() throws IOException {
+		byte[] message = client.serialize(0, new Object[] { ".u.upd".toCharArray(), "trade", getTable() }, false);
+		
+		int length = ((message[4] & 0xff) << 24) | ((message[5] & 0xff) << 16) | ((message[6] & 0xff) << 8) | (message[7] & 0xff);
+		
+		assertThat(length, is(equalTo(message.length)));
+		assertThat(message[1], is(equalTo((byte) 0)));
+	}
+	
+	@Test
+	public void testSerializeMatchesPrecomputedMessageSize() throws IOException {
+		Object[] update = new Object[] { ".u.upd".toCharArray(), "trade", getTable() };
+		
+		assertThat(client.serialize(1, update, false).length, is(equalTo(8 + client.nx(update))));
+	}
+	
+	// c.deserialize
+	
+	@Test
+	public void testDeserializeDecodesSerializedMessage() throws IOException, KException {
+		Flip table = (Flip) c.codec().deserialize(client.serialize(1, getTable(), false));
+		
+		assertThat(table, is(not(instanceOf(LazyFlip.class))));
+		assertThat(table.x, is(arrayContaining("sym", "price", "size")));
+		assertThat(((double[]) table.y[1])[1], is(equalTo(1.1)));
+	}
+	
+	@Test(expected=KException.class)
+	public void testDeserializeThrowsKExceptionForErrorMessage() throws IOException, KException {
+		byte[] error = { 0, 2, 0, 0, 0, 0, 0, 15, -128, 'e', 'r', 'r', 'o', 'r', 0 };
+		c.codec().deserialize(error);
+	}
+	
+	// c.td
+	
+	@Test
+	public void testTdDecodesKeyedLazyTable() throws IOException, KException {
+		Flip keys = new Flip(new Dict(new String[] { "id" }, new Object[] { new long[] { 1, 2, 3 } }));
+		Dict keyed = (Dict) getLazyDecoder().deserialize(client.serialize(1, new Dict(keys, getTable()), false));
+		
+		Flip table = c.td(keyed);
+		
+		assertThat(table.x, is(arrayContaining("id", "sym", "price", "size")));
+		assertThat((long[]) table.y[0], is(equalTo(new long[] { 1, 2, 3 })));
+		assertThat((String[]) table.y[1], is(arrayContaining("VOD.L", "BARC.L", "HSBA.L")));
+		assertThat((long[]) table.y[3], is(equalTo(new long[] { 100, 200, 300 })));
+	}
+	
+	// c.lazy
+	
+	@Test
+	public void testLazyDecodesTableAsLazyFlipWithNoColumnsDecoded() throws IOException, KException {
+		LazyFlip table = (LazyFlip) getLazyDecoder().deserialize(client.serialize(1, getTable(), false));
+		
+		assertThat(table.x, is(arrayContaining("sym", "price", "size")));
+		assertThat(table.decoded(0), is(equalTo(false)));
+		assertThat(table.decoded(1), is(equalTo(false)));
+		assertThat(table.decoded(2), is(equalTo(false)));
+		assertThat(table.n(0), is(equalTo(3)));
+	}
+	
+	@Test
+	public void testLazyDecodesOnlyAccessedColumn() throws IOException, KException {
+		LazyFlip table = (LazyFlip) getLazyDecoder().deserialize(client.serialize(1, getTable(), false));
+		
+		assertThat((long[]) table.at("size"), is(equalTo(new long[] { 100, 200, 300 })));
+		assertThat(table.decoded(0), is(equalTo(false)));
+		assertThat(table.decoded(2), is(equalTo(true)));
+	}
+	
+	@Test
+	public void testLazyDecodesAllColumnTypesAtTheCorrectOffsets() throws IOException, KException {
+		String[] keys = { "sym", "str", "nested", "ts", "price", "flag", "guid", "chr" };
+		Object[] cols = { 
+				new String[] { "a", "bb" },
+				new Object[] { "abc".toCharArray(), "".toCharArray() },
+				new Object[] { new long[] { 1, 2 }, new Object[] { "x", 1.0 } },
+				new Timestamp[] { new Timestamp(0), new Timestamp(1000) },
+				new double[] { 1.5, 2.5 },
+				new boolean[] { true, false },
+				new UUID[] { new UUID(1, 2), new UUID(3, 4) },
+				new char[] { 'x', 'y' }
+		};
+		
+		LazyFlip table = (LazyFlip) getLazyDecoder().deserialize(client.serialize(1, new Flip(new Dict(keys, cols)), false));
+		
+		assertThat((char[]) table.at("chr"), is(equalTo(new char[] { 'x', 'y' })));
+		assertThat((UUID[]) table.at("guid"), is(arrayContaining(new UUID(1, 2), new UUID(3, 4))));
+		assertThat((boolean[]) table.at("flag"), is(equalTo(new boolean[] { true, false })));
+		assertThat((double[]) table.at("price"), is(equalTo(new double[] { 1.5, 2.5 })));
+		assertThat(((Timestamp[]) table.at("ts")).length, is(equalTo(2)));
+		assertThat(((Object[]) table.at("nested"))[1], is(instanceOf(Object[].class)));
+		assertThat(new String((char[]) ((Object[]) table.at("str"))[0]), is(equalTo("abc")));
+		assertThat((String[]) table.at("sym"), is(arrayContaining("a", "bb")));
+	}
+	
+	@Test
+	public void testLazyDecodeReturnsFullyDecodedFlip() throws IOException, KException {
+		Flip table = ((LazyFlip) getLazyDecoder().deserialize(client.serialize(1, getTable(), false))).decode();
+		
+		assertThat((String[]) table.y[0], is(arrayContaining("VOD.L", "BARC.L", "HSBA.L")));
+		assertThat((double[]) table.y[1], is(equalTo(new double[] { 1.0, 1.1, 1.2 })));
+		assertThat((long[]) table.y[2], is(equalTo(new long[] { 100, 200, 300 })));
+	}
+	
+	@Test
+	public void testLazyDecodesTablesNestedInUpdateMessage() throws IOException, KException {
+		Object[] update = (Object[]) getLazyDecoder().deserialize(client.serialize(0, new Object[] { ".u.upd".toCharArray(), "trade", getTable() }, false));
+		
+		assertThat(update[1], is(equalTo("trade")));
+		assertThat(update[2], is(instanceOf(LazyFlip.class)));
+		assertThat((String[]) ((LazyFlip) update[2]).col(0), is(arrayContaining("VOD.L", "BARC.L", "HSBA.L")));
+	}
+	
+	@Test
+	public void testLazyFlipCanBeSerializedWithoutAccessingColumns() throws IOException, KException {
+		LazyFlip table = (LazyFlip) getLazyDecoder().deserialize(client.serialize(1, getTable(), false));
+		
+		Flip roundTrip = (Flip) c.codec().deserialize(client.serialize(1, table, false));
+		
+		assertThat(roundTrip.x, is(arrayContaining("sym", "price", "size")));
+		assertThat((String[]) roundTrip.y[0], is(arrayContaining("VOD.L", "BARC.L", "HSBA.L")));
+		assertThat((double[]) roundTrip.y[1], is(equalTo(new double[] { 1.0, 1.1, 1.2 })));
+		assertThat((long[]) roundTrip.y[2], is(equalTo(new long[] { 100, 200, 300 })));
+	}
+	
+	@Test
+	public void testLazyFlipCanBeSentInUpdateMessage() throws IOException, KException {
+		LazyFlip table = (LazyFlip) getLazyDecoder().deserialize(client.serialize(1, getTable(), false));
+		byte[] message = client.serialize(0, new Object[] { ".u.upd".toCharArray(), "trade", table }, false);
+		
+		assertThat(message.length, is(equalTo(8 + client.nx(new Object[] { ".u.upd".toCharArray(), "trade", getTable() }))));
+		assertThat(c.n(table), is(equalTo(3)));
+	}
+	
+	
+	private c getLazyDecoder() {
+		c decoder = c.codec();
+		decoder.lazy(true);
+		
+		return decoder;
+	}
+	
+	private Flip getTable() {
+		String[] keys = { "sym", "price", "size" };
+		
+		String[] col1 = { "VOD.L", "BARC.L", "HSBA.L" };
+		double[] col2 = { 1.0, 1.1, 1.2 };
+		long[] col3 = { 100, 200, 300 };
+		
+		Object[] cols = { col1, col2, col3 };
+		
+		return new Flip(new Dict(keys, cols));
+	}
+}
@@ -0,0 +1,166 @@
+package com.kx.test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.buabook.kdb.test.FakeKdbProcess;
+import com.kx.NioC;
+import com.kx.c.Dict;
+import com.kx.c.Flip;
+import com.kx.c.KException;
+import com.kx.c.LazyFlip;
+
+public class NioCTest {
+	
+	private FakeKdbProcess server;
+	
+	private BlockingQueue<Object> received;
+	
+	private NioC client;
+	
+	
+	@Before
+	public void setUp() throws IOException, KException {
+		received = new ArrayBlockingQueue<>(100);
+		
+		server = new FakeKdbProcess((connection, message) -> {
+			received.put(message);
+			
+			try {
+				if(message instanceof char[] && new String((char[]) message).equals("error"))
+					connection.ke("boom");
+				else
+					connection.kr(message);
+			} catch (IOException e) {
+				// Asynchronous messages do not get a response
+			}
+		});
+		
+		client = new NioC("localhost", server.getPort(), "user");
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		client.close();
+		server.close();
+	}
+	
+	// NioC(String, int, String)
+	
+	@Test
+	public void testConstructorConnectsAndNegotiatesProtocolVersion() {
+		assertThat(client.s, is(not(nullValue())));
+		assertThat(client.s.isConnected(), is(equalTo(true)));
+	}
+	
+	@Test(expected=IOException.class)
+	public void testConstructorThrowsExceptionIfCannotConnectToProcess() throws KException, IOException {
+		new NioC("localhost", 1, "user");
+	}
+	
+	// NioC.k
+	
+	@Test
+	public void testKReturnsSynchronousResponse() throws KException, IOException {
+		Object result = client.k("a-query");
+		
+		assertThat(new String((char[]) result), is(equalTo("a-query")));
+	}
+	
+	@Test
+	public void testKDecodesTableResponse() throws KException, IOException {
+		Flip result = (Flip) client.k(getTable());
+		
+		assertThat(result.x, is(arrayContaining("sym", "price", "size")));
+		assertThat((String[]) result.y[0], is(arrayContaining("VOD.L", "BARC.L", "HSBA.L")));
+		assertThat(((long[]) result.y[2])[2], is(equalTo(300l)));
+	}
+	
+	@Test
+	public void testKGrowsReceiveBufferForLargeMessagesAndContinuesWithSmallMessages() throws KException, IOException {
+		double[] large = new double[100000];
+		Arrays.fill(large, 1.5);
+		
+		double[] largeResult = (double[]) client.k(large);
+		Object smallResult = client.k("small");
+		
+		assertThat(largeResult.length, is(equalTo(100000)));
+		assertThat(largeResult[99999], is(equalTo(1.5)));
+		assertThat(new String((char[]) smallResult), is(equalTo("small")));
+	}
+	
+	@Test
+	public void testKThrowsKExceptionOnErrorResponse() throws IOException {
+		try {
+			client.k("error");
+		} catch (KException e) {
+			assertThat(e.getMessage(), is(equalTo("boom")));
+			return;
+		}
+		
+		throw new AssertionError("KException was not thrown");
+	}
+	
+	@Test
+	public void testKLazyTableIsNotOverwrittenByNextMessage() throws KException, IOException {
+		client.lazy(true);
+		
+		LazyFlip result = (LazyFlip) client.k(getTable());
+		client.k(new String[] { "overwrite", "the", "receive", "buffer" });
+		
+		assertThat((String[]) result.col(0), is(arrayContaining("VOD.L", "BARC.L", "HSBA.L")));
+		assertThat((long[]) result.col(2), is(equalTo(new long[] { 100, 200, 300 })));
+	}
+	
+	// NioC.ks
+	
+	@Test
+	public void testKsSendsAsynchronousMessage() throws IOException, InterruptedException {
+		client.ks(".u.upd", "trade", getTable());
+		
+		Object[] update = (Object[]) received.poll(5, TimeUnit.SECONDS);
+		
+		assertThat(new String((char[]) update[0]), is(equalTo(".u.upd")));
+		assertThat(update[1], is(equalTo("trade")));
+		assertThat(update[2], is(instanceOf(Flip.class)));
+	}
+	
+	@Test(expected=SocketTimeoutException.class)
+	public void testKThrowsExceptionWhenReadTimeoutExceeded() throws KException, IOException {
+		client.s.setSoTimeout(50);
+		client.k();
+	}
+	
+	// NioC.close
+	
+	@Test
+	public void testCloseClosesChannel() throws IOException {
+		client.close();
+		
+		assertThat(client.s, is(nullValue()));
+	}
+	
+	
+	private Flip getTable() {
+		String[] keys = { "sym", "price", "size" };
+		
+		String[] col1 = { "VOD.L", "BARC.L", "HSBA.L" };
+		double[] col2 = { 1.0, 1.1, 1.2 };
+		long[] col3 = { 100, 200, 300 };
+		
+		Object[] cols = { col1, col2, col3 };
+		
+		return new Flip(new Dict(keys, cols));
+	}
+}